@@ -0,0 +1,98 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.knowledge.SemanticRelationType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Provides the sample inputs of the benchmarks.
+ * Texts are read from the checked-in corpora in {@code src/jmh/resources/corpus}; knowledge
+ * bases are generated on the fly, so that their size can be a benchmark parameter.
+ */
+final class Corpus {
+
+  /**
+   * Seed used to generate the knowledge bases, so that every run sees the same graph.
+   */
+  static final long SEED = 42;
+
+  /**
+   * Relations used to generate the knowledge bases.
+   */
+  private static final SemanticRelationType[] RELATIONS = {
+    SemanticRelationType.IS_A, SemanticRelationType.HYPERNYM, SemanticRelationType.REGION,
+    SemanticRelationType.SIMILAR_TO, SemanticRelationType.IS_PERSON
+  };
+
+  /**
+   * Private constructor.
+   */
+  private Corpus() {}
+
+  /**
+   * Loads a sample corpus.
+   * @param  name
+   *         the name of the corpus: {@code short}, {@code medium} or {@code long}
+   * @return  a List containing the lines of the corpus
+   * @throws IOException if the corpus does not exist
+   */
+  static List<String> load(String name) throws IOException {
+    List<String> lines = new ArrayList<>();
+    InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".txt");
+    if (in == null) {
+      throw new IOException("Unknown corpus " + name);
+    }
+    try (BufferedReader reader =
+             new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          lines.add(line);
+        }
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Generates a knowledge base in the Semantic Network file format.
+   * Concepts are named {@code concept_0}, {@code concept_1}, and so on.
+   * @param  edges
+   *         the number of edges of the knowledge base
+   * @return  the path of the generated temporary file
+   * @throws IOException if the file cannot be written
+   */
+  static Path knowledgeBase(int edges) throws IOException {
+    Random random = new Random(SEED);
+    int concepts = concepts(edges);
+    List<String> lines = new ArrayList<>(edges);
+    for (int i = 0; i < edges; i++) {
+      int source = i % concepts;
+      int target = random.nextInt(concepts);
+      lines.add("concept_" + source + "," + RELATIONS[random.nextInt(RELATIONS.length)]
+          + ",concept_" + target + "," + random.nextInt(100));
+    }
+    Path path = Files.createTempFile("curiosone-kb-" + edges + "-", ".txt");
+    Files.write(path, lines, StandardCharsets.UTF_8);
+    return path;
+  }
+
+  /**
+   * Gets the number of concepts of a generated knowledge base.
+   * @param  edges
+   *         the number of edges of the knowledge base
+   * @return  the number of concepts of the knowledge base
+   */
+  static int concepts(int edges) {
+    return Math.max(2, edges / 4);
+  }
+}
@@ -0,0 +1,141 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH runs saved in JSON format and flags the regressions.
+ * A benchmark regresses when its throughput drops (or its time grows) by more than the threshold,
+ * or when it allocates more than the threshold per operation, as measured by the GC profiler.
+ * Usage: {@code JmhCompare <baseline.json> <current.json> [threshold]}. Exits with status 1 if
+ * any regression has been found.
+ */
+public class JmhCompare {
+
+  /**
+   * Name of the secondary metric reporting the bytes allocated per operation.
+   */
+  private static final String ALLOCATION = "\u00b7gc.alloc.rate.norm";
+
+  /**
+   * Allocation differences below this number of bytes per operation are ignored as noise.
+   */
+  private static final double MIN_ALLOCATION_DELTA = 16;
+
+  /**
+   * Runs the comparison.
+   * @param  args
+   *         the baseline results, the current results and the optional threshold
+   * @throws IOException if the results cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: JmhCompare <baseline.json> <current.json> [threshold]");
+      System.exit(2);
+    }
+    Map<String, JsonObject> baseline = read(args[0]);
+    Map<String, JsonObject> current = read(args[1]);
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+    int regressions = 0;
+    for (Map.Entry<String, JsonObject> entry : current.entrySet()) {
+      JsonObject before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.println("NEW        " + entry.getKey());
+        continue;
+      }
+      JsonObject after = entry.getValue();
+      double old = score(before);
+      double now = score(after);
+      double change = old == 0 ? 0 : (now - old) / old;
+      boolean higherIsBetter = "thrpt".equals(after.get("mode").getAsString());
+      boolean slower = higherIsBetter ? change < -threshold : change > threshold;
+
+      double oldAlloc = allocation(before);
+      double nowAlloc = allocation(after);
+      boolean heavier = oldAlloc >= 0 && nowAlloc >= 0
+          && nowAlloc - oldAlloc > Math.max(MIN_ALLOCATION_DELTA, oldAlloc * threshold);
+
+      String status = slower || heavier ? "REGRESSION" : "ok        ";
+      if (slower || heavier) {
+        regressions++;
+      }
+      System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)", status, entry.getKey(), old, now,
+          after.getAsJsonObject("primaryMetric").get("scoreUnit").getAsString(), change * 100);
+      if (oldAlloc >= 0 && nowAlloc >= 0) {
+        System.out.printf(", alloc %.0f -> %.0f B/op", oldAlloc, nowAlloc);
+      }
+      System.out.println();
+    }
+    for (String key : baseline.keySet()) {
+      if (!current.containsKey(key)) {
+        System.out.println("MISSING    " + key);
+      }
+    }
+    System.out.println(regressions + " regression(s) with a threshold of " + threshold * 100 + "%");
+    if (regressions > 0) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Reads a JMH JSON result file.
+   * @param  file
+   *         the path of the file
+   * @return  a Map from the name and the parameters of each benchmark to its result
+   * @throws IOException if the file cannot be read
+   */
+  private static Map<String, JsonObject> read(String file) throws IOException {
+    Map<String, JsonObject> results = new TreeMap<>();
+    try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+      JsonArray runs = new JsonParser().parse(reader).getAsJsonArray();
+      for (JsonElement run : runs) {
+        JsonObject result = run.getAsJsonObject();
+        StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+        if (result.has("params")) {
+          Map<String, String> params = new TreeMap<>();
+          for (Map.Entry<String, JsonElement> p : result.getAsJsonObject("params").entrySet()) {
+            params.put(p.getKey(), p.getValue().getAsString());
+          }
+          key.append(params);
+        }
+        results.put(key.toString(), result);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Gets the primary score of a benchmark.
+   * @param  result
+   *         the result of the benchmark
+   * @return  the primary score
+   */
+  private static double score(JsonObject result) {
+    return result.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+  }
+
+  /**
+   * Gets the bytes allocated per operation by a benchmark.
+   * @param  result
+   *         the result of the benchmark
+   * @return  the allocated bytes per operation, or -1 if the GC profiler was not enabled
+   */
+  private static double allocation(JsonObject result) {
+    JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+    if (secondary == null || !secondary.has(ALLOCATION)) {
+      return -1;
+    }
+    return secondary.getAsJsonObject(ALLOCATION).get("score").getAsDouble();
+  }
+}
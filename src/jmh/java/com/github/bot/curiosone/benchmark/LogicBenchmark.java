@@ -0,0 +1,88 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.extraction.Randomness;
+import com.github.bot.curiosone.core.workflow.Logic;
+import com.github.bot.curiosone.core.workflow.Message;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks Logic.talk end to end.
+ * With a cold cache every text is analysed from scratch; with a warm cache the analyses of the
+ * corpus are reused, and only the answers are computed.
+ * Note that answering questions updates the usage scores of the real Semantic Network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicBenchmark {
+
+  /**
+   * The corpus the texts are taken from.
+   */
+  @Param({"short", "medium", "long"})
+  public String length;
+
+  /**
+   * The state of the analyses cache.
+   */
+  @Param({"cold", "warm"})
+  public String cache;
+
+  /**
+   * The texts of the corpus.
+   */
+  private List<String> texts;
+
+  /**
+   * The index of the next text.
+   */
+  private int next;
+
+  /**
+   * Loads the corpus, seeds the random answers and configures the analyses cache.
+   * @throws IOException if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    texts = Corpus.load(length);
+    Randomness.setSeed(Corpus.SEED);
+    Logic.configureCache("warm".equals(cache) ? TimeUnit.HOURS.toMillis(1) : 0, 10_000);
+  }
+
+  /**
+   * Disables the analyses cache and the seed of the random answers.
+   */
+  @TearDown
+  public void tearDown() {
+    Logic.configureCache(0, 10_000);
+    Randomness.clearSeed();
+  }
+
+  /**
+   * Benchmarks Logic.talk on a text.
+   * @return  the answer to the text
+   */
+  @Benchmark
+  public Message talk() {
+    return Logic.talk(new Message(texts.get(next++ % texts.size()), "", ""));
+  }
+}
@@ -0,0 +1,122 @@
+package com.github.bot.curiosone.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares the HTTP API and the line-protocol server over the loopback interface.
+ * Both servers must already be running (e.g. {@code PORT=4567 LINE_PORT=4568}).
+ * Usage: {@code LoopbackBenchmark [httpPort] [linePort] [requests]}.
+ */
+public class LoopbackBenchmark {
+
+  /**
+   * Messages sent to the servers, in round robin.
+   */
+  private static final String[] MESSAGES = {"hi", "hello", "How old are you?", "What is a dog?"};
+
+  /**
+   * Runs the benchmark.
+   * @param  args
+   *         the HTTP port, the line port and the number of requests
+   * @throws IOException if a server cannot be reached
+   */
+  public static void main(String[] args) throws IOException {
+    int httpPort = args.length > 0 ? Integer.parseInt(args[0]) : 4567;
+    int linePort = args.length > 1 ? Integer.parseInt(args[1]) : 4568;
+    int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+    // Warm both paths up before measuring.
+    http(httpPort, requests / 10);
+    line(linePort, requests / 10);
+
+    long start = System.nanoTime();
+    http(httpPort, requests);
+    report("http", requests, System.nanoTime() - start);
+
+    start = System.nanoTime();
+    line(linePort, requests);
+    report("line", requests, System.nanoTime() - start);
+  }
+
+  /**
+   * Sends the requests to the HTTP API, one after another on keep-alive connections.
+   * @param  port
+   *         the port of the HTTP API
+   * @param  requests
+   *         the number of requests
+   * @throws IOException if the server cannot be reached
+   */
+  private static void http(int port, int requests) throws IOException {
+    URL url = new URL("http://127.0.0.1:" + port + "/talk");
+    for (int i = 0; i < requests; i++) {
+      HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+      conn.setRequestMethod("POST");
+      conn.setDoOutput(true);
+      String body = "{\"message\":\"" + MESSAGES[i % MESSAGES.length] + "\",\"scope\":\"\"}";
+      try (OutputStream out = conn.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+      try (InputStream in = conn.getInputStream()) {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) >= 0) {
+          continue;
+        }
+      }
+    }
+  }
+
+  /**
+   * Pipelines the requests to the line-protocol server on a single connection.
+   * @param  port
+   *         the port of the line-protocol server
+   * @param  requests
+   *         the number of requests
+   * @throws IOException if the server cannot be reached
+   */
+  private static void line(int port, int requests) throws IOException {
+    try (Socket socket = new Socket("127.0.0.1", port)) {
+      socket.setTcpNoDelay(true);
+      Thread writer = new Thread(() -> {
+        try {
+          OutputStream out = socket.getOutputStream();
+          for (int i = 0; i < requests; i++) {
+            out.write((MESSAGES[i % MESSAGES.length] + "\t\n").getBytes(StandardCharsets.UTF_8));
+          }
+          out.flush();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      });
+      writer.start();
+      BufferedReader in = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      for (int i = 0; i < requests; i++) {
+        if (in.readLine() == null) {
+          throw new IOException("Connection closed after " + i + " responses");
+        }
+      }
+    }
+  }
+
+  /**
+   * Prints the throughput and the mean latency of a run.
+   * @param  name
+   *         the name of the run
+   * @param  requests
+   *         the number of requests
+   * @param  elapsed
+   *         the duration of the run, in nanoseconds
+   */
+  private static void report(String name, int requests, long elapsed) {
+    System.out.printf("%s: %d requests in %d ms, %.0f req/s, %.1f us/req%n", name, requests,
+        elapsed / 1_000_000, requests * 1e9 / elapsed, elapsed / 1e3 / requests);
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.extraction.Conversation;
+import com.github.bot.curiosone.core.nlp.ParseTable;
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Sentence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the stages working on already tokenized Phrases: the CYK parsing, the extraction
+ * of the Sentences and the lookup of the conversational answers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  /**
+   * The corpus the texts are taken from.
+   */
+  @Param({"short", "medium", "long"})
+  public String length;
+
+  /**
+   * The tokenized Phrases of the corpus.
+   */
+  private List<Phrase> phrases;
+
+  /**
+   * The index of the next input.
+   */
+  private int next;
+
+  /**
+   * Tokenizes the corpus, so that tokenization is not measured.
+   * @throws IOException if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    phrases = new ArrayList<>();
+    for (String text : Corpus.load(length)) {
+      phrases.addAll(Phrase.extract(text));
+    }
+    Conversation.loadSentences();
+  }
+
+  /**
+   * Benchmarks the construction of the ParseTable of a Phrase.
+   * @return  the ParseTable of the Phrase
+   */
+  @Benchmark
+  public ParseTable parseTable() {
+    return new ParseTable(nextPhrase().getTokens());
+  }
+
+  /**
+   * Benchmarks Sentence.extract on a Phrase.
+   * @return  the Sentences of the Phrase
+   */
+  @Benchmark
+  public List<Sentence> extractSentences() {
+    return Sentence.extract(nextPhrase());
+  }
+
+  /**
+   * Benchmarks Conversation.getAnswer on a Phrase.
+   * @return  the conversational answer of the Phrase, if any
+   */
+  @Benchmark
+  public Object conversation() {
+    return Conversation.getAnswer(nextPhrase());
+  }
+
+  /**
+   * Gets the next Phrase of the corpus.
+   * @return  the next Phrase
+   */
+  private Phrase nextPhrase() {
+    return phrases.get(next++ % phrases.size());
+  }
+}
@@ -0,0 +1,111 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.knowledge.SemanticNetwork;
+import com.github.bot.curiosone.core.knowledge.SemanticRelationType;
+import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the Semantic Network lookups on knowledge bases of growing size.
+ * The knowledge bases are generated in temporary files, so that the usage scores written back by
+ * the lookups never touch the real one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticNetworkBenchmark {
+
+  /**
+   * The number of edges of the knowledge base.
+   */
+  @Param({"1000", "10000", "100000"})
+  public int edges;
+
+  /**
+   * The file of the generated knowledge base.
+   */
+  private Path path;
+
+  /**
+   * The Semantic Network backed by the generated knowledge base.
+   */
+  private SemanticNetwork network;
+
+  /**
+   * The number of concepts of the knowledge base.
+   */
+  private int concepts;
+
+  /**
+   * The index of the next concept.
+   */
+  private int next;
+
+  /**
+   * Generates and loads the knowledge base.
+   * @throws IOException if the knowledge base cannot be written
+   */
+  @Setup
+  public void setup() throws IOException {
+    path = Corpus.knowledgeBase(edges);
+    network = new SemanticNetwork(path);
+    concepts = Corpus.concepts(edges);
+  }
+
+  /**
+   * Deletes the generated knowledge base.
+   * @throws IOException if the knowledge base cannot be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  /**
+   * Benchmarks an IS_A lookup, including the update of the usage scores.
+   * @return  the strongest IS_A edge of the concept, if any
+   */
+  @Benchmark
+  public Optional<Edge> getAnswerByType() {
+    return network.getAnswer(nextConcept(), SemanticRelationType.IS_A);
+  }
+
+  /**
+   * Benchmarks a lookup of the strongest edge, which does not update the usage scores.
+   * @return  the strongest edge of the concept, if any
+   */
+  @Benchmark
+  public Optional<Edge> getAnswer() {
+    return network.getAnswer(nextConcept());
+  }
+
+  /**
+   * Gets the next concept of the knowledge base.
+   * @return  the name of the next concept
+   */
+  private String nextConcept() {
+    next = (next + 1) % concepts;
+    return "concept_" + next;
+  }
+}
@@ -0,0 +1,114 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.workflow.Message;
+import com.github.bot.curiosone.core.workflow.Session;
+import com.github.bot.curiosone.core.workflow.SessionStore;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load-tests the conversation SessionStore with up to a million live conversations.
+ * Every lookup hits a random conversation from several threads, as concurrent clients would.
+ * Run the main method to measure the retained heap per Session instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Threads(4)
+public class SessionStoreBenchmark {
+
+  /**
+   * The number of live conversations.
+   */
+  @Param({"10000", "1000000"})
+  public int sessions;
+
+  /**
+   * The store of the conversations.
+   */
+  private SessionStore store;
+
+  /**
+   * The IDs of the conversations.
+   */
+  private String[] ids;
+
+  /**
+   * Fills the store with the conversations, each one holding its own scope.
+   */
+  @Setup
+  public void setup() {
+    store = new SessionStore(TimeUnit.HOURS.toMillis(1), sessions);
+    ids = fill(store, sessions);
+  }
+
+  /**
+   * Looks up a random conversation.
+   * @return  the found Session
+   */
+  @Benchmark
+  public Session lookup() {
+    return store.get(ids[new SplittableRandom().nextInt(ids.length)]);
+  }
+
+  /**
+   * Looks up a new conversation, evicting the least recently used ones when the store is full.
+   * @return  the created Session
+   */
+  @Benchmark
+  public Session create() {
+    return store.get(Long.toHexString(new SplittableRandom().nextLong()));
+  }
+
+  /**
+   * Creates the given number of conversations, each one holding its own scope.
+   * @param  store
+   *         the store to be filled
+   * @param  count
+   *         the number of conversations
+   * @return  the IDs of the conversations
+   */
+  private static String[] fill(SessionStore store, int count) {
+    String[] ids = new String[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = Long.toHexString(Corpus.SEED * 31 + i);
+      store.get(ids[i]).record(new Message("Mhh! What is a pear?", "pear #" + i + "?", ""));
+    }
+    return ids;
+  }
+
+  /**
+   * Measures the retained heap per Session, with the given number of conversations.
+   * @param  args
+   *         the number of conversations, one million by default
+   */
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long before = runtime.totalMemory() - runtime.freeMemory();
+    SessionStore store = new SessionStore(TimeUnit.HOURS.toMillis(1), count);
+    String[] ids = fill(store, count);
+    System.gc();
+    long after = runtime.totalMemory() - runtime.freeMemory();
+    System.out.printf("%d sessions, %d bytes per session%n", store.size(),
+        (after - before) / Math.max(1, ids.length));
+  }
+}
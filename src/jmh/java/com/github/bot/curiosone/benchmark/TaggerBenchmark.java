@@ -0,0 +1,128 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.nlp.Meaning;
+import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.nlp.ParseTable;
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.PosTagger;
+import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.nlp.Word;
+import com.github.bot.curiosone.core.util.Pair;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the CYK parsing with the POS of the Tokens pruned by the PosTagger against the
+ * exhaustive parsing.
+ * The model is read from the {@code curiosone.posModel} system property; without it, a model is
+ * trained on the POS chosen by the exhaustive parsing of the corpus itself. The setup prints the
+ * fraction of Phrases whose Sentences are the same as with the exhaustive parsing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaggerBenchmark {
+
+  /**
+   * The corpus the texts are taken from.
+   */
+  @Param({"short", "medium", "long"})
+  public String length;
+
+  /**
+   * The number of POS kept for every Token, or 0 for the exhaustive parsing.
+   */
+  @Param({"0", "1", "2"})
+  public int topK;
+
+  /**
+   * The tokenized Phrases of the corpus.
+   */
+  private List<Phrase> phrases;
+
+  /**
+   * The index of the next input.
+   */
+  private int next;
+
+  /**
+   * Tokenizes the corpus, sets the tagger and measures the agreement with the exhaustive parsing.
+   * @throws IOException if the corpus or the model cannot be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    phrases = new ArrayList<>();
+    for (String text : Corpus.load(length)) {
+      phrases.addAll(Phrase.extract(text));
+    }
+    if (topK == 0) {
+      return;
+    }
+
+    ParseTable.setTagger(null, 0);
+    List<List<Sentence>> exhaustive = new ArrayList<>();
+    List<List<Pair<String, POS>>> silver = new ArrayList<>();
+    for (Phrase phrase : phrases) {
+      List<Sentence> sentences = Sentence.extract(phrase);
+      exhaustive.add(sentences);
+      if (!sentences.isEmpty()) {
+        List<Pair<String, POS>> tagged = new ArrayList<>();
+        for (Word word : sentences.get(0).getWords()) {
+          for (Meaning m : word.getMeanings()) {
+            tagged.add(Pair.create(word.getText(), m.getPOS()));
+            break;
+          }
+        }
+        silver.add(tagged);
+      }
+    }
+    String model = System.getProperty("curiosone.posModel");
+    ParseTable.setTagger(model != null
+        ? PosTagger.load(Paths.get(model)) : PosTagger.train(silver), topK);
+
+    int same = 0;
+    for (int i = 0; i < phrases.size(); i++) {
+      if (Sentence.extract(phrases.get(i)).equals(exhaustive.get(i))) {
+        same++;
+      }
+    }
+    System.out.printf("%nagreement with the exhaustive parsing: %d/%d%n", same, phrases.size());
+  }
+
+  /**
+   * Removes the tagger.
+   */
+  @TearDown
+  public void tearDown() {
+    ParseTable.setTagger(null, 0);
+  }
+
+  /**
+   * Benchmarks the construction of the ParseTable of a Phrase.
+   * @return  the ParseTable of the Phrase
+   */
+  @Benchmark
+  public ParseTable parseTable() {
+    return new ParseTable(phrases.get(next++ % phrases.size()).getTokens());
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.bot.curiosone.benchmark;
+
+import com.github.bot.curiosone.core.nlp.Token;
+import com.github.bot.curiosone.core.nlp.raw.RawDict;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the tokenization of the texts and the WordNet lookups it relies on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+  /**
+   * The corpus the texts are taken from.
+   */
+  @Param({"short", "medium", "long"})
+  public String length;
+
+  /**
+   * The texts of the corpus.
+   */
+  private List<String> texts;
+
+  /**
+   * The words of the corpus.
+   */
+  private List<String> words;
+
+  /**
+   * The index of the next input.
+   */
+  private int next;
+
+  /**
+   * Loads the corpus and the dictionary.
+   * @throws IOException if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    texts = Corpus.load(length);
+    words = new ArrayList<>();
+    for (String text : texts) {
+      for (String word : text.replaceAll("[^a-z ]", "").split(" ")) {
+        words.add(word);
+      }
+    }
+    RawDict.getInstance();
+  }
+
+  /**
+   * Benchmarks Token.tokenize on a text.
+   * @return  the Tokens of the text
+   */
+  @Benchmark
+  public List<Token> tokenize() {
+    return Token.tokenize(texts.get(next++ % texts.size()));
+  }
+
+  /**
+   * Benchmarks RawDict.getRawToken on a single word.
+   * @return  the RawToken of the word
+   */
+  @Benchmark
+  public Object getRawToken() {
+    return RawDict.getInstance().getRawToken(words.get(next++ % words.size()));
+  }
+}
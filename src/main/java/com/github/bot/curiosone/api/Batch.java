@@ -0,0 +1,560 @@
+package com.github.bot.curiosone.api;
+
+import com.github.bot.curiosone.core.nlp.LangUtils;
+import com.github.bot.curiosone.core.workflow.Logic;
+import com.github.bot.curiosone.core.workflow.Message;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs the Curiosone over files of messages, without starting the server.
+ * Every message is split in Phrases, its emotion is analysed and it is answered by the Logic; the
+ * results are written as JSON lines, either in the order of the input or as soon as they are ready.
+ * Only a bounded number of messages is in flight at any time, so that inputs of any size are
+ * processed in constant memory.
+ * <pre>
+ * Batch &lt;input&gt; [--format=text|jsonl|csv] [--column=&lt;name&gt;] [--output=&lt;file&gt;|-]
+ *       [--threads=&lt;n&gt;] [--unordered]
+ * </pre>
+ * Plain text inputs hold a message per line, JSONL inputs a Message per line, and CSV inputs a
+ * header followed by a row per message, whose text is in the given column ("message" by default).
+ * @see  com.github.bot.curiosone.api.Main The Main Class
+ */
+public class Batch {
+
+  /**
+   * Interval between two progress reports, in seconds.
+   */
+  private static final int PROGRESS_INTERVAL = 5;
+
+  /**
+   * Computes the result of a message.
+   */
+  private final Function<Message, Object> processor;
+
+  /**
+   * Stores the number of messages processed concurrently.
+   */
+  private final int threads;
+
+  /**
+   * Stores whether the results keep the order of the input.
+   */
+  private final boolean ordered;
+
+  /**
+   * Counts the messages whose result has been written.
+   */
+  private final AtomicLong done = new AtomicLong();
+
+  /**
+   * Constructs a Batch.
+   * @param  processor
+   *         computes the result of a message, serialized as a JSON line
+   * @param  threads
+   *         the number of messages processed concurrently
+   * @param  ordered
+   *         whether the results keep the order of the input
+   * @throws IllegalArgumentException if a non-positive number of threads is given
+   */
+  public Batch(Function<Message, Object> processor, int threads, boolean ordered) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    this.processor = processor;
+    this.threads = threads;
+    this.ordered = ordered;
+  }
+
+  /**
+   * Processes all the messages of an input.
+   * @param  in
+   *         the input
+   * @param  format
+   *         the format of the input: "text", "jsonl" or "csv"
+   * @param  column
+   *         the column holding the text of the messages, for CSV inputs
+   * @param  out
+   *         where the results are written, one JSON per line
+   * @return  the number of processed messages
+   * @throws IOException if the input cannot be read or the output written
+   * @throws IllegalArgumentException if the format is unknown or the column missing
+   */
+  public long run(BufferedReader in, String format, String column, Writer out)
+      throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "curiosone-batch");
+      t.setDaemon(true);
+      return t;
+    });
+    // Permits are given back when a result is written, so that the results waiting for their
+    // turn are bounded as well.
+    Semaphore inFlight = new Semaphore(threads * 4);
+    Output output = new Output(out, ordered, inFlight);
+    Gson gson = new Gson();
+    long count = 0;
+    try {
+      Function<String, Message> parser = parser(in, format, column);
+      String line;
+      while ((line = "csv".equals(format) ? csvRecord(in) : in.readLine()) != null) {
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        long index = count++;
+        String record = line;
+        inFlight.acquireUninterruptibly();
+        CompletableFuture.supplyAsync(() -> result(index, record, parser, gson), pool)
+            .thenAccept(json -> output.write(index, json));
+      }
+      inFlight.acquireUninterruptibly(threads * 4);
+      output.rethrow();
+    } finally {
+      pool.shutdownNow();
+    }
+    out.flush();
+    return count;
+  }
+
+  /**
+   * Gets the number of messages whose result has been written.
+   * @return  the number of processed messages
+   */
+  public long getDone() {
+    return done.get();
+  }
+
+  /**
+   * Computes the JSON result of a record.
+   * @param  index
+   *         the index of the record
+   * @param  record
+   *         the record
+   * @param  parser
+   *         converts the record in a Message
+   * @param  gson
+   *         serializes the result
+   * @return  the JSON result, or a JSON error if the record cannot be processed
+   */
+  private String result(long index, String record, Function<String, Message> parser,
+                        Gson gson) {
+    try {
+      return gson.toJson(processor.apply(parser.apply(record)));
+    } catch (RuntimeException e) {
+      Map<String, Object> error = new LinkedHashMap<>();
+      error.put("index", index);
+      error.put("error", String.valueOf(e.getMessage()));
+      return gson.toJson(error);
+    }
+  }
+
+  /**
+   * Gets the parser of the records of the given format.
+   * @param  in
+   *         the input, whose CSV header is consumed
+   * @param  format
+   *         the format of the input
+   * @param  column
+   *         the column holding the text, for CSV inputs
+   * @return  a Function converting a record in a Message
+   * @throws IOException if the header cannot be read
+   * @throws IllegalArgumentException if the format is unknown or the column missing
+   */
+  private static Function<String, Message> parser(BufferedReader in, String format,
+                                                  String column) throws IOException {
+    switch (format) {
+      case "text":
+        return text -> new Message(text, "", "");
+      case "jsonl":
+        return json -> {
+          Message msg = new Gson().fromJson(json, Message.class);
+          if (msg == null) {
+            throw new JsonSyntaxException("Empty record");
+          }
+          return msg;
+        };
+      case "csv":
+        String header = csvRecord(in);
+        List<String> names = header == null ? new ArrayList<>() : csvFields(header);
+        int text = names.indexOf(column);
+        if (text < 0) {
+          throw new IllegalArgumentException("Missing column " + column);
+        }
+        int scope = names.indexOf("scope");
+        int conversation = names.indexOf("conversation");
+        return row -> {
+          List<String> fields = csvFields(row);
+          return new Message(field(fields, text), field(fields, scope), "", "",
+              field(fields, conversation));
+        };
+      default:
+        throw new IllegalArgumentException("Unknown format " + format);
+    }
+  }
+
+  /**
+   * Gets a field of a CSV row.
+   * @param  fields
+   *         the fields of the row
+   * @param  index
+   *         the index of the field, or -1
+   * @return  the field, or an empty String if missing
+   */
+  private static String field(List<String> fields, int index) {
+    return index >= 0 && index < fields.size() ? fields.get(index) : "";
+  }
+
+  /**
+   * Reads a CSV record, which spans several lines if a quoted field contains line breaks.
+   * @param  in
+   *         the input
+   * @return  the record, or null at the end of the input
+   * @throws IOException if the input cannot be read
+   */
+  static String csvRecord(BufferedReader in) throws IOException {
+    String line = in.readLine();
+    if (line == null) {
+      return null;
+    }
+    StringBuilder record = new StringBuilder(line);
+    while (quotes(record) % 2 != 0 && (line = in.readLine()) != null) {
+      record.append('\n').append(line);
+    }
+    return record.toString();
+  }
+
+  /**
+   * Splits a CSV record in its fields, as defined by RFC 4180.
+   * @param  record
+   *         the record
+   * @return  a List containing the unquoted fields
+   */
+  static List<String> csvFields(String record) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < record.length(); i++) {
+      char c = record.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Counts the quotes of a text.
+   * @param  text
+   *         the text
+   * @return  the number of quotes
+   */
+  private static int quotes(CharSequence text) {
+    int count = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '"') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Analyses and answers a message.
+   * The message is tokenized and its emotion computed once, by the Logic: the Phrases are only
+   * counted here, from the same split in sentences, as a Phrase is a question if it ends with '?'.
+   * @param  msg
+   *         the message
+   * @return  the Result of the message
+   */
+  static Result analyse(Message msg) {
+    List<String> phrases = LangUtils.splitByPuntaction(msg.getMessage());
+    int questions = (int) phrases.stream().filter(p -> p.endsWith("?")).count();
+    Message reply = Logic.talk(msg);
+    return new Result(msg, phrases.size(), questions, reply.getEmotion(), reply);
+  }
+
+  /**
+   * Runs the Curiosone over a file of messages.
+   * @param  args
+   *         the input file, followed by the options
+   * @throws IOException if the input cannot be read or the output written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: Batch <input> [--format=text|jsonl|csv] [--column=<name>]"
+          + " [--output=<file>] [--threads=<n>] [--unordered]");
+      System.exit(2);
+    }
+    String input = args[0];
+    String format = input.endsWith(".jsonl") ? "jsonl" : input.endsWith(".csv") ? "csv" : "text";
+    String column = "message";
+    String output = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    boolean ordered = true;
+    for (int i = 1; i < args.length; i++) {
+      String[] option = args[i].split("=", 2);
+      String value = option.length > 1 ? option[1] : "";
+      switch (option[0]) {
+        case "--format":
+          format = value;
+          break;
+        case "--column":
+          column = value;
+          break;
+        case "--output":
+          output = value;
+          break;
+        case "--threads":
+          threads = Integer.parseInt(value);
+          break;
+        case "--unordered":
+          ordered = false;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+
+    Batch batch = new Batch(Batch::analyse, threads, ordered);
+    long start = System.nanoTime();
+    ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "curiosone-progress");
+      t.setDaemon(true);
+      return t;
+    });
+    progress.scheduleAtFixedRate(() -> System.err.println(status(batch.getDone(), start)),
+        PROGRESS_INTERVAL, PROGRESS_INTERVAL, TimeUnit.SECONDS);
+    try (BufferedReader in = Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+         Writer out = new BufferedWriter(output == null || "-".equals(output)
+             ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+             : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8))) {
+      batch.run(in, format, column, out);
+    } finally {
+      progress.shutdownNow();
+    }
+    System.err.println(status(batch.getDone(), start));
+  }
+
+  /**
+   * Formats the progress of the processing.
+   * @param  done
+   *         the number of processed messages
+   * @param  start
+   *         the instant when the processing started, as given by {@link System#nanoTime()}
+   * @return  the number of processed messages and the throughput
+   */
+  private static String status(long done, long start) {
+    double seconds = (System.nanoTime() - start) / 1e9;
+    return String.format("%d messages in %.1f s (%.1f msg/s)", done, seconds, done / seconds);
+  }
+
+  /**
+   * Writes the results, in order or as soon as they are ready.
+   */
+  private class Output {
+
+    /**
+     * The destination of the results.
+     */
+    private final Writer out;
+
+    /**
+     * Whether the results keep the order of the input.
+     */
+    private final boolean ordered;
+
+    /**
+     * Released whenever a result is written.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * The results waiting for the previous ones, by index.
+     */
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The index of the next result to be written, in ordered mode.
+     */
+    private long next;
+
+    /**
+     * The first error raised writing the results, if any.
+     */
+    private IOException error;
+
+    /**
+     * Constructs an Output.
+     * @param  out
+     *         the destination of the results
+     * @param  ordered
+     *         whether the results keep the order of the input
+     * @param  inFlight
+     *         released whenever a result is written
+     */
+    private Output(Writer out, boolean ordered, Semaphore inFlight) {
+      this.out = out;
+      this.ordered = ordered;
+      this.inFlight = inFlight;
+    }
+
+    /**
+     * Writes a result, or keeps it until the previous ones have been written.
+     * @param  index
+     *         the index of the result
+     * @param  json
+     *         the result
+     */
+    private void write(long index, String json) {
+      if (ordered) {
+        pending.put(index, json);
+      }
+      synchronized (this) {
+        if (!ordered) {
+          line(json);
+          return;
+        }
+        String ready;
+        while ((ready = pending.remove(next)) != null) {
+          line(ready);
+          next++;
+        }
+      }
+    }
+
+    /**
+     * Writes a line and gives a permit back.
+     * @param  json
+     *         the line
+     */
+    private void line(String json) {
+      try {
+        if (error == null) {
+          out.write(json);
+          out.write('\n');
+        }
+      } catch (IOException e) {
+        error = e;
+      }
+      done.incrementAndGet();
+      inFlight.release();
+    }
+
+    /**
+     * Throws the first error raised writing the results, if any.
+     * @throws IOException if a result could not be written
+     */
+    private synchronized void rethrow() throws IOException {
+      if (error != null) {
+        throw error;
+      }
+    }
+  }
+
+  /**
+   * Represents the result of a message.
+   */
+  static class Result {
+
+    /**
+     * The text of the message.
+     */
+    private final String message;
+
+    /**
+     * The number of Phrases of the message.
+     */
+    private final int phrases;
+
+    /**
+     * The number of questions among the Phrases.
+     */
+    private final int questions;
+
+    /**
+     * The emotion of the message.
+     */
+    private final String emotion;
+
+    /**
+     * The answer to the message.
+     */
+    private final String reply;
+
+    /**
+     * The scope of the answer.
+     */
+    private final String scope;
+
+    /**
+     * The kinds of the answers merged in the reply.
+     */
+    private final String source;
+
+    /**
+     * The stages skipped to answer in time.
+     */
+    private final String skipped;
+
+    /**
+     * Constructs a Result.
+     * @param  msg
+     *         the message
+     * @param  phrases
+     *         the number of Phrases of the message
+     * @param  questions
+     *         the number of questions among the Phrases
+     * @param  emotion
+     *         the emotion of the message
+     * @param  reply
+     *         the answer to the message
+     */
+    Result(Message msg, int phrases, int questions, String emotion, Message reply) {
+      this.message = msg.getMessage();
+      this.phrases = phrases;
+      this.questions = questions;
+      this.emotion = emotion;
+      this.reply = reply.getMessage();
+      this.scope = reply.getScope();
+      this.source = reply.getSource();
+      this.skipped = reply.getSkipped();
+    }
+  }
+}
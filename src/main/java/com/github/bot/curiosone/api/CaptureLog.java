@@ -0,0 +1,411 @@
+package com.github.bot.curiosone.api;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Records the traffic received by the server in an append-only binary log.
+ * Every record holds the time the request has been received, its body and the response, so that
+ * the traffic can be replayed offline and the responses compared. Records are written by a
+ * background thread: when it cannot keep up, records are dropped rather than slowing down the
+ * requests. The log is rotated when a file grows over the maximum size, and when a write fails, so
+ * that a full disk only loses the records that could not be written.
+ * <p>Each file starts with the {@link #MAGIC} number, followed by the records:
+ * <pre>
+ * record = timestamp (long, ms) | request (varint length, UTF-8) | response (varint, UTF-8)
+ * </pre>
+ * @see  com.github.bot.curiosone.api.Replay The Replay Class
+ */
+public class CaptureLog implements Closeable {
+
+  /**
+   * The number every capture file starts with.
+   */
+  public static final int MAGIC = 0xCA97_0001;
+
+  /**
+   * Prefix of the names of the capture files.
+   */
+  private static final String PREFIX = "capture-";
+
+  /**
+   * Suffix of the names of the capture files.
+   */
+  private static final String SUFFIX = ".bin";
+
+  /**
+   * Maximum number of records waiting to be written.
+   */
+  private static final int MAX_QUEUED = 8192;
+
+  /**
+   * Stores the directory of the capture files.
+   */
+  private final Path directory;
+
+  /**
+   * Stores the size over which a file is rotated, in bytes.
+   */
+  private final long maxBytes;
+
+  /**
+   * Stores the records waiting to be written.
+   */
+  private final BlockingQueue<Record> queue = new ArrayBlockingQueue<>(MAX_QUEUED);
+
+  /**
+   * Counts the records dropped because the queue was full or they could not be written.
+   */
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Writes the records in background.
+   */
+  private final Thread writer;
+
+  /**
+   * Stores whether the log has been closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Stores the current capture file. Used by the writer thread only.
+   */
+  private DataOutputStream out;
+
+  /**
+   * Stores the size of the current capture file, in bytes. Used by the writer thread only.
+   */
+  private long written;
+
+  /**
+   * Counts the records written to the current file since it has been flushed. Used by the writer
+   * thread only.
+   */
+  private int unflushed;
+
+  /**
+   * Opens a CaptureLog and starts its writer thread.
+   * @param  directory
+   *         the directory of the capture files, created if missing
+   * @param  maxBytes
+   *         the size over which a file is rotated, in bytes
+   * @throws IOException if the directory cannot be created
+   * @throws IllegalArgumentException if a non-positive size is given
+   */
+  public CaptureLog(Path directory, long maxBytes) throws IOException {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.maxBytes = maxBytes;
+    this.writer = new Thread(this::drain, "curiosone-capture");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Records a request received now and its response, without blocking.
+   * @param  request
+   *         the body of the request. Can be null.
+   * @param  response
+   *         the body of the response. Can be null.
+   */
+  public void record(String request, String response) {
+    record(System.currentTimeMillis(), request, response);
+  }
+
+  /**
+   * Records a request and its response, without blocking.
+   * The records are written when the responses are ready, so that their timestamps are not
+   * necessarily in order.
+   * @param  timestamp
+   *         the time the request has been received, in milliseconds since the epoch
+   * @param  request
+   *         the body of the request. Can be null.
+   * @param  response
+   *         the body of the response. Can be null.
+   */
+  public void record(long timestamp, String request, String response) {
+    if (closed || !queue.offer(new Record(timestamp,
+        request == null ? "" : request, response == null ? "" : response))) {
+      dropped.increment();
+    }
+  }
+
+  /**
+   * Gets the number of records dropped because the writer could not keep up or write them.
+   * The records buffered when a write fails are counted too, even if part of them reached the
+   * file.
+   * @return  the number of dropped records
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Writes the pending records and closes the current file.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Writes the queued records until the log is closed.
+   * The file is flushed whenever the queue is empty, so that little is lost on a crash. When a
+   * write fails, the unflushed records are dropped and the next record starts a new file.
+   */
+  private void drain() {
+    try {
+      while (!closed || !queue.isEmpty()) {
+        Record record = queue.poll(100, TimeUnit.MILLISECONDS);
+        try {
+          if (record != null) {
+            write(record);
+          } else if (out != null) {
+            out.flush();
+            unflushed = 0;
+          }
+        } catch (IOException e) {
+          e.printStackTrace();
+          dropped.add(unflushed);
+          discard();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        if (out != null) {
+          out.close();
+        }
+      } catch (IOException e) {
+        e.printStackTrace();
+        dropped.add(unflushed);
+      }
+    }
+  }
+
+  /**
+   * Closes the current file after a failed write, so that the next record starts a new one.
+   */
+  private void discard() {
+    if (out != null) {
+      try {
+        out.close();
+      } catch (IOException e) {
+        // Already reported by the failed write.
+      }
+      out = null;
+    }
+    unflushed = 0;
+  }
+
+  /**
+   * Writes a record, rotating the file if needed.
+   * @param  record
+   *         the record to be written
+   * @throws IOException if the record cannot be written
+   */
+  private void write(Record record) throws IOException {
+    unflushed++;
+    if (out == null || written >= maxBytes) {
+      if (out != null) {
+        out.close();
+        unflushed = 1;
+      }
+      Path path = directory.resolve(PREFIX + System.currentTimeMillis() + "-" + System.nanoTime()
+          + SUFFIX);
+      out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+      out.writeInt(MAGIC);
+      written = Integer.BYTES;
+    }
+    byte[] request = record.request.getBytes(StandardCharsets.UTF_8);
+    byte[] response = record.response.getBytes(StandardCharsets.UTF_8);
+    out.writeLong(record.timestamp);
+    written += Long.BYTES;
+    written += writeBytes(out, request);
+    written += writeBytes(out, response);
+  }
+
+  /**
+   * Writes a length-prefixed array of bytes.
+   * @param  out
+   *         the destination stream
+   * @param  bytes
+   *         the bytes to be written
+   * @return  the number of written bytes, prefix included
+   * @throws IOException if the bytes cannot be written
+   */
+  private static int writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    int size = 0;
+    int length = bytes.length;
+    while ((length & ~0x7F) != 0) {
+      out.writeByte((length & 0x7F) | 0x80);
+      length >>>= 7;
+      size++;
+    }
+    out.writeByte(length);
+    out.write(bytes);
+    return size + 1 + bytes.length;
+  }
+
+  /**
+   * Reads a length-prefixed array of bytes.
+   * @param  in
+   *         the source stream
+   * @return  the read bytes
+   * @throws IOException if the bytes cannot be read
+   */
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = in.readUnsignedByte();
+      length |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+      if (shift > 28) {
+        throw new IOException("Malformed length");
+      }
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Lists the capture files of a directory, from the oldest to the newest.
+   * @param  path
+   *         a capture file or a directory of capture files
+   * @return  a List containing the capture files
+   * @throws IOException if the directory cannot be listed
+   */
+  public static List<Path> files(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      List<Path> files = new ArrayList<>();
+      files.add(path);
+      return files;
+    }
+    try (Stream<Path> files = Files.list(path)) {
+      return files.filter(p -> p.getFileName().toString().startsWith(PREFIX))
+          .filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Reads the records of a capture file, in order.
+   * A record truncated by a crash ends the file.
+   * @param  path
+   *         the capture file
+   * @param  consumer
+   *         receives every record
+   * @throws IOException if the file cannot be read or is not a capture file
+   */
+  public static void read(Path path, Consumer<Record> consumer) throws IOException {
+    try (InputStream file = Files.newInputStream(path);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a capture file: " + path);
+      }
+      while (true) {
+        Record record;
+        try {
+          long timestamp = in.readLong();
+          String request = new String(readBytes(in), StandardCharsets.UTF_8);
+          String response = new String(readBytes(in), StandardCharsets.UTF_8);
+          record = new Record(timestamp, request, response);
+        } catch (EOFException e) {
+          return;
+        }
+        consumer.accept(record);
+      }
+    }
+  }
+
+  /**
+   * Represents a captured request and its response.
+   */
+  public static class Record {
+
+    /**
+     * The time the request has been received, in milliseconds.
+     */
+    private final long timestamp;
+
+    /**
+     * The body of the request.
+     */
+    private final String request;
+
+    /**
+     * The body of the response.
+     */
+    private final String response;
+
+    /**
+     * Constructs a Record.
+     * @param  timestamp
+     *         the time the request has been received, in milliseconds
+     * @param  request
+     *         the body of the request
+     * @param  response
+     *         the body of the response
+     */
+    public Record(long timestamp, String request, String response) {
+      this.timestamp = timestamp;
+      this.request = request;
+      this.response = response;
+    }
+
+    /**
+     * Gets the time the request has been received.
+     * @return  the timestamp of the request, in milliseconds
+     */
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    /**
+     * Gets the body of the request.
+     * @return  the body of the request
+     */
+    public String getRequest() {
+      return request;
+    }
+
+    /**
+     * Gets the body of the response.
+     * @return  the body of the response
+     */
+    public String getResponse() {
+      return response;
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package com.github.bot.curiosone.api;
+
+import com.github.bot.curiosone.core.util.SerialExecutor;
+import com.github.bot.curiosone.core.workflow.Logic;
+import com.github.bot.curiosone.core.workflow.Message;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles the WebSocket conversations of the Curiosone.
+ * Every WebSocket holds a conversation, whose state is kept by the Logic as for the /talk route,
+ * so that chatty clients pay the connection cost only once and do not have to carry the scope of
+ * the conversation. The messages of a WebSocket are answered one at a time, in the order they
+ * have been received. The number of sessions is capped, and sessions without messages for too
+ * long are closed.
+ * @see  com.github.bot.curiosone.core.workflow.SessionStore The SessionStore Class
+ */
+@WebSocket
+public class ConversationSocket {
+
+  /**
+   * Logs ConversationSocket class.
+   */
+  private static final Logger log = LoggerFactory.getLogger(ConversationSocket.class);
+
+  /**
+   * Default maximum number of open sessions.
+   */
+  private static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+  /**
+   * Default time after which an idle session is closed, in milliseconds.
+   */
+  private static final long DEFAULT_IDLE_TIMEOUT = 10 * 60 * 1000;
+
+  /**
+   * Status code sent when the server has too many sessions.
+   */
+  private static final int TRY_AGAIN_LATER = 1013;
+
+  /**
+   * Status code sent when an idle session is closed.
+   */
+  private static final int GOING_AWAY = 1001;
+
+  /**
+   * Maximum number of open sessions.
+   */
+  private static final int maxSessions = System.getenv("WS_MAX_SESSIONS") != null
+      ? Integer.parseInt(System.getenv("WS_MAX_SESSIONS")) : DEFAULT_MAX_SESSIONS;
+
+  /**
+   * Time after which an idle session is closed, in milliseconds.
+   */
+  private static final long idleTimeout = System.getenv("WS_IDLE_TIMEOUT") != null
+      ? Long.parseLong(System.getenv("WS_IDLE_TIMEOUT")) : DEFAULT_IDLE_TIMEOUT;
+
+  /**
+   * Maximum number of received messages of a session waiting to be answered.
+   */
+  private static final int MAX_QUEUED = 32;
+
+  /**
+   * Maps every open WebSocket to its conversation.
+   */
+  private static final Map<Session, Conversation> sessions = new ConcurrentHashMap<>();
+
+  /**
+   * Answers the messages of all the sessions.
+   */
+  private static final ExecutorService workers = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(), r -> {
+        Thread t = new Thread(r, "curiosone-ws-worker");
+        t.setDaemon(true);
+        return t;
+      });
+
+  /**
+   * Periodically closes the idle sessions.
+   */
+  private static final ScheduledExecutorService reaper =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "curiosone-ws-reaper");
+        t.setDaemon(true);
+        return t;
+      });
+
+  static {
+    long period = Math.max(1000, idleTimeout / 10);
+    reaper.scheduleWithFixedDelay(
+        () -> evictIdle(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Opens a session for a new WebSocket.
+   * If too many sessions are open, the WebSocket is closed.
+   * @param  socket
+   *         the new WebSocket
+   */
+  @OnWebSocketConnect
+  public void connected(Session socket) {
+    synchronized (sessions) {
+      if (sessions.size() < maxSessions) {
+        Conversation conversation = new Conversation();
+        sessions.put(socket, conversation);
+        // Creates the Session now, so that a session without messages becomes idle.
+        Logic.getSessions().get(conversation.id);
+        return;
+      }
+    }
+    log.warn("Too many sessions, refusing " + socket.getRemoteAddress());
+    socket.close(TRY_AGAIN_LATER, "Too many sessions");
+  }
+
+  /**
+   * Discards the session of a closed WebSocket.
+   * @param  socket
+   *         the closed WebSocket
+   * @param  status
+   *         the close status code
+   * @param  reason
+   *         the close reason
+   */
+  @OnWebSocketClose
+  public void closed(Session socket, int status, String reason) {
+    Conversation conversation = sessions.remove(socket);
+    if (conversation != null) {
+      Logic.getSessions().remove(conversation.id);
+    }
+  }
+
+  /**
+   * Answers a received message once all the previous ones of its session have been answered.
+   * The message can either be a JSON Message or the plain content of the Message.
+   * @param  socket
+   *         the WebSocket where the message has been received
+   * @param  text
+   *         the received message
+   */
+  @OnWebSocketMessage
+  public void message(Session socket, String text) {
+    Conversation conversation = sessions.get(socket);
+    if (conversation == null) {
+      return;
+    }
+    // Marks the conversation as used on receipt, so that a long queue does not look idle.
+    Logic.getSessions().get(conversation.id);
+    try {
+      conversation.executor.execute(() -> answer(socket, conversation.id, parse(text)));
+    } catch (RejectedExecutionException e) {
+      log.warn("Too many queued messages, dropping one from " + socket.getRemoteAddress());
+    }
+  }
+
+  /**
+   * Gets the number of open sessions.
+   * @return  the number of open sessions
+   */
+  public static int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Closes the sessions that have not received messages for too long.
+   * @param  now
+   *         the current time, in milliseconds
+   */
+  static void evictIdle(long now) {
+    Iterator<Map.Entry<Session, Conversation>> it = sessions.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Session, Conversation> entry = it.next();
+      String id = entry.getValue().id;
+      if (now - Logic.getSessions().getLastAccess(id) > idleTimeout) {
+        it.remove();
+        Logic.getSessions().remove(id);
+        entry.getKey().close(GOING_AWAY, "Idle timeout");
+      }
+    }
+  }
+
+  /**
+   * Parses a received message.
+   * @param  text
+   *         the received message
+   * @return  the received Message
+   */
+  static Message parse(String text) {
+    if (text.startsWith("{")) {
+      try {
+        Message msg = new Gson().fromJson(text, Message.class);
+        if (msg != null) {
+          return msg;
+        }
+      } catch (JsonSyntaxException e) {
+        e.printStackTrace();
+      }
+    }
+    return new Message(text, "", "");
+  }
+
+  /**
+   * Answers a Message of a conversation and sends the answer on its WebSocket.
+   * @param  socket
+   *         the WebSocket of the conversation
+   * @param  id
+   *         the ID of the conversation
+   * @param  user
+   *         the received Message
+   */
+  private static void answer(Session socket, String id, Message user) {
+    Message bot = Logic.talk(new Message(user.getMessage(), user.getScope(), "", "", id));
+    if (!socket.isOpen()) {
+      return;
+    }
+    try {
+      socket.getRemote().sendString(new Gson().toJson(bot));
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Represents the conversation held on a WebSocket.
+   * Its state is kept by the SessionStore of the Logic.
+   */
+  private static class Conversation {
+
+    /**
+     * The ID of the conversation.
+     */
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Answers the messages of the conversation one at a time.
+     */
+    private final SerialExecutor executor = new SerialExecutor(workers, MAX_QUEUED);
+  }
+}
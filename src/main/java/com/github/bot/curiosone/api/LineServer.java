@@ -0,0 +1,484 @@
+package com.github.bot.curiosone.api;
+
+import com.github.bot.curiosone.core.workflow.Logic;
+import com.github.bot.curiosone.core.workflow.Message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents a lightweight line-protocol server for the Curiosone.
+ * Meant for internal services sending many tiny messages, for which the HTTP and JSON overhead
+ * of the Spark routes dominates.
+ * Every request is a line containing the message and its scope, separated by a tab. Every
+ * response is a line containing the message, the scope and the emotion of the answer, separated
+ * by tabs. Tabs, newlines and backslashes inside the fields are escaped as {@code \t},
+ * {@code \n} and {@code \\}.
+ * Clients can pipeline many requests on the same connection: requests are answered concurrently,
+ * but responses are always written in the order of the requests.
+ * @see  com.github.bot.curiosone.core.workflow.Logic The Logic Class
+ */
+public class LineServer implements Closeable {
+
+  /**
+   * Logs LineServer class.
+   */
+  private static final Logger log = LoggerFactory.getLogger(LineServer.class);
+
+  /**
+   * Maximum length of a request line, in bytes.
+   */
+  private static final int MAX_LINE = 64 * 1024;
+
+  /**
+   * Maximum number of unanswered requests of a connection.
+   * When reached, the connection is not read until some responses have been written.
+   */
+  private static final int MAX_PENDING = 1024;
+
+  /**
+   * Size of the buffer used to read from the connections.
+   */
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * Stores the port where this server listens.
+   */
+  private final int port;
+
+  /**
+   * Stores the executor where the requests are answered.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Stores the connections having new responses to be written.
+   */
+  private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Stores the selector of this server.
+   */
+  private Selector selector;
+
+  /**
+   * Stores the listening channel of this server.
+   */
+  private ServerSocketChannel server;
+
+  /**
+   * Stores the thread running the selector loop.
+   */
+  private Thread loop;
+
+  /**
+   * Stores whether this server has been closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Constructs a LineServer.
+   * @param  port
+   *         the port where the server listens. Zero picks a free port.
+   * @param  threads
+   *         the number of threads answering the requests
+   */
+  public LineServer(int port, int threads) {
+    this.port = port;
+    this.workers = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "curiosone-line-worker");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Starts listening in background.
+   * @throws IOException if the port cannot be bound
+   */
+  public synchronized void start() throws IOException {
+    if (loop != null) {
+      return;
+    }
+    selector = Selector.open();
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(port));
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+    loop = new Thread(this::run, "curiosone-line");
+    loop.setDaemon(true);
+    loop.start();
+    log.info("Line server listening on port " + getPort());
+  }
+
+  /**
+   * Gets the port where this server listens.
+   * @return  the bound port, or the configured one if the server has not been started
+   */
+  public int getPort() {
+    return server != null ? server.socket().getLocalPort() : port;
+  }
+
+  /**
+   * Stops this server and closes all its connections.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    workers.shutdownNow();
+    if (selector != null) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Runs the selector loop until this server is closed.
+   */
+  private void run() {
+    try {
+      while (!closed) {
+        selector.select();
+        Connection conn;
+        while ((conn = ready.poll()) != null) {
+          try {
+            conn.flush();
+          } catch (IOException e) {
+            conn.close();
+          }
+        }
+        for (SelectionKey key : selector.selectedKeys()) {
+          try {
+            if (!key.isValid()) {
+              continue;
+            }
+            if (key.isAcceptable()) {
+              try {
+                accept();
+              } catch (IOException e) {
+                // Such as too many open files: the pending connection is accepted later.
+                e.printStackTrace();
+              }
+              continue;
+            }
+            Connection c = (Connection) key.attachment();
+            if (key.isReadable()) {
+              c.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+              c.flush();
+            }
+          } catch (IOException e) {
+            Connection c = (Connection) key.attachment();
+            if (c != null) {
+              c.close();
+            }
+          }
+        }
+        selector.selectedKeys().clear();
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    } finally {
+      for (SelectionKey key : selector.keys()) {
+        try {
+          key.channel().close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Accepts a new connection.
+   * A connection that cannot be configured is closed.
+   * @throws IOException if the connection cannot be accepted or configured
+   */
+  private void accept() throws IOException {
+    SocketChannel channel = server.accept();
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+      key.attach(new Connection(channel, key));
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Decodes a request line.
+   * A line without tabs is a message without scope.
+   * @param  line
+   *         the request line, without the trailing newline
+   * @return  the Message contained in the line
+   * @see  com.github.bot.curiosone.core.workflow.Message The Message Class
+   */
+  static Message decode(String line) {
+    List<String> fields = split(line);
+    return new Message(fields.get(0), fields.size() > 1 ? fields.get(1) : "", "");
+  }
+
+  /**
+   * Encodes a response line.
+   * @param  msg
+   *         the Message to be encoded
+   * @return  the response line, including the trailing newline
+   * @see  com.github.bot.curiosone.core.workflow.Message The Message Class
+   */
+  static String encode(Message msg) {
+    return escape(msg.getMessage()) + '\t' + escape(msg.getScope()) + '\t'
+        + escape(msg.getEmotion()) + '\n';
+  }
+
+  /**
+   * Escapes tabs, newlines and backslashes in a field.
+   * @param  field
+   *         the field to be escaped
+   * @return  the escaped field
+   */
+  static String escape(String field) {
+    StringBuilder sb = new StringBuilder(field.length());
+    for (int i = 0; i < field.length(); i++) {
+      char c = field.charAt(i);
+      switch (c) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        default:
+          sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Splits a line in its tab-separated fields, unescaping them.
+   * @param  line
+   *         the line to be splitted
+   * @return  a List containing the unescaped fields of the line
+   */
+  static List<String> split(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder sb = new StringBuilder(line.length());
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '\t') {
+        fields.add(sb.toString());
+        sb.setLength(0);
+      } else if (c == '\\' && i + 1 < line.length()) {
+        char next = line.charAt(++i);
+        switch (next) {
+          case 't':
+            sb.append('\t');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          default:
+            sb.append(next);
+        }
+      } else {
+        sb.append(c);
+      }
+    }
+    fields.add(sb.toString());
+    return fields;
+  }
+
+  /**
+   * Represents a client connection.
+   * Only the selector thread reads and writes the channel; the workers just complete the
+   * responses and notify the selector.
+   */
+  private class Connection {
+
+    /**
+     * The channel of this connection.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The selection key of this connection.
+     */
+    private final SelectionKey key;
+
+    /**
+     * The buffer where the channel is read.
+     */
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The partial line read so far.
+     */
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    /**
+     * The responses not written yet, in the order of the requests.
+     */
+    private final Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+
+    /**
+     * The response being written, if any.
+     */
+    private ByteBuffer out;
+
+    /**
+     * Whether the client has closed its side of the connection.
+     */
+    private boolean eof;
+
+    /**
+     * Constructs a Connection.
+     * @param  channel
+     *         the channel of the connection
+     * @param  key
+     *         the selection key of the connection
+     */
+    private Connection(SocketChannel channel, SelectionKey key) {
+      this.channel = channel;
+      this.key = key;
+    }
+
+    /**
+     * Reads the available requests and submits them to the workers.
+     * @throws IOException if the channel cannot be read
+     */
+    private void read() throws IOException {
+      int n = channel.read(in);
+      if (n < 0) {
+        eof = true;
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        flush();
+        return;
+      }
+      in.flip();
+      while (in.hasRemaining()) {
+        byte b = in.get();
+        if (b != '\n') {
+          line.write(b);
+          if (line.size() > MAX_LINE) {
+            throw new IOException("Request line too long");
+          }
+          continue;
+        }
+        String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        line.reset();
+        if (text.endsWith("\r")) {
+          text = text.substring(0, text.length() - 1);
+        }
+        submit(decode(text));
+      }
+      in.clear();
+      if (pending.size() >= MAX_PENDING) {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+      }
+    }
+
+    /**
+     * Submits a request to the workers.
+     * @param  msg
+     *         the request to be answered
+     */
+    private void submit(Message msg) {
+      CompletableFuture<String> response = CompletableFuture
+          .supplyAsync(() -> encode(Logic.talk(msg)), workers)
+          .exceptionally(e -> {
+            log.error("Unable to answer " + msg, e);
+            return encode(new Message("Sorry my head hurts, what were we talking about?", "", ""));
+          });
+      pending.add(response);
+      response.thenRun(() -> {
+        ready.add(this);
+        selector.wakeup();
+      });
+    }
+
+    /**
+     * Writes the completed responses, in order, as long as the channel accepts them.
+     * @throws IOException if the channel cannot be written
+     */
+    private void flush() throws IOException {
+      if (!channel.isOpen()) {
+        return;
+      }
+      while (true) {
+        if (out == null || !out.hasRemaining()) {
+          CompletableFuture<String> head = pending.peek();
+          if (head == null || !head.isDone()) {
+            out = null;
+            break;
+          }
+          pending.poll();
+          out = ByteBuffer.wrap(head.join().getBytes(StandardCharsets.UTF_8));
+        }
+        channel.write(out);
+        if (out.hasRemaining()) {
+          key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+          return;
+        }
+      }
+      int ops = key.interestOps() & ~SelectionKey.OP_WRITE;
+      if (!eof && pending.size() < MAX_PENDING) {
+        ops |= SelectionKey.OP_READ;
+      }
+      key.interestOps(ops);
+      if (eof && pending.isEmpty()) {
+        close();
+      }
+    }
+
+    /**
+     * Closes this connection, discarding the pending responses.
+     */
+    private void close() {
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+}
@@ -1,11 +1,23 @@
 package com.github.bot.curiosone.api;
 
+import com.github.bot.curiosone.core.extraction.Randomness;
+import com.github.bot.curiosone.core.metrics.Metrics;
+import com.github.bot.curiosone.core.nlp.ParseTable;
+import com.github.bot.curiosone.core.nlp.PosTagger;
+import com.github.bot.curiosone.core.nlp.raw.ClosedClassLexicon;
+import com.github.bot.curiosone.core.nlp.raw.RawDict;
 import com.github.bot.curiosone.core.workflow.Logic;
 import com.github.bot.curiosone.core.workflow.Message;
+import com.github.bot.curiosone.core.workflow.Pipeline;
+import com.github.bot.curiosone.core.workflow.SessionStore;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,6 +42,41 @@ public class Main {
    */
   private static final int DEFAULT_PORT = 4567;
 
+  /**
+   * Default maximum number of cached analyses.
+   */
+  private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  /**
+   * Default time to live of an unused conversation Session, in milliseconds.
+   */
+  private static final long DEFAULT_SESSION_TTL = 30 * 60 * 1000;
+
+  /**
+   * Default maximum number of conversation Sessions.
+   */
+  private static final int DEFAULT_SESSION_SIZE = 100_000;
+
+  /**
+   * Default period of the Sessions maintenance and snapshot, in milliseconds.
+   */
+  private static final long DEFAULT_SNAPSHOT_PERIOD = 60 * 1000;
+
+  /**
+   * Default size over which a capture file is rotated, in bytes.
+   */
+  private static final long DEFAULT_CAPTURE_BYTES = 64L * 1024 * 1024;
+
+  /**
+   * Default number of POS kept for every Token by the tagger.
+   */
+  private static final int DEFAULT_POS_TAGGER_TOP_K = 2;
+
+  /**
+   * Content type of the Prometheus text exposition format.
+   */
+  private static final String METRICS_TYPE = "text/plain; version=0.0.4";
+
   /**
    * The entry point of the APIs.
    * This method activates and runs the server.
@@ -38,6 +85,16 @@ public class Main {
    */
   public static void main(String[] args) {
 
+    /**
+     * Stops if no dictionary is available, since every word would be unknown.
+     */
+    try {
+      RawDict.getInstance();
+    } catch (IllegalStateException e) {
+      log.error("Cannot start the Curiosone", e);
+      System.exit(1);
+    }
+
     /**
      * Sets the port where the server run.
      */
@@ -45,6 +102,134 @@ public class Main {
         ? Integer.parseInt(System.getenv("PORT")) : DEFAULT_PORT;
     Spark.port(port);
 
+    /**
+     * Sets how long the analyses of the received texts are cached.
+     */
+    if (System.getenv("ANALYSIS_CACHE_TTL") != null) {
+      int size = System.getenv("ANALYSIS_CACHE_SIZE") != null
+          ? Integer.parseInt(System.getenv("ANALYSIS_CACHE_SIZE")) : DEFAULT_CACHE_SIZE;
+      Logic.configureCache(Long.parseLong(System.getenv("ANALYSIS_CACHE_TTL")), size);
+    }
+
+    /**
+     * Sets the latency budget of every request.
+     */
+    if (System.getenv("TALK_BUDGET_MS") != null) {
+      Logic.setBudget(Long.parseLong(System.getenv("TALK_BUDGET_MS")));
+    }
+
+    /**
+     * Configures the server-side conversation Sessions, restoring the last snapshot, if any.
+     */
+    SessionStore sessions = Logic.getSessions();
+    if (System.getenv("SESSION_TTL") != null || System.getenv("SESSION_SIZE") != null) {
+      long ttl = System.getenv("SESSION_TTL") != null
+          ? Long.parseLong(System.getenv("SESSION_TTL")) : DEFAULT_SESSION_TTL;
+      int size = System.getenv("SESSION_SIZE") != null
+          ? Integer.parseInt(System.getenv("SESSION_SIZE")) : DEFAULT_SESSION_SIZE;
+      sessions.configure(ttl, size);
+    }
+    Path snapshot = System.getenv("SESSION_SNAPSHOT") != null
+        ? Paths.get(System.getenv("SESSION_SNAPSHOT")) : null;
+    if (snapshot != null && Files.exists(snapshot)) {
+      try {
+        log.info("Restored {} sessions", sessions.restore(snapshot));
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+    sessions.startMaintenance(System.getenv("SESSION_SNAPSHOT_PERIOD") != null
+        ? Long.parseLong(System.getenv("SESSION_SNAPSHOT_PERIOD")) : DEFAULT_SNAPSHOT_PERIOD,
+        snapshot);
+
+    /**
+     * Adds the closed-class words of the given file, if any.
+     */
+    if (System.getenv("CLOSED_CLASS_WORDS") != null) {
+      try {
+        ClosedClassLexicon.load(Paths.get(System.getenv("CLOSED_CLASS_WORDS")));
+      } catch (IOException | IllegalArgumentException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /**
+     * Prunes the POS of every Token before parsing, if a tagger model has been given.
+     */
+    if (System.getenv("POS_TAGGER_MODEL") != null) {
+      int k = DEFAULT_POS_TAGGER_TOP_K;
+      if (System.getenv("POS_TAGGER_TOP_K") != null) {
+        try {
+          k = Integer.parseInt(System.getenv("POS_TAGGER_TOP_K").trim());
+        } catch (NumberFormatException e) {
+          k = 0;
+        }
+        if (k < 1) {
+          log.warn("Invalid POS_TAGGER_TOP_K {}, using {}", System.getenv("POS_TAGGER_TOP_K"),
+              DEFAULT_POS_TAGGER_TOP_K);
+          k = DEFAULT_POS_TAGGER_TOP_K;
+        }
+      }
+      try {
+        ParseTable.setTagger(PosTagger.load(Paths.get(System.getenv("POS_TAGGER_MODEL"))), k);
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /**
+     * Makes the answers deterministic, if a seed has been given.
+     */
+    if (System.getenv("RANDOM_SEED") != null) {
+      Randomness.setSeed(Long.parseLong(System.getenv("RANDOM_SEED")));
+    }
+
+    /**
+     * Sets the Pipeline answering each Phrase, if a configuration file has been given.
+     */
+    if (System.getenv("PIPELINE_CONFIG") != null) {
+      try {
+        Logic.setPipeline(Pipeline.load(Paths.get(System.getenv("PIPELINE_CONFIG"))));
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /**
+     * Starts the line-protocol server, if a port has been given for it.
+     */
+    if (System.getenv("LINE_PORT") != null) {
+      try {
+        new LineServer(Integer.parseInt(System.getenv("LINE_PORT")),
+            Runtime.getRuntime().availableProcessors()).start();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /**
+     * Records the traffic of /talk, if a capture directory has been given.
+     */
+    CaptureLog capture = openCapture();
+
+    /**
+     * Holds WebSocket conversations. Must be mapped before any route.
+     */
+    Spark.webSocket("/chat", ConversationSocket.class);
+
+    /**
+     * Restores the parsed resources from a warm image, written on the first boot, if a path has
+     * been given for it.
+     */
+    if (System.getenv("WARM_IMAGE") != null) {
+      Warmup.setImage(Paths.get(System.getenv("WARM_IMAGE")));
+    }
+
+    /**
+     * Loads the resources of the Core in background.
+     */
+    Warmup.start();
+
     /**
      * Enables CORS
      */
@@ -56,7 +241,7 @@ public class Main {
      */
     Spark.after(
         (req, res) -> {
-          res.type("application/json");
+          res.type("/metrics".equals(req.pathInfo()) ? METRICS_TYPE : "application/json");
         });
 
     /*
@@ -68,22 +253,46 @@ public class Main {
         });
 
     /**
-     * Responds with "ok".
+     * Responds with "ok" and the readiness of the server.
      */
     Spark.get(
         "/status",
         (req, res) -> {
           Map<String, String> map = new HashMap<String, String>();
           map.put("status", "ok");
+          map.put("readiness", Warmup.getState().toString());
           return new Gson().toJson(map);
         });
 
+    /**
+     * Responds with the readiness of the server and the load time of each resource.
+     * Replies with 503 until the warm-up has finished, so that load balancers can use it.
+     */
+    Spark.get(
+        "/ready",
+        (req, res) -> {
+          Warmup.State state = Warmup.getState();
+          if (state != Warmup.State.READY) {
+            res.status(503);
+          }
+          Map<String, Object> map = new HashMap<String, Object>();
+          map.put("readiness", state.toString());
+          map.put("resources", Warmup.getLoadTimes());
+          return new Gson().toJson(map);
+        });
+
+    /**
+     * Exposes the metrics in the Prometheus text format.
+     */
+    Spark.get("/metrics", (req, res) -> Metrics.scrape());
+
     /**
      * Routes requests to the Curiosone Core
      */
     Spark.post(
         "/talk",
         (req, res) -> {
+          long received = System.currentTimeMillis();
           Message user = null;
           Message bot = null;
           try {
@@ -93,7 +302,34 @@ public class Main {
           }
           bot = Logic.talk(user);
 
-          return new Gson().toJson(bot);
+          String json = new Gson().toJson(bot);
+          if (capture != null) {
+            capture.record(received, req.body(), json);
+          }
+          Warmup.recordResponse();
+          return json;
         });
   }
+
+  /**
+   * Opens the log recording the traffic of /talk, if the CAPTURE_DIR variable is set.
+   * Files are rotated when they grow over CAPTURE_MAX_BYTES.
+   * @return  the opened CaptureLog, or null if the capture is disabled or cannot be opened
+   * @see  com.github.bot.curiosone.api.CaptureLog The CaptureLog Class
+   */
+  private static CaptureLog openCapture() {
+    if (System.getenv("CAPTURE_DIR") == null) {
+      return null;
+    }
+    long maxBytes = System.getenv("CAPTURE_MAX_BYTES") != null
+        ? Long.parseLong(System.getenv("CAPTURE_MAX_BYTES")) : DEFAULT_CAPTURE_BYTES;
+    try {
+      CaptureLog capture = new CaptureLog(Paths.get(System.getenv("CAPTURE_DIR")), maxBytes);
+      Runtime.getRuntime().addShutdownHook(new Thread(capture::close));
+      return capture;
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
 }
@@ -0,0 +1,372 @@
+package com.github.bot.curiosone.api;
+
+import com.github.bot.curiosone.core.extraction.Randomness;
+import com.github.bot.curiosone.core.metrics.Histogram;
+import com.github.bot.curiosone.core.util.SerialExecutor;
+import com.github.bot.curiosone.core.workflow.Logic;
+import com.github.bot.curiosone.core.workflow.Message;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Replays the traffic recorded by a CaptureLog and reports how the server handled it.
+ * Requests are sent either directly to the Logic, in process, or to a running server over HTTP,
+ * at the original pace, scaled, or as fast as possible. The report contains the throughput, the
+ * latency percentiles and the responses that differ from the recorded ones. Random answers differ
+ * on every run unless a seed is given, both at capture and at replay time. The turns of a
+ * conversation are sent one at a time, in the recorded order, since every turn depends on the
+ * previous ones.
+ * <pre>
+ * Replay &lt;file or directory&gt; [--target=logic|&lt;url&gt;]
+ *        [--speed=original|max|&lt;factor&gt;] [--threads=&lt;n&gt;]
+ *        [--seed=&lt;seed&gt;] [--diffs=&lt;n&gt;]
+ * </pre>
+ * @see  com.github.bot.curiosone.api.CaptureLog The CaptureLog Class
+ */
+public class Replay {
+
+  /**
+   * Number of nanoseconds in a millisecond.
+   */
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  /**
+   * Sends a request body and returns the response body.
+   */
+  private final Function<String, String> target;
+
+  /**
+   * Stores the speed factor: 1 is the original pace, 0 means as fast as possible.
+   */
+  private final double speed;
+
+  /**
+   * Stores the number of concurrent requests.
+   */
+  private final int threads;
+
+  /**
+   * Stores the maximum number of differences kept for the report.
+   */
+  private final int maxDiffs;
+
+  /**
+   * Records the latency of every request, in nanoseconds.
+   */
+  private final Histogram latency = new Histogram();
+
+  /**
+   * Counts the requests that failed.
+   */
+  private final LongAdder errors = new LongAdder();
+
+  /**
+   * Counts the responses that differ from the recorded ones.
+   */
+  private final LongAdder differences = new LongAdder();
+
+  /**
+   * Stores the first differences, for the report.
+   */
+  private final List<String> diffs = Collections.synchronizedList(new ArrayList<>());
+
+  /**
+   * Constructs a Replay.
+   * @param  target
+   *         sends a request body and returns the response body
+   * @param  speed
+   *         the speed factor: 1 is the original pace, 0 means as fast as possible
+   * @param  threads
+   *         the number of concurrent requests
+   * @param  maxDiffs
+   *         the maximum number of differences kept for the report
+   */
+  public Replay(Function<String, String> target, double speed, int threads, int maxDiffs) {
+    this.target = target;
+    this.speed = speed;
+    this.threads = threads;
+    this.maxDiffs = maxDiffs;
+  }
+
+  /**
+   * Replays the records of the given capture files.
+   * Records are paced by the time their requests have been received, and the turns of each
+   * conversation run serially, in order, while different conversations run concurrently.
+   * @param  files
+   *         the capture files, in order
+   * @return  the report of the replay
+   * @throws IOException if a file cannot be read
+   */
+  public String run(List<Path> files) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    Semaphore inFlight = new Semaphore(threads * 2);
+    Map<String, Executor> conversations = new HashMap<>();
+    long[] first = {-1};
+    long start = System.nanoTime();
+    try {
+      for (Path file : files) {
+        CaptureLog.read(file, record -> {
+          if (first[0] < 0) {
+            first[0] = record.getTimestamp();
+          }
+          if (speed > 0) {
+            long offset = record.getTimestamp() - first[0];
+            long wait = start + (long) (offset * NANOS_PER_MILLI / speed) - System.nanoTime();
+            if (wait > 0) {
+              sleep(wait);
+            }
+          }
+          inFlight.acquireUninterruptibly();
+          String conversation = conversation(record.getRequest());
+          Executor executor = conversation.isEmpty() ? pool : conversations.computeIfAbsent(
+              conversation, c -> new SerialExecutor(pool, threads * 2));
+          executor.execute(() -> {
+            try {
+              send(record);
+            } finally {
+              inFlight.release();
+            }
+          });
+        });
+      }
+    } finally {
+      // Queued turns are submitted to the pool as the previous ones end: wait for all of them.
+      inFlight.acquireUninterruptibly(threads * 2);
+      pool.shutdown();
+      try {
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return report(System.nanoTime() - start);
+  }
+
+  /**
+   * Sends a recorded request and compares the response with the recorded one.
+   * @param  record
+   *         the recorded request
+   */
+  private void send(CaptureLog.Record record) {
+    long begin = System.nanoTime();
+    String response;
+    try {
+      response = target.apply(record.getRequest());
+    } catch (RuntimeException e) {
+      errors.increment();
+      return;
+    }
+    latency.record(System.nanoTime() - begin);
+    if (!same(record.getResponse(), response)) {
+      differences.increment();
+      synchronized (diffs) {
+        if (diffs.size() < maxDiffs) {
+          diffs.add(record.getRequest() + "\n  - " + record.getResponse() + "\n  + " + response);
+        }
+      }
+    }
+  }
+
+  /**
+   * Formats the report of the replay.
+   * @param  elapsed
+   *         the duration of the replay, in nanoseconds
+   * @return  the report
+   */
+  private String report(long elapsed) {
+    long count = latency.getCount();
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("requests   %d (%d errors)%n", count + errors.sum(), errors.sum()));
+    sb.append(String.format("throughput %.1f req/s%n", count / (elapsed / 1e9)));
+    sb.append(String.format("latency    p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, "
+        + "max %.2f ms%n",
+        latency.getValueAtQuantile(0.5) / NANOS_PER_MILLI,
+        latency.getValueAtQuantile(0.9) / NANOS_PER_MILLI,
+        latency.getValueAtQuantile(0.99) / NANOS_PER_MILLI,
+        latency.getValueAtQuantile(0.999) / NANOS_PER_MILLI,
+        latency.getMax() / NANOS_PER_MILLI));
+    sb.append(String.format("diffs      %d%n", differences.sum()));
+    synchronized (diffs) {
+      diffs.forEach(d -> sb.append(d).append(System.lineSeparator()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Compares two responses as Messages, ignoring the metadata such as the skipped stages.
+   * @param  expected
+   *         the recorded response
+   * @param  actual
+   *         the replayed response
+   * @return  {@code true} if the responses are the same; {@code false} otherwise
+   */
+  static boolean same(String expected, String actual) {
+    try {
+      Gson gson = new Gson();
+      Message a = gson.fromJson(expected, Message.class);
+      Message b = gson.fromJson(actual, Message.class);
+      if (a != null && b != null) {
+        return Objects.equals(a.getMessage(), b.getMessage())
+            && Objects.equals(a.getScope(), b.getScope())
+            && Objects.equals(a.getEmotion(), b.getEmotion());
+      }
+    } catch (JsonSyntaxException e) {
+      // Not Messages: compare the texts.
+    }
+    return Objects.equals(expected, actual);
+  }
+
+  /**
+   * Gets the ID of the conversation a request body belongs to.
+   * @param  body
+   *         the body of the request
+   * @return  the ID of the conversation; an empty String if the request has none
+   */
+  static String conversation(String body) {
+    try {
+      Message message = new Gson().fromJson(body, Message.class);
+      if (message != null) {
+        return message.getConversation();
+      }
+    } catch (JsonSyntaxException e) {
+      // Not a Message: not part of a conversation.
+    }
+    return "";
+  }
+
+  /**
+   * Answers a request body in process, as the /talk route does.
+   * @param  body
+   *         the body of the request
+   * @return  the body of the response
+   */
+  static String talk(String body) {
+    Message user = null;
+    try {
+      user = new Gson().fromJson(body, Message.class);
+    } catch (JsonSyntaxException e) {
+      // Answered as a null Message, like the server does.
+    }
+    return new Gson().toJson(Logic.talk(user));
+  }
+
+  /**
+   * Sends a request body to a server over HTTP.
+   * @param  url
+   *         the URL of the /talk route
+   * @param  body
+   *         the body of the request
+   * @return  the body of the response
+   * @throws IllegalStateException if the request fails
+   */
+  static String post(URL url, String body) {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+      ByteArrayOutputStream response = new ByteArrayOutputStream();
+      try (InputStream in = connection.getInputStream()) {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          response.write(buffer, 0, read);
+        }
+      }
+      return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Sleeps for the given time.
+   * @param  nanos
+   *         the time to sleep, in nanoseconds
+   */
+  private static void sleep(long nanos) {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Replays a capture and prints the report.
+   * @param  args
+   *         the capture file or directory, followed by the options
+   * @throws IOException if the capture cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: Replay <file or directory> [--target=logic|<url>]"
+          + " [--speed=original|max|<factor>] [--threads=<n>] [--seed=<seed>] [--diffs=<n>]");
+      System.exit(2);
+    }
+    String target = "logic";
+    double speed = 1;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int diffs = 10;
+    for (int i = 1; i < args.length; i++) {
+      String[] option = args[i].split("=", 2);
+      String value = option.length > 1 ? option[1] : "";
+      switch (option[0]) {
+        case "--target":
+          target = value;
+          break;
+        case "--speed":
+          speed = "max".equals(value) ? 0
+              : "original".equals(value) ? 1 : Double.parseDouble(value);
+          break;
+        case "--threads":
+          threads = Integer.parseInt(value);
+          break;
+        case "--seed":
+          Randomness.setSeed(Long.parseLong(value));
+          break;
+        case "--diffs":
+          diffs = Integer.parseInt(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    Function<String, String> send;
+    if ("logic".equals(target)) {
+      send = Replay::talk;
+    } else {
+      URL url = new URL(target);
+      send = body -> post(url, body);
+    }
+    Replay replay = new Replay(send, speed, threads, diffs);
+    System.out.print(replay.run(CaptureLog.files(Paths.get(args[0]))));
+  }
+}
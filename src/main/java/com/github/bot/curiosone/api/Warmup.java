@@ -0,0 +1,353 @@
+package com.github.bot.curiosone.api;
+
+import com.github.bot.curiosone.core.analysis.DictionaryLoader;
+import com.github.bot.curiosone.core.analysis.EmotionAnalysis;
+import com.github.bot.curiosone.core.extraction.BadWords;
+import com.github.bot.curiosone.core.extraction.Conversation;
+import com.github.bot.curiosone.core.knowledge.SemanticNetwork;
+import com.github.bot.curiosone.core.metrics.Metrics;
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Rule;
+import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.nlp.raw.RawDict;
+import com.github.bot.curiosone.core.util.WarmImage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms up the Curiosone before it starts serving traffic.
+ * Loads concurrently all the lazily-loaded resources of the Core, then primes the JIT compiler
+ * running a synthetic conversation corpus through the analysis pipeline.
+ * Provides methods to start the warm-up and to check the readiness of the server.
+ */
+public class Warmup {
+
+  /**
+   * Represents the readiness of the server.
+   */
+  public enum State {
+
+    /**
+     * The warm-up has not finished yet.
+     */
+    WARMING,
+
+    /**
+     * The warm-up has finished and the server can receive traffic.
+     */
+    READY,
+
+    /**
+     * At least one resource failed to load.
+     */
+    FAILED;
+
+    /**
+     * Returns a String representation of this State.
+     * @return  the lowercased name of this State
+     */
+    @Override
+    public String toString() {
+      return name().toLowerCase();
+    }
+  }
+
+  /**
+  * Logs Warmup class.
+  */
+  private static final Logger log = LoggerFactory.getLogger(Warmup.class);
+
+  /**
+   * Path to the synthetic conversation corpus used to prime the JIT compiler.
+   */
+  private static final String corpusPath = "/warmup/corpus.txt";
+
+  /**
+   * Default number of times the corpus is analysed.
+   */
+  private static final int DEFAULT_ROUNDS = 20;
+
+  /**
+   * Stores the readiness of the server.
+   */
+  private static volatile State state = State.WARMING;
+
+  /**
+   * Maps each warmed-up resource to its load time, in milliseconds.
+   */
+  private static final Map<String, Long> loadTimes =
+      Collections.synchronizedMap(new LinkedHashMap<>());
+
+  /**
+   * Stores the running warm-up, if any.
+   */
+  private static CompletableFuture<Void> running;
+
+  /**
+   * Whether the first response has been served.
+   */
+  private static final AtomicBoolean responded = new AtomicBoolean();
+
+  /**
+   * The path of the WarmImage restored before the resources are loaded, if any.
+   */
+  private static Path image;
+
+  /**
+   * Private constructor.
+   */
+  private Warmup() {}
+
+  /**
+   * Sets the WarmImage restored before loading the resources.
+   * If the image is missing or outdated, it is written once the resources have been loaded.
+   * Must be called before {@link #start()}.
+   * @param  path
+   *         the path of the image file. Can be null.
+   * @see  WarmImage The WarmImage Class
+   */
+  public static synchronized void setImage(Path path) {
+    image = path;
+  }
+
+  /**
+   * Starts the warm-up in background.
+   * Calling this method more than once returns the warm-up already started.
+   * @return  a CompletableFuture completed when the warm-up has finished
+   * @see  java.util.concurrent.CompletableFuture The CompletableFuture Class
+   */
+  public static synchronized CompletableFuture<Void> start() {
+    if (running != null) {
+      return running;
+    }
+    long begin = System.nanoTime();
+    List<WarmImage.Section> sections = Arrays.asList(Rule.imageSection(),
+        Conversation.imageSection(), BadWords.imageSection(), DictionaryLoader.imageSection());
+    Path imagePath = image;
+    ExecutorService pool = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()),
+        r -> {
+          Thread t = new Thread(r, "curiosone-warmup");
+          t.setDaemon(true);
+          return t;
+        });
+
+    // The resources restored from the image are already loaded when their loader runs.
+    CompletableFuture<Boolean> restored = imagePath == null
+        ? CompletableFuture.completedFuture(false)
+        : CompletableFuture.supplyAsync(() -> restore(imagePath, sections), pool);
+    CompletableFuture<?>[] loads = {
+      load("wordnet", RawDict::getInstance, pool),
+      load("knowledge", () -> {
+        try {
+          SemanticNetwork.getInstance();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }, pool),
+      restored.thenRunAsync(() -> time("grammar", Rule::load), pool),
+      restored.thenRunAsync(() -> time("conversation", Conversation::loadSentences), pool),
+      restored.thenRunAsync(() -> time("bad_words", BadWords::loadSentences), pool),
+      restored.thenRunAsync(() -> time("sentiment", DictionaryLoader::getInstance), pool)
+    };
+
+    running = CompletableFuture.allOf(loads)
+        .thenRunAsync(() -> {
+          if (imagePath != null && !restored.join()) {
+            time("image_write", () -> save(imagePath, sections));
+          }
+        }, pool)
+        .thenRunAsync(() -> time("jit", Warmup::prime), pool)
+        .whenComplete((v, e) -> {
+          pool.shutdown();
+          if (e != null) {
+            state = State.FAILED;
+            log.error("Warm-up failed", e);
+            return;
+          }
+          state = State.READY;
+          log.info("Warm-up completed in " + (System.nanoTime() - begin) / 1_000_000
+              + "ms " + loadTimes);
+        });
+    return running;
+  }
+
+  /**
+   * Builds the WarmImage at the given path and exits.
+   * Used by the build to write the image and to record the classes loaded on boot.
+   * @param  args
+   *         the path of the image file
+   */
+  public static void main(String[] args) {
+    setImage(Paths.get(args[0]));
+    start().join();
+  }
+
+  /**
+   * Restores the resources saved in a WarmImage.
+   * Any failure is a miss: the resources not restored are loaded from their sources.
+   * @param  path
+   *         the path of the image file
+   * @param  sections
+   *         the Sections of the resources
+   * @return  {@code true} if all the Sections have been restored; {@code false} otherwise
+   */
+  private static boolean restore(Path path, List<WarmImage.Section> sections) {
+    if (!Files.exists(path)) {
+      return false;
+    }
+    long start = System.nanoTime();
+    try {
+      int restored = WarmImage.read(path, sections);
+      record("image", System.nanoTime() - start);
+      log.info("Restored {}/{} resources from {}", restored, sections.size(), path);
+      return restored == sections.size();
+    } catch (IOException | RuntimeException e) {
+      // Whatever the failure, the resources are loaded from their sources.
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Saves the resources in a WarmImage.
+   * @param  path
+   *         the path of the image file
+   * @param  sections
+   *         the Sections of the resources
+   */
+  private static void save(Path path, List<WarmImage.Section> sections) {
+    try {
+      WarmImage.write(path, sections);
+      log.info("Saved {} resources to {}", sections.size(), path);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Gets the readiness of the server.
+   * @return  the current State of the warm-up
+   */
+  public static State getState() {
+    return state;
+  }
+
+  /**
+   * Records the time to the first response, since the JVM started.
+   * Does nothing after the first call.
+   */
+  public static void recordResponse() {
+    if (responded.compareAndSet(false, true)) {
+      long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+      Metrics.histogram("curiosone_first_response_seconds",
+          "Time from the start of the JVM to the first response.", "route", "/talk")
+          .record(uptime * 1_000_000);
+      log.info("First response after " + uptime + "ms");
+    }
+  }
+
+  /**
+   * Gets the load time of each warmed-up resource.
+   * @return  a Map from the name of each resource to its load time, in milliseconds
+   */
+  public static Map<String, Long> getLoadTimes() {
+    synchronized (loadTimes) {
+      return new LinkedHashMap<>(loadTimes);
+    }
+  }
+
+  /**
+   * Loads a resource asynchronously.
+   * @param  name
+   *         the name of the resource
+   * @param  loader
+   *         the action that loads the resource
+   * @param  pool
+   *         the executor where the resource is loaded
+   * @return  a CompletableFuture completed when the resource has been loaded
+   */
+  private static CompletableFuture<Void> load(String name, Runnable loader, ExecutorService pool) {
+    return CompletableFuture.runAsync(() -> time(name, loader), pool);
+  }
+
+  /**
+   * Runs the given action and records its duration.
+   * @param  name
+   *         the name of the action
+   * @param  action
+   *         the action to be timed
+   */
+  private static void time(String name, Runnable action) {
+    long start = System.nanoTime();
+    action.run();
+    record(name, System.nanoTime() - start);
+  }
+
+  /**
+   * Records the duration of an action.
+   * @param  name
+   *         the name of the action
+   * @param  elapsed
+   *         the duration of the action, in nanoseconds
+   */
+  private static void record(String name, long elapsed) {
+    loadTimes.put(name, elapsed / 1_000_000);
+    Metrics.histogram("curiosone_warmup_seconds", "Load time of the warmed-up resources.",
+        "resource", name).record(elapsed);
+  }
+
+  /**
+   * Primes the JIT compiler analysing the synthetic conversation corpus.
+   * Only the read-only stages are exercised, so that the knowledge base is left untouched.
+   */
+  private static void prime() {
+    List<String> corpus = new ArrayList<>();
+    try (InputStream in = Warmup.class.getResourceAsStream(corpusPath);
+         BufferedReader reader =
+             new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          corpus.add(line);
+        }
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+
+    int rounds = System.getenv("WARMUP_ROUNDS") != null
+        ? Integer.parseInt(System.getenv("WARMUP_ROUNDS")) : DEFAULT_ROUNDS;
+    for (int i = 0; i < rounds; i++) {
+      for (String text : corpus) {
+        for (Phrase phrase : Phrase.extract(text)) {
+          EmotionAnalysis.getEmotion(phrase);
+          Conversation.getAnswer(phrase);
+          BadWords.getAnswer(phrase);
+          Sentence.extract(phrase);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,352 @@
+package com.github.bot.curiosone.core.analysis;
+
+import com.github.bot.curiosone.core.nlp.Meaning;
+import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calculates the Sentiment scores of many Phrases at once.
+ * The dictionary identifier of every Token is resolved once, then the scores of all the Tokens
+ * are gathered in a single primitive array and the aggregates of every Phrase are computed by
+ * plain loops over it, without an object per Token.
+ * Besides the score computed by the TokenScorer, every Phrase gets the distribution of the scores
+ * of its Tokens, their intensity and a score where the Tokens following a negation are reversed.
+ * @see  TokenScorer The TokenScorer Class
+ */
+public class BatchScorer {
+
+  /**
+   * The default number of Tokens whose score is reversed after a negation.
+   */
+  public static final int DEFAULT_NEGATION_WINDOW = 3;
+
+  /**
+   * The words reversing the score of the Tokens following them.
+   */
+  private static final Set<String> NEGATIONS = new HashSet<>(Arrays.asList(
+      "not", "no", "never", "none", "nothing", "nobody", "neither", "nor", "nowhere", "cannot"));
+
+  /**
+   * Stores the dictionary instance, used to compute the Sentiment index values.
+   */
+  private final DictionaryLoader dict;
+
+  /**
+   * The number of Tokens whose score is reversed after a negation.
+   */
+  private final int negationWindow;
+
+  /**
+   * Constructs a BatchScorer with the default negation window.
+   */
+  public BatchScorer() {
+    this(DEFAULT_NEGATION_WINDOW);
+  }
+
+  /**
+   * Constructs a BatchScorer.
+   * @param  negationWindow
+   *         the number of Tokens whose score is reversed after a negation
+   */
+  public BatchScorer(int negationWindow) {
+    this.dict = DictionaryLoader.getInstance();
+    this.negationWindow = negationWindow;
+  }
+
+  /**
+   * Scores some Phrases.
+   * @param  phrases
+   *         the Phrases to be analysed
+   * @return  the Scores of every Phrase, in the same order
+   * @see  Phrase The Phrase Class
+   */
+  public Scores score(List<Phrase> phrases) {
+    List<List<Token>> tokens = new ArrayList<>(phrases.size());
+    for (Phrase phrase : phrases) {
+      tokens.add(phrase.getTokens());
+    }
+    return scoreTokens(tokens);
+  }
+
+  /**
+   * Scores some Token Lists.
+   * @param  phrases
+   *         the Token Lists to be analysed
+   * @return  the Scores of every Token List, in the same order
+   * @see  Token The Token Class
+   */
+  public Scores scoreTokens(List<List<Token>> phrases) {
+    int size = phrases.size();
+    int[] offsets = new int[size + 1];
+    for (int p = 0; p < size; p++) {
+      offsets[p + 1] = offsets[p] + phrases.get(p).size();
+    }
+
+    // Resolves the dictionary identifiers and the negations, once per Token.
+    int total = offsets[size];
+    int[] ids = new int[total];
+    boolean[] negations = new boolean[total];
+    int i = 0;
+    for (List<Token> tokens : phrases) {
+      for (Token token : tokens) {
+        ids[i] = isScored(token) ? dict.getId(token.getLemma()) : -1;
+        negations[i] = isNegation(token);
+        i++;
+      }
+    }
+
+    // Gathers the scores, reversing the ones in the window of a negation and dropping the
+    // negations themselves.
+    double[] scores = new double[total];
+    double[] negated = new double[total];
+    for (i = 0; i < total; i++) {
+      scores[i] = dict.getScore(ids[i]);
+    }
+    for (int p = 0; p < size; p++) {
+      int window = 0;
+      for (i = offsets[p]; i < offsets[p + 1]; i++) {
+        negated[i] = negations[i] ? 0.0 : window > 0 ? -scores[i] : scores[i];
+        window = negations[i] ? negationWindow : Math.max(window - 1, 0);
+      }
+    }
+
+    Scores result = new Scores(size);
+    for (int p = 0; p < size; p++) {
+      int from = offsets[p];
+      int to = offsets[p + 1];
+      double sum = 0.0;
+      double negatedSum = 0.0;
+      double absolute = 0.0;
+      double min = 0.0;
+      double max = 0.0;
+      int positive = 0;
+      int negative = 0;
+      int negatedCount = 0;
+      for (i = from; i < to; i++) {
+        double s = scores[i];
+        sum += s;
+        negatedSum += negated[i];
+        negatedCount += negated[i] != 0.0 ? 1 : 0;
+        absolute += Math.abs(s);
+        min = Math.min(min, s);
+        max = Math.max(max, s);
+        positive += s > 0.0 ? 1 : 0;
+        negative += s < 0.0 ? 1 : 0;
+      }
+      int scored = positive + negative;
+      result.scores[p] = scored == 0 ? 0.0 : sum / scored;
+      result.negated[p] = negatedCount == 0 ? 0.0 : negatedSum / negatedCount;
+      result.intensity[p] = scored == 0 ? 0.0 : absolute / scored;
+      result.min[p] = min;
+      result.max[p] = max;
+      result.positive[p] = positive;
+      result.negative[p] = negative;
+      result.neutral[p] = to - from - scored;
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether the score of a Token is taken into account, as in the TokenScorer.
+   * @param  token
+   *         the Token
+   * @return  {@code true} if the dominant Meaning of the Token is a noun, a verb, an adjective or
+   *          an adverb; {@code false} otherwise
+   */
+  private static boolean isScored(Token token) {
+    Meaning dominant = token.getDominantMeaning();
+    if (dominant == null) {
+      return false;
+    }
+    POS pos = dominant.getPOS();
+    return pos == POS.ADJ || pos == POS.V || pos == POS.ADV || pos == POS.N;
+  }
+
+  /**
+   * Checks whether a Token is a negation.
+   * @param  token
+   *         the Token
+   * @return  {@code true} if the Token is a negation; {@code false} otherwise
+   */
+  private static boolean isNegation(Token token) {
+    if (NEGATIONS.contains(token.getText().toLowerCase())) {
+      return true;
+    }
+    for (Meaning m : token.getMeanings()) {
+      if (m.getPOS() == POS.NEG) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stores the Sentiment scores of a batch of Phrases, as an array per aggregate.
+   */
+  public static final class Scores {
+
+    /**
+     * The mean of the nonzero scores of every Phrase.
+     */
+    private final double[] scores;
+
+    /**
+     * The mean of the nonzero scores of every Phrase, reversed after a negation.
+     */
+    private final double[] negated;
+
+    /**
+     * The mean absolute value of the nonzero scores of every Phrase.
+     */
+    private final double[] intensity;
+
+    /**
+     * The lowest score of every Phrase.
+     */
+    private final double[] min;
+
+    /**
+     * The highest score of every Phrase.
+     */
+    private final double[] max;
+
+    /**
+     * The number of Tokens with a positive score of every Phrase.
+     */
+    private final int[] positive;
+
+    /**
+     * The number of Tokens with a negative score of every Phrase.
+     */
+    private final int[] negative;
+
+    /**
+     * The number of Tokens with a neutral score of every Phrase.
+     */
+    private final int[] neutral;
+
+    /**
+     * Constructs the Scores of a batch.
+     * @param  size
+     *         the number of Phrases of the batch
+     */
+    private Scores(int size) {
+      scores = new double[size];
+      negated = new double[size];
+      intensity = new double[size];
+      min = new double[size];
+      max = new double[size];
+      positive = new int[size];
+      negative = new int[size];
+      neutral = new int[size];
+    }
+
+    /**
+     * Gets the number of Phrases of the batch.
+     * @return  the number of Phrases
+     */
+    public int size() {
+      return scores.length;
+    }
+
+    /**
+     * Gets the sentiment score of a Phrase, as computed by the TokenScorer up to rounding.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the mean of the nonzero scores of the Tokens, between -1.00 and 1.00
+     * @see  TokenScorer#calculateScore(List) The calculateScore Method
+     */
+    public double getScore(int phrase) {
+      return scores[phrase];
+    }
+
+    /**
+     * Gets the sentiment score of a Phrase, where the scores of the Tokens following a negation
+     * are reversed and the negations themselves are not scored.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the mean of the nonzero scores of the Tokens, between -1.00 and 1.00
+     */
+    public double getNegatedScore(int phrase) {
+      return negated[phrase];
+    }
+
+    /**
+     * Gets the intensity of the sentiment of a Phrase.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the mean absolute value of the nonzero scores of the Tokens, between 0.00 and 1.00
+     */
+    public double getIntensity(int phrase) {
+      return intensity[phrase];
+    }
+
+    /**
+     * Gets the lowest score of the Tokens of a Phrase.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the lowest score, or 0.00 if no Token has a negative score
+     */
+    public double getMin(int phrase) {
+      return min[phrase];
+    }
+
+    /**
+     * Gets the highest score of the Tokens of a Phrase.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the highest score, or 0.00 if no Token has a positive score
+     */
+    public double getMax(int phrase) {
+      return max[phrase];
+    }
+
+    /**
+     * Gets the number of Tokens of a Phrase with a positive score.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the number of positive Tokens
+     */
+    public int getPositive(int phrase) {
+      return positive[phrase];
+    }
+
+    /**
+     * Gets the number of Tokens of a Phrase with a negative score.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the number of negative Tokens
+     */
+    public int getNegative(int phrase) {
+      return negative[phrase];
+    }
+
+    /**
+     * Gets the number of Tokens of a Phrase with a neutral score.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  the number of neutral Tokens
+     */
+    public int getNeutral(int phrase) {
+      return neutral[phrase];
+    }
+
+    /**
+     * Gets the emotion of a Phrase.
+     * @param  phrase
+     *         the index of the Phrase
+     * @return  a String representation of the emotion. Supports "sad", "happy" and "angry" emotions
+     * @see  EmotionAnalysis#getEmotion(double) The getEmotion Method
+     */
+    public String getEmotion(int phrase) {
+      return EmotionAnalysis.getEmotion(scores[phrase]);
+    }
+  }
+}
@@ -1,14 +1,15 @@
 package com.github.bot.curiosone.core.analysis;
 
-import java.io.FileInputStream;
+import com.github.bot.curiosone.core.util.Resources;
+import com.github.bot.curiosone.core.util.WarmImage;
+
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
 
 /**
  * Handles the dictionary used to score a sentiment index.
@@ -20,7 +21,7 @@ public class DictionaryLoader {
   /**
    * Singleton instance of this class.
    */
-  private static DictionaryLoader instance;
+  private static volatile DictionaryLoader instance;
 
   /**
    * Stores the path to the dictionary file.
@@ -28,50 +29,179 @@ public class DictionaryLoader {
   private static final String uri = "/dictionary/DataDict.properties";
 
   /**
-   * Stores the Map with the word-sentiment score association.
+   * Stores the Map with the word-identifier association.
    */
-  private static Map<String, Double> dict;
+  private static Map<String, Integer> ids;
 
   /**
-   * Stores an utility Properties object, used during the loading process.
+   * Stores the sentiment score of every word, by identifier.
    */
-  private static Properties properties = new Properties();
+  private static double[] scores;
 
   /**
    * Constructs the Singleton instance.
    * Loads dictionary data into memory.
    */
   private DictionaryLoader() {
-    dict = new HashMap<>();
+    ids = new HashMap<>();
     loadDict();
   }
 
+  /**
+   * Constructs the Singleton instance from data already loaded.
+   * @param  loadedIds
+   *         the word-identifier association
+   * @param  loadedScores
+   *         the sentiment score of every word, by identifier
+   */
+  private DictionaryLoader(Map<String, Integer> loadedIds, double[] loadedScores) {
+    ids = loadedIds;
+    scores = loadedScores;
+  }
+
   /**
    * Gets the Singleton instance.
    * @return  the Singleton instance.
    */
   public static DictionaryLoader getInstance() {
     if (instance == null) {
-      instance = new DictionaryLoader();
+      synchronized (DictionaryLoader.class) {
+        if (instance == null) {
+          instance = new DictionaryLoader();
+        }
+      }
     }
     return instance;
   }
 
+  /**
+   * Gets the Section saving the dictionary in a WarmImage.
+   * The words are stored in order of identifier, followed by their scores.
+   * @return  the Section of the dictionary
+   * @see  WarmImage The WarmImage Class
+   */
+  public static WarmImage.Section imageSection() {
+    return new WarmImage.Section("sentiment", uri, 1, out -> {
+      getInstance();
+      String[] words = new String[scores.length];
+      for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+        words[entry.getValue()] = entry.getKey();
+      }
+      WarmImage.writeStrings(out, words);
+      for (double score : scores) {
+        out.writeDouble(score);
+      }
+    }, buffer -> {
+      String[] words = WarmImage.readStrings(buffer);
+      Map<String, Integer> loadedIds = new HashMap<>(words.length * 4 / 3 + 1);
+      for (int i = 0; i < words.length; i++) {
+        loadedIds.put(words[i], i);
+      }
+      double[] loadedScores = new double[words.length];
+      buffer.asDoubleBuffer().get(loadedScores);
+      synchronized (DictionaryLoader.class) {
+        if (instance == null) {
+          instance = new DictionaryLoader(loadedIds, loadedScores);
+        }
+      }
+    });
+  }
+
   /**
    * Loads in memory the data from the dictionary file.
+   * The file is in the Properties format, parsed a line at a time; a word appearing twice keeps
+   * its last score.
    */
   private static void loadDict() {
-    Path path = null;
-    try {
-      URL resource = DictionaryLoader.class.getResource(uri);
-      path = Paths.get(resource.toURI());
-      properties.load(new FileInputStream(path.toString()));
-    } catch (IOException | URISyntaxException e) {
+    double[] loaded = new double[1 << 16];
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(Resources.open(uri), StandardCharsets.ISO_8859_1))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] entry = parseEntry(line);
+        if (entry == null) {
+          continue;
+        }
+        int id = ids.computeIfAbsent(entry[0], k -> ids.size());
+        if (id == loaded.length) {
+          loaded = Arrays.copyOf(loaded, loaded.length * 2);
+        }
+        loaded[id] = Double.parseDouble(entry[1]);
+      }
+    } catch (IOException e) {
       e.printStackTrace();
     }
-    for (String key : properties.stringPropertyNames()) {
-      dict.put(key, Double.parseDouble(properties.get(key).toString()));
+    scores = Arrays.copyOf(loaded, ids.size());
+  }
+
+  /**
+   * Parses a line of a Properties file.
+   * Continuation lines are not supported.
+   * @param  line
+   *         the line to be parsed
+   * @return  an array containing the unescaped key and value, or null if the line is blank or a
+   *          comment
+   */
+  static String[] parseEntry(String line) {
+    int start = 0;
+    while (start < line.length() && Character.isWhitespace(line.charAt(start))) {
+      start++;
+    }
+    if (start == line.length() || line.charAt(start) == '#' || line.charAt(start) == '!') {
+      return null;
+    }
+    int end = start;
+    while (end < line.length()) {
+      char c = line.charAt(end);
+      if (c == '\\') {
+        end += 2;
+        continue;
+      }
+      if (c == '=' || c == ':' || Character.isWhitespace(c)) {
+        break;
+      }
+      end++;
+    }
+    end = Math.min(end, line.length());
+    int value = end;
+    while (value < line.length() && Character.isWhitespace(line.charAt(value))) {
+      value++;
+    }
+    if (value < line.length() && (line.charAt(value) == '=' || line.charAt(value) == ':')) {
+      value++;
     }
+    while (value < line.length() && Character.isWhitespace(line.charAt(value))) {
+      value++;
+    }
+    return new String[] {unescape(line.substring(start, end)), unescape(line.substring(value))};
+  }
+
+  /**
+   * Unescapes a key or a value of a Properties file.
+   * @param  str
+   *         the escaped String
+   * @return  the unescaped String
+   */
+  private static String unescape(String str) {
+    if (str.indexOf('\\') < 0) {
+      return str;
+    }
+    StringBuilder sb = new StringBuilder(str.length());
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c != '\\' || i + 1 == str.length()) {
+        sb.append(c);
+        continue;
+      }
+      c = str.charAt(++i);
+      if (c == 'u' && i + 4 < str.length()) {
+        sb.append((char) Integer.parseInt(str.substring(i + 1, i + 5), 16));
+        i += 4;
+      } else {
+        sb.append(c == 't' ? '\t' : c == 'n' ? '\n' : c == 'r' ? '\r' : c == 'f' ? '\f' : c);
+      }
+    }
+    return sb.toString();
   }
 
   /**
@@ -82,7 +212,28 @@ public class DictionaryLoader {
    * @return the sentiment score of the given word
    */
   public double getScore(String word) {
-    return dict.getOrDefault(word, 0.0);
+    return getScore(getId(word));
+  }
+
+  /**
+   * Gets the identifier of the given Word, to look its score up without hashing it again.
+   * @param  word
+   *         the Word to be looked up
+   * @return  the identifier of the Word, or -1 if the Word is unknown
+   */
+  public int getId(String word) {
+    Integer id = ids.get(word);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the sentiment score of the Word with the given identifier.
+   * @param  id
+   *         the identifier of the Word, as returned by {@link #getId}
+   * @return  the sentiment score of the Word, or a neutral score (0.00) if the identifier is -1
+   */
+  public double getScore(int id) {
+    return id < 0 ? 0.0 : scores[id];
   }
 
 }
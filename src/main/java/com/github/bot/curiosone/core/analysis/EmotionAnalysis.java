@@ -1,10 +1,14 @@
 package com.github.bot.curiosone.core.analysis;
 
 import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Token;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles phrasal emotion analysis.
- * Provides a public static method to calculate the emotion of a given Phrase.
+ * Provides public static methods to calculate the emotion of the given Phrases.
  */
 public class EmotionAnalysis {
 
@@ -22,7 +26,31 @@ public class EmotionAnalysis {
    * @see  Phrase The Phrase Class
    */
   public static String getEmotion(Phrase phrase) {
-    double score = TokenScorer.calculateScore(phrase.getTokens());
+    return getEmotion(TokenScorer.calculateScore(phrase.getTokens()));
+  }
+
+  /**
+   * Performs an emotion analysis of the provided Phrases, as if they were a single one.
+   * @param  phrases
+   *         the Phrases to be analysed.
+   * @return  a String representation of the calculated emotion. Supports "sad", "happy" and "angry"
+   *          emotions
+   * @see  Phrase The Phrase Class
+   */
+  public static String getEmotion(List<Phrase> phrases) {
+    List<Token> tokens = new ArrayList<>();
+    phrases.forEach(p -> tokens.addAll(p.getTokens()));
+    return getEmotion(TokenScorer.calculateScore(tokens));
+  }
+
+  /**
+   * Converts a sentiment score in an emotion.
+   * @param  score
+   *         the sentiment score, between -1.0 and 1.0
+   * @return  a String representation of the emotion. Supports "sad", "happy" and "angry" emotions
+   * @see  TokenScorer The TokenScorer Class
+   */
+  public static String getEmotion(double score) {
     if (score <= -0.5) {
       return "angry";
     }
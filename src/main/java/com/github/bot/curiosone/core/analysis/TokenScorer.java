@@ -1,7 +1,5 @@
 package com.github.bot.curiosone.core.analysis;
 
-import static java.util.Comparator.comparing;
-
 import com.github.bot.curiosone.core.nlp.Meaning;
 import com.github.bot.curiosone.core.nlp.POS;
 import com.github.bot.curiosone.core.nlp.Token;
@@ -31,10 +29,11 @@ public class TokenScorer {
    * @see  Token The Token Class
    */
   public static double calculateScore(Token token) {
-    POS pos = token.getMeanings().stream()
-        .sorted(comparing(Meaning::getFrequency).reversed())
-        .findFirst()
-        .get().getPOS();
+    Meaning dominant = token.getDominantMeaning();
+    if (dominant == null) {
+      return 0.0;
+    }
+    POS pos = dominant.getPOS();
     return (pos == POS.ADJ || pos == POS.V || pos == POS.ADV || pos == POS.N)
         ? dict.getScore(token.getLemma()) : 0.0;
   }
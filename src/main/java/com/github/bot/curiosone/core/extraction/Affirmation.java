@@ -7,6 +7,7 @@ import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
 import com.github.bot.curiosone.core.nlp.LEX;
 import com.github.bot.curiosone.core.nlp.Meaning;
 import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.nlp.PatternMatcher;
 import com.github.bot.curiosone.core.nlp.Sentence;
 import com.github.bot.curiosone.core.nlp.Word;
 
@@ -14,7 +15,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Contains an utility method to get an answer from a given Sentence and its scope.
@@ -22,6 +22,14 @@ import java.util.stream.Collectors;
  */
 public class Affirmation {
 
+  /**
+   * The structures of the answers to a question of the bot, by priority.
+   * @see  com.github.bot.curiosone.core.nlp.PatternMatcher The PatternMatcher Class
+   */
+  private static final PatternMatcher ANSWERS = PatternMatcher.compile(
+      "verb=V object=NP.N$",
+      "{verb=V object=N$}");
+
   /**
    * Gets a coherent answer from an input sentence and scope as Optional instance.
    * @param  sentence
@@ -50,24 +58,13 @@ public class Affirmation {
     }
 
     if (answer) {
-      Word verb;
-      Word object;
       scope = scope.substring(0, scope.length() - 1);
 
-      if (sentence.respect(POS.V, POS.NP)) {
-        List<Word>[] extracted = sentence.parse(POS.V, POS.NP);
-        verb = extracted[0].stream().filter(w -> w.itMeans(POS.V)).findFirst().get();
-        List<Word> nouns =
-            extracted[1].stream().filter(w -> w.itMeans(POS.N)).collect(Collectors.toList());
-        object = nouns.get(nouns.size() - 1);
-      }
-      if (sentence.has(POS.V) && sentence.has(POS.N)) {
-        verb = sentence.get(POS.V).get(0);
-        List<Word> nouns = sentence.get(POS.N);
-        object = nouns.get(nouns.size() - 1);
-      } else {
+      Optional<PatternMatcher.Match> match = ANSWERS.match(sentence);
+      if (!match.isPresent()) {
         return Optional.empty();
       }
+      Word object = match.get().get("object");
 
       SemanticQuery sq = new SemanticQuery(
           SemanticRelationType.IS_A,
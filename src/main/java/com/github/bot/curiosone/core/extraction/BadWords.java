@@ -1,17 +1,14 @@
 package com.github.bot.curiosone.core.extraction;
 
 import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.util.Resources;
+import com.github.bot.curiosone.core.util.WarmImage;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Handles precomputed answers to some common bad words.
@@ -29,7 +26,7 @@ public class BadWords {
    * Lists different insults known by the Bot.
    * @see  List The List Interface
    */
-  private static List<String> knownBadWords;
+  private static volatile List<String> knownBadWords;
 
   /**
    * Array of different answers that the bot gives in output.
@@ -48,23 +45,38 @@ public class BadWords {
 
   /**
    * Loads the known bad words in memory.
+   * Does nothing if the known bad words have already been loaded.
    */
-  private static void loadSentences() {
-    knownBadWords = new ArrayList<>();
-    Path path = null;
-
-    try {
-      URL resource = Conversation.class.getResource(badWordsPath);
-      path = Paths.get(resource.toURI());
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
+  public static synchronized void loadSentences() {
+    if (knownBadWords != null) {
+      return;
     }
-
-    try (Stream<String> stream = Files.lines(path)) {
-      stream.forEach(line -> knownBadWords.add(line));
+    List<String> loaded = new ArrayList<>();
+    try {
+      Resources.forEachLine(badWordsPath, loaded::add);
     } catch (IOException e) {
       e.printStackTrace();
     }
+    knownBadWords = loaded;
+  }
+
+  /**
+   * Gets the Section saving the known bad words in a WarmImage.
+   * @return  the Section of the known bad words
+   * @see  WarmImage The WarmImage Class
+   */
+  public static WarmImage.Section imageSection() {
+    return new WarmImage.Section("bad_words", badWordsPath, 1, out -> {
+      loadSentences();
+      WarmImage.writeStrings(out, knownBadWords.toArray(new String[0]));
+    }, buffer -> {
+      List<String> loaded = new ArrayList<>(Arrays.asList(WarmImage.readStrings(buffer)));
+      synchronized (BadWords.class) {
+        if (knownBadWords == null) {
+          knownBadWords = loaded;
+        }
+      }
+    });
   }
 
   /**
@@ -82,7 +94,7 @@ public class BadWords {
     if (knownBadWords == null) {
       loadSentences();
     }
-    int randpos = (int)(Math.random() * readyAnswers.length);
+    int randpos = Randomness.nextInt(phrase.getText(), readyAnswers.length);
     boolean bad = phrase.getTokens().stream()
         .map(word -> word.getText())
         .anyMatch(word -> knownBadWords.contains(word));
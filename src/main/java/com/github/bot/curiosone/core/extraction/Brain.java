@@ -1,10 +1,14 @@
 package com.github.bot.curiosone.core.extraction;
 
+import com.github.bot.curiosone.core.metrics.Metrics;
 import com.github.bot.curiosone.core.nlp.Phrase;
 import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manages the Brain of the Curiosone.
@@ -15,6 +19,41 @@ import java.util.Optional;
  */
 public class Brain {
 
+  /**
+   * Name of the metrics family that counts the answers given by each branch of the Brain.
+   */
+  public static final String BRANCH_METRIC = "curiosone_talk_answers_total";
+
+  /**
+   * Description of the metrics family that counts the answers given by each branch of the Brain.
+   */
+  public static final String BRANCH_HELP = "Answers given by each branch of the Brain.";
+
+  /**
+   * Counts the answers taken from the known conversations.
+   */
+  private static final LongAdder CONVERSATION = branch("conversation");
+
+  /**
+   * Counts the answers given to bad words.
+   */
+  private static final LongAdder BAD_WORDS = branch("bad_words");
+
+  /**
+   * Counts the randomly generated answers.
+   */
+  private static final LongAdder RANDOM = branch("random");
+
+  /**
+   * Counts the answers given to questions.
+   */
+  private static final LongAdder QUESTION = branch("question");
+
+  /**
+   * Counts the answers given to affirmations.
+   */
+  private static final LongAdder AFFIRMATION = branch("affirmation");
+
   /**
    * Private Constructor.
    */
@@ -32,7 +71,15 @@ public class Brain {
    */
   public static Optional<BrainResponse> conversate(Phrase phrase) {
     Optional<BrainResponse> answ = Conversation.getAnswer(phrase);
-    return answ.isPresent() ? answ : BadWords.getAnswer(phrase);
+    if (answ.isPresent()) {
+      CONVERSATION.increment();
+      return answ;
+    }
+    answ = BadWords.getAnswer(phrase);
+    if (answ.isPresent()) {
+      BAD_WORDS.increment();
+    }
+    return answ;
   }
 
   /**
@@ -44,6 +91,7 @@ public class Brain {
    * @see  BrainResponse The BrainResponse Class
    */
   public static BrainResponse random(Phrase phrase) {
+    RANDOM.increment();
     return RandomAnswer.getAnswer(phrase);
   }
 
@@ -61,7 +109,46 @@ public class Brain {
    * @see  BrainResponse The BrainResponse Class
    */
   public static Optional<BrainResponse> compute(Sentence sentence, String scope) {
-    return sentence.isQuestion()
-        ? Question.getAnswer(sentence, scope) : Affirmation.getAnswer(sentence, scope);
+    return compute(sentence, scope, Deadline.none());
+  }
+
+  /**
+   * Answers to a sentence, unless the Deadline has already expired.
+   * The knowledge base lookup is not interrupted once started.
+   * @param  sentence
+   *         the sentence to generate the response to
+   * @param  scope
+   *         the scope of the conversation
+   * @param  deadline
+   *         the latency budget of the computation
+   * @return  an Optional instance, containing the response for the input Sentence
+   * @throws DeadlineExceededException if the Deadline has expired
+   * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+   */
+  public static Optional<BrainResponse> compute(Sentence sentence, String scope,
+                                                Deadline deadline) {
+    deadline.check("compute");
+    if (sentence.isQuestion()) {
+      Optional<BrainResponse> answ = Question.getAnswer(sentence, scope);
+      if (answ.isPresent()) {
+        QUESTION.increment();
+      }
+      return answ;
+    }
+    Optional<BrainResponse> answ = Affirmation.getAnswer(sentence, scope);
+    if (answ.isPresent()) {
+      AFFIRMATION.increment();
+    }
+    return answ;
+  }
+
+  /**
+   * Gets the counter of the answers given by the given branch.
+   * @param  name
+   *         the name of the branch
+   * @return  the counter of the given branch
+   */
+  private static LongAdder branch(String name) {
+    return Metrics.counter(BRANCH_METRIC, BRANCH_HELP, "branch", name);
   }
 }
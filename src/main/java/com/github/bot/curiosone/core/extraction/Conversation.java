@@ -2,20 +2,16 @@ package com.github.bot.curiosone.core.extraction;
 
 import com.github.bot.curiosone.core.nlp.Phrase;
 import com.github.bot.curiosone.core.nlp.Token;
+import com.github.bot.curiosone.core.util.Resources;
+import com.github.bot.curiosone.core.util.WarmImage;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Handles the precomputed answers to some common conversational Phrases.
@@ -33,7 +29,7 @@ public class Conversation {
    * Maps the recognized tokens to their possible phrases.
    * @see  <a href="https://goo.gl/CR2S3b">The LinkedHashMap Class</a>
    */
-  private static LinkedHashMap<String[], String[]> knownQuestions;
+  private static volatile LinkedHashMap<String[], String[]> knownQuestions;
 
   /**
    * Private constructor.
@@ -42,27 +38,50 @@ public class Conversation {
 
   /**
    * Loads the known answers in memory.
+   * Does nothing if the known answers have already been loaded.
    */
-  private static void loadSentences() {
-    knownQuestions = new LinkedHashMap<>();
-    Path path = null;
-    try {
-      URL resource = Conversation.class.getResource(conversationsPath);
-      path = Paths.get(resource.toURI());
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
+  public static synchronized void loadSentences() {
+    if (knownQuestions != null) {
+      return;
     }
-
-    try (Stream<String> stream = Files.lines(path)) {
-      stream.forEach(line -> {
+    LinkedHashMap<String[], String[]> loaded = new LinkedHashMap<>();
+    try {
+      Resources.forEachLine(conversationsPath, line -> {
         int splitIndex = line.indexOf(":");
         String[] key = line.substring(0, splitIndex).split("\t");
         String[] values = line.substring(splitIndex + 1, line.length()).split("\t");
-        knownQuestions.put(key, values);
+        loaded.put(key, values);
       });
     } catch (IOException e) {
       e.printStackTrace();
     }
+    knownQuestions = loaded;
+  }
+
+  /**
+   * Gets the Section saving the known answers in a WarmImage.
+   * @return  the Section of the known answers
+   * @see  WarmImage The WarmImage Class
+   */
+  public static WarmImage.Section imageSection() {
+    return new WarmImage.Section("conversation", conversationsPath, 1, out -> {
+      loadSentences();
+      out.writeInt(knownQuestions.size());
+      for (Map.Entry<String[], String[]> entry : knownQuestions.entrySet()) {
+        WarmImage.writeStrings(out, entry.getKey());
+        WarmImage.writeStrings(out, entry.getValue());
+      }
+    }, buffer -> {
+      LinkedHashMap<String[], String[]> loaded = new LinkedHashMap<>();
+      for (int i = buffer.getInt(); i > 0; i--) {
+        loaded.put(WarmImage.readStrings(buffer), WarmImage.readStrings(buffer));
+      }
+      synchronized (Conversation.class) {
+        if (knownQuestions == null) {
+          knownQuestions = loaded;
+        }
+      }
+    });
   }
 
   /**
@@ -94,7 +113,7 @@ public class Conversation {
         }
       }
       if (isKnown) {
-        int randpos = (int)(Math.random() * entry.getValue().length);
+        int randpos = Randomness.nextInt(phrase.getText(), entry.getValue().length);
         return Optional.of(new BrainResponse(entry.getValue()[randpos], ""));
       }
     }
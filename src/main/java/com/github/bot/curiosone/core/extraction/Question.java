@@ -7,14 +7,18 @@ import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
 import com.github.bot.curiosone.core.nlp.LEX;
 import com.github.bot.curiosone.core.nlp.Meaning;
 import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.nlp.PatternMatcher;
 import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.nlp.Token;
 import com.github.bot.curiosone.core.nlp.Word;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Provides a static method to get an answer from a given sentence and a given scope.
@@ -22,6 +26,27 @@ import java.util.stream.Collectors;
  */
 public class Question {
 
+  /**
+   * The structures of the supported questions, by priority.
+   * The kind is the interrogative Word, the object the last noun.
+   * @see  com.github.bot.curiosone.core.nlp.PatternMatcher The PatternMatcher Class
+   */
+  private static final PatternMatcher QUESTIONS = PatternMatcher.compile(
+      "kind=PRON verb=V object=NP.N$",
+      "kind=ADV verb=V object=NP.N$",
+      "{kind=PRON verb=V object=N$}",
+      "{kind=ADV verb=V object=N$}");
+
+  /**
+   * The Words opening a question about the kind of something, as in "is a poodle an animal?".
+   */
+  private static final Set<String> IS_A_VERBS = new HashSet<>(Arrays.asList("is", "are"));
+
+  /**
+   * The determiners skipped in a question about the kind of something.
+   */
+  private static final Set<String> DETERMINERS = new HashSet<>(Arrays.asList("a", "an", "the"));
+
   /**
    * Returns an answer for the given sentence and the given scope.
    * @param  sentence
@@ -36,47 +61,13 @@ public class Question {
    * @see  BrainResponse The BrainResponse Class
    */
   public static Optional<BrainResponse> getAnswer(Sentence sentence, String scope) {
-    Word kind;
-    Word verb;
-    Word object;
-
-    if (sentence.respect(POS.PRON, POS.V, POS.NP)) {
-      List<Word>[] extracted = sentence.parse(POS.PRON, POS.V, POS.NP);
-      kind = extracted[0].stream()
-          .filter(w -> w.itMeans(POS.PRON))
-          .findFirst().get();
-      verb = extracted[1].stream()
-          .filter(w -> w.itMeans(POS.V))
-          .findFirst().get();
-      List<Word> nouns = extracted[2].stream()
-          .filter(w -> w.itMeans(POS.N))
-          .collect(Collectors.toList());
-      object = nouns.get(nouns.size() - 1);
-    } else if (sentence.respect(POS.ADV, POS.V, POS.NP)) {
-      List<Word>[] extracted = sentence.parse(POS.ADV, POS.V, POS.NP);
-      kind = extracted[0].stream()
-          .filter(w -> w.itMeans(POS.ADV))
-          .findFirst().get();
-      verb = extracted[1].stream()
-          .filter(w -> w.itMeans(POS.V))
-          .findFirst().get();
-      List<Word> nouns = extracted[2].stream()
-          .filter(w -> w.itMeans(POS.N))
-          .collect(Collectors.toList());
-      object = nouns.get(nouns.size() - 1);
-    } else if (sentence.has(POS.PRON) && sentence.has(POS.V) && sentence.has(POS.N)) {
-      kind = sentence.get(POS.PRON).get(0);
-      verb = sentence.get(POS.V).get(0);
-      List<Word> nouns = sentence.get(POS.N);
-      object = nouns.get(nouns.size() - 1);
-    } else if (sentence.has(POS.ADV) && sentence.has(POS.V) && sentence.has(POS.N)) {
-      kind = sentence.get(POS.ADV).get(0);
-      verb = sentence.get(POS.V).get(0);
-      List<Word> nouns = sentence.get(POS.N);
-      object = nouns.get(nouns.size() - 1);
-    } else {
-      return Optional.empty();
+    Optional<PatternMatcher.Match> match = QUESTIONS.match(sentence);
+    if (!match.isPresent()) {
+      return getKindAnswer(sentence);
     }
+    Word kind = match.get().get("kind");
+    Word verb = match.get().get("verb");
+    Word object = match.get().get("object");
 
     SemanticNetwork semanticNetwork;
     try {
@@ -154,4 +145,75 @@ public class Question {
       }
     }
   }
+
+  /**
+   * Answers a question about the kind of something, as "is a poodle an animal?", following any
+   * number of IS_A and HYPERNYM Semantic Relations.
+   * The question is recognized on its Words rather than on its parse, as the grammar does not
+   * cover the whole of it: "is" or "are", then a noun and another noun, each one optionally
+   * preceded by a determiner, and nothing else.
+   * @param  sentence
+   *         the sentence to base the answer on
+   * @return  an Optional instance. If the sentence is a question about the kind of something, the
+   *          value contains the computed answer. Otherwise, an empty Optional instance is returned.
+   * @see  com.github.bot.curiosone.core.knowledge.SemanticNetwork#isA The isA Method
+   */
+  private static Optional<BrainResponse> getKindAnswer(Sentence sentence) {
+    List<Word> words = sentence.getWords();
+    if (words.isEmpty() || !IS_A_VERBS.contains(words.get(0).getText())) {
+      return Optional.empty();
+    }
+    List<String> concepts = new ArrayList<>(2);
+    int i = 1;
+    while (concepts.size() < 2) {
+      if (i < words.size() && DETERMINERS.contains(words.get(i).getText())) {
+        i++;
+      }
+      if (i == words.size() || !isNoun(words.get(i))) {
+        return Optional.empty();
+      }
+      Word word = words.get(i++);
+      concepts.add(word.getLemma() == null ? word.getText() : word.getLemma());
+    }
+    if (i != words.size()) {
+      return Optional.empty();
+    }
+    String below = concepts.get(0);
+    String above = concepts.get(1);
+
+    SemanticNetwork semanticNetwork;
+    try {
+      semanticNetwork = SemanticNetwork.getInstance();
+    } catch (IOException e) {
+      e.printStackTrace();
+      return Optional.empty();
+    }
+    String newMessage;
+    String newScope;
+    if (semanticNetwork.isA(below, above)) {
+      newMessage = "Yes! For what I know, " + below + " is a kind of " + above + "!";
+      newScope = below;
+    } else {
+      newMessage = "I do not know whether " + below + " is a kind of " + above + "! Do you?";
+      newScope = below + '?';
+    }
+    return Optional.of(new BrainResponse(newMessage, newScope));
+  }
+
+  /**
+   * Checks whether a Word is a noun.
+   * The Words outside the parsed span of the Sentence have no Meanings, so their most frequent
+   * Meaning in the dictionary is checked instead.
+   * @param  word
+   *         the Word to be checked
+   * @return  {@code true} if the Word is a noun; {@code false} otherwise
+   */
+  private static boolean isNoun(Word word) {
+    if (!word.getMeanings().isEmpty()) {
+      return word.itMeans(POS.N);
+    }
+    List<Token> tokens = Token.tokenize(word.getText());
+    return tokens.size() == 1 && tokens.get(0).getDominantMeaning() != null
+        && tokens.get(0).getDominantMeaning().getPOS() == POS.N;
+  }
 }
@@ -58,23 +58,26 @@ public class RandomAnswer {
     List<Token> tokenList = phrase.getTokens();
 
     if (tokenList.size() == 1) {
-      return new BrainResponse(phrase.getText() + CONSTANTS[randomIndex(CONSTANTS)], "");
+      return new BrainResponse(phrase.getText() + CONSTANTS[randomIndex(phrase, CONSTANTS)], "");
     } else {
       long count = tokenList.stream().map(Token::isKnown).filter(x -> !x).count();
       if (count > tokenList.size() / 2) {
-        return new BrainResponse(ENGLISH_ANSWERS[randomIndex(ENGLISH_ANSWERS)], "");
+        return new BrainResponse(ENGLISH_ANSWERS[randomIndex(phrase, ENGLISH_ANSWERS)], "");
       }
     }
-    return new BrainResponse(GENERAL_ANSWERS[randomIndex(GENERAL_ANSWERS)], "");
+    return new BrainResponse(GENERAL_ANSWERS[randomIndex(phrase, GENERAL_ANSWERS)], "");
   }
 
   /**
    * Picks a random index of the array given in input.
+   * @param  phrase
+   *         the Phrase being answered
    * @param  array
    *         the source array
    * @return  the randomly generated index of the given array
+   * @see  Randomness The Randomness Class
    */
-  private static int randomIndex(String[] array) {
-    return (int)(Math.random() * array.length);
+  private static int randomIndex(Phrase phrase, String[] array) {
+    return Randomness.nextInt(phrase.getText(), array.length);
   }
 }
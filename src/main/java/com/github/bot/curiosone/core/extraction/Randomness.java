@@ -0,0 +1,90 @@
+package com.github.bot.curiosone.core.extraction;
+
+import java.util.SplittableRandom;
+
+/**
+ * Provides the random choices of the Brain.
+ * By default every thread draws from its own SplittableRandom stream, so that concurrent requests
+ * never contend on a shared seed. In seeded mode every choice is derived from the seed and from
+ * the key of the choice only, so that identical inputs produce identical outputs, whatever the
+ * thread or the order of the requests: this mode is meant for benchmark replay and tests.
+ * @see  java.util.SplittableRandom The SplittableRandom Class
+ */
+public class Randomness {
+
+  /**
+   * Odd constant spreading the hash codes of the keys over 64 bits.
+   */
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * Generates the streams of the threads. Guarded by its own lock.
+   */
+  private static final SplittableRandom root = new SplittableRandom();
+
+  /**
+   * Stores the stream of each thread.
+   */
+  private static final ThreadLocal<SplittableRandom> streams = ThreadLocal.withInitial(() -> {
+    synchronized (root) {
+      return root.split();
+    }
+  });
+
+  /**
+   * Stores whether the choices are deterministic.
+   */
+  private static volatile boolean seeded;
+
+  /**
+   * Stores the seed of the deterministic choices.
+   */
+  private static volatile long seed;
+
+  /**
+   * Private constructor.
+   */
+  private Randomness() {}
+
+  /**
+   * Makes every choice deterministic.
+   * @param  seed
+   *         the seed the choices are derived from
+   */
+  public static synchronized void setSeed(long seed) {
+    Randomness.seed = seed;
+    Randomness.seeded = true;
+  }
+
+  /**
+   * Makes every choice random again.
+   */
+  public static synchronized void clearSeed() {
+    seeded = false;
+  }
+
+  /**
+   * Checks whether the choices are deterministic.
+   * @return  {@code true} if a seed has been set; {@code false} otherwise
+   */
+  public static boolean isSeeded() {
+    return seeded;
+  }
+
+  /**
+   * Picks a random index.
+   * @param  key
+   *         identifies the choice, for instance the text being answered. Only used in seeded
+   *         mode, where the same key always gives the same index.
+   * @param  bound
+   *         the number of the available indices
+   * @return  an index between 0 (inclusive) and the bound (exclusive)
+   * @throws IllegalArgumentException if the bound is not positive
+   */
+  public static int nextInt(String key, int bound) {
+    if (seeded) {
+      return new SplittableRandom(seed ^ key.hashCode() * GOLDEN_GAMMA).nextInt(bound);
+    }
+    return streams.get().nextInt(bound);
+  }
+}
@@ -65,10 +65,6 @@ public class Concept implements Vertex {
    */
   @Override
   public int hashCode() {
-    int conta = 0;
-    for (int x = 0; x < id.length(); x++) {
-      conta += id.charAt(x) * 31;
-    }
-    return conta;
+    return id.hashCode();
   }
 }
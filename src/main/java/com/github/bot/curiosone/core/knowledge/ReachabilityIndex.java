@@ -0,0 +1,356 @@
+package com.github.bot.curiosone.core.knowledge;
+
+import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
+import com.github.bot.curiosone.core.knowledge.interfaces.Vertex;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers whether a Concept is a kind of another one, following any number of IS_A and HYPERNYM
+ * Semantic Relations.
+ * Every Concept is numbered in post-order over a spanning forest of the hierarchy, so that the
+ * Concepts below it in the forest form an interval of numbers. The Concepts reached through the
+ * other parents of the DAG are added as further intervals, kept sorted and merged: a Concept is
+ * below another if its number falls in one of the intervals of the other, found by binary search.
+ * A new Semantic Relation adds the intervals of its source to the target and to all the Concepts
+ * above it, so that the index is maintained as the network learns.
+ * The IDs of the Concepts are compared ignoring case, as the questions are lowercased by the
+ * tokenizer while the learned Concepts keep the spelling of the user.
+ * @see  SemanticNetwork The SemanticNetwork Class
+ */
+class ReachabilityIndex {
+
+  /**
+   * The empty array of parents or intervals.
+   */
+  private static final int[] NONE = new int[0];
+
+  /**
+   * Maps the lowercase ID of every Concept to its node.
+   */
+  private final Map<String, Integer> nodes;
+
+  /**
+   * The parents of every node.
+   */
+  private int[][] parents;
+
+  /**
+   * The post-order number of every node.
+   */
+  private int[] numbers;
+
+  /**
+   * The intervals of the numbers of the nodes below every node, itself included, as sorted and
+   * disjoint pairs of bounds.
+   */
+  private int[][] intervals;
+
+  /**
+   * The number of nodes.
+   */
+  private int size;
+
+  /**
+   * Constructs the index of some Semantic Relations.
+   * The Semantic Relations other than IS_A and HYPERNYM are ignored.
+   * @param  edges
+   *         the Semantic Relations
+   */
+  ReachabilityIndex(Collection<? extends Edge> edges) {
+    nodes = new HashMap<>(edges.size() * 4 / 3 + 1);
+    parents = new int[Math.max(16, edges.size())][];
+    for (Edge e : edges) {
+      if (isHierarchy(e.getType())) {
+        int source = node(e.getSource());
+        int target = node(e.getTarget());
+        if (source != target && indexOf(parents[source], target) < 0) {
+          parents[source] = append(parents[source], target);
+        }
+      }
+    }
+    numbers = new int[parents.length];
+    intervals = new int[parents.length][];
+    number();
+  }
+
+  /**
+   * Checks whether a Semantic Relation is part of the hierarchy.
+   * @param  type
+   *         the SemanticRelationType of the Semantic Relation
+   * @return  {@code true} if the type is IS_A or HYPERNYM; {@code false} otherwise
+   */
+  static boolean isHierarchy(SemanticRelationType type) {
+    return type == SemanticRelationType.IS_A || type == SemanticRelationType.HYPERNYM;
+  }
+
+  /**
+   * Checks whether a Concept is a kind of another one.
+   * @param  v1
+   *         the Concept below
+   * @param  v2
+   *         the Concept above
+   * @return  {@code true} if the Concepts are the same or a chain of IS_A and HYPERNYM Semantic
+   *          Relations leads from the first to the second; {@code false} otherwise
+   */
+  boolean isA(Vertex v1, Vertex v2) {
+    Integer below = nodes.get(key(v1));
+    Integer above = nodes.get(key(v2));
+    if (below == null || above == null) {
+      return key(v1).equals(key(v2));
+    }
+    return contains(intervals[above], numbers[below]);
+  }
+
+  /**
+   * Adds a Semantic Relation.
+   * Every Concept above the target, the target included, gets the Concepts below the source.
+   * @param  e
+   *         the Semantic Relation. Ignored if it is not IS_A or HYPERNYM.
+   */
+  void add(Edge e) {
+    if (isHierarchy(e.getType())) {
+      link(node(e.getSource()), node(e.getTarget()));
+    }
+  }
+
+  /**
+   * Gets the node of a Concept, adding it if missing.
+   * A new node is numbered after all the others, below nothing but itself.
+   * @param  v
+   *         the Concept
+   * @return  the node of the Concept
+   */
+  private int node(Vertex v) {
+    Integer n = nodes.get(key(v));
+    if (n != null) {
+      return n;
+    }
+    if (size == parents.length) {
+      parents = Arrays.copyOf(parents, size * 2);
+      if (numbers != null) {
+        numbers = Arrays.copyOf(numbers, size * 2);
+        intervals = Arrays.copyOf(intervals, size * 2);
+      }
+    }
+    parents[size] = NONE;
+    if (numbers != null) {
+      numbers[size] = size;
+      intervals[size] = new int[] {size, size};
+    }
+    nodes.put(key(v), size);
+    return size++;
+  }
+
+  /**
+   * Gets the key of a Concept in the index.
+   * @param  v
+   *         the Concept
+   * @return  the lowercase ID of the Concept
+   */
+  private static String key(Vertex v) {
+    return v.getId().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Numbers the nodes in post-order over a spanning forest, visiting the children of every node
+   * from the roots, then adds the intervals of the other parents.
+   */
+  private void number() {
+    // The children, as the reverse of the parents.
+    int[] counts = new int[size];
+    for (int n = 0; n < size; n++) {
+      for (int parent : parents[n]) {
+        counts[parent]++;
+      }
+    }
+    int[][] children = new int[size][];
+    for (int n = 0; n < size; n++) {
+      children[n] = counts[n] == 0 ? NONE : new int[counts[n]];
+      counts[n] = 0;
+    }
+    for (int n = 0; n < size; n++) {
+      for (int parent : parents[n]) {
+        children[parent][counts[parent]++] = n;
+      }
+    }
+
+    // The tree edges, from a parent to the child first visited from it.
+    boolean[] visited = new boolean[size];
+    int[] treeParents = new int[size];
+    Arrays.fill(treeParents, -1);
+    int next = 0;
+    int[] stack = new int[size];
+    int[] cursors = new int[size];
+    int[] lows = new int[size];
+    // Roots first, then whatever is left, as the nodes on a cycle.
+    for (int pass = 0; pass < 2; pass++) {
+      for (int root = 0; root < size; root++) {
+        if (visited[root] || pass == 0 && parents[root].length > 0) {
+          continue;
+        }
+        int top = 0;
+        stack[top] = root;
+        visited[root] = true;
+        lows[root] = next;
+        while (top >= 0) {
+          int n = stack[top];
+          if (cursors[n] < children[n].length) {
+            int child = children[n][cursors[n]++];
+            if (!visited[child]) {
+              visited[child] = true;
+              treeParents[child] = n;
+              lows[child] = next;
+              stack[++top] = child;
+            }
+          } else {
+            numbers[n] = next++;
+            intervals[n] = new int[] {lows[n], numbers[n]};
+            top--;
+          }
+        }
+      }
+    }
+
+    // The other parents, as if learned one by one.
+    for (int n = 0; n < size; n++) {
+      int[] all = parents[n];
+      parents[n] = treeParents[n] < 0 ? NONE : new int[] {treeParents[n]};
+      for (int parent : all) {
+        if (parent != treeParents[n]) {
+          link(n, parent);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a parent to a node and updates the intervals above it.
+   * @param  source
+   *         the node
+   * @param  target
+   *         the new parent of the node
+   */
+  private void link(int source, int target) {
+    if (source == target || indexOf(parents[source], target) >= 0) {
+      return;
+    }
+    parents[source] = append(parents[source], target);
+    if (contains(intervals[target], numbers[source])) {
+      return;
+    }
+    int[] below = intervals[source];
+    Set<Integer> visited = new HashSet<>();
+    Deque<Integer> queue = new ArrayDeque<>();
+    queue.add(target);
+    visited.add(target);
+    while (!queue.isEmpty()) {
+      int n = queue.poll();
+      intervals[n] = merge(intervals[n], below);
+      for (int parent : parents[n]) {
+        if (visited.add(parent)) {
+          queue.add(parent);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a number falls in some intervals.
+   * @param  bounds
+   *         the intervals, as sorted and disjoint pairs of bounds
+   * @param  number
+   *         the number
+   * @return  {@code true} if the number is in one of the intervals; {@code false} otherwise
+   */
+  static boolean contains(int[] bounds, int number) {
+    int lo = 0;
+    int hi = bounds.length / 2 - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (number < bounds[2 * mid]) {
+        hi = mid - 1;
+      } else if (number > bounds[2 * mid + 1]) {
+        lo = mid + 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Merges two lists of intervals.
+   * @param  a
+   *         the first intervals, as sorted and disjoint pairs of bounds
+   * @param  b
+   *         the second intervals, as sorted and disjoint pairs of bounds
+   * @return  the union of the intervals, as sorted and disjoint pairs of bounds, adjacent
+   *          intervals being joined
+   */
+  static int[] merge(int[] a, int[] b) {
+    int[] merged = new int[a.length + b.length];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length || j < b.length) {
+      int lo;
+      int hi;
+      if (j == b.length || i < a.length && a[i] <= b[j]) {
+        lo = a[i];
+        hi = a[i + 1];
+        i += 2;
+      } else {
+        lo = b[j];
+        hi = b[j + 1];
+        j += 2;
+      }
+      if (size > 0 && lo <= merged[size - 1] + 1) {
+        merged[size - 1] = Math.max(merged[size - 1], hi);
+      } else {
+        merged[size++] = lo;
+        merged[size++] = hi;
+      }
+    }
+    return size == merged.length ? merged : Arrays.copyOf(merged, size);
+  }
+
+  /**
+   * Finds a value in an array.
+   * @param  array
+   *         the array
+   * @param  value
+   *         the value
+   * @return  the index of the value, or -1 if missing
+   */
+  private static int indexOf(int[] array, int value) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Appends a value to an array.
+   * @param  array
+   *         the array
+   * @param  value
+   *         the value
+   * @return  a copy of the array followed by the value
+   */
+  private static int[] append(int[] array, int value) {
+    int[] appended = Arrays.copyOf(array, array.length + 1);
+    appended[array.length] = value;
+    return appended;
+  }
+}
@@ -30,6 +30,7 @@ import java.util.Set;
 /**
  * Represents a Semantic Network.
  * Provides methods to load the Semantic Network in memory and manage all of its components.
+ * Lookups and updates are synchronized, since lookups update the usage scores.
  * @see  SemanticRelation The SemanticRelation Class
  * @see  SemanticQuery The SemanticQuery Class
  */
@@ -53,15 +54,20 @@ public class SemanticNetwork implements Graph {
    */
   private Map<Vertex,Set<Edge>> graph;
 
+  /**
+   * Answers the multi-hop IS_A questions. Built on the first question, then kept up to date.
+   */
+  private ReachabilityIndex hierarchy;
+
   /**
    * String representation of the path to the Semantic Network database.
    */
-  private Path percorso = Paths.get("src/main/resources/knowledge/CuriosoneSemanticNetwork.txt");
+  private Path percorso;
 
   /**
    * Singleton instance of this class.
    */
-  private static SemanticNetwork curiosoneSemanticNetwork;
+  private static volatile SemanticNetwork curiosoneSemanticNetwork;
 
   /**
    * Gets the Singleton instance.
@@ -71,7 +77,11 @@ public class SemanticNetwork implements Graph {
    */
   public static SemanticNetwork getInstance() throws IOException {
     if (curiosoneSemanticNetwork == null) {
-      curiosoneSemanticNetwork = new SemanticNetwork();
+      synchronized (SemanticNetwork.class) {
+        if (curiosoneSemanticNetwork == null) {
+          curiosoneSemanticNetwork = new SemanticNetwork();
+        }
+      }
     }
     return curiosoneSemanticNetwork;
   }
@@ -79,18 +89,30 @@ public class SemanticNetwork implements Graph {
   /**
    * Private constructor.
    * Loads the Semantic Network in memory.
-   * @throws  IOException
-   *          if there is a problem with the input file
    */
   private SemanticNetwork() {
-    this.graph = new HashMap<>();
+    this(Paths.get("src/main/resources/knowledge/CuriosoneSemanticNetwork.txt"));
+  }
+
+  /**
+   * Constructs a Semantic Network backed by the given database.
+   * Learned facts and usage scores are written back to the same file.
+   * @param  path
+   *         the path to the Semantic Network database
+   */
+  public SemanticNetwork(Path path) {
+    this.percorso = path;
     List<String> lines = new ArrayList<>();
     try {
       lines = Files.readAllLines(this.percorso);
     } catch (IOException e) {
       e.printStackTrace();
     }
+    this.graph = new HashMap<>(capacity(lines.size()));
     for (String linea : lines) {
+      if (linea.isEmpty()) {
+        continue;
+      }
       String[] linee = linea.split(",");
       Vertex source = new Concept(linee[0]);
       Vertex target = new Concept(linee[2]);
@@ -101,6 +123,35 @@ public class SemanticNetwork implements Graph {
     }
   }
 
+  /**
+   * Constructs a Semantic Network backed by the given database, made of the given Semantic
+   * Relations.
+   * The database is not read: the Semantic Relations are expected to be already stored in it.
+   * @param  path
+   *         the path to the Semantic Network database
+   * @param  edges
+   *         the Semantic Relations of the Semantic Network
+   * @see  WordNetImporter The WordNetImporter Class
+   */
+  public SemanticNetwork(Path path, Collection<? extends Edge> edges) {
+    this.percorso = path;
+    this.graph = new HashMap<>(capacity(edges.size()));
+    for (Edge e : edges) {
+      add(e);
+    }
+  }
+
+  /**
+   * Computes the initial capacity of the Map representation, so that it is not resized.
+   * Every Semantic Relation adds at most two Concepts.
+   * @param  edges
+   *         the number of Semantic Relations
+   * @return  the initial capacity of the Map
+   */
+  private static int capacity(int edges) {
+    return (int) Math.min(Integer.MAX_VALUE / 2, 2L * edges * 4 / 3 + 1);
+  }
+
   /**
    * Gets the Map representation of this Semantic Network.
    * @return  the Map representation of this Semantic Network
@@ -116,7 +167,7 @@ public class SemanticNetwork implements Graph {
    *         the SemanticRelation to be added
    */
   @Override
-  public void add(Edge e) {
+  public synchronized void add(Edge e) {
     addEdge(e.getSource(), e.getTarget(), e.getType(), e.getWeight());
   }
 
@@ -126,7 +177,7 @@ public class SemanticNetwork implements Graph {
    *         the Vertex to be added
    */
   @Override
-  public void add(Vertex v) {
+  public synchronized void add(Vertex v) {
     if (!graph.containsKey(v)) {
       Set<Edge> lista = new HashSet<>();
       graph.put(v,lista);
@@ -147,7 +198,8 @@ public class SemanticNetwork implements Graph {
    * @see  SemanticRelationType The SemanticRelationType Enum
    */
   @Override
-  public void addEdge(Vertex v1, Vertex v2, SemanticRelationType type, Integer weight) {
+  public synchronized void addEdge(
+      Vertex v1, Vertex v2, SemanticRelationType type, Integer weight) {
     if (!graph.containsKey(v1)) {
       add(v1);
     }
@@ -157,6 +209,9 @@ public class SemanticNetwork implements Graph {
     SemanticRelation arco = new SemanticRelation(v1,v2,type,weight);
     graph.get(v1).add(arco);
     graph.get(v2).add(arco);
+    if (hierarchy != null) {
+      hierarchy.add(arco);
+    }
   }
 
   /**
@@ -259,7 +314,7 @@ public class SemanticNetwork implements Graph {
    * @see  Collection The Collection Interface
    */
   @Override
-  public void addEdges(Collection<? extends Edge> edgeSet) {
+  public synchronized void addEdges(Collection<? extends Edge> edgeSet) {
     for (Edge arco : edgeSet) {
       add(arco);
     }
@@ -279,9 +334,9 @@ public class SemanticNetwork implements Graph {
    * @see  Vertex The Vertex Interface
    */
   @Override
-  public boolean exist(String v1, SemanticRelationType relation, String v2) {
-    Vertex source = new Concept(v1.replaceAll(" ", "_"));
-    Vertex target = new Concept(v2.replaceAll(" ", "_"));
+  public synchronized boolean exist(String v1, SemanticRelationType relation, String v2) {
+    Vertex source = new Concept(id(v1));
+    Vertex target = new Concept(id(v2));
     SemanticRelation sr = new SemanticRelation(source, target, relation);
     if (containsVertex(source)) {
       return outgoingEdges(source).contains(sr);
@@ -289,6 +344,38 @@ public class SemanticNetwork implements Graph {
     return false;
   }
 
+  /**
+   * Checks whether a Concept is a kind of another one, through any number of IS_A and HYPERNYM
+   * Semantic Relations.
+   * Unlike {@link #exist}, the Concepts need not be linked directly. The answer is looked up in a
+   * ReachabilityIndex, in logarithmic time.
+   * @param  v1
+   *         String representation of the Concept below
+   * @param  v2
+   *         String representation of the Concept above
+   * @return  {@code true} if a chain of IS_A and HYPERNYM Semantic Relations leads from the first
+   *          Concept to the second, or they are the same; {@code false} otherwise
+   * @see  ReachabilityIndex The ReachabilityIndex Class
+   */
+  @Override
+  public synchronized boolean isA(String v1, String v2) {
+    if (hierarchy == null) {
+      hierarchy = new ReachabilityIndex(edgeSet());
+    }
+    return hierarchy.isA(new Concept(id(v1)), new Concept(id(v2)));
+  }
+
+  /**
+   * Converts the String representation of a Concept into its ID, as stored in this
+   * SemanticNetwork: the words are joined by underscores.
+   * @param  concept
+   *         String representation of the Concept
+   * @return  the ID of the Concept
+   */
+  static String id(String concept) {
+    return concept.trim().replaceAll("\\s+", "_");
+  }
+
   /**
    * Learns the given SemanticRelation.
    * @param  v1
@@ -300,9 +387,9 @@ public class SemanticNetwork implements Graph {
    * @see  SemanticRelationType The SemanticRelationType Enum
    */
   @Override
-  public void learn(String v1, SemanticRelationType relation, String v2) {
-    Vertex source = new Concept(v1.replace(" ", "_"));
-    Vertex target = new Concept(v2.replace(" ", "_"));
+  public synchronized void learn(String v1, SemanticRelationType relation, String v2) {
+    Vertex source = new Concept(id(v1));
+    Vertex target = new Concept(id(v2));
     addEdge(source, target, relation, 1);
     Writer output;
     File sn = this.percorso.toFile();
@@ -334,8 +421,8 @@ public class SemanticNetwork implements Graph {
    * @see  SemanticRelationType The SemanticRelationType Enum
    */
   @Override
-  public Optional<Edge> getAnswer(String v1, SemanticRelationType type) {
-    Vertex source = new Concept(v1.replaceAll(" ", "_"));
+  public synchronized Optional<Edge> getAnswer(String v1, SemanticRelationType type) {
+    Vertex source = new Concept(id(v1));
     if (containsVertex(source)) {
       try {
         increase(source,30);
@@ -372,8 +459,8 @@ public class SemanticNetwork implements Graph {
    * @see  Edge The Edge Interface
    */
   @Override
-  public Optional<Edge> getAnswer(String v1) {
-    Vertex source = new Concept(v1.replaceAll(" ", "_"));
+  public synchronized Optional<Edge> getAnswer(String v1) {
+    Vertex source = new Concept(id(v1));
     if (containsVertex(source)) {
       List<Edge> edges = new ArrayList<>(outgoingEdges(source));
       return getAnswer(edges);
@@ -409,7 +496,7 @@ public class SemanticNetwork implements Graph {
    * @see  Vertex The Vertex Inteerface
    */
   @Override
-  public void increase(Vertex v, Integer score) {
+  public synchronized void increase(Vertex v, Integer score) {
     int nodo = 2;
     for (Edge e : incomingEdges(v)) {
       e.setWeight(e.getWeight() + score);
@@ -457,7 +544,7 @@ public class SemanticNetwork implements Graph {
    * @see  SemanticQuery The SemanticQuery Class
    */
   @Override
-  public Optional<Edge> query(SemanticQuery sq) {
+  public synchronized Optional<Edge> query(SemanticQuery sq) {
     if (sq.getSubject() == null && sq.getRelation() == null) {
       return getAnswer(sq.getObject());
     }
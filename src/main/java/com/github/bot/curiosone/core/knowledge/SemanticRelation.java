@@ -134,7 +134,9 @@ public class SemanticRelation implements Edge {
     if (o == null || o.getClass() != this.getClass()) {
       return false;
     }
-    return this.hashCode() == ((SemanticRelation)o).hashCode();
+    SemanticRelation that = (SemanticRelation)o;
+    return this.sorgente.equals(that.sorgente) && this.collegamento == that.collegamento
+        && this.destinazione.equals(that.destinazione);
   }
 
   /**
@@ -0,0 +1,445 @@
+package com.github.bot.curiosone.core.knowledge;
+
+import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports the relations between the synsets of the WordNet database files in a SemanticNetwork.
+ * Every synset is represented by the Concept of its first lemma. Hypernyms and instance hypernyms
+ * become HYPERNYM relations, verb entailments ENTAILMENT relations and similar adjectives
+ * SIMILAR_TO relations.
+ * The data files are memory-mapped and split in partitions parsed in parallel; the synsets are
+ * then resolved in a single pass into Semantic Relations between interned Concepts.
+ * Missing files are skipped, so that a partial database gives a partial network.
+ * @see  SemanticNetwork The SemanticNetwork Class
+ */
+public class WordNetImporter {
+
+  /**
+   * Names of the WordNet data files of every part of speech, by code.
+   */
+  private static final String[] FILES = {"noun", "verb", "adj", "adv"};
+
+  /**
+   * The weight of the imported Semantic Relations, the same as a learned one.
+   */
+  private static final int WEIGHT = 1;
+
+  /**
+   * The minimum size of a partition, in bytes.
+   */
+  private static final int MIN_PARTITION = 1 << 20;
+
+  /**
+   * Private constructor.
+   */
+  private WordNetImporter() {}
+
+  /**
+   * Reads the Semantic Relations of a WordNet database.
+   * @param  dict
+   *         the directory containing the WordNet database files
+   * @param  threads
+   *         the number of threads parsing the files
+   * @return  the distinct Semantic Relations, in the order of the files
+   * @throws IOException if a file cannot be read
+   * @throws IllegalArgumentException if a non-positive number of threads is given
+   */
+  public static List<SemanticRelation> read(Path dict, int threads) throws IOException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    List<ByteBuffer> partitions = new ArrayList<>();
+    List<Integer> poses = new ArrayList<>();
+    for (int pos = 0; pos < FILES.length; pos++) {
+      Path file = dict.resolve("data." + FILES[pos]);
+      if (!Files.exists(file)) {
+        continue;
+      }
+      for (ByteBuffer partition : split(file, threads * 4)) {
+        partitions.add(partition);
+        poses.add(pos);
+      }
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "curiosone-wordnet");
+      t.setDaemon(true);
+      return t;
+    });
+    List<Partition> parsed = new ArrayList<>(partitions.size());
+    try {
+      List<Future<Partition>> futures = new ArrayList<>(partitions.size());
+      for (int i = 0; i < partitions.size(); i++) {
+        ByteBuffer partition = partitions.get(i);
+        int pos = poses.get(i);
+        futures.add(pool.submit(() -> parse(partition, pos)));
+      }
+      for (Future<Partition> future : futures) {
+        parsed.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+    return resolve(parsed);
+  }
+
+  /**
+   * Imports a WordNet database in a Semantic Network database.
+   * The Semantic Relations already in the database, learned or imported, are kept with their
+   * weights; the new ones are appended. The file is replaced atomically.
+   * @param  dict
+   *         the directory containing the WordNet database files
+   * @param  out
+   *         the path to the Semantic Network database
+   * @param  threads
+   *         the number of threads parsing the files
+   * @return  the Semantic Network, made of the Semantic Relations of the database
+   * @throws IOException if a file cannot be read or written
+   */
+  public static SemanticNetwork importTo(Path dict, Path out, int threads) throws IOException {
+    List<SemanticRelation> imported = read(dict, threads);
+    List<String> existing = Files.exists(out)
+        ? Files.readAllLines(out, StandardCharsets.UTF_8) : new ArrayList<>();
+    Set<Edge> edges = new LinkedHashSet<>(existing.size() + imported.size());
+    Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+    if (out.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(out.toAbsolutePath().getParent());
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+      for (String line : existing) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        String[] fields = line.split(",");
+        if (edges.add(new SemanticRelation(new Concept(fields[0]), new Concept(fields[2]),
+            SemanticRelationType.valueOf(fields[1].trim()), Integer.parseInt(fields[3])))) {
+          writer.write(line);
+          writer.newLine();
+        }
+      }
+      for (SemanticRelation relation : imported) {
+        if (edges.add(relation)) {
+          writer.write(relation.getSource() + "," + relation.getType() + ","
+              + relation.getTarget() + "," + relation.getWeight());
+          writer.newLine();
+        }
+      }
+    }
+    Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return new SemanticNetwork(out, edges);
+  }
+
+  /**
+   * Maps a data file and splits it in partitions made of whole lines.
+   * @param  file
+   *         the data file
+   * @param  count
+   *         the maximum number of partitions
+   * @return  the partitions of the file
+   * @throws IOException if the file cannot be read
+   */
+  private static List<ByteBuffer> split(Path file, int count) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    int size = Math.max(MIN_PARTITION, buffer.capacity() / count + 1);
+    List<ByteBuffer> partitions = new ArrayList<>();
+    int start = 0;
+    while (start < buffer.capacity()) {
+      int end = Math.min(start + size, buffer.capacity());
+      while (end < buffer.capacity() && buffer.get(end - 1) != '\n') {
+        end++;
+      }
+      ByteBuffer partition = buffer.duplicate();
+      partition.position(start).limit(end);
+      partitions.add(partition.slice());
+      start = end;
+    }
+    return partitions;
+  }
+
+  /**
+   * Parses the synsets of a partition of a data file.
+   * @param  buffer
+   *         the partition
+   * @param  pos
+   *         the code of the part of speech of the file
+   * @return  the synsets and pointers of the partition
+   */
+  private static Partition parse(ByteBuffer buffer, int pos) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    String text = new String(bytes, StandardCharsets.ISO_8859_1);
+    Partition partition = new Partition();
+    int start = 0;
+    while (start < text.length()) {
+      int end = text.indexOf('\n', start);
+      if (end < 0) {
+        end = text.length();
+      }
+      // The license lines start with a space.
+      if (end > start && text.charAt(start) != ' ') {
+        parseLine(text.substring(start, end), pos, partition);
+      }
+      start = end + 1;
+    }
+    return partition;
+  }
+
+  /**
+   * Parses the synset of a line of a data file.
+   * The line holds the offset, the lexicographer file, the type, the hexadecimal number of lemmas
+   * and the lemmas of the synset, followed by the number of pointers and the pointers, each made
+   * of a symbol, a target offset, a target type and a source/target field.
+   * @param  line
+   *         the line
+   * @param  pos
+   *         the code of the part of speech of the file
+   * @param  partition
+   *         the partition the synset is added to
+   */
+  private static void parseLine(String line, int pos, Partition partition) {
+    String[] fields = line.split(" ");
+    long key = key(pos, Integer.parseInt(fields[0]));
+    int lemmas = Integer.parseInt(fields[3], 16);
+    partition.addSynset(key, lemma(fields[4]));
+    int i = 4 + 2 * lemmas;
+    int pointers = Integer.parseInt(fields[i++]);
+    for (int p = 0; p < pointers; p++, i += 4) {
+      SemanticRelationType type = type(fields[i]);
+      // Only the pointers between synsets, not between lemmas.
+      if (type != null && "0000".equals(fields[i + 3])) {
+        partition.addPointer(key, type,
+            key(posCode(fields[i + 2].charAt(0)), Integer.parseInt(fields[i + 1])));
+      }
+    }
+  }
+
+  /**
+   * Resolves the pointers of the partitions into Semantic Relations between interned Concepts.
+   * @param  partitions
+   *         the parsed partitions
+   * @return  the distinct Semantic Relations
+   */
+  private static List<SemanticRelation> resolve(List<Partition> partitions) {
+    int synsets = 0;
+    int pointers = 0;
+    for (Partition partition : partitions) {
+      synsets += partition.synsets;
+      pointers += partition.pointers;
+    }
+    Map<Long, Concept> heads = new HashMap<>(synsets * 4 / 3 + 1);
+    Map<String, Concept> concepts = new HashMap<>(synsets * 4 / 3 + 1);
+    for (Partition partition : partitions) {
+      for (int i = 0; i < partition.synsets; i++) {
+        heads.put(partition.keys[i],
+            concepts.computeIfAbsent(partition.lemmas[i], Concept::new));
+      }
+    }
+    Set<SemanticRelation> relations = new LinkedHashSet<>(pointers * 4 / 3 + 1);
+    SemanticRelationType[] types = SemanticRelationType.values();
+    for (Partition partition : partitions) {
+      for (int i = 0; i < partition.pointers; i++) {
+        Concept source = heads.get(partition.sources[i]);
+        Concept target = heads.get(partition.targets[i]);
+        if (source != null && target != null && source != target) {
+          relations.add(new SemanticRelation(source, target, types[partition.types[i]], WEIGHT));
+        }
+      }
+    }
+    return new ArrayList<>(relations);
+  }
+
+  /**
+   * Computes the key of a synset.
+   * @param  pos
+   *         the code of the part of speech of the synset
+   * @param  offset
+   *         the offset of the synset in its data file
+   * @return  a key unique among all the synsets
+   */
+  private static long key(int pos, int offset) {
+    return (long) pos << 32 | offset;
+  }
+
+  /**
+   * Gets the code of a part of speech, as in the data files.
+   * Adjective satellites are stored with the adjectives.
+   * @param  type
+   *         the type of a synset
+   * @return  the code of the part of speech
+   */
+  private static int posCode(char type) {
+    switch (type) {
+      case 'n':
+        return 0;
+      case 'v':
+        return 1;
+      case 'r':
+        return 3;
+      default:
+        return 2;
+    }
+  }
+
+  /**
+   * Gets the SemanticRelationType of a pointer.
+   * @param  symbol
+   *         the symbol of the pointer
+   * @return  the SemanticRelationType, or null if the pointer is not imported
+   */
+  private static SemanticRelationType type(String symbol) {
+    switch (symbol) {
+      case "@":
+      case "@i":
+        return SemanticRelationType.HYPERNYM;
+      case "*":
+        return SemanticRelationType.ENTAILMENT;
+      case "&":
+        return SemanticRelationType.SIMILAR_TO;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Normalizes a lemma of a data file into the ID of a Concept.
+   * The syntactic marker of the adjectives is removed and the lemma is lowercased; the commas,
+   * separating the fields of the Semantic Network database, are replaced.
+   * @param  word
+   *         the lemma, as in the data file
+   * @return  the ID of the Concept
+   */
+  private static String lemma(String word) {
+    int marker = word.indexOf('(');
+    if (marker > 0) {
+      word = word.substring(0, marker);
+    }
+    return word.toLowerCase().replace(',', '_');
+  }
+
+  /**
+   * Imports a WordNet database in a Semantic Network database.
+   * @param  args
+   *         the directory containing the WordNet database files, the Semantic Network database
+   *         and, optionally, the number of threads
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("Usage: WordNetImporter <dict directory> <network file> [threads]");
+      System.exit(2);
+    }
+    int threads = args.length == 3
+        ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    long start = System.nanoTime();
+    SemanticNetwork network = importTo(Paths.get(args[0]), Paths.get(args[1]), threads);
+    System.out.println(network.vertexSet().size() + " concepts imported to " + args[1] + " in "
+        + (System.nanoTime() - start) / 1_000_000 + "ms");
+  }
+
+  /**
+   * Collects the synsets and the pointers of a partition, in growable primitive arrays.
+   */
+  private static class Partition {
+
+    /**
+     * The keys of the synsets.
+     */
+    private long[] keys = new long[1024];
+
+    /**
+     * The first lemma of every synset.
+     */
+    private String[] lemmas = new String[1024];
+
+    /**
+     * The number of synsets.
+     */
+    private int synsets;
+
+    /**
+     * The key of the source synset of every pointer.
+     */
+    private long[] sources = new long[1024];
+
+    /**
+     * The key of the target synset of every pointer.
+     */
+    private long[] targets = new long[1024];
+
+    /**
+     * The ordinal of the SemanticRelationType of every pointer.
+     */
+    private byte[] types = new byte[1024];
+
+    /**
+     * The number of pointers.
+     */
+    private int pointers;
+
+    /**
+     * Adds a synset.
+     * @param  key
+     *         the key of the synset
+     * @param  lemma
+     *         the first lemma of the synset
+     */
+    private void addSynset(long key, String lemma) {
+      if (synsets == keys.length) {
+        keys = Arrays.copyOf(keys, synsets * 2);
+        lemmas = Arrays.copyOf(lemmas, synsets * 2);
+      }
+      keys[synsets] = key;
+      lemmas[synsets++] = lemma;
+    }
+
+    /**
+     * Adds a pointer.
+     * @param  source
+     *         the key of the source synset
+     * @param  type
+     *         the SemanticRelationType of the pointer
+     * @param  target
+     *         the key of the target synset
+     */
+    private void addPointer(long source, SemanticRelationType type, long target) {
+      if (pointers == sources.length) {
+        sources = Arrays.copyOf(sources, pointers * 2);
+        targets = Arrays.copyOf(targets, pointers * 2);
+        types = Arrays.copyOf(types, pointers * 2);
+      }
+      sources[pointers] = source;
+      targets[pointers] = target;
+      types[pointers++] = (byte) type.ordinal();
+    }
+  }
+}
@@ -203,4 +203,16 @@ public interface Graph {
    * @see  SemanticQuery The SemanticQuery Class Enum
    */
   boolean exist(String v1, SemanticRelationType relation, String v2);
+
+  /**
+   * Checks whether a Vertex is a kind of another one, through any number of IS_A and HYPERNYM
+   * Edges.
+   * @param  v1
+   *         String representation of the Vertex below
+   * @param  v2
+   *         String representation of the Vertex above
+   * @return  {@code true} if a chain of IS_A and HYPERNYM Edges leads from the first Vertex to the
+   *          second, or they are the same; {@code false} otherwise
+   */
+  boolean isA(String v1, String v2);
 }
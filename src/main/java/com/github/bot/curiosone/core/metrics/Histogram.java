@@ -0,0 +1,164 @@
+package com.github.bot.curiosone.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a lock-free latency Histogram.
+ * Values are stored in log-linear buckets: every power of two is splitted in a fixed number of
+ * linear sub-buckets, so that the relative error of a recorded value never exceeds 12.5%.
+ * Recording a value is a couple of bit operations and a single atomic increment, so that it can be
+ * used on the hot path of every request.
+ * @see  <a href="http://hdrhistogram.org/">HdrHistogram</a>
+ */
+public class Histogram {
+
+  /**
+   * Number of bits used to index the sub-buckets of a power of two.
+   */
+  private static final int SUB_BITS = 3;
+
+  /**
+   * Number of sub-buckets in which every power of two is splitted.
+   */
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+
+  /**
+   * Number of buckets needed to cover all the positive long values.
+   */
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+  /**
+   * Stores the number of values recorded in each bucket.
+   */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  /**
+   * Stores the sum of the recorded values.
+   */
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Stores the greatest recorded value.
+   */
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value in this Histogram.
+   * @param  value
+   *         the value to be recorded. Negative values are recorded as zero.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    counts.getAndIncrement(indexOf(value));
+    sum.add(value);
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Gets the number of values recorded in this Histogram.
+   * @return  the number of recorded values
+   */
+  public long getCount() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Gets the sum of the values recorded in this Histogram.
+   * @return  the sum of the recorded values
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * Gets the greatest value recorded in this Histogram.
+   * @return  the greatest recorded value, or zero if nothing has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Estimates the value at the given quantile.
+   * The estimate is the upper bound of the bucket containing the quantile, capped by the greatest
+   * recorded value.
+   * @param  quantile
+   *         the desired quantile, between 0.0 and 1.0
+   * @return  the estimated value at the given quantile, or zero if nothing has been recorded
+   * @throws IllegalArgumentException if the quantile is outside the range [0, 1]
+   */
+  public long getValueAtQuantile(double quantile) {
+    if (quantile < 0.0 || quantile > 1.0) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1");
+    }
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Calculates the bucket where the given value has to be recorded.
+   * @param  value
+   *         a non-negative value
+   * @return  the index of the bucket of the given value
+   */
+  static int indexOf(long value) {
+    if (value < SUB_COUNT) {
+      return (int) value;
+    }
+    int exp = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+    return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+  }
+
+  /**
+   * Calculates the smallest value recorded in the given bucket.
+   * @param  index
+   *         the index of the bucket
+   * @return  the smallest value of the bucket
+   */
+  static long lowerBoundOf(int index) {
+    if (index < SUB_COUNT) {
+      return index;
+    }
+    int exp = index / SUB_COUNT + SUB_BITS - 1;
+    long sub = index % SUB_COUNT;
+    return (SUB_COUNT + sub) << (exp - SUB_BITS);
+  }
+
+  /**
+   * Calculates the greatest value recorded in the given bucket.
+   * @param  index
+   *         the index of the bucket
+   * @return  the greatest value of the bucket
+   */
+  static long upperBoundOf(int index) {
+    return index + 1 < BUCKETS ? lowerBoundOf(index + 1) - 1 : Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,161 @@
+package com.github.bot.curiosone.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handles the metrics registry of the Curiosone.
+ * Metrics are grouped in families. Every family has a name, an help text and a label, whose values
+ * distinguish the single metrics of the family (e.g. the stages of the pipeline).
+ * Provides methods to register Histograms and counters and to export them in the Prometheus text
+ * exposition format.
+ * @see  Histogram The Histogram Class
+ * @see  <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Exposition formats</a>
+ */
+public class Metrics {
+
+  /**
+   * Quantiles exported for every Histogram.
+   */
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  /**
+   * Number of nanoseconds in a second.
+   */
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  /**
+   * Stores the families of Histograms, sorted by name.
+   */
+  private static final Map<String, Family<Histogram>> histograms = new ConcurrentSkipListMap<>();
+
+  /**
+   * Stores the families of counters, sorted by name.
+   */
+  private static final Map<String, Family<LongAdder>> counters = new ConcurrentSkipListMap<>();
+
+  /**
+   * Private constructor.
+   */
+  private Metrics() {}
+
+  /**
+   * Gets the latency Histogram with the given family and label value, creating it if needed.
+   * Histograms record nanoseconds and are exported in seconds.
+   * @param  name
+   *         the name of the family
+   * @param  help
+   *         the description of the family
+   * @param  label
+   *         the name of the label
+   * @param  value
+   *         the value of the label
+   * @return  the Histogram registered for the given family and label value
+   * @see  Histogram The Histogram Class
+   */
+  public static Histogram histogram(String name, String help, String label, String value) {
+    return histograms.computeIfAbsent(name, k -> new Family<>(help, label))
+        .members.computeIfAbsent(value, k -> new Histogram());
+  }
+
+  /**
+   * Gets the counter with the given family and label value, creating it if needed.
+   * @param  name
+   *         the name of the family
+   * @param  help
+   *         the description of the family
+   * @param  label
+   *         the name of the label
+   * @param  value
+   *         the value of the label
+   * @return  the counter registered for the given family and label value
+   * @see  java.util.concurrent.atomic.LongAdder The LongAdder Class
+   */
+  public static LongAdder counter(String name, String help, String label, String value) {
+    return counters.computeIfAbsent(name, k -> new Family<>(help, label))
+        .members.computeIfAbsent(value, k -> new LongAdder());
+  }
+
+  /**
+   * Exports all the registered metrics in the Prometheus text format.
+   * Histograms are exported as summaries.
+   * @return  a String containing all the registered metrics
+   */
+  public static String scrape() {
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, Family<Histogram>> entry : histograms.entrySet()) {
+      String name = entry.getKey();
+      Family<Histogram> family = entry.getValue();
+      sb.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+      sb.append("# TYPE ").append(name).append(" summary\n");
+      for (Map.Entry<String, Histogram> member : family.sorted().entrySet()) {
+        String labels = family.label + "=\"" + member.getKey() + "\"";
+        Histogram h = member.getValue();
+        for (double q : QUANTILES) {
+          sb.append(name).append('{').append(labels).append(",quantile=\"").append(q)
+              .append("\"} ").append(h.getValueAtQuantile(q) / NANOS_PER_SECOND).append('\n');
+        }
+        sb.append(name).append("_sum{").append(labels).append("} ")
+            .append(h.getSum() / NANOS_PER_SECOND).append('\n');
+        sb.append(name).append("_count{").append(labels).append("} ")
+            .append(h.getCount()).append('\n');
+      }
+    }
+    for (Map.Entry<String, Family<LongAdder>> entry : counters.entrySet()) {
+      String name = entry.getKey();
+      Family<LongAdder> family = entry.getValue();
+      sb.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+      sb.append("# TYPE ").append(name).append(" counter\n");
+      for (Map.Entry<String, LongAdder> member : family.sorted().entrySet()) {
+        sb.append(name).append('{').append(family.label).append("=\"").append(member.getKey())
+            .append("\"} ").append(member.getValue().sum()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Represents a family of metrics sharing the same name.
+   * @param  <T>
+   *         the type of the metrics of this family
+   */
+  private static class Family<T> {
+
+    /**
+     * The description of this family.
+     */
+    private final String help;
+
+    /**
+     * The name of the label that distinguishes the members of this family.
+     */
+    private final String label;
+
+    /**
+     * Maps the label values to the metrics of this family.
+     */
+    private final Map<String, T> members = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty family.
+     * @param  help
+     *         the description of this family
+     * @param  label
+     *         the name of the label of this family
+     */
+    private Family(String help, String label) {
+      this.help = help;
+      this.label = label;
+    }
+
+    /**
+     * Gets the members of this family sorted by label value.
+     * @return  a sorted Map containing the members of this family
+     */
+    private Map<String, T> sorted() {
+      return new ConcurrentSkipListMap<>(members);
+    }
+  }
+}
@@ -207,11 +207,6 @@ public enum LEX {
    */
   WEATHER,
 
-  /**
-   * Participal adjectives.
-   */
-  ADJ_PPL,
-
   /**
    * Nouns: I, You, He, She, It, We, You, They.
    */
@@ -296,6 +291,16 @@ public enum LEX {
    */
   MAIL,
 
+  /**
+   * Web address.
+   */
+  URL,
+
+  /**
+   * Calendar date.
+   */
+  DATE,
+
   /**
    * Unknown.
    */
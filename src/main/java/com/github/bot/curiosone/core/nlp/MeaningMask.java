@@ -0,0 +1,104 @@
+package com.github.bot.curiosone.core.nlp;
+
+import java.util.Collection;
+
+/**
+ * Summarizes a Set of Meanings as bit masks of their POS and LEX values.
+ * Checking whether a Token or a Word has a POS or a LEX is then a single bit test, without
+ * iterating the Meanings. The most frequent Meaning is computed once as well.
+ * @see  com.github.bot.curiosone.core.nlp.Meaning The Meaning Class
+ */
+final class MeaningMask {
+
+  /**
+   * The mask of no Meanings.
+   */
+  static final MeaningMask EMPTY = new MeaningMask(0L, new long[(LEX.values().length + 63) / 64],
+      null);
+
+  /**
+   * One bit for the ordinal of every POS of the Meanings.
+   */
+  private final long pos;
+
+  /**
+   * One bit for the ordinal of every LEX of the Meanings.
+   */
+  private final long[] lex;
+
+  /**
+   * The most frequent Meaning, or null if there are none.
+   */
+  private final Meaning dominant;
+
+  /**
+   * Constructs a MeaningMask.
+   * @param  pos
+   *         the POS mask
+   * @param  lex
+   *         the LEX mask
+   * @param  dominant
+   *         the most frequent Meaning
+   */
+  private MeaningMask(long pos, long[] lex, Meaning dominant) {
+    this.pos = pos;
+    this.lex = lex;
+    this.dominant = dominant;
+  }
+
+  /**
+   * Summarizes some Meanings.
+   * The dominant Meaning is the first one, in iteration order, with the highest frequency.
+   * @param  means
+   *         the Meanings
+   * @return  the MeaningMask of the Meanings
+   */
+  static MeaningMask of(Collection<Meaning> means) {
+    if (means.isEmpty()) {
+      return EMPTY;
+    }
+    long pos = 0L;
+    long[] lex = new long[EMPTY.lex.length];
+    Meaning dominant = null;
+    for (Meaning m : means) {
+      if (m.getPOS() != null) {
+        pos |= 1L << m.getPOS().ordinal();
+      }
+      if (m.getLEX() != null) {
+        lex[m.getLEX().ordinal() >>> 6] |= 1L << m.getLEX().ordinal();
+      }
+      if (dominant == null || m.getFrequency() > dominant.getFrequency()) {
+        dominant = m;
+      }
+    }
+    return new MeaningMask(pos, lex, dominant);
+  }
+
+  /**
+   * Checks whether a Meaning has the given POS.
+   * @param  p
+   *         the POS
+   * @return  {@code true} if a Meaning has the POS; {@code false} otherwise
+   */
+  boolean has(POS p) {
+    return p != null && (pos & 1L << p.ordinal()) != 0;
+  }
+
+  /**
+   * Checks whether a Meaning has the given LEX.
+   * @param  l
+   *         the LEX
+   * @return  {@code true} if a Meaning has the LEX; {@code false} otherwise
+   */
+  boolean has(LEX l) {
+    return l != null && (lex[l.ordinal() >>> 6] & 1L << l.ordinal()) != 0;
+  }
+
+  /**
+   * Gets the most frequent Meaning.
+   * @return  the most frequent Meaning, or null if there are none
+   */
+  Meaning getDominant() {
+    return dominant;
+  }
+}
@@ -1,5 +1,7 @@
 package com.github.bot.curiosone.core.nlp;
 
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
 import com.github.bot.curiosone.core.util.Interval;
 import com.github.bot.curiosone.core.util.Pair;
 
@@ -37,6 +39,13 @@ public class ParseTable {
    */
   private int size;
 
+  /**
+   * The tagger pruning the POS of the Tokens and the number of POS it keeps, or null to fill the
+   * table with every Meaning.
+   * @see  com.github.bot.curiosone.core.nlp.PosTagger The PosTagger Class
+   */
+  private static volatile Pair<PosTagger, Integer> pruning;
+
   /**
    * Constructs a CYK table for the given tokens list.
    * @param  tokens
@@ -45,9 +54,54 @@ public class ParseTable {
    * @see  com.github.bot.curiosone.core.nlp.Rule The Rule Class
    */
   public ParseTable(List<Token> tokens) {
+    this(tokens, Deadline.none());
+  }
+
+  /**
+   * Constructs a CYK table for the given tokens list, giving up when the Deadline expires.
+   * @param  tokens
+   *         list of tokens to be parsed
+   * @param  deadline
+   *         the latency budget of the parsing
+   * @throws DeadlineExceededException if the Deadline expires before the table is complete
+   * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+   */
+  public ParseTable(List<Token> tokens, Deadline deadline) {
     this.tokens = tokens;
     size = tokens.size();
 
+    Pair<PosTagger, Integer> pruning = ParseTable.pruning;
+    if (pruning != null && fill(pruning.getFirst().prune(tokens, pruning.getSecond()), deadline)) {
+      return;
+    }
+    fill(null, deadline);
+  }
+
+  /**
+   * Sets the tagger pruning the POS of the Tokens before the table is filled.
+   * If the pruned table contains no Sentence, the table is filled again with every Meaning.
+   * @param  tagger
+   *         the tagger, or null to always fill the table with every Meaning
+   * @param  k
+   *         the number of POS to keep for every Token
+   * @see  com.github.bot.curiosone.core.nlp.PosTagger The PosTagger Class
+   */
+  public static void setTagger(PosTagger tagger, int k) {
+    pruning = tagger == null ? null : Pair.create(tagger, k);
+  }
+
+  /**
+   * Fills the table.
+   * @param  kept
+   *         the POS to keep for every Token, as bit masks of their ordinals, or null to keep
+   *         every Meaning
+   * @param  deadline
+   *         the latency budget of the parsing
+   * @return  {@code true} if every Meaning was kept or the table contains a Sentence;
+   *          {@code false} otherwise
+   * @throws DeadlineExceededException if the Deadline expires before the table is complete
+   */
+  private boolean fill(long[] kept, Deadline deadline) {
     table = new Cell[size][];
     for (int x = 0; x < size; x++) {
       table[x] = new Cell[x + 1];
@@ -60,7 +114,10 @@ public class ParseTable {
 
     // first cycle to fill base of the tab
     for (int x = 0; x < size; x++) {
+      long mask = kept == null ? -1L : kept[x];
       Set<Rule> rules = tokens.get(x).getMeanings().stream()
+          .filter(m -> kept == null || m.getPOS() != null
+              && (mask & 1L << m.getPOS().ordinal()) != 0)
           .map(m -> new Rule(m.getPOS(), Pair.create(POS.UNKN, POS.UNKN)))
           .collect(Collectors.toSet());
 
@@ -71,6 +128,7 @@ public class ParseTable {
     for (int y = size - 2; y >= 0; y--) {
       // left-right
       for (int x = 0; x < y + 1; x++) {
+        deadline.check("parse");
         // depth
         for (int z = 1; z + y < size; z++) {
           // set of first possible values
@@ -87,6 +145,20 @@ public class ParseTable {
         }
       }
     }
+
+    if (kept == null) {
+      return true;
+    }
+    for (Cell[] row : table) {
+      for (Cell cell : row) {
+        for (Rule r : cell.get()) {
+          if (r.getFrom() == POS.S) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
   }
 
   /**
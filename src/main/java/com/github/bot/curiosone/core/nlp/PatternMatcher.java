@@ -0,0 +1,443 @@
+package com.github.bot.curiosone.core.nlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Matches Sentences against a list of grammar patterns, compiled once into a decision automaton.
+ * A pattern is a space separated list of elements, each written as {@code [name=]SPAN[.WORD][$]}:
+ * SPAN is the POS of a span of the Sentence, WORD is the POS of the Word to capture from the span
+ * (SPAN itself by default) and {@code $} captures the last such Word instead of the first one.
+ * Elements without a name only constrain the structure.
+ * A plain pattern requires its spans in the given order, starting from the first Word, like
+ * {@link Sentence#respect}. A pattern wrapped in braces only requires its spans somewhere in the
+ * Sentence, like {@link Sentence#has}, and captures from all of them.
+ * Patterns are tried in the given order, and a pattern matches only if every named element
+ * captures a Word. The ordered patterns share a trie of their POS sequences, walked once per
+ * Sentence, so the cost of a match does not grow with the number of patterns.
+ * @see  com.github.bot.curiosone.core.nlp.Sentence The Sentence Class
+ */
+public final class PatternMatcher {
+
+  /**
+   * The POS, by ordinal.
+   */
+  private static final POS[] POSES = POS.values();
+
+  /**
+   * The compiled patterns, by priority.
+   */
+  private final Pattern[] patterns;
+
+  /**
+   * The root of the trie of the ordered patterns.
+   */
+  private final Node root;
+
+  /**
+   * The length of the longest ordered pattern.
+   */
+  private final int depth;
+
+  /**
+   * Constructs a PatternMatcher.
+   * @param  patterns
+   *         the compiled patterns
+   * @param  root
+   *         the root of the trie of the ordered patterns
+   * @param  depth
+   *         the length of the longest ordered pattern
+   */
+  private PatternMatcher(Pattern[] patterns, Node root, int depth) {
+    this.patterns = patterns;
+    this.root = root;
+    this.depth = depth;
+  }
+
+  /**
+   * Compiles a list of patterns.
+   * @param  patterns
+   *         the patterns, by priority
+   * @return  a PatternMatcher for the patterns
+   * @throws IllegalArgumentException if a pattern is malformed
+   */
+  public static PatternMatcher compile(String... patterns) {
+    Pattern[] compiled = new Pattern[patterns.length];
+    Node root = new Node();
+    int depth = 0;
+    for (int p = 0; p < patterns.length; p++) {
+      compiled[p] = Pattern.parse(patterns[p]);
+      if (!compiled[p].ordered) {
+        continue;
+      }
+      Node node = root;
+      for (Element e : compiled[p].elements) {
+        int bit = e.span.ordinal();
+        if (node.next[bit] == null) {
+          node.next[bit] = new Node();
+          node.edges |= 1L << bit;
+        }
+        node = node.next[bit];
+      }
+      node.accepts.add(p);
+      depth = Math.max(depth, compiled[p].elements.length);
+    }
+    return new PatternMatcher(compiled, root, depth);
+  }
+
+  /**
+   * Matches a Sentence against the patterns.
+   * @param  sentence
+   *         the Sentence
+   * @return  an Optional containing the Match of the first pattern that matches the Sentence;
+   *          an empty Optional if no pattern matches
+   */
+  public Optional<Match> match(Sentence sentence) {
+    return match(sentence.getWords(), sentence.getSpans());
+  }
+
+  /**
+   * Matches the Words and the spans of a Sentence against the patterns.
+   * @param  words
+   *         the Words of the Sentence
+   * @param  spans
+   *         the spans of every POS of the Sentence
+   * @return  an Optional containing the Match of the first pattern that matches;
+   *          an empty Optional if no pattern matches
+   */
+  Optional<Match> match(List<Word> words, SpanIndex spans) {
+    long present = spans.mask();
+    int[][] paths = new int[patterns.length][];
+    walk(root, 0, 0, present, spans, new int[depth], paths);
+    for (int p = 0; p < patterns.length; p++) {
+      Pattern pattern = patterns[p];
+      if (pattern.ordered ? paths[p] == null : (pattern.mask & ~present) != 0) {
+        continue;
+      }
+      Map<String, Word> captures = pattern.capture(words, spans, paths[p]);
+      if (captures != null) {
+        return Optional.of(new Match(p, captures));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Walks the trie of the ordered patterns from a node, following the shortest span of every
+   * POS starting at the given Word.
+   * @param  node
+   *         the current node
+   * @param  length
+   *         the number of spans followed so far
+   * @param  idx
+   *         the index of the next Word
+   * @param  present
+   *         the POS of the Sentence, as a bit mask
+   * @param  spans
+   *         the spans of every POS of the Sentence
+   * @param  path
+   *         the index of every span followed so far
+   * @param  paths
+   *         filled with the spans followed by every matching ordered pattern
+   */
+  private static void walk(Node node, int length, int idx, long present, SpanIndex spans,
+      int[] path, int[][] paths) {
+    for (int i = 0; i < node.accepts.size(); i++) {
+      paths[node.accepts.get(i)] = Arrays.copyOf(path, length);
+    }
+    for (long edges = node.edges & present; edges != 0; edges &= edges - 1) {
+      int bit = Long.numberOfTrailingZeros(edges);
+      POS pos = POSES[bit];
+      int span = spans.find(pos, idx);
+      if (span >= 0) {
+        path[length] = span;
+        walk(node.next[bit], length + 1, spans.end(pos, span) + 1, present, spans, path, paths);
+      }
+    }
+  }
+
+  /**
+   * Represents the result of a successful match.
+   */
+  public static final class Match {
+
+    /**
+     * The index of the matching pattern.
+     */
+    private final int pattern;
+
+    /**
+     * The captured Words, by name.
+     */
+    private final Map<String, Word> captures;
+
+    /**
+     * Constructs a Match.
+     * @param  pattern
+     *         the index of the matching pattern
+     * @param  captures
+     *         the captured Words, by name
+     */
+    private Match(int pattern, Map<String, Word> captures) {
+      this.pattern = pattern;
+      this.captures = Collections.unmodifiableMap(captures);
+    }
+
+    /**
+     * Gets the index of the matching pattern.
+     * @return  the index of the pattern, in the order given to the compile method
+     */
+    public int getPattern() {
+      return pattern;
+    }
+
+    /**
+     * Gets a captured Word.
+     * @param  name
+     *         the name of the element
+     * @return  the captured Word, or null if the pattern has no element with the given name
+     */
+    public Word get(String name) {
+      return captures.get(name);
+    }
+
+    /**
+     * Gets all the captured Words.
+     * @return  the captured Words, by name, in the order of the elements of the pattern
+     */
+    public Map<String, Word> getCaptures() {
+      return captures;
+    }
+
+    /**
+     * Returns a String representation of this Match.
+     * @return  the index of the pattern and the captured Words
+     */
+    @Override
+    public String toString() {
+      return "<" + pattern + ", " + captures + ">";
+    }
+  }
+
+  /**
+   * Represents a node of the trie of the ordered patterns.
+   */
+  private static final class Node {
+
+    /**
+     * The POS of the outgoing edges, as a bit mask.
+     */
+    long edges;
+
+    /**
+     * The child reached by every POS, by ordinal.
+     */
+    final Node[] next = new Node[POSES.length];
+
+    /**
+     * The indexes of the patterns ending in this node.
+     */
+    final List<Integer> accepts = new ArrayList<>(1);
+  }
+
+  /**
+   * Represents an element of a pattern.
+   */
+  private static final class Element {
+
+    /**
+     * The name of the capture, or null if the element captures nothing.
+     */
+    final String name;
+
+    /**
+     * The POS of the span.
+     */
+    final POS span;
+
+    /**
+     * The POS of the Word to capture.
+     */
+    final POS word;
+
+    /**
+     * Whether to capture the last Word instead of the first one.
+     */
+    final boolean last;
+
+    /**
+     * Constructs an Element.
+     * @param  name
+     *         the name of the capture
+     * @param  span
+     *         the POS of the span
+     * @param  word
+     *         the POS of the Word to capture
+     * @param  last
+     *         whether to capture the last Word
+     */
+    Element(String name, POS span, POS word, boolean last) {
+      this.name = name;
+      this.span = span;
+      this.word = word;
+      this.last = last;
+    }
+
+    /**
+     * Captures a Word from a range of Words.
+     * @param  words
+     *         the Words of the Sentence
+     * @param  from
+     *         the index of the first Word of the range
+     * @param  to
+     *         the index of the last Word of the range
+     * @return  the captured Word, or null if the range has none
+     */
+    Word capture(List<Word> words, int from, int to) {
+      for (int i = last ? to : from; last ? i >= from : i <= to; i += last ? -1 : 1) {
+        if (words.get(i).itMeans(word)) {
+          return words.get(i);
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Represents a compiled pattern.
+   */
+  private static final class Pattern {
+
+    /**
+     * The elements of the pattern.
+     */
+    final Element[] elements;
+
+    /**
+     * Whether the spans must follow each other from the first Word.
+     */
+    final boolean ordered;
+
+    /**
+     * The POS of the spans, as a bit mask.
+     */
+    final long mask;
+
+    /**
+     * Constructs a Pattern.
+     * @param  elements
+     *         the elements of the pattern
+     * @param  ordered
+     *         whether the spans must follow each other from the first Word
+     */
+    Pattern(Element[] elements, boolean ordered) {
+      this.elements = elements;
+      this.ordered = ordered;
+      long mask = 0L;
+      for (Element e : elements) {
+        mask |= 1L << e.span.ordinal();
+      }
+      this.mask = mask;
+    }
+
+    /**
+     * Parses a pattern.
+     * @param  source
+     *         the pattern
+     * @return  the compiled Pattern
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    static Pattern parse(String source) {
+      String str = source.trim();
+      boolean ordered = !(str.startsWith("{") && str.endsWith("}"));
+      if (!ordered) {
+        str = str.substring(1, str.length() - 1).trim();
+      }
+      if (str.isEmpty()) {
+        throw new IllegalArgumentException("Empty pattern: " + source);
+      }
+      String[] parts = str.split("\\s+");
+      Element[] elements = new Element[parts.length];
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < parts.length; i++) {
+        String part = parts[i];
+        boolean last = part.endsWith("$");
+        if (last) {
+          part = part.substring(0, part.length() - 1);
+        }
+        String name = null;
+        int eq = part.indexOf('=');
+        if (eq >= 0) {
+          name = part.substring(0, eq);
+          part = part.substring(eq + 1);
+          if (name.isEmpty() || names.contains(name)) {
+            throw new IllegalArgumentException("Bad capture name in pattern: " + source);
+          }
+          names.add(name);
+        }
+        int dot = part.indexOf('.');
+        POS span = pos(dot < 0 ? part : part.substring(0, dot), source);
+        POS word = dot < 0 ? span : pos(part.substring(dot + 1), source);
+        elements[i] = new Element(name, span, word, last);
+      }
+      return new Pattern(elements, ordered);
+    }
+
+    /**
+     * Parses a POS of a pattern.
+     * @param  name
+     *         the name of the POS
+     * @param  source
+     *         the pattern
+     * @return  the POS
+     * @throws IllegalArgumentException if there is no POS with the given name
+     */
+    private static POS pos(String name, String source) {
+      try {
+        return POS.valueOf(name);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown POS " + name + " in pattern: " + source);
+      }
+    }
+
+    /**
+     * Captures the Words of the named elements.
+     * @param  words
+     *         the Words of the Sentence
+     * @param  spans
+     *         the spans of every POS of the Sentence
+     * @param  path
+     *         the span followed by every element, if the pattern is ordered
+     * @return  the captured Words, by name, or null if a named element captures no Word
+     */
+    Map<String, Word> capture(List<Word> words, SpanIndex spans, int[] path) {
+      Map<String, Word> captures = new LinkedHashMap<>();
+      for (int i = 0; i < elements.length; i++) {
+        Element e = elements[i];
+        if (e.name == null) {
+          continue;
+        }
+        Word found = null;
+        if (ordered) {
+          found = e.capture(words, spans.start(e.span, path[i]), spans.end(e.span, path[i]));
+        } else {
+          int count = spans.count(e.span);
+          for (int k = 0; k < count && found == null; k++) {
+            int span = e.last ? count - 1 - k : k;
+            found = e.capture(words, spans.start(e.span, span), spans.end(e.span, span));
+          }
+        }
+        if (found == null) {
+          return null;
+        }
+        captures.put(e.name, found);
+      }
+      return captures;
+    }
+  }
+}
@@ -0,0 +1,411 @@
+package com.github.bot.curiosone.core.nlp;
+
+import com.github.bot.curiosone.core.util.Pair;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tags the Tokens of a Phrase with a first-order hidden Markov model of their POS.
+ * The model is a table of transition and emission log probabilities, trained offline on a tagged
+ * corpus. The tagger only chooses among the POS of the Meanings of every Token: words missing
+ * from the emission table are scored with the tag counts of their Meanings instead.
+ * A max-product Viterbi pass in both directions gives the score of the best path through every
+ * POS of every Token, in O(n·|POS|²), so that the k best POS of every Token can be kept.
+ * @see  com.github.bot.curiosone.core.nlp.ParseTable The ParseTable Class
+ */
+public final class PosTagger {
+
+  /**
+   * Identifies a model file.
+   */
+  static final int MAGIC = 0xC1E7_0002;
+
+  /**
+   * The version of the model file format.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The POS, by ordinal.
+   */
+  private static final POS[] POSES = POS.values();
+
+  /**
+   * The number of POS.
+   */
+  private static final int SIZE = POSES.length;
+
+  /**
+   * The log probability of every POS following another one, by ordinal; the last row holds the
+   * log probabilities of the first POS of a Phrase.
+   */
+  private final float[][] transitions;
+
+  /**
+   * The log probability of every word, by POS ordinal.
+   */
+  private final Map<String, float[]> emissions;
+
+  /**
+   * The log probability of a word never seen with a POS, by ordinal.
+   */
+  private final float[] unseen;
+
+  /**
+   * Constructs a PosTagger.
+   * @param  transitions
+   *         the transition log probabilities
+   * @param  emissions
+   *         the emission log probabilities of every word
+   * @param  unseen
+   *         the log probability of a word never seen with a POS
+   */
+  private PosTagger(float[][] transitions, Map<String, float[]> emissions, float[] unseen) {
+    this.transitions = transitions;
+    this.emissions = emissions;
+    this.unseen = unseen;
+  }
+
+  /**
+   * Trains a PosTagger on a tagged corpus.
+   * Probabilities are estimated with add-one smoothing.
+   * @param  corpus
+   *         the tagged sentences, as lists of words and their POS
+   * @return  the trained PosTagger
+   */
+  public static PosTagger train(Collection<List<Pair<String, POS>>> corpus) {
+    long[][] transitionCounts = new long[SIZE + 1][SIZE];
+    long[] tagCounts = new long[SIZE];
+    Map<String, long[]> emissionCounts = new HashMap<>();
+    for (List<Pair<String, POS>> sentence : corpus) {
+      int previous = SIZE;
+      for (Pair<String, POS> tagged : sentence) {
+        int tag = tagged.getSecond().ordinal();
+        transitionCounts[previous][tag]++;
+        tagCounts[tag]++;
+        emissionCounts.computeIfAbsent(key(tagged.getFirst()), w -> new long[SIZE])[tag]++;
+        previous = tag;
+      }
+    }
+
+    float[][] transitions = new float[SIZE + 1][SIZE];
+    for (int from = 0; from <= SIZE; from++) {
+      long total = 0;
+      for (long count : transitionCounts[from]) {
+        total += count;
+      }
+      for (int to = 0; to < SIZE; to++) {
+        transitions[from][to] = (float) Math.log((transitionCounts[from][to] + 1.0)
+            / (total + SIZE));
+      }
+    }
+    int vocabulary = emissionCounts.size() + 1;
+    float[] unseen = new float[SIZE];
+    for (int tag = 0; tag < SIZE; tag++) {
+      unseen[tag] = (float) Math.log(1.0 / (tagCounts[tag] + vocabulary));
+    }
+    Map<String, float[]> emissions = new HashMap<>();
+    emissionCounts.forEach((word, counts) -> {
+      float[] row = new float[SIZE];
+      for (int tag = 0; tag < SIZE; tag++) {
+        row[tag] = (float) Math.log((counts[tag] + 1.0) / (tagCounts[tag] + vocabulary));
+      }
+      emissions.put(word, row);
+    });
+    return new PosTagger(transitions, emissions, unseen);
+  }
+
+  /**
+   * Keeps the k best POS of every Token of a Phrase.
+   * @param  tokens
+   *         the Tokens of the Phrase
+   * @param  k
+   *         the number of POS to keep for every Token
+   * @return  the POS to keep for every Token, as bit masks of their ordinals
+   * @see  com.github.bot.curiosone.core.nlp.Token The Token Class
+   */
+  public long[] prune(List<Token> tokens, int k) {
+    List<String> words = new ArrayList<>(tokens.size());
+    List<Set<Meaning>> meanings = new ArrayList<>(tokens.size());
+    for (Token token : tokens) {
+      words.add(token.getText());
+      meanings.add(token.getMeanings());
+    }
+    return prune(words, meanings, k);
+  }
+
+  /**
+   * Keeps the k best POS of every word of a Phrase.
+   * A word without Meanings keeps no POS.
+   * @param  words
+   *         the words of the Phrase
+   * @param  meanings
+   *         the Meanings of every word
+   * @param  k
+   *         the number of POS to keep for every word
+   * @return  the POS to keep for every word, as bit masks of their ordinals
+   */
+  long[] prune(List<String> words, List<Set<Meaning>> meanings, int k) {
+    int n = words.size();
+    long[] candidates = new long[n];
+    float[][] emission = new float[n][];
+    for (int i = 0; i < n; i++) {
+      candidates[i] = mask(meanings.get(i));
+      emission[i] = emission(words.get(i), meanings.get(i), candidates[i]);
+    }
+
+    // Best score of a path from the start to every POS of every word, and from it to the end.
+    float[][] forward = new float[n][SIZE];
+    float[][] backward = new float[n][SIZE];
+    for (int i = 0; i < n; i++) {
+      Arrays.fill(forward[i], Float.NEGATIVE_INFINITY);
+      Arrays.fill(backward[i], i == n - 1 ? 0f : Float.NEGATIVE_INFINITY);
+    }
+    for (int i = 0; i < n; i++) {
+      for (long c = candidates[i]; c != 0; c &= c - 1) {
+        int to = Long.numberOfTrailingZeros(c);
+        float best = i == 0 ? transitions[SIZE][to] : Float.NEGATIVE_INFINITY;
+        if (i > 0) {
+          for (long p = candidates[i - 1]; p != 0; p &= p - 1) {
+            int from = Long.numberOfTrailingZeros(p);
+            best = Math.max(best, forward[i - 1][from] + transitions[from][to]);
+          }
+          if (candidates[i - 1] == 0) {
+            best = transitions[SIZE][to];
+          }
+        }
+        forward[i][to] = best + emission[i][to];
+      }
+    }
+    for (int i = n - 2; i >= 0; i--) {
+      for (long c = candidates[i]; c != 0; c &= c - 1) {
+        int from = Long.numberOfTrailingZeros(c);
+        float best = candidates[i + 1] == 0 ? 0f : Float.NEGATIVE_INFINITY;
+        for (long s = candidates[i + 1]; s != 0; s &= s - 1) {
+          int to = Long.numberOfTrailingZeros(s);
+          best = Math.max(best, transitions[from][to] + emission[i + 1][to] + backward[i + 1][to]);
+        }
+        backward[i][from] = best;
+      }
+    }
+
+    long[] kept = new long[n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < k && candidates[i] != kept[i]; j++) {
+        int best = -1;
+        for (long c = candidates[i] & ~kept[i]; c != 0; c &= c - 1) {
+          int tag = Long.numberOfTrailingZeros(c);
+          if (best < 0 || forward[i][tag] + backward[i][tag]
+              > forward[i][best] + backward[i][best]) {
+            best = tag;
+          }
+        }
+        kept[i] |= 1L << best;
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * Gets the most likely POS of every word of a Phrase.
+   * @param  words
+   *         the words of the Phrase
+   * @param  meanings
+   *         the Meanings of every word
+   * @return  the most likely POS of every word, or null for the words without Meanings
+   */
+  POS[] tag(List<String> words, List<Set<Meaning>> meanings) {
+    long[] kept = prune(words, meanings, 1);
+    POS[] tags = new POS[kept.length];
+    for (int i = 0; i < kept.length; i++) {
+      tags[i] = kept[i] == 0 ? null : POSES[Long.numberOfTrailingZeros(kept[i])];
+    }
+    return tags;
+  }
+
+  /**
+   * Scores a word with every POS of its Meanings.
+   * Words missing from the model are scored with the tag counts of their Meanings.
+   * @param  word
+   *         the word
+   * @param  meanings
+   *         the Meanings of the word
+   * @param  candidates
+   *         the POS of the Meanings, as a bit mask
+   * @return  the emission log probability of the word, by POS ordinal
+   */
+  private float[] emission(String word, Set<Meaning> meanings, long candidates) {
+    float[] row = emissions.get(key(word));
+    if (row != null) {
+      return row;
+    }
+    float[] frequencies = new float[SIZE];
+    float total = 0f;
+    for (Meaning m : meanings) {
+      if (m.getPOS() != null) {
+        frequencies[m.getPOS().ordinal()] += m.getFrequency();
+        total += m.getFrequency();
+      }
+    }
+    row = new float[SIZE];
+    float count = Long.bitCount(candidates);
+    for (int tag = 0; tag < SIZE; tag++) {
+      row[tag] = unseen[tag] + (float) Math.log((frequencies[tag] + 1f) / (total + count));
+    }
+    return row;
+  }
+
+  /**
+   * Gets the POS of some Meanings.
+   * @param  meanings
+   *         the Meanings
+   * @return  the POS of the Meanings, as a bit mask of their ordinals
+   */
+  private static long mask(Set<Meaning> meanings) {
+    long mask = 0L;
+    for (Meaning m : meanings) {
+      if (m.getPOS() != null) {
+        mask |= 1L << m.getPOS().ordinal();
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Normalizes a word to its key in the emission table.
+   * @param  word
+   *         the word
+   * @return  the key of the word
+   */
+  private static String key(String word) {
+    return word.toLowerCase();
+  }
+
+  /**
+   * Reads a model file.
+   * @param  path
+   *         the model file
+   * @return  the PosTagger of the model
+   * @throws IOException if the file cannot be read or is not a model file
+   */
+  public static PosTagger load(Path path) throws IOException {
+    try (InputStream in = Files.newInputStream(path)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Reads a model.
+   * POS are stored by name, so that a model survives the reordering of the POS Enum; POS unknown
+   * to this version get the lowest probabilities.
+   * @param  in
+   *         the stream to read the model from
+   * @return  the PosTagger of the model
+   * @throws IOException if the stream cannot be read or does not contain a model
+   */
+  public static PosTagger read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+      throw new IOException("Not a POS tagger model");
+    }
+    int size = data.readInt();
+    int[] ordinals = new int[size];
+    for (int i = 0; i < size; i++) {
+      String name = data.readUTF();
+      ordinals[i] = -1;
+      for (POS pos : POSES) {
+        if (pos.name().equals(name)) {
+          ordinals[i] = pos.ordinal();
+        }
+      }
+    }
+    float[][] transitions = new float[SIZE + 1][SIZE];
+    for (float[] row : transitions) {
+      Arrays.fill(row, Float.NEGATIVE_INFINITY);
+    }
+    for (int from = 0; from <= size; from++) {
+      int row = from == size ? SIZE : ordinals[from];
+      for (int to = 0; to < size; to++) {
+        float p = data.readFloat();
+        if (row >= 0 && ordinals[to] >= 0) {
+          transitions[row][ordinals[to]] = p;
+        }
+      }
+    }
+    float[] unseen = readRow(data, ordinals);
+    int words = data.readInt();
+    Map<String, float[]> emissions = new HashMap<>(words * 4 / 3 + 1);
+    for (int i = 0; i < words; i++) {
+      emissions.put(data.readUTF(), readRow(data, ordinals));
+    }
+    return new PosTagger(transitions, emissions, unseen);
+  }
+
+  /**
+   * Reads a row of log probabilities by POS.
+   * @param  data
+   *         the stream to read the row from
+   * @param  ordinals
+   *         the ordinal of every POS of the model, or -1 if unknown
+   * @return  the log probabilities, by POS ordinal
+   * @throws IOException if the stream cannot be read
+   */
+  private static float[] readRow(DataInputStream data, int[] ordinals) throws IOException {
+    float[] row = new float[SIZE];
+    Arrays.fill(row, Float.NEGATIVE_INFINITY);
+    for (int ordinal : ordinals) {
+      float p = data.readFloat();
+      if (ordinal >= 0) {
+        row[ordinal] = p;
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Writes the model of this PosTagger.
+   * @param  out
+   *         the stream to write the model to
+   * @throws IOException if the stream cannot be written
+   */
+  public void write(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(SIZE);
+    for (POS pos : POSES) {
+      data.writeUTF(pos.name());
+    }
+    for (float[] row : transitions) {
+      for (float p : row) {
+        data.writeFloat(p);
+      }
+    }
+    for (float p : unseen) {
+      data.writeFloat(p);
+    }
+    data.writeInt(emissions.size());
+    for (Map.Entry<String, float[]> e : emissions.entrySet()) {
+      data.writeUTF(e.getKey());
+      for (float p : e.getValue()) {
+        data.writeFloat(p);
+      }
+    }
+    data.flush();
+  }
+}
@@ -0,0 +1,185 @@
+package com.github.bot.curiosone.core.nlp;
+
+import com.github.bot.curiosone.core.util.Pair;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Trains the model of the PosTagger from a tagged corpus.
+ * The corpus has a sentence per line, made of space separated {@code word/TAG} tokens, where TAG is
+ * either the name of a POS or a Penn Treebank tag. Tokens whose tag has no POS, like punctuation,
+ * are skipped.
+ * @see  com.github.bot.curiosone.core.nlp.PosTagger The PosTagger Class
+ */
+public class PosTaggerTrainer {
+
+  /**
+   * Private constructor.
+   */
+  private PosTaggerTrainer() {}
+
+  /**
+   * Reads a tagged corpus.
+   * @param  reader
+   *         the corpus
+   * @return  the tagged sentences, as lists of words and their POS
+   * @throws IOException if the corpus cannot be read
+   */
+  public static List<List<Pair<String, POS>>> read(BufferedReader reader) throws IOException {
+    List<List<Pair<String, POS>>> corpus = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      List<Pair<String, POS>> sentence = new ArrayList<>();
+      for (String token : line.trim().split("\\s+")) {
+        int slash = token.lastIndexOf('/');
+        if (slash <= 0) {
+          continue;
+        }
+        String word = token.substring(0, slash);
+        POS pos = toPos(word, token.substring(slash + 1));
+        if (pos != null) {
+          sentence.add(Pair.create(word, pos));
+        }
+      }
+      if (!sentence.isEmpty()) {
+        corpus.add(sentence);
+      }
+    }
+    return corpus;
+  }
+
+  /**
+   * Maps a tag of the corpus to a POS.
+   * @param  word
+   *         the tagged word
+   * @param  tag
+   *         the name of a POS or a Penn Treebank tag
+   * @return  the POS of the tag, or null if the tag has no POS
+   */
+  static POS toPos(String word, String tag) {
+    for (POS pos : POS.values()) {
+      if (pos.name().equals(tag)) {
+        return pos;
+      }
+    }
+    if (tag.startsWith("NN")) {
+      return POS.N;
+    }
+    if (tag.startsWith("VB") || tag.equals("MD")) {
+      return POS.V;
+    }
+    if (tag.startsWith("JJ")) {
+      return POS.ADJ;
+    }
+    if (tag.startsWith("RB") || tag.equals("WRB") || tag.equals("RP")) {
+      return word.equalsIgnoreCase("not") || word.equalsIgnoreCase("n't") ? POS.NEG : POS.ADV;
+    }
+    switch (tag) {
+      case "PRP":
+      case "PRP$":
+      case "WP":
+      case "WP$":
+      case "EX":
+        return POS.PRON;
+      case "DT":
+      case "PDT":
+      case "WDT":
+        return POS.DET;
+      case "IN":
+      case "TO":
+        return POS.PREP;
+      case "CC":
+        return POS.CONJ;
+      case "UH":
+        return POS.INTERJ;
+      case "CD":
+        return POS.NUMB;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Measures the accuracy of a PosTagger on a tagged corpus.
+   * Every word is given all the POS of the corpus as Meanings, so that the tagger cannot rely on
+   * the dictionary.
+   * @param  tagger
+   *         the PosTagger
+   * @param  corpus
+   *         the tagged sentences
+   * @return  the fraction of words tagged with their POS in the corpus
+   */
+  public static double accuracy(PosTagger tagger, List<List<Pair<String, POS>>> corpus) {
+    Set<POS> tags = EnumSet.noneOf(POS.class);
+    corpus.forEach(sentence -> sentence.forEach(tagged -> tags.add(tagged.getSecond())));
+    Set<Meaning> meanings = new HashSet<>();
+    for (POS pos : tags) {
+      meanings.add(new Meaning(pos, LEX.ALL));
+    }
+    long correct = 0;
+    long total = 0;
+    for (List<Pair<String, POS>> sentence : corpus) {
+      List<String> words = new ArrayList<>(sentence.size());
+      for (Pair<String, POS> tagged : sentence) {
+        words.add(tagged.getFirst());
+      }
+      POS[] predicted = tagger.tag(words, Collections.nCopies(words.size(), meanings));
+      for (int i = 0; i < predicted.length; i++) {
+        if (predicted[i] == sentence.get(i).getSecond()) {
+          correct++;
+        }
+        total++;
+      }
+    }
+    return total == 0 ? 0.0 : (double) correct / total;
+  }
+
+  /**
+   * Trains a model file.
+   * @param  args
+   *         the tagged corpus, the model file to write and optionally a held-out tagged corpus
+   *         to report the accuracy of the model on
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2 && args.length != 3) {
+      System.err.println("Usage: PosTaggerTrainer <tagged corpus> <model file> [held-out corpus]");
+      System.exit(2);
+    }
+    List<List<Pair<String, POS>>> corpus;
+    try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]),
+        StandardCharsets.UTF_8)) {
+      corpus = read(reader);
+    }
+    PosTagger tagger = PosTagger.train(corpus);
+    Path out = Paths.get(args[1]);
+    Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+    if (out.getParent() != null) {
+      Files.createDirectories(out.getParent());
+    }
+    try (OutputStream stream = Files.newOutputStream(tmp)) {
+      tagger.write(stream);
+    }
+    Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+    System.out.println(corpus.size() + " sentences trained into " + args[1]);
+    if (args.length == 3) {
+      try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[2]),
+          StandardCharsets.UTF_8)) {
+        System.out.printf("held-out accuracy: %.4f%n", accuracy(tagger, read(reader)));
+      }
+    }
+  }
+}
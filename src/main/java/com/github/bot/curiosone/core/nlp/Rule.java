@@ -1,17 +1,13 @@
 package com.github.bot.curiosone.core.nlp;
 
 import com.github.bot.curiosone.core.util.Pair;
+import com.github.bot.curiosone.core.util.Resources;
+import com.github.bot.curiosone.core.util.WarmImage;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Stream;
 
 
 /**
@@ -27,7 +23,7 @@ public class Rule {
   /**
    * Rules that belong to the used Grammar.
    */
-  private static Set<Rule> rules;
+  private static volatile Set<Rule> rules;
 
   /**
    * Path to the Grammar file.
@@ -121,7 +117,9 @@ public class Rule {
    *
    */
   public static Set<Rule> allFrom(POS from) {
-    load(); // Make sure that rules has been loaded
+    if (rules == null) {
+      load(); // Make sure that rules has been loaded
+    }
 
     Set<Rule> matches = new HashSet<>();
     for (Rule r : rules) {
@@ -139,7 +137,9 @@ public class Rule {
    * @return  a Set containing all the Rules of the Grammar with the given Pair as target.
    */
   public static Set<Rule> allTo(Pair<POS, POS> to) {
-    load(); // Make sure that rules has been loaded
+    if (rules == null) {
+      load(); // Make sure that rules has been loaded
+    }
 
     Set<Rule> matches = new HashSet<>();
     for (Rule r : rules) {
@@ -150,26 +150,48 @@ public class Rule {
     return matches;
   }
 
+  /**
+   * Gets the Section saving the Rules of the Grammar in a WarmImage.
+   * @return  the Section of the Grammar
+   * @see  WarmImage The WarmImage Class
+   */
+  public static WarmImage.Section imageSection() {
+    return new WarmImage.Section("grammar", rulesPath, 1, out -> {
+      load();
+      out.writeInt(rules.size());
+      for (Rule rule : rules) {
+        WarmImage.writeString(out, rule.from.name());
+        WarmImage.writeString(out, rule.to.getFirst().name());
+        WarmImage.writeString(out, rule.to.getSecond().name());
+      }
+    }, buffer -> {
+      Set<Rule> loaded = new HashSet<Rule>();
+      for (int i = buffer.getInt(); i > 0; i--) {
+        POS from = POS.valueOf(WarmImage.readString(buffer));
+        POS first = POS.valueOf(WarmImage.readString(buffer));
+        loaded.add(new Rule(from, Pair.create(first, POS.valueOf(WarmImage.readString(buffer)))));
+      }
+      synchronized (Rule.class) {
+        if (rules == null) {
+          rules = loaded;
+        }
+      }
+    });
+  }
+
   /**
    * Loads the Rules of the Grammar.
+   * Does nothing if the Rules have already been loaded.
    */
-  private static void load() {
+  public static synchronized void load() {
     if (rules != null) {
       return;
     }
-    Path path = null;
+    Set<Rule> loaded = new HashSet<Rule>();
     try {
-      URL resource = Rule.class.getResource(rulesPath);
-      path = Paths.get(resource.toURI());
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
-
-    rules = new HashSet<Rule>();
-    try (Stream<String> stream = Files.lines(path)) {
-      stream.forEach(line -> {
+      Resources.forEachLine(rulesPath, line -> {
         String[] values = line.split(" ");
-        rules.add(
+        loaded.add(
             new Rule(
               POS.valueOf(values[0]),
               Pair.create(POS.valueOf(values[1]), POS.valueOf(values[2]))
@@ -179,5 +201,6 @@ public class Rule {
     } catch (IOException e) {
       e.printStackTrace();
     }
+    rules = loaded;
   }
 }
@@ -1,9 +1,10 @@
 package com.github.bot.curiosone.core.nlp;
 
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
 import com.github.bot.curiosone.core.util.Interval;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -11,7 +12,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 /**
  * Represents a semantically complete Sentence.
@@ -35,11 +35,10 @@ public class Sentence {
   private boolean question;
 
   /**
-   * The lookup table used to check the syntax.
-   * @see  com.github.bot.curiosone.core.nlp.POS The POS Enum
-   * @see  com.github.bot.curiosone.core.util.Interval The Interval Class
+   * The spans of every POS, used to check the syntax.
+   * @see  com.github.bot.curiosone.core.nlp.SpanIndex The SpanIndex Class
    */
-  private Map<POS, TreeSet<Interval>> lookup;
+  private SpanIndex spans;
 
   /**
    * Constructs this Sentence.
@@ -53,7 +52,7 @@ public class Sentence {
    */
   private Sentence(List<Word> words, Map<POS, TreeSet<Interval>> lookup, boolean question) {
     this.words = words;
-    this.lookup = lookup;
+    this.spans = SpanIndex.of(lookup);
     this.question = question;
   }
 
@@ -76,6 +75,15 @@ public class Sentence {
     return words;
   }
 
+  /**
+   * Gets the spans of every POS of this Sentence.
+   * @return  the SpanIndex of this Sentence
+   * @see  com.github.bot.curiosone.core.nlp.SpanIndex The SpanIndex Class
+   */
+  SpanIndex getSpans() {
+    return spans;
+  }
+
   /**
    * Checks whether this Sentence contains the given POS or not.
    * @param  pos
@@ -85,7 +93,7 @@ public class Sentence {
    * @see  com.github.bot.curiosone.core.nlp.POS The POS Enum
    */
   public boolean has(POS pos) {
-    return lookup.getOrDefault(pos, new TreeSet<>()).size() > 0;
+    return spans.has(pos);
   }
 
   /**
@@ -97,8 +105,8 @@ public class Sentence {
    */
   public List<Word> get(POS pos) {
     List<Word> l = new ArrayList<>();
-    for (Interval intr : lookup.getOrDefault(pos, new TreeSet<>())) {
-      for (int j = intr.min(); j <= intr.max(); j++) {
+    for (int i = 0; i < spans.count(pos); i++) {
+      for (int j = spans.start(pos, i); j <= spans.end(pos, i); j++) {
         l.add(words.get(j));
       }
     }
@@ -119,16 +127,11 @@ public class Sentence {
   public boolean respect(POS... posl) {
     int idx = 0;
     for (POS pos : posl) {
-      int oidx = idx;
-      for (Interval intr : lookup.getOrDefault(pos, new TreeSet<>())) {
-        if (intr.min() == idx) {
-          idx = intr.max() + 1;
-          break;
-        }
-      }
-      if (oidx == idx) {
+      int span = spans.find(pos, idx);
+      if (span < 0) {
         return false;
       }
+      idx = spans.end(pos, span) + 1;
     }
     return true;
   }
@@ -151,21 +154,17 @@ public class Sentence {
     }
 
     for (int i = 0; i < posl.length; i++) {
-      int oidx = idx;
-      for (Interval intr : lookup.getOrDefault(posl[i], new TreeSet<>())) {
-        if (intr.min() == idx) {
-          for (int j = idx; j <= intr.max(); j++) {
-            l[i].add(words.get(j));
-          }
-          idx = intr.max() + 1;
-          break;
-        }
-      }
-      if (oidx == idx) {
+      int span = spans.find(posl[i], idx);
+      if (span < 0) {
         // The whole structure is not respected. Returns the initial part that
         // matchs, if available.
         return l;
       }
+      int end = spans.end(posl[i], span);
+      for (int j = idx; j <= end; j++) {
+        l[i].add(words.get(j));
+      }
+      idx = end + 1;
     }
     return l;
   }
@@ -176,7 +175,7 @@ public class Sentence {
    */
   @Override
   public String toString() {
-    return "<" + words + ", " + lookup + ">";
+    return "<" + words + ", " + spans + ">";
   }
 
   /**
@@ -200,12 +199,12 @@ public class Sentence {
 
   /**
    * Calculates the HashCode for this Sentence.
-   * The HashCode depends on the list of words and the lookup table of this Sentence.
+   * The HashCode depends on the list of words and the spans of this Sentence.
    * @return  the HashCode of this Sentence
    */
   @Override
   public int hashCode() {
-    return Objects.hash(words, lookup);
+    return Objects.hash(words, spans);
   }
 
   /**
@@ -217,8 +216,23 @@ public class Sentence {
    * @see  com.github.bot.curiosone.core.nlp.ParseTable The ParseTable Class
    */
   public static List<Sentence> extract(Phrase phrase) {
+    return extract(phrase, Deadline.none());
+  }
+
+  /**
+   * Extracts semantically complete Sentences from a Phrase, giving up when the Deadline expires.
+   * @param  phrase
+   *         the Phrase to be splitted into Sentences
+   * @param  deadline
+   *         the latency budget of the extraction
+   * @return  the Sentences extracted from the given Phrase, according to the CYK table.
+   * @throws DeadlineExceededException if the Deadline expires before the extraction is complete
+   * @see  com.github.bot.curiosone.core.nlp.Phrase The Phrase Class
+   * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+   */
+  public static List<Sentence> extract(Phrase phrase, Deadline deadline) {
     List<Token> tokens = phrase.getTokens();
-    ParseTable table = new ParseTable(tokens);
+    ParseTable table = new ParseTable(tokens, deadline);
     // System.out.println(table);
     List<Sentence> l = new ArrayList<>();
 
@@ -227,6 +241,7 @@ public class Sentence {
         Set<Rule> rules = table.get(x, y);
         for (Rule r : rules) {
           if (r.getFrom().equals(POS.S)) {
+            deadline.check("parse");
             Map<POS, TreeSet<Interval>> lookt = new HashMap<>();
             List<Set<Meaning>> means = new ArrayList<>(table.getHeight());
             for (int i = 0; i < table.getHeight(); i++) {
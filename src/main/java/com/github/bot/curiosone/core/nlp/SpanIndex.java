@@ -0,0 +1,209 @@
+package com.github.bot.curiosone.core.nlp;
+
+import com.github.bot.curiosone.core.util.Interval;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Stores the spans of the Words of a Sentence covered by every POS.
+ * The spans of a POS are kept as two arrays of start and end indexes, sorted by start and then
+ * by end, and the arrays are indexed by the ordinal of the POS. Checking whether a POS is present
+ * is then a length test, and the span starting at a given Word is found by binary search, without
+ * allocating.
+ * @see  com.github.bot.curiosone.core.nlp.Sentence The Sentence Class
+ */
+final class SpanIndex {
+
+  /**
+   * The spans of a POS that covers no Words.
+   */
+  private static final int[] NONE = new int[0];
+
+  /**
+   * The start index of every span, by POS ordinal.
+   */
+  private final int[][] starts;
+
+  /**
+   * The end index, inclusive, of every span, by POS ordinal.
+   */
+  private final int[][] ends;
+
+  /**
+   * Constructs a SpanIndex.
+   * @param  starts
+   *         the start index of every span, by POS ordinal
+   * @param  ends
+   *         the end index of every span, by POS ordinal
+   */
+  private SpanIndex(int[][] starts, int[][] ends) {
+    this.starts = starts;
+    this.ends = ends;
+  }
+
+  /**
+   * Builds a SpanIndex from the lookup table filled by the ParseTable.
+   * @param  lookup
+   *         maps every POS to the Intervals of the Words it covers
+   * @return  the SpanIndex of the lookup table
+   * @see  com.github.bot.curiosone.core.nlp.ParseTable#traverse The traverse Method
+   */
+  static SpanIndex of(Map<POS, ? extends Collection<Interval>> lookup) {
+    int size = POS.values().length;
+    int[][] starts = new int[size][];
+    int[][] ends = new int[size][];
+    Arrays.fill(starts, NONE);
+    Arrays.fill(ends, NONE);
+    lookup.forEach((pos, intervals) -> {
+      Collection<Interval> sorted = intervals instanceof TreeSet
+          ? intervals : new TreeSet<>(intervals);
+      int[] s = new int[sorted.size()];
+      int[] e = new int[sorted.size()];
+      int i = 0;
+      for (Interval intr : sorted) {
+        s[i] = intr.min();
+        e[i] = intr.max();
+        i++;
+      }
+      starts[pos.ordinal()] = s;
+      ends[pos.ordinal()] = e;
+    });
+    return new SpanIndex(starts, ends);
+  }
+
+  /**
+   * Checks whether a POS covers some Words.
+   * @param  pos
+   *         the POS
+   * @return  {@code true} if the POS has at least a span; {@code false} otherwise
+   */
+  boolean has(POS pos) {
+    return starts[pos.ordinal()].length > 0;
+  }
+
+  /**
+   * Gets the POS that cover some Words as a bit mask.
+   * @return  a mask with the bit of the ordinal of every POS with at least a span set
+   */
+  long mask() {
+    long mask = 0L;
+    for (int i = 0; i < starts.length; i++) {
+      if (starts[i].length > 0) {
+        mask |= 1L << i;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Gets the number of spans of a POS.
+   * @param  pos
+   *         the POS
+   * @return  the number of spans
+   */
+  int count(POS pos) {
+    return starts[pos.ordinal()].length;
+  }
+
+  /**
+   * Gets the start index of a span.
+   * @param  pos
+   *         the POS
+   * @param  span
+   *         the index of the span
+   * @return  the index of the first Word of the span
+   */
+  int start(POS pos, int span) {
+    return starts[pos.ordinal()][span];
+  }
+
+  /**
+   * Gets the end index of a span.
+   * @param  pos
+   *         the POS
+   * @param  span
+   *         the index of the span
+   * @return  the index of the last Word of the span
+   */
+  int end(POS pos, int span) {
+    return ends[pos.ordinal()][span];
+  }
+
+  /**
+   * Finds the shortest span of a POS starting at the given Word.
+   * @param  pos
+   *         the POS
+   * @param  start
+   *         the index of the first Word of the span
+   * @return  the index of the span, or -1 if no span of the POS starts at the given Word
+   */
+  int find(POS pos, int start) {
+    int[] s = starts[pos.ordinal()];
+    int low = 0;
+    int high = s.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (s[mid] < start) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low < s.length && s[low] == start ? low : -1;
+  }
+
+  /**
+   * Returns a String representation of this SpanIndex.
+   * @return  a String representation of the spans of every POS, as {POS=[[start, end], ...]}
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (POS pos : POS.values()) {
+      if (!has(pos)) {
+        continue;
+      }
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(pos).append("=[");
+      for (int i = 0; i < count(pos); i++) {
+        sb.append(i > 0 ? ", [" : "[").append(start(pos, i)).append(", ").append(end(pos, i))
+            .append(']');
+      }
+      sb.append(']');
+    }
+    return sb.append('}').toString();
+  }
+
+  /**
+   * Checks whether this SpanIndex equals to the given object.
+   * @param  other
+   *         the object to be compared against
+   * @return  {@code true} if the object is a SpanIndex with the same spans;
+   *          {@code false} otherwise
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof SpanIndex)) {
+      return false;
+    }
+    SpanIndex that = (SpanIndex) other;
+    return Arrays.deepEquals(starts, that.starts) && Arrays.deepEquals(ends, that.ends);
+  }
+
+  /**
+   * Calculates the HashCode of this SpanIndex.
+   * @return  the HashCode of the spans
+   */
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.deepHashCode(starts) + Arrays.deepHashCode(ends);
+  }
+}
@@ -1,10 +1,9 @@
 package com.github.bot.curiosone.core.nlp;
 
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import com.github.bot.curiosone.core.util.Resources;
+
+import java.io.IOException;
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -21,11 +20,6 @@ public class Spelling {
    */
   private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
 
-  /**
-   * String representation of a Regex to match all letters from 'a' to 'z'.
-   */
-  private static final String REGEX_A_Z = "[^a-z ]";
-
   /**
    * The instance of this singleton class.
    */
@@ -45,23 +39,33 @@ public class Spelling {
    * Constructs a Spelling Dictionary.
    */
   private Spelling() {
-    Path path = null;
-    try {
-      URL resource = Rule.class.getResource(dictionaryPath);
-      path = Paths.get(resource.toURI());
-    } catch (URISyntaxException e) {
+    // Only the letters and the spaces count: words are separated by spaces alone.
+    try (Reader reader = Resources.reader(dictionaryPath)) {
+      StringBuilder word = new StringBuilder();
+      int c;
+      while ((c = reader.read()) != -1) {
+        char lower = Character.toLowerCase((char) c);
+        if (lower >= 'a' && lower <= 'z') {
+          word.append(lower);
+        } else if (lower == ' ') {
+          count(word);
+        }
+      }
+      count(word);
+    } catch (IOException e) {
       e.printStackTrace();
     }
+  }
 
-    try {
-      String dictStr = new String(Files.readAllBytes(path))
-          .toLowerCase()
-          .replaceAll(REGEX_A_Z, "");
-      Stream.of(dictStr.split(" ")).forEach(word -> {
-        dict.compute(word, (k, v) -> v == null ? 1 : v + 1);
-      });
-    } catch (Exception e) {
-      e.printStackTrace();
+  /**
+   * Counts a word of the dictionary and clears it.
+   * @param  word
+   *         the word to be counted
+   */
+  private void count(StringBuilder word) {
+    if (word.length() > 0) {
+      dict.merge(word.toString(), 1, Integer::sum);
+      word.setLength(0);
     }
   }
 
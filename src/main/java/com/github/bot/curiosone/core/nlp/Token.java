@@ -4,6 +4,7 @@ import com.github.bot.curiosone.core.nlp.raw.RawDict;
 import com.github.bot.curiosone.core.nlp.raw.RawToken;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -32,6 +33,11 @@ public class Token {
    */
   Set<Meaning> means;
 
+  /**
+   * Summarizes the meanings of this Token.
+   */
+  MeaningMask mask;
+
   /**
    * Whether this Token is known or not.
    */
@@ -46,7 +52,7 @@ public class Token {
     this.text = text;
     RawToken rt = RawDict.getInstance().getRawToken(text);
     known = rt.isKnown();
-    means = new HashSet<>();
+    Set<Meaning> means = new HashSet<>();
     lemma = rt.getLemma();
     if (lemma == null) {
       lemma = text;
@@ -56,6 +62,17 @@ public class Token {
       meaning.setFrequency(rw.getNum());
       means.add(meaning);
     });
+    setMeanings(means);
+  }
+
+  /**
+   * Sets the meanings of this Token, which cannot be modified afterwards.
+   * @param  means
+   *         the meanings of this Token
+   */
+  private void setMeanings(Set<Meaning> means) {
+    this.means = Collections.unmodifiableSet(means);
+    this.mask = MeaningMask.of(means);
   }
 
   /**
@@ -92,6 +109,15 @@ public class Token {
     return means;
   }
 
+  /**
+   * Gets the most frequent Meaning of this Token.
+   * @return  the Meaning with the highest frequency, or null if this Token has no Meanings
+   * @see  com.github.bot.curiosone.core.nlp.Meaning The Meaning Class
+   */
+  public Meaning getDominantMeaning() {
+    return mask.getDominant();
+  }
+
   /**
    * Returns a String representation of this Token.
    * @return  a String representation of this Token, formatted as: [text, word, meanings]
@@ -176,8 +202,7 @@ public class Token {
       }
       if (len == 1) {
         // If we don't know this token we treat it as a Noun.
-        token.means = new HashSet<>();
-        token.means.add(new Meaning(POS.N, LEX.OBJECT));
+        token.setMeanings(new HashSet<>(Collections.singleton(new Meaning(POS.N, LEX.OBJECT))));
         tokens.add(0, token);
         pos -= len;
         len = 4;
@@ -1,8 +1,8 @@
 package com.github.bot.curiosone.core.nlp;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Handles a Word.
@@ -29,8 +29,14 @@ public class Word {
    */
   Set<Meaning> means;
 
+  /**
+   * Summarizes the meanings of this Word.
+   */
+  MeaningMask mask;
+
   /**
    * Constructs a Word starting from a text, a lemma and a Set of meanings.
+   * The Set must not be modified afterwards.
    * @param  text
    *         a textual representation of this Word
    * @param  lemma
@@ -41,7 +47,8 @@ public class Word {
   public Word(String text, String lemma, Set<Meaning> means) {
     this.text = text;
     this.lemma = lemma;
-    this.means = means;
+    this.means = Collections.unmodifiableSet(means);
+    this.mask = MeaningMask.of(means);
   }
 
   /**
@@ -54,10 +61,7 @@ public class Word {
    *         meaning of this Word
    */
   public Word(String text, String lemma, Meaning mean) {
-    this.text = text;
-    this.lemma = lemma;
-    this.means = new HashSet<>();
-    means.add(mean);
+    this(text, lemma, new HashSet<>(Collections.singleton(mean)));
   }
 
   /**
@@ -104,10 +108,7 @@ public class Word {
    *         {@code false} otherwise
    */
   public boolean itMeans(POS pos) {
-    return means.stream()
-        .map(Meaning::getPOS)
-        .collect(Collectors.toList())
-        .contains(pos);
+    return mask.has(pos);
   }
 
   /**
@@ -118,10 +119,7 @@ public class Word {
    *         {@code false} otherwise
    */
   public boolean itMeans(LEX lex) {
-    return means.stream()
-        .map(Meaning::getLEX)
-        .collect(Collectors.toList())
-        .contains(lex);
+    return mask.has(lex);
   }
 
   /**
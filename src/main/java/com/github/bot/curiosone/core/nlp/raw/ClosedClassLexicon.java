@@ -0,0 +1,292 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import com.github.bot.curiosone.core.nlp.LEX;
+import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.util.Resources;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the closed-class words outside WordNet: pronouns, determiners, conjunctions,
+ * interjections and some adverbs.
+ * The index is built when the Class is loaded, from the built-in categories and from the
+ * resource file {@code /closedclass/words.txt}. More words can be loaded from other files, whose
+ * lines hold a POS, a LEX and the word, which may contain spaces:
+ * <pre>
+ * # Comment
+ * PRON INDEFINITE no one
+ * </pre>
+ * @see  com.github.bot.curiosone.core.nlp.raw.RawDict The RawDict Class
+ */
+public class ClosedClassLexicon {
+
+  /**
+   * Path to the resource file of the additional words.
+   */
+  private static final String wordsPath = "/closedclass/words.txt";
+
+  /**
+   * Stores the index of the closed-class words used by the RawDict.
+   */
+  private static final ClosedClassLexicon index = new ClosedClassLexicon();
+
+  static {
+    add(POS.PRON, LEX.PERSONAL_SUBJECTIVE, "i", "you", "he", "she", "it", "we", "you", "they");
+    add(POS.PRON, LEX.PERSONAL_OBJECTIVE, "me", "you", "him", "her", "it", "us", "you", "them");
+    add(POS.PRON, LEX.POSSESSIVE, "mine", "yours", "his", "hers", "ours", "theirs");
+    add(POS.PRON, LEX.REFLEXIVE, "myself", "yourself", "himself", "herself", "itself",
+        "oneself", "ourselves", "yourselves", "themselves");
+    add(POS.PRON, LEX.RECIPROCAL, "each", "other", "one", "another");
+    add(POS.PRON, LEX.RELATIVE, "that", "which", "who", "whose", "whom", "where", "when");
+    add(POS.PRON, LEX.DEMONSTRATIVE, "this", "that", "these", "those");
+    add(POS.PRON, LEX.INTERROGATIVE, "who", "what", "why", "where", "when", "whatever");
+    add(POS.PRON, LEX.INDEFINITE, "anything", "anybody", "anyone", "something", "somebody",
+        "someone", "nothing", "nobody", "none", "no one");
+    add(POS.DET, LEX.INDEFINITE_ARTICLE, "a", "an");
+    add(POS.DET, LEX.DEFINITE_ARTICLE, "the");
+    add(POS.CONJ, LEX.COORDINATOR, "and", "or", "but");
+    add(POS.CONJ, LEX.SUBORDINATOR, "while", "because", "before", "since", "till", "unless",
+        "whereas", "wheter");
+    add(POS.INTERJ, LEX.GENERIC, "ah", "eh", "hmm", "phew", "tsk", "uhm");
+    add(POS.INTERJ, LEX.REGARDS, "bye", "goodbye", "hello", "farewell", "hi");
+    add(POS.INTERJ, LEX.APOLOGIZE, "so long excuse me", "sorry", "pardon", "i am sorry",
+        "i'm sorry");
+    add(POS.INTERJ, LEX.GRATITUDE, "thanks", "thank you", "thanks a lot");
+    add(POS.INTERJ, LEX.DISGUST, "yuk");
+    add(POS.INTERJ, LEX.SURPRISE, "oh");
+    add(POS.INTERJ, LEX.PAIN, "ouch", "ohi");
+    add(POS.ADV, LEX.INTERROGATIVE, "how");
+
+    try (BufferedReader reader = Resources.reader(wordsPath)) {
+      index.read(reader);
+    } catch (FileNotFoundException e) {
+      // The extra words are optional.
+    } catch (IOException | IllegalArgumentException e) {
+      // The built-in words are still available.
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Maps every word to its meanings, in the order they have been added.
+   */
+  private final Map<String, List<Entry>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs an empty index, apart from the one used by the RawDict.
+   */
+  ClosedClassLexicon() {}
+
+  /**
+   * Adds some words of a category.
+   * @param  pos
+   *         the POS of the words
+   * @param  lex
+   *         the LEX of the words
+   * @param  words
+   *         the words
+   */
+  public static void add(POS pos, LEX lex, String... words) {
+    index.put(pos, lex, words);
+  }
+
+  /**
+   * Adds some words of a category to this index.
+   * @param  pos
+   *         the POS of the words
+   * @param  lex
+   *         the LEX of the words
+   * @param  words
+   *         the words
+   */
+  void put(POS pos, LEX lex, String... words) {
+    Entry entry = new Entry(pos, lex);
+    for (String word : words) {
+      entries.compute(word, (w, meanings) -> {
+        if (meanings != null && meanings.contains(entry)) {
+          return meanings;
+        }
+        List<Entry> added = new ArrayList<>(meanings == null ? Collections.emptyList() : meanings);
+        added.add(entry);
+        return Collections.unmodifiableList(added);
+      });
+    }
+  }
+
+  /**
+   * Loads the words of a file.
+   * @param  path
+   *         the path of the file
+   * @return  the number of words loaded
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a line is malformed
+   */
+  public static int load(Path path) throws IOException {
+    try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return index.read(in);
+    }
+  }
+
+  /**
+   * Loads the words of a Reader into this index, one per line, after their POS and LEX.
+   * Empty lines and lines starting with '#' are skipped. The words before a malformed line are
+   * kept.
+   * @param  in
+   *         the Reader
+   * @return  the number of words loaded
+   * @throws IOException if the Reader cannot be read
+   * @throws IllegalArgumentException if a line is malformed or names an unknown POS or LEX. The
+   *         message gives the number of the line.
+   */
+  int read(BufferedReader in) throws IOException {
+    int count = 0;
+    int number = 0;
+    String line;
+    while ((line = in.readLine()) != null) {
+      number++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("\\s+", 3);
+      if (fields.length < 3) {
+        throw new IllegalArgumentException(
+            "Malformed closed-class word at line " + number + ": " + line);
+      }
+      POS pos;
+      LEX lex;
+      try {
+        pos = POS.valueOf(fields[0]);
+        lex = LEX.valueOf(fields[1]);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "Unknown POS or LEX at line " + number + ": " + line, e);
+      }
+      put(pos, lex, fields[2]);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Finds the meanings of a word.
+   * @param  word
+   *         the word, as written in the index
+   * @return  a List containing a RawWord for every meaning of the word, or an empty List if the
+   *          word is not a closed-class word
+   */
+  public static List<RawWord> lookup(String word) {
+    return index.find(word);
+  }
+
+  /**
+   * Finds the meanings of a word in this index.
+   * @param  word
+   *         the word, as written in the index
+   * @return  a List containing a RawWord for every meaning of the word, or an empty List if the
+   *          word is not in this index
+   */
+  List<RawWord> find(String word) {
+    List<Entry> meanings = entries.get(word);
+    if (meanings == null) {
+      return Collections.emptyList();
+    }
+    List<RawWord> words = new ArrayList<>(meanings.size());
+    for (Entry entry : meanings) {
+      RawWord retWord = new RawWord();
+      retWord.setLemma(word);
+      retWord.setPos(entry.pos);
+      retWord.setLexType(entry.lex);
+      retWord.setGloss(gloss(entry.pos));
+      words.add(retWord);
+    }
+    return words;
+  }
+
+  /**
+   * Gets the gloss of the closed-class words of a POS.
+   * @param  pos
+   *         the POS
+   * @return  the gloss of the words
+   */
+  private static String gloss(POS pos) {
+    switch (pos) {
+      case PRON:
+        return "Pronoun outside WordNet";
+      case DET:
+        return "Determiners outside WordNet";
+      case CONJ:
+        return "Conjunctions outside WordNet";
+      case INTERJ:
+        return "Interjections outside WordNet";
+      case ADV:
+        return "Adverbs outside WordNet";
+      default:
+        return "Closed-class word outside WordNet";
+    }
+  }
+
+  /**
+   * Represents a meaning of a closed-class word.
+   */
+  private static class Entry {
+
+    /**
+     * The POS of the word.
+     */
+    private final POS pos;
+
+    /**
+     * The LEX of the word.
+     */
+    private final LEX lex;
+
+    /**
+     * Constructs an Entry.
+     * @param  pos
+     *         the POS of the word
+     * @param  lex
+     *         the LEX of the word
+     */
+    private Entry(POS pos, LEX lex) {
+      this.pos = pos;
+      this.lex = lex;
+    }
+
+    /**
+     * Checks whether this Entry equals to the given object.
+     * @param  other
+     *         the object to be compared against
+     * @return  {@code true} if the object is an Entry with the same POS and LEX;
+     *          {@code false} otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Entry)) {
+        return false;
+      }
+      Entry that = (Entry) other;
+      return pos == that.pos && lex == that.lex;
+    }
+
+    /**
+     * Calculates the hashCode of this Entry.
+     * @return  the hashCode of this Entry
+     */
+    @Override
+    public int hashCode() {
+      return Objects.hash(pos, lex);
+    }
+  }
+}
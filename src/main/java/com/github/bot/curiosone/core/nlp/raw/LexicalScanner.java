@@ -0,0 +1,450 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+/**
+ * Classifies the tokens that are not words: numbers, email addresses, URLs, dates and times.
+ * Every check is a single pass over the characters, driven by a table of character classes, so
+ * that no regular expression is compiled and no exception is thrown for the plain words.
+ * Numbers are the Strings accepted by {@link Double#parseDouble(String)} and email addresses are
+ * the ones accepted by the regular expression formerly used by the RawDict.
+ * @see  com.github.bot.curiosone.core.nlp.raw.RawDict The RawDict Class
+ */
+public class LexicalScanner {
+
+  /**
+   * The kinds of token recognized by the scanner.
+   */
+  public enum Kind {
+    NUMBER,
+    EMAIL,
+    URL,
+    DATE,
+    TIME,
+    WORD
+  }
+
+  /**
+   * Decimal digits.
+   */
+  private static final int DIGIT = 1;
+
+  /**
+   * ASCII letters.
+   */
+  private static final int ALPHA = 1 << 1;
+
+  /**
+   * Hexadecimal digits.
+   */
+  private static final int HEX = 1 << 2;
+
+  /**
+   * Characters of the local part of an email address, but the dot.
+   */
+  private static final int LOCAL = 1 << 3;
+
+  /**
+   * Characters of a domain label: letters, digits and hyphen.
+   */
+  private static final int LABEL = 1 << 4;
+
+  /**
+   * Characters of the path, query and fragment of a URL.
+   */
+  private static final int PATH = 1 << 5;
+
+  /**
+   * Maps every ASCII character to its classes.
+   */
+  private static final int[] CLASSES = new int[128];
+
+  static {
+    for (char c = '0'; c <= '9'; c++) {
+      CLASSES[c] |= DIGIT | HEX | LOCAL | LABEL;
+    }
+    for (char c = 'a'; c <= 'z'; c++) {
+      CLASSES[c] |= ALPHA | LOCAL | LABEL;
+      CLASSES[Character.toUpperCase(c)] |= ALPHA | LOCAL | LABEL;
+    }
+    for (char c = 'a'; c <= 'f'; c++) {
+      CLASSES[c] |= HEX;
+      CLASSES[Character.toUpperCase(c)] |= HEX;
+    }
+    for (char c : "_!#$%&'*+/=?`{|}~^-".toCharArray()) {
+      CLASSES[c] |= LOCAL;
+    }
+    CLASSES['-'] |= LABEL;
+    for (char c = '!'; c <= '~'; c++) {
+      if ("<>\"{}|\\^`".indexOf(c) < 0) {
+        CLASSES[c] |= PATH;
+      }
+    }
+  }
+
+  /**
+   * Private constructor.
+   */
+  private LexicalScanner() {}
+
+  /**
+   * Classifies a token.
+   * @param  token
+   *         the token
+   * @return  the Kind of the token; WORD if it is none of the others
+   */
+  public static Kind classify(String token) {
+    if (isNumber(token)) {
+      return Kind.NUMBER;
+    }
+    if (isEmail(token)) {
+      return Kind.EMAIL;
+    }
+    if (isUrl(token)) {
+      return Kind.URL;
+    }
+    if (isDate(token)) {
+      return Kind.DATE;
+    }
+    if (isTime(token)) {
+      return Kind.TIME;
+    }
+    return Kind.WORD;
+  }
+
+  /**
+   * Checks whether a character belongs to the given classes.
+   * @param  c
+   *         the character
+   * @param  classes
+   *         the classes
+   * @return  {@code true} if the character is ASCII and belongs to one of the classes;
+   *          {@code false} otherwise
+   */
+  private static boolean is(char c, int classes) {
+    return c < 128 && (CLASSES[c] & classes) != 0;
+  }
+
+  /**
+   * Skips the characters of the given classes.
+   * @param  str
+   *         the String
+   * @param  from
+   *         the index of the first character
+   * @param  to
+   *         the index following the last character
+   * @param  classes
+   *         the classes to skip
+   * @return  the index of the first character not belonging to the classes, or {@code to}
+   */
+  private static int skip(String str, int from, int to, int classes) {
+    int i = from;
+    while (i < to && is(str.charAt(i), classes)) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Checks whether a String represents a number, as accepted by
+   * {@link Double#parseDouble(String)}: decimal or hexadecimal, with optional sign, exponent and
+   * type suffix, or NaN and Infinity, surrounded by optional whitespace.
+   * @param  str
+   *         the String
+   * @return  {@code true} if the String is a number; {@code false} otherwise
+   */
+  public static boolean isNumber(String str) {
+    int start = 0;
+    int end = str.length();
+    while (start < end && str.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && str.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    int i = start;
+    if (i < end && (str.charAt(i) == '+' || str.charAt(i) == '-')) {
+      i++;
+    }
+    if (i >= end) {
+      return false;
+    }
+    if (str.startsWith("NaN", i)) {
+      return i + 3 == end;
+    }
+    if (str.startsWith("Infinity", i)) {
+      return i + 8 == end;
+    }
+    if (end - i > 1 && str.charAt(i) == '0'
+        && (str.charAt(i + 1) == 'x' || str.charAt(i + 1) == 'X')) {
+      return isHexNumber(str, i + 2, end);
+    }
+    int digits = skip(str, i, end, DIGIT) - i;
+    i += digits;
+    if (i < end && str.charAt(i) == '.') {
+      int fraction = skip(str, i + 1, end, DIGIT);
+      digits += fraction - i - 1;
+      i = fraction;
+    }
+    if (digits == 0) {
+      return false;
+    }
+    if (i < end && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+      i = exponent(str, i + 1, end);
+      if (i < 0) {
+        return false;
+      }
+    }
+    return i == end || i == end - 1 && isTypeSuffix(str.charAt(i));
+  }
+
+  /**
+   * Checks whether the digits of a hexadecimal number are valid.
+   * @param  str
+   *         the String
+   * @param  from
+   *         the index following the 0x prefix
+   * @param  to
+   *         the index following the last character
+   * @return  {@code true} if the characters are hexadecimal digits, with an optional point,
+   *          followed by a binary exponent and an optional type suffix; {@code false} otherwise
+   */
+  private static boolean isHexNumber(String str, int from, int to) {
+    int i = skip(str, from, to, HEX);
+    int digits = i - from;
+    if (i < to && str.charAt(i) == '.') {
+      int fraction = skip(str, i + 1, to, HEX);
+      digits += fraction - i - 1;
+      i = fraction;
+    }
+    if (digits == 0 || i >= to || (str.charAt(i) != 'p' && str.charAt(i) != 'P')) {
+      return false;
+    }
+    i = exponent(str, i + 1, to);
+    return i >= 0 && (i == to || i == to - 1 && isTypeSuffix(str.charAt(i)));
+  }
+
+  /**
+   * Skips the signed digits of an exponent.
+   * @param  str
+   *         the String
+   * @param  from
+   *         the index following the exponent marker
+   * @param  to
+   *         the index following the last character
+   * @return  the index following the exponent, or -1 if it has no digits
+   */
+  private static int exponent(String str, int from, int to) {
+    int i = from;
+    if (i < to && (str.charAt(i) == '+' || str.charAt(i) == '-')) {
+      i++;
+    }
+    int digits = skip(str, i, to, DIGIT);
+    return digits == i ? -1 : digits;
+  }
+
+  /**
+   * Checks whether a character is a floating point type suffix.
+   * @param  c
+   *         the character
+   * @return  {@code true} if the character is f, F, d or D; {@code false} otherwise
+   */
+  private static boolean isTypeSuffix(char c) {
+    return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+  }
+
+  /**
+   * Checks whether a String is an email address: dot-separated atoms of the RFC 5322 local
+   * characters, an at sign, and a domain whose top-level label has from 2 to 6 letters.
+   * @param  str
+   *         the String
+   * @return  {@code true} if the String is an email address; {@code false} otherwise
+   * @see  <a href="http://www.rfc-editor.org/rfc/rfc5322.txt">Internet Message Format</a>
+   */
+  public static boolean isEmail(String str) {
+    int at = str.indexOf('@');
+    if (at <= 0) {
+      return false;
+    }
+    int i = 0;
+    while (true) {
+      int atom = skip(str, i, at, LOCAL);
+      if (atom == i) {
+        return false;
+      }
+      if (atom == at) {
+        break;
+      }
+      if (str.charAt(atom) != '.') {
+        return false;
+      }
+      i = atom + 1;
+    }
+    return domain(str, at + 1, str.length()) == str.length();
+  }
+
+  /**
+   * Skips a domain name: one or more labels, each followed by a dot, and a top-level label of
+   * 2 to 6 letters.
+   * @param  str
+   *         the String
+   * @param  from
+   *         the index of the first character of the domain
+   * @param  to
+   *         the index following the last character that can belong to the domain
+   * @return  the index following the domain, or -1 if there is no valid domain
+   */
+  private static int domain(String str, int from, int to) {
+    int labels = 0;
+    int i = from;
+    while (true) {
+      int label = skip(str, i, to, LABEL);
+      if (label == i) {
+        return -1;
+      }
+      if (label < to && str.charAt(label) == '.') {
+        labels++;
+        i = label + 1;
+        continue;
+      }
+      int letters = skip(str, i, label, ALPHA) - i;
+      return labels > 0 && letters == label - i && letters >= 2 && letters <= 6 ? label : -1;
+    }
+  }
+
+  /**
+   * Checks whether a String is a web address: an http, https or ftp URL, or a domain starting
+   * with www, followed by an optional port and path.
+   * @param  str
+   *         the String
+   * @return  {@code true} if the String is a URL; {@code false} otherwise
+   */
+  public static boolean isUrl(String str) {
+    int i;
+    if (str.regionMatches(true, 0, "http://", 0, 7)) {
+      i = 7;
+    } else if (str.regionMatches(true, 0, "https://", 0, 8)) {
+      i = 8;
+    } else if (str.regionMatches(true, 0, "ftp://", 0, 6)) {
+      i = 6;
+    } else if (str.regionMatches(true, 0, "www.", 0, 4)) {
+      i = 0;
+    } else {
+      return false;
+    }
+    int end = str.length();
+    i = domain(str, i, end);
+    if (i < 0) {
+      return false;
+    }
+    if (i < end && str.charAt(i) == ':') {
+      int port = skip(str, i + 1, end, DIGIT);
+      if (port == i + 1 || port - i - 1 > 5) {
+        return false;
+      }
+      i = port;
+    }
+    if (i < end && str.charAt(i) != '/' && str.charAt(i) != '?' && str.charAt(i) != '#') {
+      return false;
+    }
+    return skip(str, i, end, PATH) == end;
+  }
+
+  /**
+   * Checks whether a String is a date: year, month and day separated by dashes or slashes, or
+   * day and month in either order followed by a year of 2 or 4 digits, separated by slashes,
+   * dashes or dots.
+   * @param  str
+   *         the String
+   * @return  {@code true} if the String is a date; {@code false} otherwise
+   */
+  public static boolean isDate(String str) {
+    int end = str.length();
+    int first = skip(str, 0, end, DIGIT);
+    if (first == 0 || first == end) {
+      return false;
+    }
+    char separator = str.charAt(first);
+    if (separator != '-' && separator != '/' && separator != '.') {
+      return false;
+    }
+    int second = skip(str, first + 1, end, DIGIT);
+    if (second == first + 1 || second == end || str.charAt(second) != separator) {
+      return false;
+    }
+    int third = skip(str, second + 1, end, DIGIT);
+    if (third == second + 1 || third != end) {
+      return false;
+    }
+    int middle = second - first - 1;
+    int last = third - second - 1;
+    int a = number(str, 0, first);
+    int b = number(str, first + 1, second);
+    if (first == 4 && separator != '.') {
+      return middle <= 2 && last <= 2 && isDay(b, number(str, second + 1, third));
+    }
+    return first <= 2 && middle <= 2 && (last == 2 || last == 4) && (isDay(a, b) || isDay(b, a));
+  }
+
+  /**
+   * Checks whether a month and a day are valid.
+   * @param  month
+   *         the month, from 1 to 12
+   * @param  day
+   *         the day, from 1 to 31
+   * @return  {@code true} if both are in range; {@code false} otherwise
+   */
+  private static boolean isDay(int month, int day) {
+    return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+  }
+
+  /**
+   * Checks whether a String is a time of the day: hours and minutes, with optional seconds,
+   * separated by colons and optionally followed by am or pm.
+   * @param  str
+   *         the String
+   * @return  {@code true} if the String is a time; {@code false} otherwise
+   */
+  public static boolean isTime(String str) {
+    int end = str.length();
+    int maxHour = 23;
+    if (end > 2 && (str.regionMatches(true, end - 2, "am", 0, 2)
+        || str.regionMatches(true, end - 2, "pm", 0, 2))) {
+      end -= 2;
+      maxHour = 12;
+    }
+    int hour = skip(str, 0, end, DIGIT);
+    if (hour == 0 || hour > 2 || hour == end || str.charAt(hour) != ':'
+        || number(str, 0, hour) > maxHour) {
+      return false;
+    }
+    int i = hour;
+    for (int field = 0; field < 2 && i < end; field++) {
+      if (str.charAt(i) != ':') {
+        return false;
+      }
+      int next = skip(str, i + 1, end, DIGIT);
+      if (next - i - 1 != 2 || number(str, i + 1, next) > 59) {
+        return false;
+      }
+      i = next;
+    }
+    return i == end;
+  }
+
+  /**
+   * Parses the decimal digits of a String.
+   * @param  str
+   *         the String
+   * @param  from
+   *         the index of the first digit
+   * @param  to
+   *         the index following the last digit
+   * @return  the value of the digits
+   */
+  private static int number(String str, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to && value < 100_000; i++) {
+      value = value * 10 + str.charAt(i) - '0';
+    }
+    return value;
+  }
+}
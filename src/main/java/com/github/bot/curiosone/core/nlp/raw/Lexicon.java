@@ -0,0 +1,344 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import com.github.bot.curiosone.core.nlp.LEX;
+import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.util.Resources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of the WordNet data used by the Curiosone, in the binary format written by the
+ * LexiconBuilder.
+ * The file holds the lemmas and the inflected forms of the exception lists, sorted by their UTF-8
+ * bytes, so that they are found by binary search without decoding them. Every key points to its
+ * senses, packed as part of speech, lexicographer file and tag count, and to the base forms of its
+ * exceptions. The file is memory-mapped, so that opening it costs no parsing and the pages are
+ * shared by the operating system.
+ * <pre>
+ * int MAGIC, int VERSION, int keys, int senses, int exceptions, int pool
+ * int[keys + 1]   offsets of the keys in the pool
+ * int[keys + 1]   index of the first sense of every key
+ * int[senses]     senses: pos (2 bits), lexicographer file (6 bits), tag count (24 bits)
+ * int[keys + 1]   index of the first exception of every key
+ * int[exceptions] exceptions: pos (2 bits), key of the base form (30 bits)
+ * byte[pool]      UTF-8 keys
+ * </pre>
+ * @see  com.github.bot.curiosone.core.nlp.raw.LexiconBuilder The LexiconBuilder Class
+ */
+public class Lexicon {
+
+  /**
+   * Identifies the lexicon files.
+   */
+  static final int MAGIC = 0xC1E7_0001;
+
+  /**
+   * Version of the layout.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * Size of the header, in bytes.
+   */
+  static final int HEADER = 6 * Integer.BYTES;
+
+  /**
+   * Parts of speech stored in the lexicon, by code.
+   */
+  static final POS[] POSES = {POS.N, POS.V, POS.ADJ, POS.ADV};
+
+  /**
+   * Maps the number of every WordNet lexicographer file to the LEX of its name.
+   * @see  <a href="https://wordnet.princeton.edu/documentation/lexnames5wn">Lexicographer Files</a>
+   */
+  static final LEX[] LEXES = {
+    LEX.ALL, LEX.PERT, LEX.ALL, LEX.TOPS, LEX.ACT, LEX.ANIMAL, LEX.ARTIFACT, LEX.ATTRIBUTE,
+    LEX.BODY, LEX.COGNITION, LEX.COMMUNICATION, LEX.EVENT, LEX.FEELING, LEX.FOOD, LEX.GROUP,
+    LEX.LOCATION, LEX.MOTIVE, LEX.OBJECT, LEX.PERSON, LEX.PHENOMENON, LEX.PLANT,
+    LEX.POSSESSION, LEX.PROCESS, LEX.QUANTITY, LEX.RELATION, LEX.SHAPE, LEX.STATE,
+    LEX.SUBSTANCE, LEX.TIME, LEX.BODY, LEX.CHANGE, LEX.COGNITION, LEX.COMMUNICATION,
+    LEX.COMPETITION, LEX.CONSUMPTION, LEX.CONTACT, LEX.CREATION, LEX.EMOTION, LEX.MOTION,
+    LEX.PERCEPTION, LEX.POSSESSION, LEX.SOCIAL, LEX.STATIVE, LEX.WEATHER, LEX.PPL
+  };
+
+  /**
+   * Largest tag count that fits in a sense.
+   */
+  static final int MAX_TAG_COUNT = (1 << 24) - 1;
+
+  /**
+   * The content of the file.
+   */
+  private final ByteBuffer buffer;
+
+  /**
+   * Stores the number of keys.
+   */
+  private final int keys;
+
+  /**
+   * Position of the key offsets.
+   */
+  private final int keyOffsets;
+
+  /**
+   * Position of the sense starts.
+   */
+  private final int senseStarts;
+
+  /**
+   * Position of the senses.
+   */
+  private final int senses;
+
+  /**
+   * Position of the exception starts.
+   */
+  private final int exceptionStarts;
+
+  /**
+   * Position of the exceptions.
+   */
+  private final int exceptions;
+
+  /**
+   * Position of the keys.
+   */
+  private final int pool;
+
+  /**
+   * Constructs a Lexicon over the content of a lexicon file.
+   * @param  buffer
+   *         the content of the file
+   * @throws IllegalArgumentException if the content is not a lexicon of this version
+   */
+  public Lexicon(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate();
+    if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a lexicon");
+    }
+    if (buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IllegalArgumentException("Unsupported lexicon version "
+          + buffer.getInt(Integer.BYTES));
+    }
+    keys = buffer.getInt(2 * Integer.BYTES);
+    int senseCount = buffer.getInt(3 * Integer.BYTES);
+    int exceptionCount = buffer.getInt(4 * Integer.BYTES);
+    keyOffsets = HEADER;
+    senseStarts = keyOffsets + (keys + 1) * Integer.BYTES;
+    senses = senseStarts + (keys + 1) * Integer.BYTES;
+    exceptionStarts = senses + senseCount * Integer.BYTES;
+    exceptions = exceptionStarts + (keys + 1) * Integer.BYTES;
+    pool = exceptions + exceptionCount * Integer.BYTES;
+    if (pool + buffer.getInt(5 * Integer.BYTES) != buffer.capacity()) {
+      throw new IllegalArgumentException("Truncated lexicon");
+    }
+  }
+
+  /**
+   * Maps a lexicon file in memory.
+   * @param  path
+   *         the path of the file
+   * @return  the Lexicon stored in the file
+   * @throws IOException if the file cannot be read
+   */
+  public static Lexicon open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new Lexicon(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Loads a lexicon from the classpath.
+   * The resource is memory-mapped when it is a file, and read in memory otherwise.
+   * @param  name
+   *         the name of the resource
+   * @return  the Lexicon, or null if the resource does not exist
+   * @throws IOException if the resource cannot be read
+   */
+  public static Lexicon fromResource(String name) throws IOException {
+    ByteBuffer buffer = Resources.map(name);
+    return buffer == null ? null : new Lexicon(buffer);
+  }
+
+  /**
+   * Gets the number of keys.
+   * @return  the number of lemmas and inflected forms
+   */
+  public int size() {
+    return keys;
+  }
+
+  /**
+   * Finds a key.
+   * @param  word
+   *         the lemma or the inflected form, normalized as in WordNet
+   * @return  the index of the key, or -1 if it is not in the lexicon
+   */
+  public int find(String word) {
+    byte[] target = word.getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = keys - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compare(mid, target);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Compares a key with the given bytes, as unsigned bytes.
+   * @param  key
+   *         the index of the key
+   * @param  target
+   *         the UTF-8 bytes to compare the key against
+   * @return  a negative number, zero or a positive number if the key precedes, equals or follows
+   *          the given bytes
+   */
+  private int compare(int key, byte[] target) {
+    int start = pool + intAt(keyOffsets, key);
+    int length = pool + intAt(keyOffsets, key + 1) - start;
+    for (int i = 0; i < Math.min(length, target.length); i++) {
+      int cmp = (buffer.get(start + i) & 0xFF) - (target[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length - target.length;
+  }
+
+  /**
+   * Gets a key.
+   * @param  key
+   *         the index of the key
+   * @return  the lemma or the inflected form
+   */
+  public String getKey(int key) {
+    int start = intAt(keyOffsets, key);
+    byte[] bytes = new byte[intAt(keyOffsets, key + 1) - start];
+    ByteBuffer view = buffer.duplicate();
+    view.position(pool + start);
+    view.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the index of the first sense of a key.
+   * The senses of a part of speech are sorted as in WordNet, by decreasing frequency.
+   * @param  key
+   *         the index of the key
+   * @return  the index of the first sense
+   */
+  public int getSenseStart(int key) {
+    return intAt(senseStarts, key);
+  }
+
+  /**
+   * Gets the index following the last sense of a key.
+   * @param  key
+   *         the index of the key
+   * @return  the index following the last sense
+   */
+  public int getSenseEnd(int key) {
+    return intAt(senseStarts, key + 1);
+  }
+
+  /**
+   * Gets the part of speech of a sense.
+   * @param  sense
+   *         the index of the sense
+   * @return  the part of speech of the sense
+   */
+  public POS getPos(int sense) {
+    return POSES[intAt(senses, sense) >>> 30];
+  }
+
+  /**
+   * Gets the lexicographer file of a sense.
+   * @param  sense
+   *         the index of the sense
+   * @return  the LEX of the sense
+   */
+  public LEX getLex(int sense) {
+    return LEXES[(intAt(senses, sense) >>> 24) & 0x3F];
+  }
+
+  /**
+   * Gets the number of times a sense has been tagged in the semantic concordances.
+   * @param  sense
+   *         the index of the sense
+   * @return  the tag count of the sense
+   */
+  public int getTagCount(int sense) {
+    return intAt(senses, sense) & MAX_TAG_COUNT;
+  }
+
+  /**
+   * Checks whether a lemma has senses with the given part of speech.
+   * @param  key
+   *         the index of the key
+   * @param  pos
+   *         the part of speech
+   * @return  {@code true} if the key is a lemma of the given part of speech;
+   *          {@code false} otherwise
+   */
+  public boolean hasPos(int key, POS pos) {
+    for (int i = getSenseStart(key); i < getSenseEnd(key); i++) {
+      if (getPos(i) == pos) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the base forms of an inflected form, from the exception list of a part of speech.
+   * @param  key
+   *         the index of the inflected form
+   * @param  pos
+   *         the part of speech
+   * @return  a List containing the base forms, or an empty List if the key is not an exception
+   */
+  public List<String> getExceptions(int key, POS pos) {
+    int start = intAt(exceptionStarts, key);
+    int end = intAt(exceptionStarts, key + 1);
+    if (start == end) {
+      return Collections.emptyList();
+    }
+    List<String> bases = new ArrayList<>(end - start);
+    for (int i = start; i < end; i++) {
+      int exception = intAt(exceptions, i);
+      if (POSES[exception >>> 30] == pos) {
+        bases.add(getKey(exception & 0x3FFF_FFFF));
+      }
+    }
+    return bases;
+  }
+
+  /**
+   * Reads an int of a table.
+   * @param  table
+   *         the position of the table
+   * @param  index
+   *         the index of the int in the table
+   * @return  the int
+   */
+  private int intAt(int table, int index) {
+    return buffer.getInt(table + index * Integer.BYTES);
+  }
+}
@@ -0,0 +1,318 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the Lexicon of the Curiosone from the WordNet database files.
+ * Only the fields used by the Curiosone are kept: the lemmas, the part of speech, the
+ * lexicographer file and the tag count of every sense, and the exception lists of the morphology.
+ * Missing files are skipped, so that a partial database gives a partial Lexicon.
+ * @see  com.github.bot.curiosone.core.nlp.raw.Lexicon The Lexicon Class
+ */
+public class LexiconBuilder {
+
+  /**
+   * Names of the WordNet files of every part of speech, by code.
+   */
+  private static final String[] FILES = {"noun", "verb", "adj", "adv"};
+
+  /**
+   * Private constructor.
+   */
+  private LexiconBuilder() {}
+
+  /**
+   * Builds a lexicon file.
+   * @param  dict
+   *         the directory containing the WordNet database files
+   * @param  out
+   *         the lexicon file to write
+   * @return  the number of keys written
+   * @throws IOException if a file cannot be read or written
+   */
+  public static int build(Path dict, Path out) throws IOException {
+    Map<String, Integer> tagCounts = tagCounts(dict.resolve("cntlist.rev"));
+    // Sorted by UTF-8 bytes, as searched by the Lexicon.
+    TreeMap<String, Entry> entries = new TreeMap<>(LexiconBuilder::compareUtf8);
+    for (int pos = 0; pos < FILES.length; pos++) {
+      Map<Integer, Integer> lexFiles = lexFiles(dict.resolve("data." + FILES[pos]));
+      readIndex(dict.resolve("index." + FILES[pos]), pos, lexFiles, tagCounts, entries);
+      readExceptions(dict.resolve(FILES[pos] + ".exc"), pos, entries);
+    }
+
+    Map<String, Integer> indexes = new HashMap<>();
+    for (String key : entries.keySet()) {
+      indexes.put(key, indexes.size());
+    }
+    int senses = 0;
+    int exceptions = 0;
+    int pool = 0;
+    for (Map.Entry<String, Entry> e : entries.entrySet()) {
+      senses += e.getValue().senses.size();
+      exceptions += e.getValue().bases.size();
+      pool += e.getKey().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+    if (out.getParent() != null) {
+      Files.createDirectories(out.getParent());
+    }
+    try (DataOutputStream data = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+      data.writeInt(Lexicon.MAGIC);
+      data.writeInt(Lexicon.VERSION);
+      data.writeInt(entries.size());
+      data.writeInt(senses);
+      data.writeInt(exceptions);
+      data.writeInt(pool);
+      int offset = 0;
+      data.writeInt(offset);
+      for (String key : entries.keySet()) {
+        offset += key.getBytes(StandardCharsets.UTF_8).length;
+        data.writeInt(offset);
+      }
+      int start = 0;
+      data.writeInt(start);
+      for (Entry entry : entries.values()) {
+        start += entry.senses.size();
+        data.writeInt(start);
+      }
+      for (Entry entry : entries.values()) {
+        for (int sense : entry.senses) {
+          data.writeInt(sense);
+        }
+      }
+      start = 0;
+      data.writeInt(start);
+      for (Entry entry : entries.values()) {
+        start += entry.bases.size();
+        data.writeInt(start);
+      }
+      for (Entry entry : entries.values()) {
+        for (int i = 0; i < entry.bases.size(); i++) {
+          data.writeInt(entry.basePoses.get(i) << 30 | indexes.get(entry.bases.get(i)));
+        }
+      }
+      for (String key : entries.keySet()) {
+        data.write(key.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return entries.size();
+  }
+
+  /**
+   * Reads the tag counts of the senses.
+   * @param  file
+   *         the cntlist.rev file, whose lines hold a sense key, a sense number and a tag count
+   * @return  a Map from lemma, part of speech code and sense number to the tag count
+   * @throws IOException if the file cannot be read
+   */
+  private static Map<String, Integer> tagCounts(Path file) throws IOException {
+    Map<String, Integer> counts = new HashMap<>();
+    if (!Files.exists(file)) {
+      return counts;
+    }
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] fields = line.split(" ");
+        int percent = fields[0].indexOf('%');
+        if (fields.length < 3 || percent < 0) {
+          continue;
+        }
+        counts.merge(fields[0].substring(0, percent) + ' ' + posCode(fields[0].charAt(percent + 1))
+            + ' ' + fields[1], Integer.parseInt(fields[2]), Integer::sum);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the part of speech code of a synset type.
+   * @param  type
+   *         the synset type of a sense key: 1 noun, 2 verb, 3 adjective, 4 adverb, 5 adjective
+   *         satellite
+   * @return  the code of the part of speech
+   */
+  private static int posCode(char type) {
+    switch (type) {
+      case '1':
+        return 0;
+      case '2':
+        return 1;
+      case '4':
+        return 3;
+      default:
+        return 2;
+    }
+  }
+
+  /**
+   * Reads the lexicographer file of every synset of a data file.
+   * @param  file
+   *         the data file of a part of speech
+   * @return  a Map from the offset of every synset to its lexicographer file number
+   * @throws IOException if the file cannot be read
+   */
+  private static Map<Integer, Integer> lexFiles(Path file) throws IOException {
+    Map<Integer, Integer> lexFiles = new HashMap<>();
+    if (!Files.exists(file)) {
+      return lexFiles;
+    }
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.isEmpty() || line.charAt(0) == ' ') {
+          continue;
+        }
+        int space = line.indexOf(' ');
+        lexFiles.put(Integer.parseInt(line.substring(0, space)),
+            Integer.parseInt(line.substring(space + 1, space + 3)));
+      }
+    }
+    return lexFiles;
+  }
+
+  /**
+   * Reads the senses of the lemmas of an index file.
+   * @param  file
+   *         the index file of a part of speech
+   * @param  pos
+   *         the code of the part of speech
+   * @param  lexFiles
+   *         the lexicographer file of every synset of the part of speech
+   * @param  tagCounts
+   *         the tag counts of the senses
+   * @param  entries
+   *         the entries of the Lexicon, by key
+   * @throws IOException if the file cannot be read
+   */
+  private static void readIndex(Path file, int pos, Map<Integer, Integer> lexFiles,
+                                Map<String, Integer> tagCounts, Map<String, Entry> entries)
+      throws IOException {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.isEmpty() || line.charAt(0) == ' ') {
+          continue;
+        }
+        // lemma pos synset_cnt p_cnt [ptr_symbol...] sense_cnt tagsense_cnt synset_offset...
+        String[] fields = line.trim().split(" +");
+        int synsets = Integer.parseInt(fields[2]);
+        Entry entry = entries.computeIfAbsent(fields[0], k -> new Entry());
+        for (int i = 0; i < synsets; i++) {
+          int offset = Integer.parseInt(fields[fields.length - synsets + i]);
+          int lexFile = lexFiles.getOrDefault(offset, 0);
+          int count = tagCounts.getOrDefault(fields[0] + ' ' + pos + ' ' + (i + 1), 0);
+          entry.senses.add(pos << 30 | lexFile << 24 | Math.min(count, Lexicon.MAX_TAG_COUNT));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the exception list of a part of speech.
+   * @param  file
+   *         the exception file, whose lines hold an inflected form followed by its base forms
+   * @param  pos
+   *         the code of the part of speech
+   * @param  entries
+   *         the entries of the Lexicon, by key
+   * @throws IOException if the file cannot be read
+   */
+  private static void readExceptions(Path file, int pos, Map<String, Entry> entries)
+      throws IOException {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] fields = line.trim().split(" +");
+        if (fields.length < 2) {
+          continue;
+        }
+        Entry entry = entries.computeIfAbsent(fields[0], k -> new Entry());
+        for (int i = 1; i < fields.length; i++) {
+          entries.computeIfAbsent(fields[i], k -> new Entry());
+          entry.bases.add(fields[i]);
+          entry.basePoses.add(pos);
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares two Strings by their UTF-8 bytes, as unsigned bytes.
+   * @param  a
+   *         the first String
+   * @param  b
+   *         the second String
+   * @return  a negative number, zero or a positive number if the first String precedes, equals
+   *          or follows the second one
+   */
+  static int compareUtf8(String a, String b) {
+    byte[] x = a.getBytes(StandardCharsets.UTF_8);
+    byte[] y = b.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < Math.min(x.length, y.length); i++) {
+      int cmp = (x[i] & 0xFF) - (y[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return x.length - y.length;
+  }
+
+  /**
+   * Writes the lexicon of a WordNet database.
+   * @param  args
+   *         the directory containing the WordNet database files and the lexicon file to write
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: LexiconBuilder <dict directory> <lexicon file>");
+      System.exit(2);
+    }
+    int keys = build(Paths.get(args[0]), Paths.get(args[1]));
+    System.out.println(keys + " keys written to " + args[1]);
+  }
+
+  /**
+   * Collects the senses and exceptions of a key.
+   */
+  private static class Entry {
+
+    /**
+     * The packed senses, in WordNet order.
+     */
+    private final List<Integer> senses = new ArrayList<>();
+
+    /**
+     * The base forms of the exceptions.
+     */
+    private final List<String> bases = new ArrayList<>();
+
+    /**
+     * The part of speech code of every base form.
+     */
+    private final List<Integer> basePoses = new ArrayList<>();
+  }
+}
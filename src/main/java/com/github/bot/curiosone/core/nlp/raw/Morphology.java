@@ -0,0 +1,120 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import com.github.bot.curiosone.core.nlp.POS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the lemmas of an inflected word, as the morphological processor of WordNet does.
+ * The exception lists of the Lexicon are looked up first; if the word is not an exception, the
+ * detachment rules of its part of speech are applied and only the results that are lemmas of the
+ * Lexicon are kept.
+ * @see  <a href="https://wordnet.princeton.edu/documentation/morphy7wn">Morphy</a>
+ */
+public class Morphology {
+
+  /**
+   * Detachment rules of the nouns, as pairs of suffix and ending.
+   */
+  private static final String[] NOUN_RULES = {
+    "s", "", "ses", "s", "xes", "x", "zes", "z", "ches", "ch", "shes", "sh", "men", "man",
+    "ies", "y"
+  };
+
+  /**
+   * Detachment rules of the verbs, as pairs of suffix and ending.
+   */
+  private static final String[] VERB_RULES = {
+    "s", "", "ies", "y", "es", "e", "es", "", "ed", "e", "ed", "", "ing", "e", "ing", ""
+  };
+
+  /**
+   * Detachment rules of the adjectives, as pairs of suffix and ending.
+   */
+  private static final String[] ADJ_RULES = {"er", "", "est", "", "er", "e", "est", "e"};
+
+  /**
+   * The Lexicon holding the lemmas and the exception lists.
+   */
+  private final Lexicon lexicon;
+
+  /**
+   * Constructs a Morphology over a Lexicon.
+   * @param  lexicon
+   *         the Lexicon holding the lemmas and the exception lists
+   */
+  public Morphology(Lexicon lexicon) {
+    this.lexicon = lexicon;
+  }
+
+  /**
+   * Normalizes a word as the WordNet keys: lower case, with underscores in place of spaces.
+   * @param  word
+   *         the word
+   * @return  the normalized word
+   */
+  static String normalize(String word) {
+    return word.trim().toLowerCase(Locale.ENGLISH).replaceAll("\\s+", "_");
+  }
+
+  /**
+   * Finds the lemmas of a word with the given part of speech.
+   * @param  word
+   *         the word
+   * @param  pos
+   *         the part of speech: N, V, ADJ or ADV
+   * @return  a List containing the lemmas, most likely first, or an empty List if there are none
+   */
+  public List<String> findStems(String word, POS pos) {
+    String form = normalize(word);
+    if (form.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Set<String> stems = new LinkedHashSet<>();
+    int key = lexicon.find(form);
+    List<String> exceptions = key < 0
+        ? Collections.<String>emptyList() : lexicon.getExceptions(key, pos);
+    stems.addAll(exceptions);
+    if (key >= 0 && lexicon.hasPos(key, pos)) {
+      stems.add(form);
+    }
+    if (!exceptions.isEmpty()) {
+      return new ArrayList<>(stems);
+    }
+    String[] rules = rules(pos);
+    for (int i = 0; i < rules.length; i += 2) {
+      if (form.endsWith(rules[i])) {
+        String stem = form.substring(0, form.length() - rules[i].length()) + rules[i + 1];
+        int stemKey = stem.isEmpty() ? -1 : lexicon.find(stem);
+        if (stemKey >= 0 && lexicon.hasPos(stemKey, pos)) {
+          stems.add(stem);
+        }
+      }
+    }
+    return new ArrayList<>(stems);
+  }
+
+  /**
+   * Gets the detachment rules of a part of speech.
+   * @param  pos
+   *         the part of speech
+   * @return  the rules, as pairs of suffix and ending
+   */
+  private static String[] rules(POS pos) {
+    switch (pos) {
+      case N:
+        return NOUN_RULES;
+      case V:
+        return VERB_RULES;
+      case ADJ:
+        return ADJ_RULES;
+      default:
+        return new String[0];
+    }
+  }
+}
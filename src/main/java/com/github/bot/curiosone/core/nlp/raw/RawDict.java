@@ -2,6 +2,7 @@ package com.github.bot.curiosone.core.nlp.raw;
 
 import com.github.bot.curiosone.core.nlp.LEX;
 import com.github.bot.curiosone.core.nlp.POS;
+import com.github.bot.curiosone.core.util.Resources;
 
 import edu.mit.jwi.Dictionary;
 import edu.mit.jwi.item.IIndexWord;
@@ -12,20 +13,17 @@ import edu.mit.jwi.item.IWordID;
 import edu.mit.jwi.item.Pointer;
 import edu.mit.jwi.morph.WordnetStemmer;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Interfaces with the WordNet database.
@@ -36,7 +34,7 @@ public class RawDict {
   /**
    * The Singleton instance of this Class.
    */
-  private static RawDict instance = null;
+  private static volatile RawDict instance = null;
 
   /**
    * Path to the WordNet database files.
@@ -44,38 +42,78 @@ public class RawDict {
   private static final String wdnPath = "/dict";
 
   /**
-   * Dictionary.
+   * Name of the resource holding the prebuilt Lexicon.
+   */
+  private static final String lexiconPath = "/lexicon.bin";
+
+  /**
+   * Dictionary, used when the prebuilt Lexicon is not available.
    */
   private Dictionary dictionary;
 
+  /**
+   * Prebuilt Lexicon, or null if it is not available.
+   */
+  private Lexicon lexicon;
+
+  /**
+   * Finds the lemmas in the prebuilt Lexicon.
+   */
+  private Morphology morphology;
+
   /**
    * Private constructor.
+   * Maps the prebuilt Lexicon, written by the build, and falls back to the WordNet database files
+   * if it is missing or corrupt.
+   * @throws IllegalStateException if neither the Lexicon nor the WordNet files can be read
    */
   private RawDict() {
+    Exception failure = null;
+    try {
+      lexicon = Lexicon.fromResource(lexiconPath);
+    } catch (IOException | IllegalArgumentException e) {
+      failure = e;
+    }
+    if (lexicon != null) {
+      morphology = new Morphology(lexicon);
+      return;
+    }
     try {
-      Path path = null;
-      try {
-        URL resource = RawDict.class.getResource(wdnPath);
-        path = Paths.get(resource.toURI());
-      } catch (URISyntaxException e) {
-        e.printStackTrace();
+      // JWI reads the database files from a directory, so they cannot be used from a jar.
+      Path path = Resources.path(wdnPath);
+      if (path == null) {
+        throw new FileNotFoundException("Missing WordNet directory " + wdnPath);
       }
       dictionary = new Dictionary(new URL("file", null, path.toString()));
-      dictionary.open();
+      if (!dictionary.open()) {
+        throw new IOException("Cannot open WordNet directory " + path);
+      }
     } catch (IOException e) {
-      e.printStackTrace();
+      IllegalStateException error = new IllegalStateException("No dictionary available: "
+          + (failure == null ? "missing lexicon " + lexiconPath : "unreadable lexicon " + lexiconPath)
+          + " and " + e.getMessage(), e);
+      if (failure != null) {
+        error.addSuppressed(failure);
+      }
+      throw error;
     }
   }
 
   /**
    * Gets the Singleton instance.
    * @return  the Singleton instance
+   * @throws IllegalStateException if neither the prebuilt Lexicon nor the WordNet database files
+   *         can be read
    */
   public static RawDict getInstance() {
     if  (instance != null) {
       return instance;
     }
-    instance = new RawDict();
+    synchronized (RawDict.class) {
+      if (instance == null) {
+        instance = new RawDict();
+      }
+    }
     return instance;
   }
 
@@ -96,174 +134,6 @@ public class RawDict {
     return token;
   }
 
-  /**
-   * Stores pronouns outside WN.
-   */
-  private enum PronounsOutWn {
-
-      PERSONAL_SUBJECTIVE("i", "you", "he", "she", "it", "we", "you", "they"),
-      PERSONAL_OBJECTIVE("me", "you", "him", "her", "it", "us", "you", "them"),
-      POSSESSIVE("mine", "yours", "his", "hers", "ours", "theirs"),
-      REFLEXIVE("myself", "yourself", "himself", "herself", "itself", "oneself",
-          "ourselves", "yourselves", "themselves"),
-      RECIPROCAL("each", "other", "one", "another"),
-      RELATIVE("that", "which", "who", "whose", "whom", "where", "when"),
-      DEMONSTRATIVE("this", "that", "these", "those"),
-      INTERROGATIVE("who", "what", "why", "where", "when", "whatever"),
-      INDEFINITE("anything", "anybody", "anyone", "something", "somebody",
-              "someone", "nothing", "nobody", "none", "no one");
-
-    /**
-     * Stores some additional pronouns.
-     */
-    private String[] items;
-
-    /**
-     * Private constructor.
-     * @param  items
-     *         One or more additional pronouns
-     */
-    private PronounsOutWn(String...items) {
-      this.items = items;
-    }
-
-    /**
-     * Gets the additional pronouns.
-     * @return  an array containing all the additional pronouns
-     */
-    public String[] getItems() {
-      return items;
-    }
-  }
-
-  /**
-   * Stores determiners outside WN.
-   */
-  private enum DeterminersOutWn {
-
-    INDEFINITE_ARTICLE("a", "an"),
-    DEFINITE_ARTICLE("the");
-
-    /**
-     * Stores some additional pronouns.
-     */
-    private String[] items;
-
-    /**
-     * Private constructor.
-     * @param  items
-     *         One or more additional determiners
-     */
-    private DeterminersOutWn(String...items) {
-      this.items = items;
-    }
-
-    /**
-     * Gets the additional determiners.
-     * @return  an array containing all the additional determiners
-     */
-    public String[] getItems() {
-      return items;
-    }
-  }
-
-  /**
-   * Stores conjunctions outside WN.
-   */
-  private enum ConjunctionsOutWn {
-
-    COORDINATOR("and", "or", "but"),
-    SUBORDINATOR("while", "because", "before", "since", "till", "unless", "whereas", "wheter");
-
-    /**
-     * Stores some additional conjunctions.
-     */
-    private String[] items;
-
-    /**
-     * Private constructor.
-     * @param  items
-     *         One or more additional conjunctions
-     */
-    private ConjunctionsOutWn(String...items) {
-      this.items = items;
-    }
-
-    /**
-     * Gets the additional conjunctions.
-     * @return  an array containing all the additional conjunctions
-     */
-    public String[] getItems() {
-      return items;
-    }
-  }
-
-  /**
-   * Stores adverbs outside WN.
-   */
-  private enum AdverbsOutWn {
-
-    INTERROGATIVE("how");
-
-    /**
-     * Stores some additional adverbs.
-     */
-    private String[] items;
-
-    /**
-     * Private constructor.
-     * @param  items
-     *         One or more additional adverbs
-     */
-    private AdverbsOutWn(String...items) {
-      this.items = items;
-    }
-
-    /**
-     * Gets the additional adverbs.
-     * @return  an array containing all the additional adverbs
-     */
-    public String[] getItems() {
-      return items;
-    }
-  }
-
-  /**
-   * Stores interjections outside WN.
-   */
-  private enum InterjectionsOutWn {
-
-    GENERIC("ah", "eh", "hmm", "phew", "tsk", "uhm"),
-    REGARDS("bye", "goodbye", "hello", "farewell", "hi"),
-    APOLOGIZE("so long excuse me", "sorry", "pardon", "i am sorry", "i'm sorry"),
-    GRATITUDE("thanks", "thank you", "thanks a lot"),
-    DISGUST("yuk"),
-    SURPRISE("oh"),
-    PAIN("ouch", "ohi");
-
-    /**
-     * Stores some additional interjections.
-     */
-    private String[] items;
-
-    /**
-     * Private constructor.
-     * @param  items
-     *         One or more additional interjections
-     */
-    private InterjectionsOutWn(String...items) {
-      this.items = items;
-    }
-
-    /**
-     * Gets the additional interjections.
-     * @return  an array containing all the additional interjections
-     */
-    public String[] getItems() {
-      return items;
-    }
-  }
-
   /**
    * Gets a Token outside of WordNet Database.
    * @param  token
@@ -275,109 +145,53 @@ public class RawDict {
    */
   private RawToken getRawTokenNotWn(RawToken token, String item) {
 
-    // Check Numeric.
-    if (isNumeric(item)) {
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.NUMB);
-      retWord.setLexType(LEX.QUANTITY);
-      retWord.setGloss("Numeric outside WordNet");
-      token.addWord(retWord);
-      return token;
-    }
-
-    // Check mail address.
-    if (isValidEmailAddress(item)) {
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.N);
-      retWord.setLexType(LEX.MAIL);
-      retWord.setGloss("Mail address outside WordNet");
-      token.addWord(retWord);
-      return token;
-    }
-
-    // Check Pronouns.
-    for (PronounsOutWn n: PronounsOutWn.values()) {
-      if (!contains(n.getItems(),item)) {
-        continue;
-      }
-
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.PRON);
-      retWord.setLexType(LEX.valueOf(n.toString()));
-      retWord.setGloss("Pronoun outside WordNet");
-      token.addWord(retWord);
-      return token;
-    }
-
-    // Check Determiners.
-    for (DeterminersOutWn n: DeterminersOutWn.values()) {
-      if (!contains(n.getItems(),item)) {
-        continue;
-      }
-
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.DET);
-      retWord.setLexType(LEX.valueOf(n.toString()));
-      retWord.setGloss("Determiners outside WordNet");
-      token.addWord(retWord);
-      return token;
+    // Check numbers, mail addresses, URLs, dates and times.
+    switch (LexicalScanner.classify(item)) {
+      case NUMBER:
+        return addWord(token, item, POS.NUMB, LEX.QUANTITY, "Numeric outside WordNet");
+      case EMAIL:
+        return addWord(token, item, POS.N, LEX.MAIL, "Mail address outside WordNet");
+      case URL:
+        return addWord(token, item, POS.N, LEX.URL, "URL outside WordNet");
+      case DATE:
+        return addWord(token, item, POS.N, LEX.DATE, "Date outside WordNet");
+      case TIME:
+        return addWord(token, item, POS.N, LEX.TIME, "Time outside WordNet");
+      default:
+        break;
     }
 
-    // Check Conjunctions.
-    for (ConjunctionsOutWn n: ConjunctionsOutWn.values()) {
-      if (!contains(n.getItems(),item)) {
-        continue;
-      }
-
+    // Check closed-class words: pronouns, determiners, conjunctions, interjections, adverbs.
+    List<RawWord> closed = ClosedClassLexicon.lookup(item);
+    if (!closed.isEmpty()) {
       token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.CONJ);
-      retWord.setLexType(LEX.valueOf(n.toString()));
-      retWord.setGloss("Conjunctions outside WordNet");
-      token.addWord(retWord);
-      return token;
+      token.addAllWords(closed);
     }
+    return token;
+  }
 
-    // Check Interjections.
-    for (InterjectionsOutWn n: InterjectionsOutWn.values()) {
-      if (!contains(n.getItems(),item)) {
-        continue;
-      }
-
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.INTERJ);
-      retWord.setLexType(LEX.valueOf(n.toString()));
-      retWord.setGloss("Interjections outside WordNet");
-      token.addWord(retWord);
-      return token;
-    }
-
-    // Check Adverbs.
-    for (AdverbsOutWn n: AdverbsOutWn.values()) {
-      if (!contains(n.getItems(),item)) {
-        continue;
-      }
-
-      token.setKnown(true);
-      RawWord retWord = new RawWord();
-      retWord.setLemma(item);
-      retWord.setPos(POS.ADV);
-      retWord.setLexType(LEX.valueOf(n.toString()));
-      retWord.setGloss("Adverbs outside WordNet");
-      token.addWord(retWord);
-      return token;
-    }
+  /**
+   * Adds a known word outside of WordNet Database to the given Token.
+   * @param  token
+   *         the external Token
+   * @param  item
+   *         the value of the given Token
+   * @param  pos
+   *         the POS of the word
+   * @param  lex
+   *         the LEX of the word
+   * @param  gloss
+   *         the gloss of the word
+   * @return  the original Token
+   */
+  private static RawToken addWord(RawToken token, String item, POS pos, LEX lex, String gloss) {
+    token.setKnown(true);
+    RawWord retWord = new RawWord();
+    retWord.setLemma(item);
+    retWord.setPos(pos);
+    retWord.setLexType(lex);
+    retWord.setGloss(gloss);
+    token.addWord(retWord);
     return token;
   }
 
@@ -392,6 +206,9 @@ public class RawDict {
    * @see  <a href="https://goo.gl/mCeRcp">How to get the Token with higher frequency</a>
    */
   private RawToken getRawTokenWn(RawToken token, String item) {
+    if (lexicon != null) {
+      return getRawTokenLexicon(token, item);
+    }
     Set<RawWord> retWords = new HashSet<RawWord>();
 
     for (edu.mit.jwi.item.POS p : edu.mit.jwi.item.POS.values()) {
@@ -475,18 +292,40 @@ public class RawDict {
   }
 
   /**
-   * Checks whether a given array of a type contains the given object.
-   * @param  <T>
-   *         the type of the object to be searched and the objects stored in the array
-   * @param  array
-   *         the array to search in
-   * @param  searchValue
-   *         the value to be searched in the given array
-   * @return  {@code true} if the given array contains the given object;
-   *          {@code false} otherwise
+   * Gets the given Token from the prebuilt Lexicon.
+   * In case of ambiguity, the Token with higher frequency is returned. The Lexicon holds neither
+   * glosses nor relations, which are not used by the Tokens.
+   * @param  token
+   *         The desired Token
+   * @param  item
+   *         String content of the desired Token
+   * @return  the desired Token, taken from the Lexicon
    */
-  private static <T> boolean contains(T[] array, T searchValue) {
-    return Arrays.stream(array).anyMatch(searchValue::equals);
+  private RawToken getRawTokenLexicon(RawToken token, String item) {
+    List<RawWord> retWords = new ArrayList<>();
+    for (POS p : Lexicon.POSES) {
+      for (String lemma : morphology.findStems(item, p)) {
+        int key = lexicon.find(lemma);
+        for (int i = lexicon.getSenseStart(key); i < lexicon.getSenseEnd(key); i++) {
+          if (lexicon.getPos(i) != p) {
+            continue;
+          }
+          RawWord retWord = new RawWord();
+          retWord.setLemma(lemma);
+          retWord.setPos(p);
+          retWord.setLexType(lexicon.getLex(i));
+          retWord.setNum(lexicon.getTagCount(i));
+          retWords.add(retWord);
+        }
+      }
+    }
+
+    retWords.sort(Comparator.comparing(RawWord::getNum).reversed());
+    if (retWords.size() > 0) {
+      token.setKnown(true);
+      token.addAllWords(retWords);
+    }
+    return token;
   }
 
   /**
@@ -495,30 +334,9 @@ public class RawDict {
    *         the email address to be validated.
    * @return  {@code true} if the given email address is valid;
               {@code false} otherwise
-   * @see  <a href="https://goo.gl/vRTEkF">The Regex used for the validation</a>
-   * @see  <a href="http://www.rfc-editor.org/rfc/rfc5322.txt">Internet Message Format</a>
+   * @see  LexicalScanner#isEmail
    */
   public static boolean isValidEmailAddress(String email) {
-    String regex = "^[\\w!#$%&'*+/=?`{|}~^-]+(?:\\.[\\w!#$%&'*+/=?`{|}~^-]"
-        + "+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$";
-
-    return Pattern.compile(regex).matcher(email).matches();
-  }
-
-  /**
-   * Checks whether the given String represents a numeric value or not.
-   * Accepts both integers and floating point values.
-   * @param  str
-   *         the string to be checked.
-   * @return  {@code true} if the given String is a numeric value;
-              {@code false} otherwise.
-   */
-  private static boolean isNumeric(String str) {
-    try {
-      Double.parseDouble(str);
-    } catch (NumberFormatException nfe) {
-      return false;
-    }
-    return true;
+    return LexicalScanner.isEmail(email);
   }
 }
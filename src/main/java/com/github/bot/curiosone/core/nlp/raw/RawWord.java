@@ -248,6 +248,12 @@ public class RawWord {
       return true;
     }
     RawWord w = (RawWord) obj;
+    if (getWordId() == null || w.getWordId() == null) {
+      // Words read from the Lexicon have no ID: they are compared by content.
+      return getWordId() == w.getWordId() && getPos() == w.getPos()
+          && getLexType() == w.getLexType() && getNum() == w.getNum()
+          && Objects.equals(getLemma(), w.getLemma()) && Objects.equals(getGloss(), w.getGloss());
+    }
     return this.getWordId().equals(w.getWordId());
   }
 
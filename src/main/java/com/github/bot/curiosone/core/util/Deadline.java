@@ -0,0 +1,130 @@
+package com.github.bot.curiosone.core.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents the latency budget of a request.
+ * Long-running stages check their Deadline cooperatively and give up throwing a
+ * DeadlineExceededException, so that the caller can fall back to a cheaper answer.
+ * @see  com.github.bot.curiosone.core.util.DeadlineExceededException The Exception Class
+ */
+public class Deadline {
+
+  /**
+   * A Deadline that never expires.
+   */
+  private static final Deadline NONE = new Deadline(Long.MAX_VALUE, false);
+
+  /**
+   * Stores the instant when this Deadline expires, as given by {@link System#nanoTime()}.
+   */
+  private final long expiry;
+
+  /**
+   * Stores whether this Deadline can expire.
+   */
+  private final boolean bounded;
+
+  /**
+   * Private constructor.
+   * @param  expiry
+   *         the instant when the Deadline expires
+   * @param  bounded
+   *         whether the Deadline can expire
+   */
+  private Deadline(long expiry, boolean bounded) {
+    this.expiry = expiry;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Creates a Deadline expiring after the given time.
+   * @param  budget
+   *         the latency budget, in milliseconds
+   * @return  a Deadline expiring after the given budget
+   */
+  public static Deadline after(long budget) {
+    return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget), true);
+  }
+
+  /**
+   * Gets a Deadline that never expires.
+   * @return  an unbounded Deadline
+   */
+  public static Deadline none() {
+    return NONE;
+  }
+
+  /**
+   * Checks whether this Deadline can expire.
+   * @return  {@code true} if this Deadline has a budget; {@code false} otherwise
+   */
+  public boolean isBounded() {
+    return bounded;
+  }
+
+  /**
+   * Checks whether this Deadline has expired.
+   * @return  {@code true} if the budget has run out; {@code false} otherwise
+   */
+  public boolean isExpired() {
+    return bounded && System.nanoTime() - expiry >= 0;
+  }
+
+  /**
+   * Gets the time left before this Deadline expires.
+   * @param  unit
+   *         the unit of the returned time
+   * @return  the time left, zero if expired, or {@code Long.MAX_VALUE} if unbounded
+   */
+  public long remaining(TimeUnit unit) {
+    if (!bounded) {
+      return Long.MAX_VALUE;
+    }
+    return unit.convert(Math.max(0, expiry - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Interrupts the current stage if this Deadline has expired.
+   * @param  stage
+   *         the name of the current stage
+   * @throws DeadlineExceededException if the budget has run out
+   */
+  public void check(String stage) {
+    if (isExpired()) {
+      throw new DeadlineExceededException(stage);
+    }
+  }
+
+  /**
+   * Waits for the result of a Future, at most until this Deadline expires.
+   * @param  future
+   *         the Future to wait for
+   * @param  stage
+   *         the name of the stage computing the result
+   * @return  the result of the Future
+   * @throws DeadlineExceededException if the budget runs out before the result is available
+   */
+  public <T> T get(Future<T> future, String stage) {
+    try {
+      return bounded ? future.get(remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+          : future.get();
+    } catch (TimeoutException e) {
+      throw new DeadlineExceededException(stage);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DeadlineExceededException(stage);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (CancellationException e) {
+      throw new DeadlineExceededException(stage);
+    }
+  }
+}
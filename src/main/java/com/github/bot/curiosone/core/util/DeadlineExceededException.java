@@ -0,0 +1,36 @@
+package com.github.bot.curiosone.core.util;
+
+/**
+ * Thrown when a stage of the pipeline runs out of its latency budget.
+ * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+  /**
+   * Serial version UID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Stores the name of the stage that has been interrupted.
+   */
+  private final String stage;
+
+  /**
+   * Constructs a DeadlineExceededException.
+   * @param  stage
+   *         the name of the stage that has been interrupted
+   */
+  public DeadlineExceededException(String stage) {
+    super("Deadline exceeded during " + stage);
+    this.stage = stage;
+  }
+
+  /**
+   * Gets the name of the stage that has been interrupted.
+   * @return  the name of the interrupted stage
+   */
+  public String getStage() {
+    return stage;
+  }
+}
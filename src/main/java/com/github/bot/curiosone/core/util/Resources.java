@@ -0,0 +1,332 @@
+package com.github.bot.curiosone.core.util;
+
+import com.github.bot.curiosone.core.metrics.Metrics;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Loads the resources of the Curiosone from the classpath.
+ * A resource is memory-mapped when it is a file on disk, and streamed from the classpath otherwise,
+ * so that the same code works with exploded classes and inside a jar. Text resources are parsed a
+ * line at a time, without reading them whole in memory.
+ * The load time and the bytes read of every resource are recorded in the Metrics.
+ * @see  com.github.bot.curiosone.core.metrics.Metrics The Metrics Class
+ */
+public final class Resources {
+
+  /**
+   * The name of the load time metric.
+   */
+  static final String LOAD_METRIC = "curiosone_resource_load_seconds";
+
+  /**
+   * The name of the bytes read metric.
+   */
+  static final String BYTES_METRIC = "curiosone_resource_bytes_total";
+
+  /**
+   * Private constructor.
+   */
+  private Resources() {}
+
+  /**
+   * Gets the file of a resource, for the libraries that need a path.
+   * @param  name
+   *         the absolute name of the resource
+   * @return  the path of the resource, or null if the resource does not exist or is not a file,
+   *          like inside a jar
+   */
+  public static Path path(String name) {
+    URL resource = Resources.class.getResource(name);
+    if (resource == null || !"file".equals(resource.getProtocol())) {
+      return null;
+    }
+    try {
+      return Paths.get(resource.toURI());
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Opens a resource.
+   * The stream records the load time and the bytes read of the resource when it is closed.
+   * @param  name
+   *         the absolute name of the resource
+   * @return  an InputStream reading the resource
+   * @throws FileNotFoundException if the resource does not exist
+   * @throws IOException if the resource cannot be opened
+   */
+  public static InputStream open(String name) throws IOException {
+    long start = System.nanoTime();
+    Path path = path(name);
+    InputStream in;
+    if (path != null) {
+      in = new BufferInputStream(mapFile(path));
+    } else {
+      in = Resources.class.getResourceAsStream(name);
+      if (in == null) {
+        throw new FileNotFoundException("Missing resource " + name);
+      }
+    }
+    return new RecordingInputStream(name, start, in);
+  }
+
+  /**
+   * Opens a text resource, encoded in UTF-8.
+   * @param  name
+   *         the absolute name of the resource
+   * @return  a BufferedReader reading the resource
+   * @throws FileNotFoundException if the resource does not exist
+   * @throws IOException if the resource cannot be opened
+   */
+  public static BufferedReader reader(String name) throws IOException {
+    return new BufferedReader(new InputStreamReader(open(name), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a text resource, encoded in UTF-8, a line at a time.
+   * @param  name
+   *         the absolute name of the resource
+   * @param  action
+   *         the action to perform on every line
+   * @throws FileNotFoundException if the resource does not exist
+   * @throws IOException if the resource cannot be read
+   */
+  public static void forEachLine(String name, Consumer<String> action) throws IOException {
+    try (BufferedReader reader = reader(name)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        action.accept(line);
+      }
+    }
+  }
+
+  /**
+   * Loads a binary resource whole.
+   * The resource is memory-mapped when it is a file, and read in a direct buffer otherwise.
+   * @param  name
+   *         the absolute name of the resource
+   * @return  a ByteBuffer containing the resource, or null if the resource does not exist
+   * @throws IOException if the resource cannot be read
+   */
+  public static ByteBuffer map(String name) throws IOException {
+    long start = System.nanoTime();
+    Path path = path(name);
+    ByteBuffer buffer;
+    if (path != null) {
+      buffer = mapFile(path);
+    } else {
+      InputStream in = Resources.class.getResourceAsStream(name);
+      if (in == null) {
+        return null;
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try {
+        byte[] chunk = new byte[1 << 16];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+          bytes.write(chunk, 0, read);
+        }
+      } finally {
+        in.close();
+      }
+      buffer = ByteBuffer.allocateDirect(bytes.size());
+      buffer.put(bytes.toByteArray()).flip();
+    }
+    record(name, System.nanoTime() - start, buffer.remaining());
+    return buffer;
+  }
+
+  /**
+   * Memory-maps a file.
+   * @param  path
+   *         the file
+   * @return  a read-only MappedByteBuffer of the whole file
+   * @throws IOException if the file cannot be mapped
+   */
+  private static MappedByteBuffer mapFile(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Records the load time and the bytes read of a resource.
+   * @param  name
+   *         the absolute name of the resource
+   * @param  nanos
+   *         the load time, in nanoseconds
+   * @param  bytes
+   *         the number of bytes read
+   */
+  private static void record(String name, long nanos, long bytes) {
+    Metrics.histogram(LOAD_METRIC, "Load time of the resources.", "resource", name).record(nanos);
+    Metrics.counter(BYTES_METRIC, "Bytes read from the resources.", "resource", name).add(bytes);
+  }
+
+  /**
+   * Reads a ByteBuffer as an InputStream.
+   */
+  private static class BufferInputStream extends InputStream {
+
+    /**
+     * The buffer being read.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a BufferInputStream.
+     * @param  buffer
+     *         the buffer to be read
+     */
+    private BufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    /**
+     * Reads a byte.
+     * @return  the next byte, or -1 at the end of the buffer
+     */
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    /**
+     * Reads some bytes.
+     * @param  bytes
+     *         the array to read the bytes into
+     * @param  off
+     *         the offset of the first byte in the array
+     * @param  len
+     *         the maximum number of bytes to read
+     * @return  the number of bytes read, or -1 at the end of the buffer
+     */
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(bytes, off, n);
+      return n;
+    }
+
+    /**
+     * Gets the number of bytes left.
+     * @return  the number of bytes left in the buffer
+     */
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+  /**
+   * Records the load time and the bytes read of a resource when it is closed.
+   */
+  private static class RecordingInputStream extends FilterInputStream {
+
+    /**
+     * The absolute name of the resource.
+     */
+    private final String name;
+
+    /**
+     * The instant the resource was opened, as given by {@link System#nanoTime()}.
+     */
+    private final long start;
+
+    /**
+     * The number of bytes read so far.
+     */
+    private long bytes;
+
+    /**
+     * Whether the stream has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a RecordingInputStream.
+     * @param  name
+     *         the absolute name of the resource
+     * @param  start
+     *         the instant the resource was opened
+     * @param  in
+     *         the stream of the resource
+     */
+    private RecordingInputStream(String name, long start, InputStream in) {
+      super(in);
+      this.name = name;
+      this.start = start;
+    }
+
+    /**
+     * Reads a byte.
+     * @return  the next byte, or -1 at the end of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        bytes++;
+      }
+      return b;
+    }
+
+    /**
+     * Reads some bytes.
+     * @param  b
+     *         the array to read the bytes into
+     * @param  off
+     *         the offset of the first byte in the array
+     * @param  len
+     *         the maximum number of bytes to read
+     * @return  the number of bytes read, or -1 at the end of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        bytes += n;
+      }
+      return n;
+    }
+
+    /**
+     * Closes the resource and records its load time and bytes read.
+     * @throws IOException if the resource cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+      super.close();
+      if (!closed) {
+        closed = true;
+        record(name, System.nanoTime() - start, bytes);
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.bot.curiosone.core.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time, in submission order, on a shared Executor.
+ * Many SerialExecutors can share the same thread pool: tasks of different SerialExecutors run
+ * concurrently, while tasks of the same SerialExecutor never overlap.
+ * @see  java.util.concurrent.Executor The Executor Class
+ */
+public class SerialExecutor implements Executor {
+
+  /**
+   * Stores the tasks waiting to be run.
+   */
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+  /**
+   * Stores the Executor where the tasks are run.
+   */
+  private final Executor executor;
+
+  /**
+   * Stores the maximum number of waiting tasks.
+   */
+  private final int maxQueued;
+
+  /**
+   * Stores the running task, if any.
+   */
+  private Runnable active;
+
+  /**
+   * Constructs a SerialExecutor.
+   * @param  executor
+   *         the Executor where the tasks are run
+   * @param  maxQueued
+   *         the maximum number of tasks waiting to be run
+   */
+  public SerialExecutor(Executor executor, int maxQueued) {
+    this.executor = executor;
+    this.maxQueued = maxQueued;
+  }
+
+  /**
+   * Submits a task, that will run after all the tasks previously submitted.
+   * @param  task
+   *         the task to be run
+   * @throws RejectedExecutionException if too many tasks are waiting to be run
+   */
+  @Override
+  public synchronized void execute(Runnable task) {
+    if (tasks.size() >= maxQueued) {
+      throw new RejectedExecutionException("Too many queued tasks");
+    }
+    tasks.add(() -> {
+      try {
+        task.run();
+      } finally {
+        scheduleNext();
+      }
+    });
+    if (active == null) {
+      scheduleNext();
+    }
+  }
+
+  /**
+   * Gets the number of tasks waiting to be run.
+   * @return  the number of queued tasks, excluding the running one
+   */
+  public synchronized int getQueued() {
+    return tasks.size();
+  }
+
+  /**
+   * Submits the next waiting task, if any, to the underlying Executor.
+   */
+  private synchronized void scheduleNext() {
+    active = tasks.poll();
+    if (active != null) {
+      try {
+        executor.execute(active);
+      } catch (RejectedExecutionException e) {
+        tasks.clear();
+        active = null;
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.github.bot.curiosone.core.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent computations of the same key and optionally caches their results.
+ * While a value is being computed, every other caller asking for the same key waits for that
+ * computation instead of starting a new one. Once computed, the value is kept for a configurable
+ * time to live; a zero time to live disables caching and only coalesces in-flight computations.
+ * @param  <K>
+ *         the type of the keys
+ * @param  <V>
+ *         the type of the computed values
+ */
+public class SingleFlightCache<K, V> {
+
+  /**
+   * Stores the in-flight and the cached computations.
+   */
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Stores the time to live of the computed values, in nanoseconds.
+   */
+  private volatile long ttl;
+
+  /**
+   * Stores the maximum number of cached values.
+   */
+  private volatile int maxSize;
+
+  /**
+   * Constructs a SingleFlightCache.
+   * @param  ttl
+   *         the time to live of the computed values, in milliseconds. Zero disables caching.
+   * @param  maxSize
+   *         the maximum number of cached values
+   * @throws IllegalArgumentException if a negative time to live or size is given
+   */
+  public SingleFlightCache(long ttl, int maxSize) {
+    configure(ttl, maxSize);
+  }
+
+  /**
+   * Changes the time to live and the maximum size of this cache.
+   * @param  ttl
+   *         the time to live of the computed values, in milliseconds. Zero disables caching.
+   * @param  maxSize
+   *         the maximum number of cached values
+   * @throws IllegalArgumentException if a negative time to live or size is given
+   */
+  public void configure(long ttl, int maxSize) {
+    if (ttl < 0 || maxSize < 0) {
+      throw new IllegalArgumentException("TTL and size must be positive");
+    }
+    this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+    this.maxSize = maxSize;
+    if (ttl == 0) {
+      entries.values().removeIf(e -> e.future.isDone());
+    }
+  }
+
+  /**
+   * Gets the value for the given key, computing it if needed.
+   * If the computation fails, the exception is thrown to all the callers waiting for it and
+   * nothing is cached.
+   * @param  key
+   *         the key of the value
+   * @param  loader
+   *         the function that computes the value
+   * @return  the value of the given key
+   */
+  public V get(K key, Function<K, V> loader) {
+    long now = System.nanoTime();
+    Entry<V> fresh = new Entry<>();
+    Entry<V> entry = entries.compute(key, (k, old) -> isAlive(old, now) ? old : fresh);
+    if (entry != fresh) {
+      try {
+        return entry.future.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException
+            ? (RuntimeException) e.getCause() : e;
+      }
+    }
+
+    V value;
+    try {
+      value = loader.apply(key);
+    } catch (RuntimeException | Error e) {
+      entries.remove(key, fresh);
+      fresh.future.completeExceptionally(e);
+      throw e;
+    }
+    fresh.expires = System.nanoTime() + ttl;
+    fresh.future.complete(value);
+    if (ttl == 0) {
+      entries.remove(key, fresh);
+    } else if (entries.size() > maxSize) {
+      evict();
+    }
+    return value;
+  }
+
+  /**
+   * Gets the number of in-flight and cached computations.
+   * @return  the number of entries of this cache
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all the cached values.
+   * In-flight computations are left untouched.
+   */
+  public void clear() {
+    entries.values().removeIf(e -> e.future.isDone());
+  }
+
+  /**
+   * Checks whether the given entry can still be used.
+   * @param  entry
+   *         the entry to be checked. Can be null.
+   * @param  now
+   *         the current instant, as given by {@link System#nanoTime()}
+   * @return  {@code true} if the entry is in-flight or not yet expired;
+   *          {@code false} otherwise
+   */
+  private boolean isAlive(Entry<V> entry, long now) {
+    if (entry == null || entry.future.isCompletedExceptionally()) {
+      return false;
+    }
+    return !entry.future.isDone() || now - entry.expires < 0;
+  }
+
+  /**
+   * Removes the expired values and, if the cache is still too big, some of the others.
+   */
+  private void evict() {
+    long now = System.nanoTime();
+    entries.values().removeIf(e -> !isAlive(e, now));
+    Iterator<Entry<V>> it = entries.values().iterator();
+    while (entries.size() > maxSize && it.hasNext()) {
+      if (it.next().future.isDone()) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Represents an in-flight or cached computation.
+   * @param  <V>
+   *         the type of the computed value
+   */
+  private static class Entry<V> {
+
+    /**
+     * The result of the computation.
+     */
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+
+    /**
+     * The instant when the computed value expires.
+     */
+    private volatile long expires;
+  }
+}
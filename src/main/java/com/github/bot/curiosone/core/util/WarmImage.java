@@ -0,0 +1,301 @@
+package com.github.bot.curiosone.core.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Saves the resources of the Curiosone, once parsed, to a single file and restores them on boot.
+ * Every resource is a Section of the image, stored together with the version of its layout and
+ * the checksum of the source it was parsed from: a Section is restored only if neither has
+ * changed since. The file ends with the checksum of its whole content and is memory-mapped when
+ * read.
+ * The layout is:
+ * <pre>
+ *   int  MAGIC, VERSION, number of Sections
+ *   every Section: name, int version, long source checksum, int length, length bytes
+ *   long checksum of all the previous bytes
+ * </pre>
+ * where a String is stored as an int length followed by its bytes in UTF-8.
+ */
+public final class WarmImage {
+
+  /**
+   * Identifies a warm image file.
+   */
+  static final int MAGIC = 0xC1E7_0003;
+
+  /**
+   * The version of the file layout.
+   */
+  static final int VERSION = 2;
+
+  /**
+   * Private constructor.
+   */
+  private WarmImage() {}
+
+  /**
+   * Saves some Sections to a file.
+   * The file is replaced atomically, so that a crash never leaves a partial image.
+   * @param  path
+   *         the path of the image file
+   * @param  sections
+   *         the Sections to be saved
+   * @throws IOException if a source cannot be read or the file cannot be written
+   */
+  public static void write(Path path, List<Section> sections) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+    CRC32 crc = new CRC32();
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new CheckedOutputStream(Files.newOutputStream(temp), crc)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(sections.size());
+      for (Section section : sections) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+          section.writer.write(data);
+        }
+        writeString(out, section.name);
+        out.writeInt(section.version);
+        out.writeLong(checksum(section.source));
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+      }
+      out.flush();
+      out.writeLong(crc.getValue());
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Restores some Sections from a file.
+   * The Sections missing from the file, whose layout or source has changed, or whose content
+   * cannot be read are left untouched and have to be loaded from their source.
+   * @param  path
+   *         the path of the image file
+   * @param  sections
+   *         the Sections to be restored
+   * @return  the number of restored Sections
+   * @throws IOException if the file cannot be read, is corrupted or has another version
+   */
+  public static int read(Path path, List<Section> sections) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    int end = buffer.capacity() - Long.BYTES;
+    if (end < 3 * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a warm image: " + path);
+    }
+    if (buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported warm image version " + buffer.getInt(Integer.BYTES));
+    }
+    CRC32 crc = new CRC32();
+    ByteBuffer content = buffer.duplicate();
+    content.limit(end);
+    crc.update(content);
+    if (crc.getValue() != buffer.getLong(end)) {
+      throw new IOException("Corrupted warm image: " + path);
+    }
+
+    Map<String, Section> byName = new HashMap<>();
+    for (Section section : sections) {
+      byName.put(section.name, section);
+    }
+    buffer.position(2 * Integer.BYTES);
+    int count = buffer.getInt();
+    int restored = 0;
+    for (int i = 0; i < count; i++) {
+      String name = readString(buffer);
+      int version = buffer.getInt();
+      long sum = buffer.getLong();
+      int length = buffer.getInt();
+      ByteBuffer data = buffer.slice();
+      data.limit(length);
+      buffer.position(buffer.position() + length);
+      Section section = byName.get(name);
+      if (section != null && version == section.version && sum == checksum(section.source)) {
+        try {
+          section.reader.accept(data);
+          restored++;
+        } catch (RuntimeException e) {
+          // The readers install their content only once it has been fully read.
+          e.printStackTrace();
+        }
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Computes the checksum of a resource.
+   * @param  name
+   *         the absolute name of the resource
+   * @return  the CRC-32 of the bytes of the resource
+   * @throws IOException if the resource cannot be read
+   */
+  static long checksum(String name) throws IOException {
+    CRC32 crc = new CRC32();
+    try (InputStream in = Resources.open(name)) {
+      byte[] chunk = new byte[1 << 16];
+      int read;
+      while ((read = in.read(chunk)) != -1) {
+        crc.update(chunk, 0, read);
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Writes a String, as its length followed by its bytes in UTF-8.
+   * @param  out
+   *         the stream to write to
+   * @param  str
+   *         the String to be written
+   * @throws IOException if the String cannot be written
+   */
+  public static void writeString(DataOutputStream out, String str) throws IOException {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a String written by {@link #writeString}.
+   * @param  buffer
+   *         the buffer to read from
+   * @return  the String
+   */
+  public static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes an array of Strings, as its length followed by every String.
+   * @param  out
+   *         the stream to write to
+   * @param  strs
+   *         the Strings to be written
+   * @throws IOException if the Strings cannot be written
+   */
+  public static void writeStrings(DataOutputStream out, String[] strs) throws IOException {
+    out.writeInt(strs.length);
+    for (String str : strs) {
+      writeString(out, str);
+    }
+  }
+
+  /**
+   * Reads an array of Strings written by {@link #writeStrings}.
+   * @param  buffer
+   *         the buffer to read from
+   * @return  the Strings
+   */
+  public static String[] readStrings(ByteBuffer buffer) {
+    String[] strs = new String[buffer.getInt()];
+    for (int i = 0; i < strs.length; i++) {
+      strs[i] = readString(buffer);
+    }
+    return strs;
+  }
+
+  /**
+   * Writes the content of a Section.
+   */
+  @FunctionalInterface
+  public interface Writer {
+
+    /**
+     * Writes the content of a Section.
+     * @param  out
+     *         the stream to write to
+     * @throws IOException if the content cannot be written
+     */
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * Represents a resource saved in the image.
+   */
+  public static final class Section {
+
+    /**
+     * The name of the Section.
+     */
+    private final String name;
+
+    /**
+     * The absolute name of the resource the Section is parsed from.
+     */
+    private final String source;
+
+    /**
+     * The version of the layout of the content of the Section.
+     */
+    private final int version;
+
+    /**
+     * Writes the content of the Section.
+     */
+    private final Writer writer;
+
+    /**
+     * Installs the content of the Section.
+     */
+    private final Consumer<ByteBuffer> reader;
+
+    /**
+     * Constructs a Section.
+     * @param  name
+     *         the name of the Section
+     * @param  source
+     *         the absolute name of the resource the Section is parsed from
+     * @param  version
+     *         the version of the layout of the content, to be increased whenever the writer
+     *         changes
+     * @param  writer
+     *         writes the content of the Section, loading it from the source if needed
+     * @param  reader
+     *         installs the content of the Section, read from a buffer positioned at its start
+     */
+    public Section(String name, String source, int version, Writer writer,
+                   Consumer<ByteBuffer> reader) {
+      this.name = name;
+      this.source = source;
+      this.version = version;
+      this.writer = writer;
+      this.reader = reader;
+    }
+
+    /**
+     * Gets the name of the Section.
+     * @return  the name of the Section
+     */
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores the deterministic analysis of a Phrase.
+ * The analysis depends only on the text of the Phrase, so that it can be shared among all the
+ * requests containing the same text. The Sentences are extracted lazily, since conversational
+ * texts are answered without parsing them.
+ * @see  com.github.bot.curiosone.core.nlp.Phrase The Phrase Class
+ * @see  com.github.bot.curiosone.core.nlp.Sentence The Sentence Class
+ */
+class Analysis {
+
+  /**
+   * Stores the analysed Phrase.
+   */
+  private final Phrase phrase;
+
+  /**
+   * Stores the extraction of the Sentences of the Phrase, once started.
+   */
+  private final AtomicReference<CompletableFuture<List<Sentence>>> sentences =
+      new AtomicReference<>();
+
+  /**
+   * Constructs the Analysis of a Phrase.
+   * @param  phrase
+   *         the analysed Phrase
+   */
+  Analysis(Phrase phrase) {
+    this.phrase = phrase;
+  }
+
+  /**
+   * Gets the analysed Phrase.
+   * @return  the Phrase of this Analysis
+   */
+  Phrase getPhrase() {
+    return phrase;
+  }
+
+  /**
+   * Gets the Sentences extracted from the analysed Phrase, extracting them on the first call.
+   * Concurrent callers wait for the same extraction. An extraction interrupted by its Deadline is
+   * not remembered, so that the next caller tries again with its own budget.
+   * @param  deadline
+   *         the latency budget of the caller
+   * @return  an unmodifiable List containing the Sentences of the Phrase
+   * @throws DeadlineExceededException if the Deadline expires before the Sentences are available
+   * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+   */
+  List<Sentence> getSentences(Deadline deadline) {
+    while (true) {
+      CompletableFuture<List<Sentence>> current = sentences.get();
+      if (current == null) {
+        CompletableFuture<List<Sentence>> mine = new CompletableFuture<>();
+        if (!sentences.compareAndSet(null, mine)) {
+          continue;
+        }
+        try {
+          List<Sentence> result = Collections.unmodifiableList(Sentence.extract(phrase, deadline));
+          mine.complete(result);
+          return result;
+        } catch (RuntimeException e) {
+          sentences.compareAndSet(mine, null);
+          mine.completeExceptionally(e);
+          throw e;
+        }
+      }
+      try {
+        return deadline.get(current, "parse");
+      } catch (DeadlineExceededException e) {
+        if (deadline.isExpired()) {
+          throw e;
+        }
+        // The extraction of another caller ran out of its budget: try with ours.
+      }
+    }
+  }
+}
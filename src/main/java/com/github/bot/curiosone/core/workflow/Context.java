@@ -0,0 +1,159 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.github.bot.curiosone.core.extraction.BrainResponse;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the values produced while a Pipeline answers a single Phrase.
+ * The values are shared by the Stages running concurrently, so that they are stored in a
+ * thread-safe Map. The reply is set once, by the thread running the Pipeline.
+ * @see  com.github.bot.curiosone.core.workflow.Pipeline The Pipeline Class
+ */
+class Context {
+
+  /**
+   * Stands for the null values, which cannot be stored in a ConcurrentHashMap.
+   */
+  private static final Object NULL = new Object();
+
+  /**
+   * Maps the name of each value to the value.
+   */
+  private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+  /**
+   * Stores the name of the last Stage started.
+   */
+  private volatile String stage = "";
+
+  /**
+   * Stores the reply to the Phrase, if any.
+   */
+  private volatile BrainResponse reply;
+
+  /**
+   * Stores whether the Phrase has been understood.
+   */
+  private volatile boolean understood;
+
+  /**
+   * Stores the Stage skipped because the Deadline expired, or an empty String.
+   */
+  private volatile String skipped = "";
+
+  /**
+   * Stores the name of the value given as reply, or an empty String.
+   */
+  private volatile String source = "";
+
+  /**
+   * Constructs a Context from the initial values.
+   * @param  seeds
+   *         the values available before any Stage runs
+   */
+  Context(Map<String, Object> seeds) {
+    seeds.forEach(this::put);
+  }
+
+  /**
+   * Stores a value.
+   * @param  name
+   *         the name of the value
+   * @param  value
+   *         the value. Can be null.
+   */
+  void put(String name, Object value) {
+    values.put(name, value == null ? NULL : value);
+  }
+
+  /**
+   * Checks whether a value has been produced.
+   * @param  name
+   *         the name of the value
+   * @return  {@code true} if the value is available; {@code false} otherwise
+   */
+  boolean has(String name) {
+    return values.containsKey(name);
+  }
+
+  /**
+   * Gets a value.
+   * @param  name
+   *         the name of the value
+   * @return  the value, or null if it has not been produced or it is null
+   */
+  Object get(String name) {
+    Object value = values.get(name);
+    return value == NULL ? null : value;
+  }
+
+  /**
+   * Gets the name of the last Stage started.
+   * @return  the name of the last Stage started, or an empty String
+   */
+  String getStage() {
+    return stage;
+  }
+
+  /**
+   * Sets the name of the last Stage started.
+   * @param  stage
+   *         the name of the Stage
+   */
+  void setStage(String stage) {
+    this.stage = stage;
+  }
+
+  /**
+   * Gets the reply to the Phrase.
+   * @return  an Optional containing the reply, or an empty Optional if none has been found
+   */
+  Optional<BrainResponse> getReply() {
+    return Optional.ofNullable(reply);
+  }
+
+  /**
+   * Checks whether the Phrase has been understood, that is the reply is not a random one.
+   * @return  {@code true} if the Phrase has been understood; {@code false} otherwise
+   */
+  boolean isUnderstood() {
+    return understood;
+  }
+
+  /**
+   * Gets the Stage skipped because the Deadline expired.
+   * @return  the name of the skipped Stage, or an empty String
+   */
+  String getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * Gets the name of the value given as reply, that is the kind of the answer.
+   * @return  the name of the value given as reply, or an empty String
+   */
+  String getSource() {
+    return source;
+  }
+
+  /**
+   * Sets the reply to the Phrase.
+   * @param  reply
+   *         the reply. Can be null.
+   * @param  understood
+   *         whether the Phrase has been understood
+   * @param  skipped
+   *         the Stage skipped because the Deadline expired, or an empty String
+   * @param  source
+   *         the name of the value given as reply
+   */
+  void reply(BrainResponse reply, boolean understood, String skipped, String source) {
+    this.reply = reply;
+    this.understood = understood;
+    this.skipped = skipped;
+    this.source = source;
+  }
+}
@@ -3,12 +3,29 @@ package com.github.bot.curiosone.core.workflow;
 import com.github.bot.curiosone.core.analysis.EmotionAnalysis;
 import com.github.bot.curiosone.core.extraction.Brain;
 import com.github.bot.curiosone.core.extraction.BrainResponse;
+import com.github.bot.curiosone.core.metrics.Histogram;
+import com.github.bot.curiosone.core.metrics.Metrics;
+import com.github.bot.curiosone.core.nlp.LangUtils;
 import com.github.bot.curiosone.core.nlp.Phrase;
-import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
+import com.github.bot.curiosone.core.util.SingleFlightCache;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Manages the Logic Layer of the Curiosone.
@@ -17,8 +34,172 @@ import java.util.Optional;
  */
 public class Logic {
 
+  /**
+   * Name of the metrics family that records the latency of each stage.
+   */
+  static final String STAGE_METRIC = "curiosone_talk_stage_seconds";
+
+  /**
+   * Description of the metrics family that records the latency of each stage.
+   */
+  static final String STAGE_HELP = "Latency of the stages of Logic.talk.";
+
+  /**
+   * Records the latency of the phrase extraction.
+   */
+  private static final Histogram EXTRACT =
+      Metrics.histogram(STAGE_METRIC, STAGE_HELP, "stage", "extract");
+
+  /**
+   * Counts the messages that have not been answered by any branch of the Brain.
+   */
+  private static final LongAdder UNANSWERED = Metrics.counter(
+      Brain.BRANCH_METRIC, Brain.BRANCH_HELP, "branch", "none");
+
+  /**
+   * Name of the metrics family that counts the stages skipped because of the latency budget.
+   */
+  private static final String SKIPPED_METRIC = "curiosone_talk_skipped_total";
+
+  /**
+   * Description of the metrics family that counts the skipped stages.
+   */
+  private static final String SKIPPED_HELP = "Stages skipped to answer within the budget.";
+
+  /**
+   * Name of the metrics family that counts the lookups of the analyses cache.
+   */
+  private static final String CACHE_METRIC = "curiosone_analysis_lookups_total";
+
+  /**
+   * Description of the metrics family that counts the lookups of the analyses cache.
+   */
+  private static final String CACHE_HELP = "Lookups of the analyses of the received texts.";
+
+  /**
+   * Counts the texts whose analysis has been shared or found in cache.
+   */
+  private static final LongAdder HITS = Metrics.counter(CACHE_METRIC, CACHE_HELP, "result", "hit");
+
+  /**
+   * Counts the texts that have been analysed.
+   */
+  private static final LongAdder MISSES =
+      Metrics.counter(CACHE_METRIC, CACHE_HELP, "result", "miss");
+
+  /**
+   * Default maximum number of cached analyses.
+   */
+  private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  /**
+   * Analyses and answers the Phrases of the same text concurrently.
+   */
+  private static final ExecutorService workers = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(), r -> {
+        Thread t = new Thread(r, "curiosone-logic");
+        t.setDaemon(true);
+        return t;
+      });
+
+  /**
+   * Runs the concurrent Stages of the Pipelines.
+   * The Pipelines run on the workers and wait for their Stages, so the Stages need threads of
+   * their own: queued behind the Pipelines on the workers, they would never run.
+   */
+  private static final ExecutorService stages = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(), r -> {
+        Thread t = new Thread(r, "curiosone-stage");
+        t.setDaemon(true);
+        return t;
+      });
+
+  /**
+   * Shares the analyses of the texts among concurrent requests.
+   * Completed analyses are not cached unless a time to live is configured.
+   */
+  private static final SingleFlightCache<String, List<Analysis>> analyses =
+      new SingleFlightCache<>(0, DEFAULT_CACHE_SIZE);
+
+  /**
+   * Stores the latency budget of every request, in milliseconds. Zero means no budget.
+   */
+  private static volatile long budget;
+
+  /**
+   * Default time to live of an unused conversation Session, in milliseconds.
+   */
+  private static final long DEFAULT_SESSION_TTL = TimeUnit.MINUTES.toMillis(30);
+
+  /**
+   * Default maximum number of conversation Sessions.
+   */
+  private static final int DEFAULT_SESSION_SIZE = 100_000;
+
+  /**
+   * Stores the state of the identified conversations.
+   */
+  private static final SessionStore sessions =
+      new SessionStore(DEFAULT_SESSION_TTL, DEFAULT_SESSION_SIZE);
+
+  /**
+   * Stores the Pipeline answering each Phrase.
+   */
+  private static volatile Pipeline pipeline = Pipeline.getDefault();
+
+  /**
+   * Sets the Pipeline answering each Phrase.
+   * @param  pipeline
+   *         the Pipeline to be used
+   * @see  com.github.bot.curiosone.core.workflow.Pipeline The Pipeline Class
+   */
+  public static void setPipeline(Pipeline pipeline) {
+    Logic.pipeline = pipeline;
+  }
+
+  /**
+   * Sets the latency budget of every request.
+   * When the budget runs out, the stages still running are skipped and the Phrases get the
+   * cheapest available answer: the conversational one, if any, or a random one.
+   * @param  millis
+   *         the latency budget, in milliseconds. Zero disables the budget.
+   * @throws IllegalArgumentException if a negative budget is given
+   */
+  public static void setBudget(long millis) {
+    if (millis < 0) {
+      throw new IllegalArgumentException("Budget must be positive");
+    }
+    budget = millis;
+  }
+
+  /**
+   * Gets the store of the conversation Sessions, to configure, snapshot or inspect it.
+   * @return  the SessionStore of the identified conversations
+   * @see  com.github.bot.curiosone.core.workflow.SessionStore The SessionStore Class
+   */
+  public static SessionStore getSessions() {
+    return sessions;
+  }
+
+  /**
+   * Configures the cache of the analyses of the received texts.
+   * Identical texts received concurrently are always analysed once; this method only controls
+   * how long a completed analysis is reused. Answers are still chosen for every request.
+   * @param  ttl
+   *         the time to live of the cached analyses, in milliseconds. Zero disables caching.
+   * @param  maxSize
+   *         the maximum number of cached analyses
+   * @throws IllegalArgumentException if a negative time to live or size is given
+   */
+  public static void configureCache(long ttl, int maxSize) {
+    analyses.configure(ttl, maxSize);
+  }
+
   /**
    * Tries to compute an answer to a given Message.
+   * Every Phrase of the Message is answered concurrently, then the answers are merged: the reply
+   * contains the answers to all the understood Phrases, its scope is the last one given by the
+   * answers and its emotion is computed on the whole Message.
    * @param  msg
    *         the Message to be answered. Can be null.
    * @return a Message instance.
@@ -33,45 +214,254 @@ public class Logic {
    * @see  java.util.Optional The Optional Class
    */
   public static Message talk(Message msg) {
+    return talk(msg, budget > 0 ? Deadline.after(budget) : Deadline.none());
+  }
+
+  /**
+   * Tries to compute an answer to a given Message within the given Deadline.
+   * Phrases whose answer is not ready in time get the best answer produced so far, or a random
+   * one, and the reply lists the skipped stages. If the Message belongs to an identified
+   * conversation, its Session provides the scope when the Message has none, and records the scope
+   * of the reply. The turns of a conversation are answered one at a time, in arrival order.
+   * @param  msg
+   *         the Message to be answered. Can be null.
+   * @param  deadline
+   *         the latency budget of the request
+   * @return a Message instance, containing the answer and the skipped stages, if any
+   * @see  com.github.bot.curiosone.core.workflow.Message The Message Class
+   * @see  com.github.bot.curiosone.core.util.Deadline The Deadline Class
+   * @see  com.github.bot.curiosone.core.workflow.Session The Session Class
+   */
+  public static Message talk(Message msg, Deadline deadline) {
     // We are not able to parse a null string :(
     if (msg == null) {
+      UNANSWERED.increment();
       return new Message("Sorry my head hurts, what were we talking about?", "", "");
     }
-    Optional<BrainResponse> br;
+    if (msg.getConversation().isEmpty()) {
+      return answer(msg.getMessage(), msg.getScope(), deadline);
+    }
 
-    // We just use the first now.
-    List<Phrase> phrases = Phrase.extract(msg.getMessage());
-    if (phrases.size() == 0) {
+    // Identified conversations can omit the scope: the server remembers it.
+    Session session = sessions.get(msg.getConversation());
+    Message reply;
+    synchronized (session) {
+      String scope = msg.getScope().isEmpty() ? session.getScope() : msg.getScope();
+      reply = answer(msg.getMessage(), scope, deadline);
+      session.record(reply);
+    }
+    return new Message(reply.getMessage(), reply.getScope(), reply.getEmotion(),
+        reply.getSkipped(), msg.getConversation(), reply.getSource());
+  }
+
+  /**
+   * Tries to compute an answer to a given text within the given Deadline.
+   * @param  message
+   *         the text to be answered
+   * @param  scope
+   *         the scope of the conversation
+   * @param  deadline
+   *         the latency budget of the request
+   * @return a Message instance, containing the answer and the skipped stages, if any
+   */
+  private static Message answer(String message, String scope, Deadline deadline) {
+    boolean[] computed = {false};
+    List<Analysis> analysis = analyses.get(message, text -> {
+      computed[0] = true;
+      return analyse(text);
+    });
+    (computed[0] ? MISSES : HITS).increment();
+    if (analysis.size() == 0) {
+      UNANSWERED.increment();
       return new Message("Sorry my head hurts, what were we talking about?", "", "");
     }
-    Phrase phrase = phrases.get(0);
 
-    // Analysis
-    String emotion = EmotionAnalysis.getEmotion(phrase);
+    // Every phrase is answered on its own, then the answers are merged.
+    List<Context> replies = answerAll(analysis, scope, deadline);
+    String emotion = emotion(analysis, replies);
+    StringJoiner skipped = new StringJoiner(",");
+    replies.stream().map(Context::getSkipped).filter(x -> !x.isEmpty()).distinct().forEach(x -> {
+      skipped.add(x);
+      Metrics.counter(SKIPPED_METRIC, SKIPPED_HELP, "stage", x).increment();
+    });
+    List<Context> chosen = replies.stream().filter(Context::isUnderstood)
+        .filter(r -> r.getReply().isPresent()).collect(Collectors.toList());
+    if (chosen.isEmpty()) {
+      // Random answers are fillers: one is enough.
+      replies.stream().filter(r -> r.getReply().isPresent()).findFirst().ifPresent(chosen::add);
+    }
+    if (chosen.isEmpty()) {
+      // We have understood something but we are unable to answer now!
+      UNANSWERED.increment();
+      return new Message("Sorry my head hurts, what were we talking about?", "", emotion,
+          skipped.toString());
+    }
 
-    // If it's a conversational text answer directly.
-    br = Brain.conversate(phrase);
-    if (br.isPresent()) {
-      BrainResponse answer = br.get();
-      return new Message(answer.getMessage(), answer.getScope(), emotion);
+    //TODO: add refinement here.
+    StringJoiner text = new StringJoiner(" ");
+    String next = "";
+    for (Context context : chosen) {
+      BrainResponse reply = context.getReply().get();
+      text.add(reply.getMessage());
+      if (!reply.getScope().isEmpty()) {
+        next = reply.getScope();
+      }
+    }
+    String source = chosen.stream().map(Context::getSource).distinct()
+        .collect(Collectors.joining(","));
+    return new Message(text.toString(), next, emotion, skipped.toString(), "", source);
+  }
+
+  /**
+   * Answers every Phrase of a text concurrently.
+   * Without a budget the first Phrase is answered by the calling thread. With a budget all the
+   * Phrases are answered by the workers, so that the caller can stop waiting when the budget runs
+   * out and give the late Phrases the best answer produced so far, or a random one.
+   * @param  analysis
+   *         the Analysis of each Phrase
+   * @param  scope
+   *         the scope of the conversation
+   * @param  deadline
+   *         the latency budget of the request
+   * @return  a List containing the answered Context of each Phrase, in order
+   */
+  private static List<Context> answerAll(List<Analysis> analysis, String scope,
+                                         Deadline deadline) {
+    Pipeline pipeline = Logic.pipeline;
+    List<Context> contexts = analysis.stream().map(a -> context(a, scope))
+        .collect(Collectors.toList());
+    if (!deadline.isBounded()) {
+      inParallel(contexts, c -> {
+        pipeline.run(c, deadline, stages);
+        return c;
+      });
+      return contexts;
     }
+    List<CompletableFuture<Void>> futures = new ArrayList<>(contexts.size());
+    for (Context context : contexts) {
+      futures.add(CompletableFuture.runAsync(() -> pipeline.run(context, deadline, stages),
+          workers));
+    }
+    List<Context> replies = new ArrayList<>(contexts.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        deadline.get(futures.get(i), "answer");
+        replies.add(contexts.get(i));
+      } catch (DeadlineExceededException e) {
+        // The late Phrase keeps running in background, but its answer is discarded.
+        Phrase phrase = analysis.get(i).getPhrase();
+        String stage = contexts.get(i).getStage();
+        Context late = context(analysis.get(i), scope);
+        String skipped = stage.isEmpty() ? "answer" : stage;
+        if (!pipeline.replySoFar(contexts.get(i), late, skipped)) {
+          late.reply(Brain.random(phrase), false, skipped, pipeline.getTimeoutReply());
+        }
+        replies.add(late);
+      }
+    }
+    return replies;
+  }
+
+  /**
+   * Creates the Context answering a single Phrase.
+   * @param  analysis
+   *         the Analysis of the Phrase to be answered
+   * @param  scope
+   *         the scope of the conversation
+   * @return  a Context holding the seeds of the Pipeline
+   * @see  com.github.bot.curiosone.core.workflow.Pipeline#SEEDS The Pipeline seeds
+   */
+  private static Context context(Analysis analysis, String scope) {
+    Map<String, Object> seeds = new HashMap<>();
+    seeds.put("phrase", analysis.getPhrase());
+    seeds.put("analysis", analysis);
+    seeds.put("scope", scope);
+    return new Context(seeds);
+  }
 
-    // We just use the first now.
-    List<Sentence> sentences = Sentence.extract(phrase);
-    if (sentences.size() == 0) {
-      BrainResponse answer = Brain.random(phrase);
-      return new Message(answer.getMessage(), answer.getScope(), emotion);
+  /**
+   * Computes the emotion of a whole text, pooling the sentiment scores of its Phrases.
+   * If some Phrase has no score, because the Pipeline does not compute it or the budget ran out,
+   * the emotion is computed from scratch.
+   * @param  analysis
+   *         the Analysis of each Phrase
+   * @param  replies
+   *         the answered Context of each Phrase
+   * @return  a String representation of the emotion of the text
+   * @see  com.github.bot.curiosone.core.analysis.EmotionAnalysis The EmotionAnalysis Class
+   */
+  private static String emotion(List<Analysis> analysis, List<Context> replies) {
+    double sum = 0;
+    double count = 0;
+    for (Context reply : replies) {
+      Object score = reply.get("sentiment");
+      if (!(score instanceof double[])) {
+        return EmotionAnalysis.getEmotion(
+            analysis.stream().map(Analysis::getPhrase).collect(Collectors.toList()));
+      }
+      sum += ((double[]) score)[0];
+      count += ((double[]) score)[1];
     }
-    Sentence sentence = sentences.get(0);
+    return EmotionAnalysis.getEmotion(count == 0 ? 0.0 : sum / count);
+  }
+
+  /**
+   * Extracts and tokenizes the Phrases of a text.
+   * @param  text
+   *         the text to be analysed
+   * @return  an unmodifiable List containing the Analysis of each Phrase of the text
+   * @see  com.github.bot.curiosone.core.workflow.Analysis The Analysis Class
+   */
+  private static List<Analysis> analyse(String text) {
+    long start = System.nanoTime();
+    List<Analysis> result = inParallel(LangUtils.splitByPuntaction(text),
+        s -> new Analysis(new Phrase(s)));
+    record(EXTRACT, start);
+    return Collections.unmodifiableList(result);
+  }
 
-    br = Brain.compute(sentence, msg.getScope());
-    if (br.isPresent()) {
-      BrainResponse answer = br.get();
-      //TODO: add refinement here.
-      return new Message(answer.getMessage(), answer.getScope(), emotion);
+  /**
+   * Applies a function to every item of a List, concurrently.
+   * The first item is processed by the calling thread, so that single items never change thread.
+   * @param  items
+   *         the items to be processed
+   * @param  function
+   *         the function to be applied
+   * @return  a List containing the results, in the order of the items
+   * @see  java.util.concurrent.CompletableFuture The CompletableFuture Class
+   */
+  private static <T, R> List<R> inParallel(List<T> items, Function<T, R> function) {
+    List<R> results = new ArrayList<>(items.size());
+    if (items.isEmpty()) {
+      return results;
+    }
+    List<CompletableFuture<R>> futures = new ArrayList<>(items.size() - 1);
+    for (T item : items.subList(1, items.size())) {
+      futures.add(CompletableFuture.supplyAsync(() -> function.apply(item), workers));
+    }
+    results.add(function.apply(items.get(0)));
+    for (CompletableFuture<R> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
     }
+    return results;
+  }
 
-    // We have understood something but we are unable to answer now!
-    return new Message("Sorry my head hurts, what were we talking about?", "", emotion);
+  /**
+   * Records the time elapsed since the given instant in the given Histogram.
+   * @param  stage
+   *         the Histogram of the stage that has just finished
+   * @param  start
+   *         the instant when the stage started, as given by {@link System#nanoTime()}
+   * @return  the current instant, that is the start of the next stage
+   * @see  com.github.bot.curiosone.core.metrics.Histogram The Histogram Class
+   */
+  private static long record(Histogram stage, long start) {
+    long now = System.nanoTime();
+    stage.record(now - start);
+    return now;
   }
 }
@@ -25,6 +25,21 @@ public class Message {
    */
   String emotion;
 
+  /**
+   * Stores the stages skipped to answer in time, separated by commas.
+   */
+  String skipped;
+
+  /**
+   * Stores the ID of the conversation this Message belongs to.
+   */
+  String conversation;
+
+  /**
+   * Stores the kinds of the answers merged in this Message, separated by commas.
+   */
+  String source;
+
   /**
    * Constructs this Message from a text/content and its scope.
    * @param  message
@@ -35,33 +50,125 @@ public class Message {
    *         Message emotion. Can be null.
    */
   public Message(String message, String scope, String emotion) {
+    this(message, scope, emotion, "");
+  }
+
+  /**
+   * Constructs this Message from a text/content, its scope and the skipped stages.
+   * @param  message
+   *         Message content. Can be null.
+   * @param  scope
+   *         Message scope. Can be null.
+   * @param  emotion
+   *         Message emotion. Can be null.
+   * @param  skipped
+   *         the stages skipped to answer in time, separated by commas. Can be null.
+   */
+  public Message(String message, String scope, String emotion, String skipped) {
+    this(message, scope, emotion, skipped, "");
+  }
+
+  /**
+   * Constructs this Message from a text/content, its scope, the skipped stages and the ID of its
+   * conversation.
+   * @param  message
+   *         Message content. Can be null.
+   * @param  scope
+   *         Message scope. Can be null.
+   * @param  emotion
+   *         Message emotion. Can be null.
+   * @param  skipped
+   *         the stages skipped to answer in time, separated by commas. Can be null.
+   * @param  conversation
+   *         the ID of the conversation. Can be null.
+   * @see  com.github.bot.curiosone.core.workflow.SessionStore The SessionStore Class
+   */
+  public Message(String message, String scope, String emotion, String skipped,
+                 String conversation) {
+    this(message, scope, emotion, skipped, conversation, "");
+  }
+
+  /**
+   * Constructs this Message from a text/content, its scope, the skipped stages, the ID of its
+   * conversation and the kinds of the merged answers.
+   * @param  message
+   *         Message content. Can be null.
+   * @param  scope
+   *         Message scope. Can be null.
+   * @param  emotion
+   *         Message emotion. Can be null.
+   * @param  skipped
+   *         the stages skipped to answer in time, separated by commas. Can be null.
+   * @param  conversation
+   *         the ID of the conversation. Can be null.
+   * @param  source
+   *         the kinds of the merged answers, separated by commas. Can be null.
+   * @see  com.github.bot.curiosone.core.workflow.Pipeline The Pipeline Class
+   */
+  public Message(String message, String scope, String emotion, String skipped,
+                 String conversation, String source) {
     this.message = (message == null) ? "" : message;
     this.scope = (scope == null) ? "" : scope;
     this.emotion = (emotion == null) ? "" : emotion;
+    this.skipped = (skipped == null) ? "" : skipped;
+    this.conversation = (conversation == null) ? "" : conversation;
+    this.source = (source == null) ? "" : source;
   }
 
   /**
    * Gets the content of this Message.
-   * @return  the content of this Message
+   * Messages deserialized from JSON can lack it, as the constructors are not called.
+   * @return  the content of this Message, or an empty String if missing
    */
   public String getMessage() {
-    return message;
+    return message == null ? "" : message;
   }
 
   /**
    * Gets the scope of this Message.
-   * @return  the scope of this Message
+   * Identified conversations usually omit it, as the server remembers it.
+   * @return  the scope of this Message, or an empty String if missing
    */
   public String getScope() {
-    return scope;
+    return scope == null ? "" : scope;
   }
 
   /**
    * Gets the emotion of this Message.
-   * @return  the emotion of this Message
+   * @return  the emotion of this Message, or an empty String if missing
    */
   public String getEmotion() {
-    return emotion;
+    return emotion == null ? "" : emotion;
+  }
+
+  /**
+   * Gets the stages skipped to answer this Message in time.
+   * This is metadata about how the Message has been computed, so it is not part of the
+   * equality of Messages.
+   * @return  the skipped stages, separated by commas, or an empty String if none was skipped
+   */
+  public String getSkipped() {
+    return skipped == null ? "" : skipped;
+  }
+
+  /**
+   * Gets the ID of the conversation this Message belongs to.
+   * The server keeps the state of identified conversations, so that their scope can be omitted.
+   * Like the skipped stages, the ID is not part of the equality of Messages.
+   * @return  the ID of the conversation, or an empty String if the conversation is anonymous
+   */
+  public String getConversation() {
+    return conversation == null ? "" : conversation;
+  }
+
+  /**
+   * Gets the kinds of the answers merged in this Message, that is the names of the Pipeline
+   * values given as reply, such as "conversation", "answer" or "filler".
+   * Like the skipped stages, the kinds are not part of the equality of Messages.
+   * @return  the kinds of the answers, separated by commas, or an empty String if unknown
+   */
+  public String getSource() {
+    return source == null ? "" : source;
   }
 
   /**
@@ -89,9 +196,9 @@ public class Message {
       return false;
     }
     Message that = (Message) other;
-    return this.message.equals(that.message)
-      && this.scope.equals(that.scope)
-      && this.emotion.equals(that.emotion);
+    return this.getMessage().equals(that.getMessage())
+      && this.getScope().equals(that.getScope())
+      && this.getEmotion().equals(that.getEmotion());
   }
 
   /**
@@ -101,6 +208,6 @@ public class Message {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(message, scope, emotion);
+    return Objects.hash(getMessage(), getScope(), getEmotion());
   }
 }
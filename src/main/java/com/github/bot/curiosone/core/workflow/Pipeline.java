@@ -0,0 +1,562 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.github.bot.curiosone.core.extraction.BrainResponse;
+import com.github.bot.curiosone.core.metrics.Histogram;
+import com.github.bot.curiosone.core.metrics.Metrics;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the sequence of Stages that answers a single Phrase.
+ * Each Stage declares the values it needs and the value it produces. Stages are grouped in levels:
+ * the Stages of a level depend only on the values produced by the previous levels, so that they
+ * run concurrently. After each level the short-circuit rules are checked in order, and the first
+ * one matching gives the reply. If no rule matches, the reply is the final value.
+ * <p>The Pipeline is configured through a Properties file:
+ * <pre>
+ * stages = emotion, conversate, parse
+ * stage.parse.type = parse          # registered type, defaults to the name
+ * stage.parse.inputs = analysis     # seeds or outputs of other stages
+ * stage.parse.output = sentences
+ * stage.parse.after = conversate    # ordering without data dependency
+ * stage.random.lazy = true          # runs only when a rule or a reply needs it
+ * rules = unparsed
+ * rule.unparsed.when = !sentences   # produced and empty; without '!' produced and not empty
+ * rule.unparsed.reply = filler
+ * rule.unparsed.understood = false  # defaults to true
+ * reply = answer
+ * timeout.reply = filler            # reply when the Deadline expires with no reply so far
+ * </pre>
+ * @see  com.github.bot.curiosone.core.workflow.Stage The Stage Interface
+ * @see  com.github.bot.curiosone.core.workflow.Stages The Stages Class
+ */
+public class Pipeline {
+
+  /**
+   * Names of the values available before any Stage runs.
+   */
+  public static final List<String> SEEDS =
+      Collections.unmodifiableList(Arrays.asList("phrase", "analysis", "scope"));
+
+  /**
+   * Path of the default configuration, reproducing the original answering workflow.
+   */
+  private static final String DEFAULT_PATH = "/pipeline/default.properties";
+
+  /**
+   * Stores the levels of the Stages that always run, in order.
+   */
+  private final List<List<Step>> levels;
+
+  /**
+   * Maps each value to the Step producing it.
+   */
+  private final Map<String, Step> producers;
+
+  /**
+   * Stores the short-circuit rules, in order.
+   */
+  private final List<Rule> rules;
+
+  /**
+   * Stores the name of the value given as reply when no rule matches.
+   */
+  private final String reply;
+
+  /**
+   * Stores the name of the value given as reply when the Deadline expires.
+   */
+  private final String timeoutReply;
+
+  /**
+   * Constructs a Pipeline from its configuration.
+   * @param  config
+   *         the configuration of the Pipeline
+   * @throws IllegalArgumentException if the configuration is not valid
+   */
+  private Pipeline(Properties config) {
+    Map<String, Step> steps = new LinkedHashMap<>();
+    producers = new HashMap<>();
+    for (String name : list(config, "stages")) {
+      String type = config.getProperty("stage." + name + ".type", name).trim();
+      Stage stage = Stages.get(type).orElseThrow(
+          () -> new IllegalArgumentException("Unknown type " + type + " of stage " + name));
+      Step step = new Step(name, stage, list(config, "stage." + name + ".inputs"),
+          required(config, "stage." + name + ".output"), list(config, "stage." + name + ".after"),
+          Boolean.parseBoolean(config.getProperty("stage." + name + ".lazy", "false").trim()));
+      if (steps.put(name, step) != null) {
+        throw new IllegalArgumentException("Duplicate stage " + name);
+      }
+      if (SEEDS.contains(step.output) || producers.put(step.output, step) != null) {
+        throw new IllegalArgumentException("Value " + step.output + " produced twice");
+      }
+    }
+    for (Step step : steps.values()) {
+      step.inputs.forEach(this::known);
+      for (String name : step.after) {
+        if (!steps.containsKey(name)) {
+          throw new IllegalArgumentException("Unknown stage " + name);
+        }
+      }
+    }
+
+    Map<Step, Integer> depths = new HashMap<>();
+    List<List<Step>> levels = new ArrayList<>();
+    for (Step step : steps.values()) {
+      int depth = depth(step, steps, depths, new HashSet<>());
+      if (!step.lazy) {
+        while (levels.size() <= depth) {
+          levels.add(new ArrayList<>());
+        }
+        levels.get(depth).add(step);
+      }
+    }
+    levels.removeIf(List::isEmpty);
+    this.levels = levels;
+
+    rules = new ArrayList<>();
+    for (String name : list(config, "rules")) {
+      String when = required(config, "rule." + name + ".when");
+      boolean negated = when.startsWith("!");
+      Rule rule = new Rule(known(negated ? when.substring(1).trim() : when), negated,
+          known(required(config, "rule." + name + ".reply")),
+          Boolean.parseBoolean(config.getProperty("rule." + name + ".understood", "true").trim()));
+      rules.add(rule);
+    }
+    reply = known(required(config, "reply"));
+    timeoutReply = known(required(config, "timeout.reply"));
+  }
+
+  /**
+   * Builds a Pipeline from its configuration.
+   * @param  config
+   *         the configuration of the Pipeline
+   * @return  the configured Pipeline
+   * @throws IllegalArgumentException if the configuration is not valid
+   */
+  public static Pipeline fromProperties(Properties config) {
+    return new Pipeline(config);
+  }
+
+  /**
+   * Loads a Pipeline from a configuration file.
+   * @param  path
+   *         the path of the configuration file
+   * @return  the configured Pipeline
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the configuration is not valid
+   */
+  public static Pipeline load(Path path) throws IOException {
+    Properties config = new Properties();
+    try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      config.load(in);
+    }
+    return new Pipeline(config);
+  }
+
+  /**
+   * Loads the default Pipeline, reproducing the original answering workflow: the emotion and the
+   * conversational answer are computed together, then the Phrase is parsed and answered.
+   * @return  the default Pipeline
+   */
+  public static Pipeline getDefault() {
+    Properties config = new Properties();
+    try (InputStream in = Pipeline.class.getResourceAsStream(DEFAULT_PATH)) {
+      config.load(in);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return new Pipeline(config);
+  }
+
+  /**
+   * Gets the names of the Stages that always run, grouped by level.
+   * @return  a List containing the names of the Stages of each level, in order
+   */
+  List<List<String>> getLevels() {
+    return levels.stream()
+        .map(level -> level.stream().map(s -> s.name).collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the name of the value given as reply when the Deadline expires.
+   * @return  the name of the timeout reply
+   */
+  String getTimeoutReply() {
+    return timeoutReply;
+  }
+
+  /**
+   * Answers a Phrase, storing the produced values and the reply in the given Context.
+   * The first Stage of each level runs in the calling thread, the others in the given Executor.
+   * If the Deadline expires, the best reply produced so far is given, or the timeout reply if
+   * there is none, and the interrupted Stage is recorded as skipped.
+   * @param  context
+   *         the Context holding the seeds
+   * @param  deadline
+   *         the latency budget of the request
+   * @param  executor
+   *         runs the concurrent Stages. Must not be a bounded pool running the Pipelines too, as
+   *         they wait for their Stages.
+   */
+  void run(Context context, Deadline deadline, Executor executor) {
+    try {
+      for (List<Step> level : levels) {
+        runLevel(level, context, deadline, executor);
+        for (Rule rule : rules) {
+          if (context.has(rule.when) && isEmpty(context.get(rule.when)) == rule.negated) {
+            context.reply(response(resolve(rule.reply, context, deadline)).orElse(null),
+                rule.understood, "", rule.reply);
+            return;
+          }
+        }
+      }
+      Optional<BrainResponse> response = response(resolve(reply, context, deadline));
+      context.reply(response.orElse(null), response.isPresent(), "", reply);
+    } catch (DeadlineExceededException e) {
+      if (!replySoFar(context, context, e.getStage())) {
+        context.reply(response(resolve(timeoutReply, context, Deadline.none())).orElse(null),
+            false, e.getStage(), timeoutReply);
+      }
+    }
+  }
+
+  /**
+   * Gives the best reply among the values already produced, when the Deadline expires.
+   * The rules are checked in order on the produced values, and the first one matching whose reply
+   * has been produced too gives it. Otherwise the final value is given, if produced.
+   * No Stage is run.
+   * @param  produced
+   *         the Context holding the values produced so far. Can still be filled concurrently.
+   * @param  context
+   *         the Context receiving the reply
+   * @param  skipped
+   *         the Stage skipped because the Deadline expired
+   * @return  {@code true} if a reply has been given; {@code false} if the timeout reply is needed
+   */
+  boolean replySoFar(Context produced, Context context, String skipped) {
+    for (Rule rule : rules) {
+      if (produced.has(rule.when) && isEmpty(produced.get(rule.when)) == rule.negated) {
+        Optional<BrainResponse> response = response(produced.get(rule.reply));
+        if (response.isPresent()) {
+          context.reply(response.get(), rule.understood, skipped, rule.reply);
+          return true;
+        }
+      }
+    }
+    Optional<BrainResponse> response = response(produced.get(reply));
+    response.ifPresent(r -> context.reply(r, true, skipped, reply));
+    return response.isPresent();
+  }
+
+  /**
+   * Runs the Stages of a level concurrently.
+   * @param  level
+   *         the Stages of the level
+   * @param  context
+   *         the Context of the Phrase
+   * @param  deadline
+   *         the latency budget of the request
+   * @param  executor
+   *         runs all the Stages but the first
+   */
+  private void runLevel(List<Step> level, Context context, Deadline deadline, Executor executor) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>(level.size() - 1);
+    for (Step step : level.subList(1, level.size())) {
+      futures.add(CompletableFuture.runAsync(() -> runStep(step, context, deadline), executor));
+    }
+    runStep(level.get(0), context, deadline);
+    for (int i = 0; i < futures.size(); i++) {
+      deadline.get(futures.get(i), level.get(i + 1).name);
+    }
+  }
+
+  /**
+   * Runs a single Stage, recording its latency.
+   * @param  step
+   *         the Stage to be run
+   * @param  context
+   *         the Context of the Phrase
+   * @param  deadline
+   *         the latency budget of the request
+   */
+  private void runStep(Step step, Context context, Deadline deadline) {
+    List<Object> inputs = new ArrayList<>(step.inputs.size());
+    for (String input : step.inputs) {
+      inputs.add(resolve(input, context, deadline));
+    }
+    context.setStage(step.name);
+    long start = System.nanoTime();
+    Object output = step.stage.run(inputs, deadline);
+    step.latency.record(System.nanoTime() - start);
+    context.put(step.output, output);
+  }
+
+  /**
+   * Gets a value, running its lazy Stage if it has not been produced yet.
+   * @param  name
+   *         the name of the value
+   * @param  context
+   *         the Context of the Phrase
+   * @param  deadline
+   *         the latency budget of the request
+   * @return  the value. Can be null.
+   */
+  private Object resolve(String name, Context context, Deadline deadline) {
+    if (!context.has(name) && producers.containsKey(name)) {
+      runStep(producers.get(name), context, deadline);
+    }
+    return context.get(name);
+  }
+
+  /**
+   * Computes the level of a Stage, that is one more than the deepest Stage it depends on.
+   * @param  step
+   *         the Stage
+   * @param  steps
+   *         all the Stages, by name
+   * @param  depths
+   *         the levels already computed
+   * @param  visiting
+   *         the Stages whose level is being computed
+   * @return  the level of the Stage, starting from 0
+   * @throws IllegalArgumentException if the Stage depends on itself
+   */
+  private int depth(Step step, Map<String, Step> steps, Map<Step, Integer> depths,
+                    Set<Step> visiting) {
+    Integer known = depths.get(step);
+    if (known != null) {
+      return known;
+    }
+    if (!visiting.add(step)) {
+      throw new IllegalArgumentException("Cycle through stage " + step.name);
+    }
+    int depth = 0;
+    List<Step> dependencies = new ArrayList<>();
+    step.inputs.stream().filter(producers::containsKey).map(producers::get)
+        .forEach(dependencies::add);
+    step.after.stream().map(steps::get).forEach(dependencies::add);
+    for (Step dependency : dependencies) {
+      int level = depth(dependency, steps, depths, visiting);
+      // Lazy Stages run on demand, so they do not delay the Stages depending on them.
+      depth = Math.max(depth, dependency.lazy ? level : level + 1);
+    }
+    visiting.remove(step);
+    depths.put(step, depth);
+    return depth;
+  }
+
+  /**
+   * Checks that a value is either a seed or produced by a Stage.
+   * @param  name
+   *         the name of the value
+   * @return  the name of the value
+   * @throws IllegalArgumentException if the value is unknown
+   */
+  private String known(String name) {
+    if (!SEEDS.contains(name) && !producers.containsKey(name)) {
+      throw new IllegalArgumentException("Unknown value " + name);
+    }
+    return name;
+  }
+
+  /**
+   * Checks whether a value means that nothing has been found.
+   * @param  value
+   *         the value to be checked. Can be null.
+   * @return  {@code true} if the value is null, or an empty Optional, Collection or String;
+   *          {@code false} otherwise
+   */
+  static boolean isEmpty(Object value) {
+    return value == null
+        || value instanceof Optional && !((Optional<?>) value).isPresent()
+        || value instanceof Collection && ((Collection<?>) value).isEmpty()
+        || value instanceof String && ((String) value).isEmpty();
+  }
+
+  /**
+   * Converts a value in a reply.
+   * @param  value
+   *         a BrainResponse, an Optional containing it, or null
+   * @return  an Optional containing the reply, or an empty Optional
+   * @throws IllegalStateException if the value is not a reply
+   */
+  private static Optional<BrainResponse> response(Object value) {
+    if (value == null || value instanceof BrainResponse) {
+      return Optional.ofNullable((BrainResponse) value);
+    }
+    if (value instanceof Optional) {
+      Optional<?> optional = (Optional<?>) value;
+      if (!optional.isPresent() || optional.get() instanceof BrainResponse) {
+        return optional.map(BrainResponse.class::cast);
+      }
+    }
+    throw new IllegalStateException("Not a reply: " + value);
+  }
+
+  /**
+   * Gets a required property.
+   * @param  config
+   *         the configuration
+   * @param  key
+   *         the key of the property
+   * @return  the trimmed value of the property
+   * @throws IllegalArgumentException if the property is missing
+   */
+  private static String required(Properties config, String key) {
+    String value = config.getProperty(key);
+    if (value == null || value.trim().isEmpty()) {
+      throw new IllegalArgumentException("Missing property " + key);
+    }
+    return value.trim();
+  }
+
+  /**
+   * Gets a comma-separated list property.
+   * @param  config
+   *         the configuration
+   * @param  key
+   *         the key of the property
+   * @return  a List containing the trimmed items, empty if the property is missing
+   */
+  private static List<String> list(Properties config, String key) {
+    return Arrays.stream(config.getProperty(key, "").split(","))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Represents a configured Stage.
+   */
+  private static class Step {
+
+    /**
+     * The name of the Stage.
+     */
+    private final String name;
+
+    /**
+     * The implementation of the Stage.
+     */
+    private final Stage stage;
+
+    /**
+     * The names of the inputs, in order.
+     */
+    private final List<String> inputs;
+
+    /**
+     * The name of the output.
+     */
+    private final String output;
+
+    /**
+     * The names of the Stages that must run before this one.
+     */
+    private final List<String> after;
+
+    /**
+     * Whether the Stage runs only on demand.
+     */
+    private final boolean lazy;
+
+    /**
+     * Records the latency of the Stage.
+     */
+    private final Histogram latency;
+
+    /**
+     * Constructs a Step.
+     * @param  name
+     *         the name of the Stage
+     * @param  stage
+     *         the implementation of the Stage
+     * @param  inputs
+     *         the names of the inputs
+     * @param  output
+     *         the name of the output
+     * @param  after
+     *         the names of the Stages that must run before this one
+     * @param  lazy
+     *         whether the Stage runs only on demand
+     */
+    private Step(String name, Stage stage, List<String> inputs, String output, List<String> after,
+                 boolean lazy) {
+      this.name = name;
+      this.stage = stage;
+      this.inputs = inputs;
+      this.output = output;
+      this.after = after;
+      this.lazy = lazy;
+      this.latency = Metrics.histogram(Logic.STAGE_METRIC, Logic.STAGE_HELP, "stage", name);
+    }
+  }
+
+  /**
+   * Represents a short-circuit rule.
+   */
+  private static class Rule {
+
+    /**
+     * The name of the checked value.
+     */
+    private final String when;
+
+    /**
+     * Whether the rule matches an empty value, rather than a non-empty one.
+     */
+    private final boolean negated;
+
+    /**
+     * The name of the value given as reply.
+     */
+    private final String reply;
+
+    /**
+     * Whether the reply means that the Phrase has been understood.
+     */
+    private final boolean understood;
+
+    /**
+     * Constructs a Rule.
+     * @param  when
+     *         the name of the checked value
+     * @param  negated
+     *         whether the rule matches an empty value
+     * @param  reply
+     *         the name of the value given as reply
+     * @param  understood
+     *         whether the reply means that the Phrase has been understood
+     */
+    private Rule(String when, boolean negated, String reply, boolean understood) {
+      this.when = when;
+      this.negated = negated;
+      this.reply = reply;
+      this.understood = understood;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.bot.curiosone.core.workflow;
+
+/**
+ * Represents the server-side state of a conversation.
+ * A Session stores the scope of the conversation, so that clients only have to send the ID of
+ * the conversation. The facts taught by the user are learned by the SemanticNetwork, not by the
+ * Session. A turn holds the lock of its Session while it is answered, so that the turns of a
+ * conversation are answered one at a time and none of them is lost.
+ * @see  com.github.bot.curiosone.core.workflow.SessionStore The SessionStore Class
+ */
+public class Session {
+
+  /**
+   * Stores the ID of the conversation.
+   */
+  private final String id;
+
+  /**
+   * Stores the current scope of the conversation.
+   */
+  private String scope = "";
+
+  /**
+   * Stores the last time this Session has been used, in milliseconds.
+   */
+  private volatile long lastAccess;
+
+  /**
+   * Constructs an empty Session.
+   * @param  id
+   *         the ID of the conversation
+   * @param  now
+   *         the current time, in milliseconds
+   */
+  Session(String id, long now) {
+    this.id = id;
+    this.lastAccess = now;
+  }
+
+  /**
+   * Gets the ID of the conversation.
+   * @return  the ID of the conversation
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the current scope of the conversation.
+   * @return  the scope of the last answer, or an empty String
+   */
+  public synchronized String getScope() {
+    return scope;
+  }
+
+  /**
+   * Gets the last time this Session has been used.
+   * @return  the time of the last access, in milliseconds
+   */
+  public long getLastAccess() {
+    return lastAccess;
+  }
+
+  /**
+   * Marks this Session as used.
+   * @param  now
+   *         the current time, in milliseconds
+   */
+  void touch(long now) {
+    lastAccess = now;
+  }
+
+  /**
+   * Records the answer to a turn of the conversation: its scope becomes the current one.
+   * @param  reply
+   *         the answer
+   */
+  public synchronized void record(Message reply) {
+    scope = reply.getScope();
+  }
+
+  /**
+   * Restores the state of this Session.
+   * @param  scope
+   *         the current scope. Can be null.
+   */
+  synchronized void restore(String scope) {
+    this.scope = scope == null ? "" : scope;
+  }
+}
@@ -0,0 +1,299 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores the Sessions of the conversations, by conversation ID.
+ * Sessions expire when unused for longer than the time to live. When the store grows over its
+ * maximum size, the least recently used Sessions are evicted in bulk, so that the cost of the
+ * eviction is amortized over many insertions. The store can be periodically saved to a snapshot
+ * file, one JSON Session per line, and restored from it on start.
+ * @see  com.github.bot.curiosone.core.workflow.Session The Session Class
+ */
+public class SessionStore {
+
+  /**
+   * Fraction of the maximum size kept after a size-based eviction.
+   */
+  private static final double LOW_WATERMARK = 0.9;
+
+  /**
+   * Maps each conversation ID to its Session.
+   */
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+  /**
+   * Lets a single thread at a time evict the Sessions.
+   */
+  private final ReentrantLock eviction = new ReentrantLock();
+
+  /**
+   * Stores the time to live of an unused Session, in milliseconds.
+   */
+  private volatile long ttl;
+
+  /**
+   * Stores the maximum number of Sessions.
+   */
+  private volatile int maxSize;
+
+  /**
+   * Runs the periodic maintenance, once started.
+   */
+  private ScheduledExecutorService maintenance;
+
+  /**
+   * Constructs an empty SessionStore.
+   * @param  ttl
+   *         the time to live of an unused Session, in milliseconds
+   * @param  maxSize
+   *         the maximum number of Sessions
+   * @throws IllegalArgumentException if a non-positive time to live or size is given
+   */
+  public SessionStore(long ttl, int maxSize) {
+    configure(ttl, maxSize);
+  }
+
+  /**
+   * Configures the eviction of the Sessions.
+   * @param  ttl
+   *         the time to live of an unused Session, in milliseconds
+   * @param  maxSize
+   *         the maximum number of Sessions
+   * @throws IllegalArgumentException if a non-positive time to live or size is given
+   */
+  public void configure(long ttl, int maxSize) {
+    if (ttl <= 0 || maxSize <= 0) {
+      throw new IllegalArgumentException("TTL and size must be positive");
+    }
+    this.ttl = ttl;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Gets the Session of a conversation, creating it if missing or expired.
+   * @param  id
+   *         the ID of the conversation
+   * @return  the Session of the conversation
+   */
+  public Session get(String id) {
+    long now = System.currentTimeMillis();
+    Session session = sessions.compute(id, (key, old) ->
+        old == null || now - old.getLastAccess() > ttl ? new Session(key, now) : old);
+    session.touch(now);
+    if (sessions.size() > maxSize && eviction.tryLock()) {
+      try {
+        evict(now);
+      } finally {
+        eviction.unlock();
+      }
+    }
+    return session;
+  }
+
+  /**
+   * Gets the last time a conversation has been used, without marking it as used.
+   * @param  id
+   *         the ID of the conversation
+   * @return  the time of the last access, in milliseconds; 0 if the conversation has no live
+   *          Session
+   */
+  public long getLastAccess(String id) {
+    Session session = sessions.get(id);
+    if (session == null || System.currentTimeMillis() - session.getLastAccess() > ttl) {
+      return 0;
+    }
+    return session.getLastAccess();
+  }
+
+  /**
+   * Removes the Session of a conversation, if any.
+   * @param  id
+   *         the ID of the conversation
+   */
+  public void remove(String id) {
+    sessions.remove(id);
+  }
+
+  /**
+   * Gets the number of stored Sessions, including the expired ones not yet evicted.
+   * @return  the number of stored Sessions
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Removes all the Sessions.
+   */
+  public void clear() {
+    sessions.clear();
+  }
+
+  /**
+   * Evicts the expired Sessions and, if the store is still too big, the least recently used ones.
+   * @param  now
+   *         the current time, in milliseconds
+   * @return  the number of evicted Sessions
+   */
+  public int evict(long now) {
+    int before = sessions.size();
+    sessions.values().removeIf(s -> now - s.getLastAccess() > ttl);
+    int excess = sessions.size() - (int) (maxSize * LOW_WATERMARK);
+    if (sessions.size() > maxSize && excess > 0) {
+      long[] accesses = sessions.values().stream().mapToLong(Session::getLastAccess).toArray();
+      Arrays.sort(accesses);
+      excess = Math.min(excess, accesses.length);
+      long threshold = accesses[excess - 1];
+      // Sessions used at the same millisecond as the threshold are evicted only up to the excess.
+      int ties = excess;
+      while (ties > 0 && accesses[excess - ties] < threshold) {
+        ties--;
+      }
+      for (Iterator<Session> i = sessions.values().iterator(); i.hasNext(); ) {
+        long access = i.next().getLastAccess();
+        if (access < threshold || access == threshold && ties-- > 0) {
+          i.remove();
+        }
+      }
+    }
+    return before - sessions.size();
+  }
+
+  /**
+   * Saves all the live Sessions to a file.
+   * The file is replaced atomically, so that a crash never leaves a partial snapshot.
+   * @param  path
+   *         the path of the snapshot file
+   * @throws IOException if the file cannot be written
+   */
+  public void snapshot(Path path) throws IOException {
+    Gson gson = new Gson();
+    long now = System.currentTimeMillis();
+    Path parent = path.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+    try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+      for (Session session : sessions.values()) {
+        if (now - session.getLastAccess() <= ttl) {
+          out.write(gson.toJson(new Snapshot(session)));
+          out.newLine();
+        }
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Restores the Sessions saved to a file, skipping the expired ones.
+   * Sessions already in the store are kept.
+   * @param  path
+   *         the path of the snapshot file
+   * @return  the number of restored Sessions
+   * @throws IOException if the file cannot be read
+   */
+  public int restore(Path path) throws IOException {
+    Gson gson = new Gson();
+    long now = System.currentTimeMillis();
+    int restored = 0;
+    try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        Snapshot snapshot = gson.fromJson(line, Snapshot.class);
+        if (snapshot == null || snapshot.id == null || now - snapshot.lastAccess > ttl) {
+          continue;
+        }
+        Session session = new Session(snapshot.id, snapshot.lastAccess);
+        session.restore(snapshot.scope);
+        if (sessions.putIfAbsent(snapshot.id, session) == null) {
+          restored++;
+        }
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Starts evicting the expired Sessions periodically and, if a path is given, saving a snapshot.
+   * Does nothing if the maintenance has already been started.
+   * @param  period
+   *         the period of the maintenance, in milliseconds
+   * @param  path
+   *         the path of the snapshot file. Can be null.
+   */
+  public synchronized void startMaintenance(long period, Path path) {
+    if (maintenance != null) {
+      return;
+    }
+    maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "curiosone-sessions");
+      t.setDaemon(true);
+      return t;
+    });
+    maintenance.scheduleWithFixedDelay(() -> {
+      eviction.lock();
+      try {
+        evict(System.currentTimeMillis());
+      } finally {
+        eviction.unlock();
+      }
+      if (path != null) {
+        try {
+          snapshot(path);
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    }, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Represents a saved Session.
+   */
+  private static class Snapshot {
+
+    /**
+     * The ID of the conversation.
+     */
+    private String id;
+
+    /**
+     * The current scope.
+     */
+    private String scope;
+
+    /**
+     * The last time the Session has been used, in milliseconds.
+     */
+    private long lastAccess;
+
+    /**
+     * Constructs the Snapshot of a Session.
+     * @param  session
+     *         the saved Session
+     */
+    private Snapshot(Session session) {
+      this.id = session.getId();
+      this.scope = session.getScope();
+      this.lastAccess = session.getLastAccess();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.github.bot.curiosone.core.util.Deadline;
+
+import java.util.List;
+
+/**
+ * Represents a stage of the Pipeline that answers a Phrase.
+ * A stage receives the values of its declared inputs and produces the value of its output.
+ * Stages must be thread-safe, since the stages of a level run concurrently.
+ * @see  com.github.bot.curiosone.core.workflow.Pipeline The Pipeline Class
+ * @see  com.github.bot.curiosone.core.workflow.Stages The Stages Class
+ */
+@FunctionalInterface
+public interface Stage {
+
+  /**
+   * Runs this stage.
+   * @param  inputs
+   *         the values of the inputs, in the declared order
+   * @param  deadline
+   *         the latency budget of the request
+   * @return  the value of the output. Empty values (null, empty Optionals, Collections and
+   *          Strings) let the short-circuit rules know that the stage found nothing.
+   * @throws com.github.bot.curiosone.core.util.DeadlineExceededException if the budget runs out
+   */
+  Object run(List<Object> inputs, Deadline deadline);
+}
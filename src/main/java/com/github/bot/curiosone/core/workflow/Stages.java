@@ -0,0 +1,86 @@
+package com.github.bot.curiosone.core.workflow;
+
+import com.github.bot.curiosone.core.analysis.TokenScorer;
+import com.github.bot.curiosone.core.extraction.Brain;
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Sentence;
+import com.github.bot.curiosone.core.nlp.Token;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers the Stages that can be used by a Pipeline.
+ * Each Stage is registered under a type name, which the configuration of the Pipeline refers to.
+ * The built-in types are:
+ * <ul>
+ * <li>{@code emotion}: Phrase &rarr; the sum and the count of the non-neutral Token scores</li>
+ * <li>{@code conversate}: Phrase &rarr; the conversational answer, if any</li>
+ * <li>{@code parse}: Analysis &rarr; the Sentences of the Phrase</li>
+ * <li>{@code compute}: Sentences, scope &rarr; the answer to the most relevant Sentence</li>
+ * <li>{@code random}: Phrase &rarr; a random answer</li>
+ * </ul>
+ * @see  com.github.bot.curiosone.core.workflow.Stage The Stage Interface
+ * @see  com.github.bot.curiosone.core.workflow.Pipeline The Pipeline Class
+ */
+public class Stages {
+
+  /**
+   * Maps each type name to its Stage.
+   */
+  private static final Map<String, Stage> registry = new ConcurrentHashMap<>();
+
+  static {
+    register("emotion", (inputs, deadline) -> {
+      // Partial sums, so that the scores of the Phrases can be pooled as if they were one.
+      double[] score = new double[2];
+      for (Token token : ((Phrase) inputs.get(0)).getTokens()) {
+        double x = TokenScorer.calculateScore(token);
+        if (x != 0.0) {
+          score[0] += x;
+          score[1]++;
+        }
+      }
+      return score;
+    });
+    register("conversate", (inputs, deadline) -> Brain.conversate((Phrase) inputs.get(0)));
+    register("parse", (inputs, deadline) -> ((Analysis) inputs.get(0)).getSentences(deadline));
+    register("compute", (inputs, deadline) -> {
+      @SuppressWarnings("unchecked")
+      List<Sentence> sentences = (List<Sentence>) inputs.get(0);
+      // Sentences are sorted by relevance: we just use the first.
+      return sentences.isEmpty() ? Optional.empty()
+          : Brain.compute(sentences.get(0), (String) inputs.get(1), deadline);
+    });
+    register("random", (inputs, deadline) -> Brain.random((Phrase) inputs.get(0)));
+  }
+
+  /**
+   * Private constructor.
+   */
+  private Stages() {}
+
+  /**
+   * Registers a Stage under the given type name, replacing the previous one, if any.
+   * Pipelines already loaded keep the Stages they have been built with.
+   * @param  type
+   *         the type name of the Stage
+   * @param  stage
+   *         the Stage to be registered
+   */
+  public static void register(String type, Stage stage) {
+    registry.put(type, stage);
+  }
+
+  /**
+   * Gets the Stage registered under the given type name.
+   * @param  type
+   *         the type name of the Stage
+   * @return  an Optional containing the Stage, or an empty Optional if none is registered
+   */
+  public static Optional<Stage> get(String type) {
+    return Optional.ofNullable(registry.get(type));
+  }
+}
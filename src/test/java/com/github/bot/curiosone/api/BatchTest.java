@@ -0,0 +1,84 @@
+package com.github.bot.curiosone.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.bot.curiosone.core.workflow.Message;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class BatchTest {
+
+  private static String run(String input, String format, boolean ordered,
+                            Function<Message, Object> processor) throws IOException {
+    StringWriter out = new StringWriter();
+    Batch batch = new Batch(processor, 4, ordered);
+    batch.run(new BufferedReader(new StringReader(input)), format, "message", out);
+    return out.toString();
+  }
+
+  private static Object echo(Message msg) {
+    try {
+      TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(500));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return Collections.singletonMap("message", msg.getMessage() + "|" + msg.getScope());
+  }
+
+  @Test
+  public void testCsvFields() {
+    assertThat(Batch.csvFields("a,\"b,c\",\"d \"\"e\"\"\",")).containsExactly(
+        "a", "b,c", "d \"e\"", "");
+    assertThat(Batch.csvFields("")).containsExactly("");
+  }
+
+  @Test
+  public void testCsvRecord() throws IOException {
+    BufferedReader in = new BufferedReader(new StringReader("a,\"b\nc\"\nd\n"));
+    assertThat(Batch.csvRecord(in)).isEqualTo("a,\"b\nc\"");
+    assertThat(Batch.csvRecord(in)).isEqualTo("d");
+    assertThat(Batch.csvRecord(in)).isNull();
+  }
+
+  @Test
+  public void testOrdered() throws IOException {
+    StringBuilder input = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      input.append("hi ").append(i).append("\n\n");
+      expected.append("{\"message\":\"hi ").append(i).append("|\"}\n");
+    }
+    assertThat(run(input.toString(), "text", true, BatchTest::echo))
+        .isEqualTo(expected.toString());
+
+    String[] unordered = run(input.toString(), "text", false, BatchTest::echo).split("\n");
+    String[] lines = expected.toString().split("\n");
+    Arrays.sort(unordered);
+    Arrays.sort(lines);
+    assertThat(unordered).containsExactly(lines);
+  }
+
+  @Test
+  public void testFormats() throws IOException {
+    assertThat(run("{\"message\":\"hi\",\"scope\":\"a\"}\n", "jsonl", true, BatchTest::echo))
+        .isEqualTo("{\"message\":\"hi|a\"}\n");
+    assertThat(run("id,scope,message\n1,b,\"hi, \"\"you\"\"\"\n", "csv", true, BatchTest::echo))
+        .isEqualTo("{\"message\":\"hi, \\\"you\\\"|b\"}\n");
+    assertThat(run("not json\n", "jsonl", true, BatchTest::echo)).contains("\"error\"");
+    assertThatThrownBy(() -> run("id\n1\n", "csv", true, BatchTest::echo))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> run("hi\n", "xml", true, BatchTest::echo))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,137 @@
+package com.github.bot.curiosone.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class CaptureLogTest {
+
+  @Test
+  public void testRecordAndRead() throws IOException {
+    Path dir = Files.createTempDirectory("capture");
+    CaptureLog log = new CaptureLog(dir, 256);
+    for (int i = 0; i < 20; i++) {
+      log.record("{\"message\":\"hi " + i + "\"}", "{\"message\":\"Hello è " + i + "\"}");
+    }
+    log.close();
+    assertThat(log.getDropped()).isZero();
+
+    List<Path> files = CaptureLog.files(dir);
+    assertThat(files.size()).isGreaterThan(1);
+    List<CaptureLog.Record> records = new ArrayList<>();
+    for (Path file : files) {
+      CaptureLog.read(file, records::add);
+    }
+    assertThat(records).hasSize(20);
+    assertThat(records.get(0).getRequest()).isEqualTo("{\"message\":\"hi 0\"}");
+    assertThat(records.get(19).getResponse()).isEqualTo("{\"message\":\"Hello è 19\"}");
+    assertThat(records.get(19).getTimestamp())
+        .isGreaterThanOrEqualTo(records.get(0).getTimestamp());
+  }
+
+  @Test
+  public void testReplay() throws IOException {
+    Path dir = Files.createTempDirectory("capture");
+    CaptureLog log = new CaptureLog(dir, 1 << 20);
+    log.record("{\"message\":\"a\"}", "{\"message\":\"A\",\"scope\":\"\",\"emotion\":\"happy\"}");
+    log.record("{\"message\":\"b\"}", "{\"message\":\"B\",\"scope\":\"\",\"emotion\":\"happy\"}");
+    log.close();
+
+    Replay replay = new Replay(
+        body -> "{\"message\":\"A\",\"scope\":\"\",\"emotion\":\"happy\",\"skipped\":\"parse\"}",
+        0, 2, 10);
+    String report = replay.run(CaptureLog.files(dir));
+    assertThat(report).contains("requests   2 (0 errors)").contains("diffs      1");
+  }
+
+  @Test
+  public void testFailedWrite() throws IOException, InterruptedException {
+    Path dir = Files.createTempDirectory("capture");
+    CaptureLog log = new CaptureLog(dir, 1 << 20);
+    Files.delete(dir);
+    for (int i = 0; i < 3; i++) {
+      log.record("{\"message\":\"lost\"}", "{}");
+    }
+    for (int i = 0; i < 100 && log.getDropped() < 3; i++) {
+      TimeUnit.MILLISECONDS.sleep(20);
+    }
+    assertThat(log.getDropped()).isEqualTo(3L);
+
+    Files.createDirectories(dir);
+    log.record("{\"message\":\"a\"}", "{}");
+    log.record("{\"message\":\"b\"}", "{}");
+    log.close();
+    assertThat(log.getDropped()).isEqualTo(3L);
+    List<CaptureLog.Record> records = new ArrayList<>();
+    for (Path file : CaptureLog.files(dir)) {
+      CaptureLog.read(file, records::add);
+    }
+    assertThat(records).hasSize(2);
+    assertThat(records.get(1).getRequest()).isEqualTo("{\"message\":\"b\"}");
+  }
+
+  @Test
+  public void testReceivedTimestamp() throws IOException {
+    Path dir = Files.createTempDirectory("capture");
+    CaptureLog log = new CaptureLog(dir, 1 << 20);
+    log.record(2000, "{\"message\":\"b\"}", "{\"message\":\"B\"}");
+    log.record(1000, "{\"message\":\"a\"}", "{\"message\":\"A\"}");
+    log.close();
+
+    List<CaptureLog.Record> records = new ArrayList<>();
+    for (Path file : CaptureLog.files(dir)) {
+      CaptureLog.read(file, records::add);
+    }
+    assertThat(records).hasSize(2);
+    assertThat(records.get(0).getTimestamp()).isEqualTo(2000L);
+    assertThat(records.get(1).getTimestamp()).isEqualTo(1000L);
+  }
+
+  @Test
+  public void testReplayConversationOrder() throws IOException {
+    Path dir = Files.createTempDirectory("capture");
+    CaptureLog log = new CaptureLog(dir, 1 << 20);
+    for (int i = 0; i < 30; i++) {
+      log.record("{\"message\":\"" + i + "\",\"conversation\":\"c\"}", "{}");
+      log.record("{\"message\":\"x\"}", "{}");
+    }
+    log.close();
+
+    List<String> turns = Collections.synchronizedList(new ArrayList<>());
+    Replay replay = new Replay(body -> {
+      if (body.contains("\"c\"")) {
+        try {
+          // The first turns are the slowest: a concurrent replay would reorder them.
+          TimeUnit.MILLISECONDS.sleep(body.contains("\"0\"") ? 50 : 1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        turns.add(Replay.conversation(body) + body.replaceAll("\\D", ""));
+      }
+      return "{}";
+    }, 0, 4, 10);
+    String report = replay.run(CaptureLog.files(dir));
+    assertThat(report).contains("requests   60 (0 errors)");
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      expected.add("c" + i);
+    }
+    assertThat(turns).isEqualTo(expected);
+  }
+
+  @Test
+  public void testSame() {
+    assertThat(Replay.same("{\"message\":\"A\",\"scope\":\"x\"}",
+        "{\"message\":\"A\",\"scope\":\"x\",\"skipped\":\"parse\"}")).isTrue();
+    assertThat(Replay.same("{\"message\":\"A\"}", "{\"message\":\"B\"}")).isFalse();
+    assertThat(Replay.same("not json", "not json")).isTrue();
+  }
+}
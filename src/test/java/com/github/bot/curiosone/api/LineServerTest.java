@@ -0,0 +1,72 @@
+package com.github.bot.curiosone.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.workflow.Message;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class LineServerTest {
+
+  @Test
+  public void testEscape() {
+    assertThat(LineServer.escape("hello")).isEqualTo("hello");
+    assertThat(LineServer.escape("a\tb\nc\\d\re")).isEqualTo("a\\tb\\nc\\\\d\\re");
+  }
+
+  @Test
+  public void testSplit() {
+    assertThat(LineServer.split("hello")).containsExactly("hello");
+    assertThat(LineServer.split("hello\tscope")).containsExactly("hello", "scope");
+    assertThat(LineServer.split("a\\tb\\nc\\\\d\t")).containsExactly("a\tb\nc\\d", "");
+    assertThat(LineServer.split(LineServer.escape("x\t\\t\ny"))).containsExactly("x\t\\t\ny");
+  }
+
+  @Test
+  public void testDecode() {
+    assertThat(LineServer.decode("What is a dog?\tdog"))
+        .isEqualTo(new Message("What is a dog?", "dog", ""));
+    assertThat(LineServer.decode("hi")).isEqualTo(new Message("hi", "", ""));
+  }
+
+  @Test
+  public void testEncode() {
+    assertThat(LineServer.encode(new Message("A dog\tis\nan animal", "dog", "happy")))
+        .isEqualTo("A dog\\tis\\nan animal\tdog\thappy\n");
+  }
+
+  @Test
+  public void testPipelining() throws Exception {
+    try (LineServer server = new LineServer(0, 4)) {
+      server.start();
+      try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+        OutputStream out = socket.getOutputStream();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+          sb.append(i % 2 == 0 ? "\n" : "How old are you?\n");
+        }
+        out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        socket.shutdownOutput();
+
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        for (int i = 0; i < 100; i++) {
+          String line = in.readLine();
+          assertThat(line).isNotNull();
+          assertThat(LineServer.split(line)).hasSize(3);
+          if (i % 2 == 0) {
+            assertThat(line).startsWith("Sorry my head hurts, what were we talking about?");
+          }
+        }
+        assertThat(in.readLine()).isNull();
+      }
+    }
+  }
+}
@@ -83,6 +83,37 @@ public class MainTest {
     Map<String, String> json = res.json();
     assertThat(res.status).isEqualTo(200);
     assertThat(json.get("status")).isEqualTo("ok");
+    assertThat(json.get("readiness")).isIn("warming", "ready");
+  }
+
+  /**
+   * Test GET request on /ready path once the warm-up has finished.
+   * @result The request will be replied with the ready state and status code 200.
+   */
+  @Test
+  public void testReadyGetRequest() throws Exception {
+    Warmup.start().get();
+    TestResponse res = request("GET", "/ready").get();
+    Map<String, String> json = res.json();
+    assertThat(res.status).isEqualTo(200);
+    assertThat(json.get("readiness")).isEqualTo("ready");
+    assertThat(Warmup.getLoadTimes())
+        .containsKeys("wordnet", "grammar", "conversation", "bad_words", "sentiment", "jit");
+  }
+
+  /**
+   * Test GET request on /metrics path.
+   * @result The request will be replied with the Prometheus text format.
+   */
+  @Test
+  public void testMetricsGetRequest() {
+    request("POST", "/talk", "{message: \"Hello\", scope: \"\", emotion: \"\"}").get();
+    TestResponse res = request("GET", "/metrics").get();
+    assertThat(res.status).isEqualTo(200);
+    assertThat(res.body)
+        .contains("# TYPE curiosone_talk_stage_seconds summary")
+        .contains("curiosone_talk_stage_seconds_count{stage=\"extract\"}")
+        .contains("curiosone_talk_answers_total{branch=\"conversation\"}");
   }
 
   /**
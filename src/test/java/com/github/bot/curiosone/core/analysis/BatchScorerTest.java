@@ -0,0 +1,71 @@
+package com.github.bot.curiosone.core.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.github.bot.curiosone.core.nlp.Phrase;
+import com.github.bot.curiosone.core.nlp.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BatchScorerTest {
+
+  @Test
+  public void testSameAsTokenScorer() {
+    List<List<Token>> phrases = new ArrayList<>();
+    for (String text : Arrays.asList("I am happy", "The cat is on the car and the dog is on the",
+        "Watch your mouth! Speak politely!", "None should be emotionally upset", "hello")) {
+      phrases.add(Token.tokenize(text));
+    }
+    BatchScorer.Scores scores = new BatchScorer().scoreTokens(phrases);
+    assertThat(scores.size()).isEqualTo(phrases.size());
+    for (int p = 0; p < phrases.size(); p++) {
+      double expected = TokenScorer.calculateScore(phrases.get(p));
+      assertThat(scores.getScore(p)).isCloseTo(expected, within(1e-12));
+      assertThat(scores.getEmotion(p)).isEqualTo(EmotionAnalysis.getEmotion(expected));
+      assertThat(scores.getPositive(p) + scores.getNegative(p) + scores.getNeutral(p))
+          .isEqualTo(phrases.get(p).size());
+      assertThat(scores.getIntensity(p)).isGreaterThanOrEqualTo(Math.abs(scores.getScore(p)));
+      assertThat(scores.getMin(p)).isLessThanOrEqualTo(scores.getMax(p));
+    }
+  }
+
+  @Test
+  public void testPhrases() {
+    List<Phrase> phrases = Phrase.extract("I am happy. I am sad.");
+    BatchScorer.Scores scores = new BatchScorer().score(phrases);
+    assertThat(scores.size()).isEqualTo(2);
+    assertThat(scores.getScore(0)).isPositive();
+    assertThat(scores.getPositive(0)).isPositive();
+    assertThat(scores.getMax(0)).isPositive();
+  }
+
+  @Test
+  public void testNegation() {
+    List<List<Token>> phrases = Arrays.asList(
+        Token.tokenize("I am happy"), Token.tokenize("I am not happy"));
+    BatchScorer.Scores scores = new BatchScorer().scoreTokens(phrases);
+    assertThat(scores.getScore(0)).isPositive();
+    assertThat(scores.getNegatedScore(0)).isEqualTo(scores.getScore(0));
+    assertThat(scores.getNegatedScore(1)).isNegative();
+
+    scores = new BatchScorer(0).scoreTokens(phrases);
+    assertThat(scores.getNegatedScore(1)).isPositive();
+  }
+
+  @Test
+  public void testEmpty() {
+    BatchScorer.Scores scores = new BatchScorer().scoreTokens(
+        Arrays.asList(Collections.emptyList(), Collections.emptyList()));
+    assertThat(scores.size()).isEqualTo(2);
+    assertThat(scores.getScore(1)).isZero();
+    assertThat(scores.getIntensity(1)).isZero();
+    assertThat(scores.getNeutral(1)).isZero();
+    assertThat(new BatchScorer().score(Collections.emptyList()).size()).isZero();
+  }
+}
@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.bot.curiosone.core.nlp.Phrase;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 public class EmotionAnalysisTest {
@@ -35,4 +37,14 @@ public class EmotionAnalysisTest {
     p = new Phrase("Do not eat that pizza...");
     assertThat(getEmotion(p)).isEqualTo("sad");
   }
+
+  @Test
+  public void testGetEmotionOfPhrases() {
+    assertThat(getEmotion(Arrays.asList(new Phrase("Today, I am very happy!"))))
+        .isEqualTo("happy");
+    assertThat(getEmotion(Arrays.asList(new Phrase("hate the extant bad"))))
+        .isEqualTo("angry");
+    assertThat(getEmotion(Phrase.extract("hate the extant bad. Do not eat that pizza...")))
+        .isIn("angry", "sad");
+  }
 }
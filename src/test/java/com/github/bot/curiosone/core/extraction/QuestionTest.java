@@ -39,4 +39,28 @@ public class QuestionTest {
     s = Sentence.extract(new Phrase("When is Gogol?")).get(0);
     assertThat(Question.getAnswer(s, "")).isNotPresent();
   }
+
+  @Test
+  public void testGetKindAnswer() throws IOException {
+    SemanticNetwork sn = SemanticNetwork.getInstance();
+    sn.learn("qwertyuiop", SemanticRelationType.IS_A, "keyboard");
+    sn.learn("keyboard", SemanticRelationType.IS_A, "device");
+
+    Sentence s = Sentence.extract(new Phrase("Is a qwertyuiop a device?")).get(0);
+    assertThat(Question.getAnswer(s, "").get().getMessage()).startsWith("Yes!");
+
+    s = Sentence.extract(new Phrase("Is a device a qwertyuiop?")).get(0);
+    assertThat(Question.getAnswer(s, "").get().getScope()).isEqualTo("device?");
+  }
+
+  @Test
+  public void testNotKindQuestions() {
+    for (String text : new String[] {"Is it raining?", "Are you happy?", "Is the dog barking?",
+        "Is a dog a cat a pet?", "Are dogs happy animals?"}) {
+      for (Sentence s : Sentence.extract(new Phrase(text))) {
+        Question.getAnswer(s, "").ifPresent(answer ->
+            assertThat(answer.getMessage()).as(text).doesNotContain("kind of"));
+      }
+    }
+  }
 }
@@ -0,0 +1,54 @@
+package com.github.bot.curiosone.core.extraction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RandomnessTest {
+
+  @After
+  public void tearDown() {
+    Randomness.clearSeed();
+  }
+
+  @Test
+  public void testBounds() {
+    Set<Integer> seen = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      int x = Randomness.nextInt("hello", 3);
+      assertThat(x).isBetween(0, 2);
+      seen.add(x);
+    }
+    assertThat(seen).containsExactlyInAnyOrder(0, 1, 2);
+    assertThatThrownBy(() -> Randomness.nextInt("hello", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testSeeded() {
+    assertThat(Randomness.isSeeded()).isFalse();
+    Randomness.setSeed(42);
+    assertThat(Randomness.isSeeded()).isTrue();
+    int x = Randomness.nextInt("hello", 1000);
+    for (int i = 0; i < 100; i++) {
+      assertThat(Randomness.nextInt("hello", 1000)).isEqualTo(x);
+    }
+    assertThat(CompletableFuture.supplyAsync(() -> Randomness.nextInt("hello", 1000)).join())
+        .isEqualTo(x);
+
+    Set<Integer> seen = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      seen.add(Randomness.nextInt("hello " + i, 1000));
+    }
+    assertThat(seen.size()).isGreaterThan(1);
+
+    Randomness.clearSeed();
+    assertThat(Randomness.isSeeded()).isFalse();
+  }
+}
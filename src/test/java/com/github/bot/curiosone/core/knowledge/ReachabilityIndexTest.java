@@ -0,0 +1,139 @@
+package com.github.bot.curiosone.core.knowledge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.knowledge.interfaces.Edge;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ReachabilityIndexTest {
+
+  private static Edge edge(String source, SemanticRelationType type, String target) {
+    return new SemanticRelation(new Concept(source), new Concept(target), type, 1);
+  }
+
+  private static Edge isA(String source, String target) {
+    return edge(source, SemanticRelationType.IS_A, target);
+  }
+
+  private static boolean reaches(List<Edge> edges, String from, String to) {
+    Set<String> visited = new HashSet<>(Collections.singleton(from));
+    Deque<String> queue = new ArrayDeque<>(visited);
+    while (!queue.isEmpty()) {
+      String n = queue.poll();
+      if (n.equals(to)) {
+        return true;
+      }
+      for (Edge e : edges) {
+        if (ReachabilityIndex.isHierarchy(e.getType()) && e.getSource().getId().equals(n)
+            && visited.add(e.getTarget().getId())) {
+          queue.add(e.getTarget().getId());
+        }
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void testTree() {
+    ReachabilityIndex index = new ReachabilityIndex(Arrays.asList(isA("poodle", "dog"),
+        edge("dog", SemanticRelationType.HYPERNYM, "canine"), isA("canine", "animal"),
+        isA("cat", "animal"), edge("dog", SemanticRelationType.REGION, "house")));
+    assertThat(index.isA(new Concept("poodle"), new Concept("animal"))).isTrue();
+    assertThat(index.isA(new Concept("poodle"), new Concept("poodle"))).isTrue();
+    assertThat(index.isA(new Concept("animal"), new Concept("poodle"))).isFalse();
+    assertThat(index.isA(new Concept("cat"), new Concept("dog"))).isFalse();
+    assertThat(index.isA(new Concept("dog"), new Concept("house"))).isFalse();
+    assertThat(index.isA(new Concept("unicorn"), new Concept("animal"))).isFalse();
+    assertThat(index.isA(new Concept("Poodle"), new Concept("ANIMAL"))).isTrue();
+  }
+
+  @Test
+  public void testSeveralParents() {
+    ReachabilityIndex index = new ReachabilityIndex(Arrays.asList(isA("dog", "animal"),
+        isA("dog", "pet"), isA("pet", "companion"), isA("cat", "pet")));
+    assertThat(index.isA(new Concept("dog"), new Concept("companion"))).isTrue();
+    assertThat(index.isA(new Concept("cat"), new Concept("companion"))).isTrue();
+    assertThat(index.isA(new Concept("cat"), new Concept("animal"))).isFalse();
+  }
+
+  @Test
+  public void testAdd() {
+    ReachabilityIndex index = new ReachabilityIndex(Arrays.asList(isA("poodle", "dog")));
+    assertThat(index.isA(new Concept("poodle"), new Concept("animal"))).isFalse();
+    index.add(isA("dog", "animal"));
+    assertThat(index.isA(new Concept("poodle"), new Concept("animal"))).isTrue();
+    index.add(isA("toy poodle", "poodle"));
+    index.add(isA("animal", "organism"));
+    assertThat(index.isA(new Concept("toy poodle"), new Concept("organism"))).isTrue();
+    index.add(isA("organism", "poodle"));
+    assertThat(index.isA(new Concept("animal"), new Concept("toy poodle"))).isFalse();
+    assertThat(index.isA(new Concept("animal"), new Concept("dog"))).isTrue();
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(42);
+    for (int round = 0; round < 20; round++) {
+      int size = 5 + random.nextInt(40);
+      List<Edge> edges = new ArrayList<>();
+      for (int i = 0; i < size * 3 / 2; i++) {
+        int source = random.nextInt(size);
+        // Mostly downward, as in a hierarchy, with some cycles.
+        int target = random.nextInt(10) == 0 ? random.nextInt(size) : random.nextInt(source + 1);
+        edges.add(isA("c" + source, "c" + target));
+      }
+      int initial = edges.size() / 2;
+      ReachabilityIndex index = new ReachabilityIndex(edges.subList(0, initial));
+      for (Edge e : edges.subList(initial, edges.size())) {
+        index.add(e);
+      }
+      for (int a = 0; a < size; a++) {
+        for (int b = 0; b < size; b++) {
+          assertThat(index.isA(new Concept("c" + a), new Concept("c" + b)))
+              .as("c%d IS_A c%d", a, b).isEqualTo(reaches(edges, "c" + a, "c" + b));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSemanticNetwork() throws IOException {
+    Path path = Files.createTempFile("network", ".txt");
+    try {
+      Files.write(path, "cat,IS_A,animal,1".getBytes(StandardCharsets.UTF_8));
+      SemanticNetwork sn = new SemanticNetwork(path, Arrays.asList(isA("poodle", "dog"),
+          edge("dog", SemanticRelationType.HYPERNYM, "domestic_animal")));
+      assertThat(sn.isA("poodle", "domestic animal")).isTrue();
+      assertThat(sn.isA("poodle", "animal")).isFalse();
+      sn.learn("domestic  animal ", SemanticRelationType.IS_A, "Animal");
+      assertThat(sn.isA("poodle", "animal")).isTrue();
+      assertThat(sn.exist("domestic animal", SemanticRelationType.IS_A, "Animal")).isTrue();
+      assertThat(sn.isA("animal", "poodle")).isFalse();
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testMerge() {
+    assertThat(ReachabilityIndex.merge(new int[] {0, 2, 8, 9}, new int[] {3, 4, 6, 6}))
+        .containsExactly(0, 4, 6, 6, 8, 9);
+    assertThat(ReachabilityIndex.contains(new int[] {0, 4, 6, 6, 8, 9}, 5)).isFalse();
+    assertThat(ReachabilityIndex.contains(new int[] {0, 4, 6, 6, 8, 9}, 6)).isTrue();
+  }
+}
@@ -237,4 +237,13 @@ public class SemanticRelationTest {
     assertThat(sr).isNotEqualTo(srr);
     assertThat(sr.hashCode()).isNotEqualTo(srr.hashCode());
   }
+
+  @Test
+  public void testNotEqualsAnagrams() {
+    SemanticRelation sr = new SemanticRelation(new Concept("dog"), new Concept("animal"),
+        SemanticRelationType.IS_A);
+    SemanticRelation srr = new SemanticRelation(new Concept("god"), new Concept("animal"),
+        SemanticRelationType.IS_A);
+    assertThat(sr).isNotEqualTo(srr);
+  }
 }
@@ -0,0 +1,83 @@
+package com.github.bot.curiosone.core.knowledge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class WordNetImporterTest {
+
+  private static Path dict() throws IOException {
+    Path dict = Files.createTempDirectory("dict");
+    Files.write(dict.resolve("data.verb"), Arrays.asList(
+        "  1 This software and database is being provided to you",
+        "00000010 29 v 02 breathe 0 respire 0 002 * 00000020 v 0000 @ 00000030 v 0000 | gloss",
+        "00000020 29 v 01 inhale 0 000 | gloss",
+        "00000030 29 v 01 live 0 001 + 00000040 n 0101 | gloss"), StandardCharsets.UTF_8);
+    Files.write(dict.resolve("data.adj"), Arrays.asList(
+        "00000010 00 a 01 big(a) 0 001 & 00000020 a 0000 | gloss",
+        "00000020 00 s 01 Large 0 002 & 00000010 a 0000 ! 00000030 a 0101 | gloss"),
+        StandardCharsets.UTF_8);
+    return dict;
+  }
+
+  private static void delete(Path dir) throws IOException {
+    for (Path file : Files.list(dir).toArray(Path[]::new)) {
+      Files.delete(file);
+    }
+    Files.delete(dir);
+  }
+
+  private static List<String> ids(List<SemanticRelation> relations) {
+    List<String> ids = new ArrayList<>();
+    for (SemanticRelation relation : relations) {
+      ids.add(relation.getSource() + "," + relation.getType() + "," + relation.getTarget());
+    }
+    return ids;
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    Path dict = dict();
+    try {
+      List<SemanticRelation> relations = WordNetImporter.read(dict, 2);
+      assertThat(ids(relations)).containsExactly("breathe,ENTAILMENT,inhale",
+          "breathe,HYPERNYM,live", "big,SIMILAR_TO,large", "large,SIMILAR_TO,big");
+      assertThat(relations.get(0).getWeight()).isEqualTo(1);
+      assertThat(relations.get(2).getTarget()).isSameAs(relations.get(3).getSource());
+    } finally {
+      delete(dict);
+    }
+  }
+
+  @Test
+  public void testImportTo() throws IOException {
+    Path dict = dict();
+    Path network = dict.resolve("network.txt");
+    try {
+      Files.write(network, Arrays.asList("breathe,HYPERNYM,live,7", "", "cat,IS_A,animal,1"),
+          StandardCharsets.UTF_8);
+      SemanticNetwork sn = WordNetImporter.importTo(dict, network, 1);
+      assertThat(Files.readAllLines(network, StandardCharsets.UTF_8)).containsExactly(
+          "breathe,HYPERNYM,live,7", "cat,IS_A,animal,1", "breathe,ENTAILMENT,inhale,1",
+          "big,SIMILAR_TO,large,1", "large,SIMILAR_TO,big,1");
+      assertThat(sn.exist("breathe", SemanticRelationType.ENTAILMENT, "inhale")).isTrue();
+      assertThat(sn.exist("cat", SemanticRelationType.IS_A, "animal")).isTrue();
+      assertThat(sn).isEqualTo(new SemanticNetwork(network));
+    } finally {
+      delete(dict);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() throws IOException {
+    WordNetImporter.read(Files.createTempDirectory("dict"), 0);
+  }
+}
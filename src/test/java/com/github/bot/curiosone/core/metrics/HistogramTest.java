@@ -0,0 +1,57 @@
+package com.github.bot.curiosone.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void testBuckets() {
+    for (long v = 0; v < 100_000; v++) {
+      int idx = Histogram.indexOf(v);
+      assertThat(Histogram.lowerBoundOf(idx)).isLessThanOrEqualTo(v);
+      assertThat(Histogram.upperBoundOf(idx)).isGreaterThanOrEqualTo(v);
+    }
+    assertThat(Histogram.indexOf(Long.MAX_VALUE)).isEqualTo(Histogram.indexOf(Long.MAX_VALUE - 1));
+    assertThat(Histogram.upperBoundOf(Histogram.indexOf(Long.MAX_VALUE)))
+        .isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testRecord() {
+    Histogram h = new Histogram();
+    assertThat(h.getCount()).isZero();
+    assertThat(h.getValueAtQuantile(0.5)).isZero();
+
+    h.record(10);
+    h.record(20);
+    h.record(-5);
+    assertThat(h.getCount()).isEqualTo(3);
+    assertThat(h.getSum()).isEqualTo(30);
+    assertThat(h.getMax()).isEqualTo(20);
+  }
+
+  @Test
+  public void testValueAtQuantile() {
+    Histogram h = new Histogram();
+    for (long v = 1; v <= 1000; v++) {
+      h.record(v * 1000);
+    }
+    assertThat(h.getValueAtQuantile(0.5)).isBetween(500_000L, 562_500L);
+    assertThat(h.getValueAtQuantile(0.99)).isBetween(990_000L, 1_000_000L);
+    assertThat(h.getValueAtQuantile(1.0)).isEqualTo(1_000_000L);
+    assertThat(h.getValueAtQuantile(0.0)).isBetween(1000L, 1125L);
+  }
+
+  @Test
+  public void testValueAtQuantileIllegalArgumentException() {
+    Histogram h = new Histogram();
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> h.getValueAtQuantile(1.5))
+        .withMessage("Quantile must be between 0 and 1");
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> h.getValueAtQuantile(-0.1));
+  }
+}
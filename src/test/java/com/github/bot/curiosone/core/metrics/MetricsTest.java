@@ -0,0 +1,31 @@
+package com.github.bot.curiosone.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+  @Test
+  public void testHistogram() {
+    Histogram h = Metrics.histogram("test_latency_seconds", "Test.", "stage", "a");
+    assertThat(Metrics.histogram("test_latency_seconds", "Test.", "stage", "a")).isSameAs(h);
+    assertThat(Metrics.histogram("test_latency_seconds", "Test.", "stage", "b")).isNotSameAs(h);
+  }
+
+  @Test
+  public void testScrape() {
+    Metrics.histogram("test_scrape_seconds", "Scrape test.", "stage", "x").record(2_000_000_000L);
+    Metrics.counter("test_scrape_total", "Scrape counter.", "branch", "y").add(3);
+
+    String text = Metrics.scrape();
+    assertThat(text)
+        .contains("# HELP test_scrape_seconds Scrape test.\n")
+        .contains("# TYPE test_scrape_seconds summary\n")
+        .contains("test_scrape_seconds_sum{stage=\"x\"} 2.0\n")
+        .contains("test_scrape_seconds_count{stage=\"x\"} 1\n")
+        .contains("test_scrape_seconds{stage=\"x\",quantile=\"0.5\"} 2.0\n")
+        .contains("# TYPE test_scrape_total counter\n")
+        .contains("test_scrape_total{branch=\"y\"} 3\n");
+  }
+}
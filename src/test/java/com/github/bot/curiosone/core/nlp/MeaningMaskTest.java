@@ -0,0 +1,67 @@
+package com.github.bot.curiosone.core.nlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class MeaningMaskTest {
+
+  private static Meaning meaning(POS pos, LEX lex, int frequency) {
+    Meaning m = new Meaning(pos, lex);
+    m.setFrequency(frequency);
+    return m;
+  }
+
+  @Test
+  public void testHas() {
+    LEX last = LEX.values()[LEX.values().length - 1];
+    MeaningMask mask = MeaningMask.of(Arrays.asList(
+        meaning(POS.N, LEX.OBJECT, 0), meaning(POS.V, last, 0)));
+    assertThat(mask.has(POS.N)).isTrue();
+    assertThat(mask.has(POS.V)).isTrue();
+    assertThat(mask.has(POS.ADJ)).isFalse();
+    assertThat(mask.has(LEX.OBJECT)).isTrue();
+    assertThat(mask.has(last)).isTrue();
+    assertThat(mask.has(LEX.values()[last.ordinal() - 1])).isFalse();
+    assertThat(mask.has((POS) null)).isFalse();
+  }
+
+  @Test
+  public void testEveryValue() {
+    for (POS pos : POS.values()) {
+      for (LEX lex : LEX.values()) {
+        MeaningMask mask = MeaningMask.of(Collections.singleton(new Meaning(pos, lex)));
+        for (POS other : POS.values()) {
+          assertThat(mask.has(other)).isEqualTo(other == pos);
+        }
+        for (LEX other : LEX.values()) {
+          assertThat(mask.has(other)).isEqualTo(other == lex);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDominant() {
+    Meaning first = meaning(POS.V, LEX.MOTION, 7);
+    Set<Meaning> means = new LinkedHashSet<>(Arrays.asList(
+        meaning(POS.N, LEX.ACT, 3), first, meaning(POS.N, LEX.TIME, 7)));
+    assertThat(MeaningMask.of(means).getDominant()).isSameAs(first);
+    assertThat(MeaningMask.of(Collections.emptySet()).getDominant()).isNull();
+  }
+
+  @Test
+  public void testWord() {
+    Word w = new Word("run", "run", new LinkedHashSet<>(Arrays.asList(
+        meaning(POS.V, LEX.MOTION, 5), meaning(POS.N, LEX.ACT, 1))));
+    assertThat(w.itMeans(POS.V)).isTrue();
+    assertThat(w.itMeans(POS.ADJ)).isFalse();
+    assertThat(w.itMeans(LEX.ACT)).isTrue();
+    assertThat(w.itMeans(LEX.FOOD)).isFalse();
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.bot.curiosone.core.nlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.util.Interval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class PatternMatcherTest {
+
+  private static final PatternMatcher QUESTIONS = PatternMatcher.compile(
+      "kind=PRON verb=V object=NP.N$",
+      "kind=ADV verb=V object=NP.N$",
+      "{kind=PRON verb=V object=N$}");
+
+  // "who is the red car": PRON V DET ADJ N
+  private static final List<Word> WORDS = Arrays.asList(
+      new Word("who", "who", new Meaning(POS.PRON, LEX.INTERROGATIVE)),
+      new Word("is", "be", new Meaning(POS.V, LEX.STATIVE)),
+      new Word("the", "the", new Meaning(POS.DET, LEX.DEFINITE_ARTICLE)),
+      new Word("red", "red", new Meaning(POS.ADJ, LEX.ALL)),
+      new Word("car", "car", new Meaning(POS.N, LEX.ARTIFACT)));
+
+  private static SpanIndex spans(Object... entries) {
+    Map<POS, Collection<Interval>> lookup = new HashMap<>();
+    for (int i = 0; i < entries.length; i += 3) {
+      lookup.computeIfAbsent((POS) entries[i], p -> new ArrayList<>())
+          .add(new Interval((int) entries[i + 1], (int) entries[i + 2]));
+    }
+    return SpanIndex.of(lookup);
+  }
+
+  @Test
+  public void testOrdered() {
+    SpanIndex spans = spans(POS.PRON, 0, 0, POS.V, 1, 1, POS.DET, 2, 2, POS.ADJ, 3, 3,
+        POS.N, 4, 4, POS.NP, 2, 4, POS.NP, 4, 4, POS.VP, 1, 4, POS.S, 0, 4);
+    Optional<PatternMatcher.Match> match = QUESTIONS.match(WORDS, spans);
+    assertThat(match.isPresent()).isTrue();
+    assertThat(match.get().getPattern()).isEqualTo(0);
+    assertThat(match.get().get("kind").getText()).isEqualTo("who");
+    assertThat(match.get().get("verb").getText()).isEqualTo("is");
+    assertThat(match.get().get("object").getText()).isEqualTo("car");
+    assertThat(match.get().getCaptures().keySet().toString()).isEqualTo("[kind, verb, object]");
+  }
+
+  @Test
+  public void testFallback() {
+    // The NP does not follow the verb, so only the unordered pattern matches.
+    SpanIndex spans = spans(POS.PRON, 0, 0, POS.V, 1, 1, POS.N, 4, 4, POS.NP, 3, 4);
+    Optional<PatternMatcher.Match> match = QUESTIONS.match(WORDS, spans);
+    assertThat(match.isPresent()).isTrue();
+    assertThat(match.get().getPattern()).isEqualTo(2);
+    assertThat(match.get().get("object").getText()).isEqualTo("car");
+  }
+
+  @Test
+  public void testNoMatch() {
+    SpanIndex spans = spans(POS.PRON, 0, 0, POS.N, 4, 4);
+    assertThat(QUESTIONS.match(WORDS, spans).isPresent()).isFalse();
+  }
+
+  @Test
+  public void testCaptureFails() {
+    // The NP has no noun, so the first pattern falls back to the next one.
+    PatternMatcher matcher = PatternMatcher.compile("verb=V object=NP.N", "verb=V NP");
+    SpanIndex spans = spans(POS.V, 0, 0, POS.NP, 1, 1);
+    Optional<PatternMatcher.Match> match = matcher.match(WORDS.subList(1, 4), spans);
+    assertThat(match.isPresent()).isTrue();
+    assertThat(match.get().getPattern()).isEqualTo(1);
+    assertThat(match.get().get("object")).isNull();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPos() {
+    PatternMatcher.compile("kind=PRON verb=VERB");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateName() {
+    PatternMatcher.compile("{x=PRON x=V}");
+  }
+}
@@ -0,0 +1,117 @@
+package com.github.bot.curiosone.core.nlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.util.Pair;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PosTaggerTest {
+
+  private static final String CORPUS = String.join("\n",
+      "I/PRP run/VBP every/DT day/NN ./.",
+      "we/PRP run/VBP fast/RB",
+      "the/DT run/NN was/VBD long/JJ",
+      "a/DT long/JJ run/NN is/VBZ not/RB easy/JJ",
+      "they/PRP set/VBP the/DT table/NN",
+      "the/DT set/NN is/VBZ red/JJ");
+
+  private static PosTagger train() throws IOException {
+    return PosTagger.train(PosTaggerTrainer.read(new BufferedReader(new StringReader(CORPUS))));
+  }
+
+  private static Set<Meaning> meanings(POS... poses) {
+    Set<Meaning> means = new HashSet<>();
+    for (POS pos : poses) {
+      means.add(new Meaning(pos, LEX.ALL));
+    }
+    return means;
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    List<List<Pair<String, POS>>> corpus =
+        PosTaggerTrainer.read(new BufferedReader(new StringReader(CORPUS)));
+    assertThat(corpus).hasSize(6);
+    assertThat(corpus.get(0)).containsExactly(Pair.create("I", POS.PRON),
+        Pair.create("run", POS.V), Pair.create("every", POS.DET), Pair.create("day", POS.N));
+    assertThat(corpus.get(3).get(4)).isEqualTo(Pair.create("not", POS.NEG));
+  }
+
+  @Test
+  public void testTag() throws IOException {
+    PosTagger tagger = train();
+    Set<Meaning> ambiguous = meanings(POS.N, POS.V);
+    assertThat(tagger.tag(Arrays.asList("you", "run"),
+        Arrays.asList(meanings(POS.PRON), ambiguous))).containsExactly(POS.PRON, POS.V);
+    assertThat(tagger.tag(Arrays.asList("the", "run"),
+        Arrays.asList(meanings(POS.DET), ambiguous))).containsExactly(POS.DET, POS.N);
+    assertThat(tagger.tag(Arrays.asList("the", "set"),
+        Arrays.asList(meanings(POS.DET), ambiguous))).containsExactly(POS.DET, POS.N);
+  }
+
+  @Test
+  public void testPrune() throws IOException {
+    PosTagger tagger = train();
+    List<String> words = Arrays.asList("the", "run", "xyz");
+    List<Set<Meaning>> means = Arrays.asList(meanings(POS.DET),
+        meanings(POS.N, POS.V, POS.ADJ), Collections.emptySet());
+    long[] one = tagger.prune(words, means, 1);
+    assertThat(one[0]).isEqualTo(1L << POS.DET.ordinal());
+    assertThat(one[1]).isEqualTo(1L << POS.N.ordinal());
+    assertThat(one[2]).isEqualTo(0L);
+    long[] two = tagger.prune(words, means, 2);
+    assertThat(Long.bitCount(two[1])).isEqualTo(2);
+    assertThat(two[1] & one[1]).isEqualTo(one[1]);
+    long[] all = tagger.prune(words, means, 5);
+    assertThat(Long.bitCount(all[1])).isEqualTo(3);
+  }
+
+  @Test
+  public void testUnknownWord() throws IOException {
+    PosTagger tagger = train();
+    Meaning noun = new Meaning(POS.N, LEX.ARTIFACT);
+    noun.setFrequency(1);
+    Meaning verb = new Meaning(POS.V, LEX.MOTION);
+    verb.setFrequency(30);
+    Set<Meaning> means = new HashSet<>(Arrays.asList(noun, verb));
+    assertThat(tagger.tag(Collections.singletonList("zoom"),
+        Collections.singletonList(means))).containsExactly(POS.V);
+  }
+
+  @Test
+  public void testWriteRead() throws IOException {
+    PosTagger tagger = train();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    tagger.write(out);
+    PosTagger read = PosTagger.read(new ByteArrayInputStream(out.toByteArray()));
+    List<String> words = Arrays.asList("they", "run", "the", "set");
+    List<Set<Meaning>> means = Arrays.asList(meanings(POS.PRON), meanings(POS.N, POS.V),
+        meanings(POS.DET), meanings(POS.N, POS.V, POS.ADJ));
+    assertThat(read.prune(words, means, 2)).isEqualTo(tagger.prune(words, means, 2));
+    assertThat(read.tag(words, means)).containsExactly(POS.PRON, POS.V, POS.DET, POS.N);
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadBadModel() throws IOException {
+    PosTagger.read(new ByteArrayInputStream(new byte[16]));
+  }
+
+  @Test
+  public void testAccuracy() throws IOException {
+    List<List<Pair<String, POS>>> corpus =
+        PosTaggerTrainer.read(new BufferedReader(new StringReader(CORPUS)));
+    assertThat(PosTaggerTrainer.accuracy(train(), corpus)).isGreaterThan(0.9);
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.bot.curiosone.core.nlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.util.Interval;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class SpanIndexTest {
+
+  private static SpanIndex index() {
+    Map<POS, Collection<Interval>> lookup = new HashMap<>();
+    lookup.put(POS.NP, new TreeSet<>(Arrays.asList(
+        new Interval(0, 2), new Interval(0, 0), new Interval(3, 3))));
+    lookup.put(POS.VP, Arrays.asList(new Interval(2, 4), new Interval(1, 1)));
+    lookup.put(POS.ADV, new TreeSet<>());
+    return SpanIndex.of(lookup);
+  }
+
+  @Test
+  public void testHas() {
+    SpanIndex spans = index();
+    assertThat(spans.has(POS.NP)).isTrue();
+    assertThat(spans.has(POS.VP)).isTrue();
+    assertThat(spans.has(POS.ADV)).isFalse();
+    assertThat(spans.has(POS.S)).isFalse();
+    assertThat(spans.count(POS.NP)).isEqualTo(3);
+    assertThat(spans.count(POS.S)).isEqualTo(0);
+  }
+
+  @Test
+  public void testFind() {
+    SpanIndex spans = index();
+    int k = spans.find(POS.NP, 0);
+    assertThat(spans.start(POS.NP, k)).isEqualTo(0);
+    assertThat(spans.end(POS.NP, k)).isEqualTo(0);
+    k = spans.find(POS.NP, 3);
+    assertThat(spans.end(POS.NP, k)).isEqualTo(3);
+    assertThat(spans.find(POS.NP, 1)).isEqualTo(-1);
+    assertThat(spans.find(POS.NP, 4)).isEqualTo(-1);
+    assertThat(spans.find(POS.S, 0)).isEqualTo(-1);
+  }
+
+  @Test
+  public void testUnsorted() {
+    SpanIndex spans = index();
+    assertThat(spans.start(POS.VP, 0)).isEqualTo(1);
+    assertThat(spans.end(POS.VP, 1)).isEqualTo(4);
+    assertThat(spans.find(POS.VP, 2)).isEqualTo(1);
+  }
+
+  @Test
+  public void testToString() {
+    Map<POS, Collection<Interval>> lookup = new HashMap<>();
+    lookup.put(POS.NP, Arrays.asList(new Interval(0, 1), new Interval(2, 2)));
+    assertThat(SpanIndex.of(lookup).toString()).isEqualTo("{NP=[[0, 1], [2, 2]]}");
+    assertThat(SpanIndex.of(lookup)).isEqualTo(SpanIndex.of(lookup));
+  }
+}
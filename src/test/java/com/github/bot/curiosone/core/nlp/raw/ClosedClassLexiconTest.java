@@ -0,0 +1,65 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.bot.curiosone.core.nlp.LEX;
+import com.github.bot.curiosone.core.nlp.POS;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ClosedClassLexiconTest {
+
+  private static List<LEX> lexes(String word) {
+    return ClosedClassLexicon.lookup(word).stream()
+        .map(RawWord::getLexType)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testLookup() {
+    assertThat(lexes("that")).containsExactly(LEX.RELATIVE, LEX.DEMONSTRATIVE);
+    assertThat(lexes("you")).containsExactly(LEX.PERSONAL_SUBJECTIVE, LEX.PERSONAL_OBJECTIVE);
+    assertThat(lexes("thank you")).containsExactly(LEX.GRATITUDE);
+    assertThat(lexes("cat")).isEmpty();
+
+    RawWord the = ClosedClassLexicon.lookup("the").get(0);
+    assertThat(the.getLemma()).isEqualTo("the");
+    assertThat(the.getPos()).isEqualTo(POS.DET);
+    assertThat(the.getGloss()).isEqualTo("Determiners outside WordNet");
+    assertThat(ClosedClassLexicon.lookup("how").get(0).getPos()).isEqualTo(POS.ADV);
+  }
+
+  @Test
+  public void testLoad() throws IOException {
+    ClosedClassLexicon lexicon = new ClosedClassLexicon();
+    String words = "# Comment\n\nINTERJ SURPRISE wow\nPRON INDEFINITE every one\n"
+        + "INTERJ SURPRISE wow\n";
+    assertThat(lexicon.read(new BufferedReader(new StringReader(words)))).isEqualTo(3);
+    assertThat(lexicon.find("wow")).extracting(RawWord::getLexType)
+        .containsExactly(LEX.SURPRISE);
+    assertThat(lexicon.find("every one")).extracting(RawWord::getLexType)
+        .containsExactly(LEX.INDEFINITE);
+    assertThat(lexicon.find("the")).isEmpty();
+    assertThat(lexes("wow")).isEmpty();
+
+    assertThatThrownBy(() -> lexicon.read(new BufferedReader(new StringReader("INTERJ wow\n"))))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> lexicon.read(
+        new BufferedReader(new StringReader("INTERJ NOTHING wow\n"))))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> lexicon.read(
+        new BufferedReader(new StringReader("# Comment\nINTERJ SURPRISE yay\nADJ NOTHING x\n"))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("line 3");
+    assertThat(lexicon.find("yay")).extracting(RawWord::getLexType)
+        .containsExactly(LEX.SURPRISE);
+    assertThat(lexes("yay")).isEmpty();
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.nlp.raw.LexicalScanner.Kind;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class LexicalScannerTest {
+
+  private static final Pattern EMAIL = Pattern.compile(
+      "^[\\w!#$%&'*+/=?`{|}~^-]+(?:\\.[\\w!#$%&'*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+"
+      + "[a-zA-Z]{2,6}$");
+
+  private static boolean parses(String str) {
+    try {
+      Double.parseDouble(str);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static String random(Random random, String alphabet, int maxLength) {
+    StringBuilder sb = new StringBuilder();
+    int length = random.nextInt(maxLength + 1);
+    for (int i = 0; i < length; i++) {
+      sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testNumberProperty() {
+    Random random = new Random(42);
+    String[] alphabets = {"0123456789.eE+-fdDF", "0123456789abcdefxXpP.+-", "NaInfity+- 0.\t"};
+    for (int i = 0; i < 300_000; i++) {
+      String str = random(random, alphabets[i % alphabets.length], 10);
+      assertThat(LexicalScanner.isNumber(str)).as(str).isEqualTo(parses(str));
+    }
+  }
+
+  @Test
+  public void testEmailProperty() {
+    Random random = new Random(42);
+    String[] alphabets = {"ab1.@-_", "aZ.@-+!~", "ab@.c-9é"};
+    for (int i = 0; i < 300_000; i++) {
+      String str = random(random, alphabets[i % alphabets.length], 12);
+      if (i % 2 == 0) {
+        str = random(random, "a.b_!", 4) + "@" + random(random, "a1.-", 5) + "."
+            + random(random, "abc1", 7);
+      }
+      assertThat(LexicalScanner.isEmail(str)).as(str)
+          .isEqualTo(EMAIL.matcher(str).matches());
+    }
+  }
+
+  @Test
+  public void testNumber() {
+    assertThat(LexicalScanner.isNumber("42")).isTrue();
+    assertThat(LexicalScanner.isNumber("-3.14e+2")).isTrue();
+    assertThat(LexicalScanner.isNumber(" 0x1.8p1d ")).isTrue();
+    assertThat(LexicalScanner.isNumber("NaN")).isTrue();
+    assertThat(LexicalScanner.isNumber("1e")).isFalse();
+    assertThat(LexicalScanner.isNumber(".")).isFalse();
+    assertThat(LexicalScanner.isNumber("0x1")).isFalse();
+    assertThat(LexicalScanner.isNumber("")).isFalse();
+  }
+
+  @Test
+  public void testClassify() {
+    assertThat(LexicalScanner.classify("3.5")).isEqualTo(Kind.NUMBER);
+    assertThat(LexicalScanner.classify("curiosone@example.com")).isEqualTo(Kind.EMAIL);
+    assertThat(LexicalScanner.classify("https://example.com:8080/a?b=c#d")).isEqualTo(Kind.URL);
+    assertThat(LexicalScanner.classify("www.example.org")).isEqualTo(Kind.URL);
+    assertThat(LexicalScanner.classify("http://example")).isEqualTo(Kind.WORD);
+    assertThat(LexicalScanner.classify("2017-10-22")).isEqualTo(Kind.DATE);
+    assertThat(LexicalScanner.classify("22/10/2017")).isEqualTo(Kind.DATE);
+    assertThat(LexicalScanner.classify("10.22.17")).isEqualTo(Kind.DATE);
+    assertThat(LexicalScanner.classify("13/13/2017")).isEqualTo(Kind.WORD);
+    assertThat(LexicalScanner.classify("2017-13-01")).isEqualTo(Kind.WORD);
+    assertThat(LexicalScanner.classify("23:59")).isEqualTo(Kind.TIME);
+    assertThat(LexicalScanner.classify("9:05:30pm")).isEqualTo(Kind.TIME);
+    assertThat(LexicalScanner.classify("24:00")).isEqualTo(Kind.WORD);
+    assertThat(LexicalScanner.classify("10:5")).isEqualTo(Kind.WORD);
+    assertThat(LexicalScanner.classify("cat")).isEqualTo(Kind.WORD);
+  }
+}
@@ -0,0 +1,112 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.bot.curiosone.core.nlp.LEX;
+import com.github.bot.curiosone.core.nlp.POS;
+
+import edu.mit.jwi.item.LexFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class LexiconTest {
+
+  private static Lexicon lexicon;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    Path dict = Files.createTempDirectory("dict");
+    Files.write(dict.resolve("index.verb"), Arrays.asList(
+        "  1 license header",
+        "go v 2 1 @ 2 2 00000100 00000200  ",
+        "walk v 1 1 @ 1 1 00000300  "));
+    Files.write(dict.resolve("data.verb"), Arrays.asList(
+        "  1 license header",
+        "00000100 38 v 01 go 0 000 | move",
+        "00000200 30 v 01 go 0 000 | become",
+        "00000300 38 v 01 walk 0 000 | walk"));
+    Files.write(dict.resolve("index.noun"), Arrays.asList(
+        "walk n 1 1 @ 1 0 00000400  ",
+        "man n 1 1 @ 1 0 00000500  "));
+    Files.write(dict.resolve("data.noun"), Arrays.asList(
+        "00000400 04 n 01 walk 0 000 | a walk",
+        "00000500 18 n 01 man 0 000 | a man"));
+    Files.write(dict.resolve("verb.exc"), Arrays.asList("went go"));
+    Files.write(dict.resolve("cntlist.rev"), Arrays.asList(
+        "go%2:38:00:: 1 7",
+        "go%2:30:00:: 2 3",
+        "walk%2:38:00:: 1 5"));
+    Path file = dict.resolve("lexicon.bin");
+    assertThat(LexiconBuilder.build(dict, file)).isEqualTo(4);
+    lexicon = Lexicon.open(file);
+  }
+
+  @Test
+  public void testFind() {
+    assertThat(lexicon.size()).isEqualTo(4);
+    assertThat(lexicon.find("go")).isGreaterThanOrEqualTo(0);
+    assertThat(lexicon.getKey(lexicon.find("walk"))).isEqualTo("walk");
+    assertThat(lexicon.find("run")).isEqualTo(-1);
+    assertThat(lexicon.find("")).isEqualTo(-1);
+  }
+
+  @Test
+  public void testSenses() {
+    int go = lexicon.find("go");
+    assertThat(lexicon.getSenseEnd(go) - lexicon.getSenseStart(go)).isEqualTo(2);
+    int first = lexicon.getSenseStart(go);
+    assertThat(lexicon.getPos(first)).isEqualTo(POS.V);
+    assertThat(lexicon.getLex(first)).isEqualTo(LEX.MOTION);
+    assertThat(lexicon.getTagCount(first)).isEqualTo(7);
+    assertThat(lexicon.getLex(first + 1)).isEqualTo(LEX.CHANGE);
+    assertThat(lexicon.getTagCount(first + 1)).isEqualTo(3);
+
+    int walk = lexicon.find("walk");
+    assertThat(lexicon.hasPos(walk, POS.N)).isTrue();
+    assertThat(lexicon.hasPos(walk, POS.V)).isTrue();
+    assertThat(lexicon.hasPos(walk, POS.ADJ)).isFalse();
+    assertThat(lexicon.getLex(lexicon.getSenseStart(walk))).isEqualTo(LEX.ACT);
+  }
+
+  @Test
+  public void testExceptions() {
+    int went = lexicon.find("went");
+    assertThat(lexicon.getSenseEnd(went)).isEqualTo(lexicon.getSenseStart(went));
+    assertThat(lexicon.getExceptions(went, POS.V)).containsExactly("go");
+    assertThat(lexicon.getExceptions(went, POS.N)).isEmpty();
+  }
+
+  @Test
+  public void testMorphology() {
+    Morphology morphology = new Morphology(lexicon);
+    assertThat(morphology.findStems("went", POS.V)).containsExactly("go");
+    assertThat(morphology.findStems("Walking", POS.V)).containsExactly("walk");
+    assertThat(morphology.findStems("walks", POS.N)).containsExactly("walk");
+    assertThat(morphology.findStems("men", POS.N)).containsExactly("man");
+    assertThat(morphology.findStems("walked", POS.N)).isEmpty();
+    assertThat(morphology.findStems(" ", POS.V)).isEmpty();
+  }
+
+  @Test
+  public void testLexesMatchJwi() {
+    for (int i = 0; i < Lexicon.LEXES.length; i++) {
+      String name = LexFile.getLexicalFile(i).getName();
+      assertThat(Lexicon.LEXES[i]).as(name)
+          .isEqualTo(LEX.valueOf(name.split("\\.")[1].toUpperCase()));
+    }
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThatThrownBy(() -> new Lexicon(ByteBuffer.allocate(64)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
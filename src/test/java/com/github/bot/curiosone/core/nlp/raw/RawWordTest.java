@@ -0,0 +1,38 @@
+package com.github.bot.curiosone.core.nlp.raw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.nlp.LEX;
+import com.github.bot.curiosone.core.nlp.POS;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RawWordTest {
+
+  private static RawWord lexiconWord(String lemma, LEX lex) {
+    RawWord word = new RawWord();
+    word.setLemma(lemma);
+    word.setPos(POS.V);
+    word.setLexType(lex);
+    word.setNum(7);
+    return word;
+  }
+
+  @Test
+  public void testEqualsWithoutId() {
+    RawWord go = lexiconWord("go", LEX.MOTION);
+    assertThat(go).isEqualTo(lexiconWord("go", LEX.MOTION));
+    assertThat(go.hashCode()).isEqualTo(lexiconWord("go", LEX.MOTION).hashCode());
+    assertThat(go).isNotEqualTo(lexiconWord("go", LEX.CHANGE));
+    assertThat(go).isNotEqualTo(lexiconWord("walk", LEX.MOTION));
+
+    Set<RawWord> words = new HashSet<>();
+    words.add(go);
+    words.add(lexiconWord("go", LEX.MOTION));
+    words.add(lexiconWord("go", LEX.CHANGE));
+    assertThat(words).hasSize(2);
+  }
+}
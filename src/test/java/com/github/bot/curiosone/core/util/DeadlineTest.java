@@ -0,0 +1,54 @@
+package com.github.bot.curiosone.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class DeadlineTest {
+
+  @Test
+  public void testNone() {
+    Deadline d = Deadline.none();
+    assertThat(d.isBounded()).isFalse();
+    assertThat(d.isExpired()).isFalse();
+    assertThat(d.remaining(TimeUnit.MILLISECONDS)).isEqualTo(Long.MAX_VALUE);
+    d.check("parse");
+  }
+
+  @Test
+  public void testAfter() throws InterruptedException {
+    Deadline d = Deadline.after(50);
+    assertThat(d.isBounded()).isTrue();
+    assertThat(d.isExpired()).isFalse();
+    assertThat(d.remaining(TimeUnit.MILLISECONDS)).isBetween(0L, 50L);
+    Thread.sleep(100);
+    assertThat(d.isExpired()).isTrue();
+    assertThat(d.remaining(TimeUnit.MILLISECONDS)).isZero();
+    assertThatThrownBy(() -> d.check("parse"))
+        .isInstanceOf(DeadlineExceededException.class)
+        .hasMessageContaining("parse");
+  }
+
+  @Test
+  public void testGet() {
+    assertThat(Deadline.after(1000).get(CompletableFuture.completedFuture(42), "compute"))
+        .isEqualTo(42);
+    assertThat(Deadline.none().get(CompletableFuture.completedFuture(42), "compute"))
+        .isEqualTo(42);
+
+    try {
+      Deadline.after(10).get(new CompletableFuture<Integer>(), "compute");
+    } catch (DeadlineExceededException e) {
+      assertThat(e.getStage()).isEqualTo("compute");
+    }
+
+    CompletableFuture<Integer> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("boom"));
+    assertThatThrownBy(() -> Deadline.after(1000).get(failed, "compute"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,64 @@
+package com.github.bot.curiosone.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.bot.curiosone.core.metrics.Metrics;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ResourcesTest {
+
+  private static final String GRAMMAR = "/cyk/grammar.txt";
+
+  @Test
+  public void testForEachLine() throws IOException {
+    List<String> lines = new ArrayList<>();
+    Resources.forEachLine(GRAMMAR, lines::add);
+    assertThat(lines).isNotEmpty();
+    assertThat(lines.get(0)).isEqualTo("S VP NP");
+  }
+
+  @Test
+  public void testOpenAndMap() throws IOException {
+    ByteBuffer buffer = Resources.map(GRAMMAR);
+    assertThat(buffer).isNotNull();
+    int read = 0;
+    try (InputStream in = Resources.open(GRAMMAR)) {
+      while (in.read() != -1) {
+        read++;
+      }
+    }
+    assertThat(read).isEqualTo(buffer.remaining());
+  }
+
+  @Test
+  public void testPath() {
+    assertThat(Resources.path(GRAMMAR)).isNotNull();
+    assertThat(Resources.path("/missing.txt")).isNull();
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testOpenMissing() throws IOException {
+    Resources.open("/missing.txt");
+  }
+
+  @Test
+  public void testMapMissing() throws IOException {
+    assertThat(Resources.map("/missing.txt")).isNull();
+  }
+
+  @Test
+  public void testMetrics() throws IOException {
+    Resources.forEachLine(GRAMMAR, line -> { });
+    String scrape = Metrics.scrape();
+    assertThat(scrape).contains(Resources.LOAD_METRIC).contains(Resources.BYTES_METRIC)
+        .contains(GRAMMAR);
+  }
+}
@@ -0,0 +1,92 @@
+package com.github.bot.curiosone.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SerialExecutorTest {
+
+  @Test
+  public void testOrder() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      SerialExecutor executor = new SerialExecutor(pool, 1000);
+      List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+      AtomicInteger running = new AtomicInteger();
+      AtomicInteger overlaps = new AtomicInteger();
+      CountDownLatch done = new CountDownLatch(500);
+      for (int i = 0; i < 500; i++) {
+        int n = i;
+        executor.execute(() -> {
+          if (running.incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+          }
+          seen.add(n);
+          running.decrementAndGet();
+          done.countDown();
+        });
+      }
+      assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(overlaps.get()).isZero();
+      for (int i = 0; i < 500; i++) {
+        assertThat(seen.get(i)).isEqualTo(i);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMaxQueued() throws InterruptedException {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      SerialExecutor executor = new SerialExecutor(pool, 2);
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch started = new CountDownLatch(1);
+      executor.execute(() -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      started.await();
+      executor.execute(() -> { });
+      executor.execute(() -> { });
+      assertThat(executor.getQueued()).isEqualTo(2);
+      assertThatThrownBy(() -> executor.execute(() -> { }))
+          .isInstanceOf(RejectedExecutionException.class);
+      release.countDown();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailingTask() throws InterruptedException {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      SerialExecutor executor = new SerialExecutor(pool, 10);
+      CountDownLatch done = new CountDownLatch(1);
+      executor.execute(() -> {
+        throw new IllegalStateException("boom");
+      });
+      executor.execute(done::countDown);
+      assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.github.bot.curiosone.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SingleFlightCacheTest {
+
+  @Test
+  public void testCoalescesConcurrentCalls() throws Exception {
+    SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(0, 10);
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      results.add(pool.submit(() -> cache.get("hi", k -> {
+        calls.incrementAndGet();
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return 42;
+      })));
+      started.await();
+      for (int i = 0; i < 7; i++) {
+        results.add(pool.submit(() -> cache.get("hi", k -> calls.incrementAndGet())));
+      }
+      Thread.sleep(50);
+      release.countDown();
+      for (Future<Integer> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+      }
+      assertThat(calls.get()).isEqualTo(1);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testNoCachingWithoutTtl() {
+    SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(0, 10);
+    AtomicInteger calls = new AtomicInteger();
+    cache.get("hi", k -> calls.incrementAndGet());
+    cache.get("hi", k -> calls.incrementAndGet());
+    assertThat(calls.get()).isEqualTo(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void testCachingWithTtl() throws InterruptedException {
+    SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(50, 10);
+    AtomicInteger calls = new AtomicInteger();
+    assertThat(cache.get("hi", k -> calls.incrementAndGet())).isEqualTo(1);
+    assertThat(cache.get("hi", k -> calls.incrementAndGet())).isEqualTo(1);
+    assertThat(cache.get("hello", k -> calls.incrementAndGet())).isEqualTo(2);
+    Thread.sleep(100);
+    assertThat(cache.get("hi", k -> calls.incrementAndGet())).isEqualTo(3);
+  }
+
+  @Test
+  public void testMaxSize() {
+    SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(60_000, 5);
+    for (int i = 0; i < 100; i++) {
+      cache.get(i, k -> k);
+    }
+    assertThat(cache.size()).isLessThanOrEqualTo(5);
+    cache.clear();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void testFailuresAreNotCached() {
+    SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(60_000, 10);
+    assertThatThrownBy(() -> cache.get("hi", k -> {
+      throw new IllegalStateException("boom");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(cache.get("hi", k -> 42)).isEqualTo(42);
+  }
+
+  @Test
+  public void testConfigure() {
+    assertThatThrownBy(() -> new SingleFlightCache<String, Integer>(-1, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(60_000, 10);
+    cache.get("hi", k -> 1);
+    cache.configure(0, 10);
+    assertThat(cache.size()).isZero();
+  }
+}
@@ -0,0 +1,129 @@
+package com.github.bot.curiosone.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class WarmImageTest {
+
+  private static final String GRAMMAR = "/cyk/grammar.txt";
+
+  private static final String BAD_WORDS = "/conversation/bad_words.txt";
+
+  private static WarmImage.Section section(String name, String source, List<String> read) {
+    return section(name, source, 1, read);
+  }
+
+  private static WarmImage.Section section(String name, String source, int version,
+                                           List<String> read) {
+    return new WarmImage.Section(name, source, version, out -> {
+      WarmImage.writeStrings(out, new String[] {name, "è", ""});
+      out.writeDouble(0.5);
+    }, buffer -> {
+      read.addAll(Arrays.asList(WarmImage.readStrings(buffer)));
+      read.add(String.valueOf(buffer.getDouble()));
+    });
+  }
+
+  @Test
+  public void testWriteRead() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      WarmImage.write(path, Arrays.asList(section("a", GRAMMAR, new ArrayList<>()),
+          section("b", BAD_WORDS, new ArrayList<>())));
+      List<String> a = new ArrayList<>();
+      List<String> b = new ArrayList<>();
+      assertThat(WarmImage.read(path, Arrays.asList(section("b", BAD_WORDS, b),
+          section("a", GRAMMAR, a)))).isEqualTo(2);
+      assertThat(a).containsExactly("a", "è", "", "0.5");
+      assertThat(b).containsExactly("b", "è", "", "0.5");
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testChangedSource() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      WarmImage.write(path, Arrays.asList(section("a", GRAMMAR, new ArrayList<>()),
+          section("b", GRAMMAR, new ArrayList<>())));
+      List<String> a = new ArrayList<>();
+      List<String> b = new ArrayList<>();
+      assertThat(WarmImage.read(path, Arrays.asList(section("a", GRAMMAR, a),
+          section("b", BAD_WORDS, b), section("c", GRAMMAR, new ArrayList<>())))).isEqualTo(1);
+      assertThat(a).hasSize(4);
+      assertThat(b).isEmpty();
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testChangedVersion() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      WarmImage.write(path, Arrays.asList(section("a", GRAMMAR, new ArrayList<>()),
+          section("b", GRAMMAR, new ArrayList<>())));
+      List<String> a = new ArrayList<>();
+      List<String> b = new ArrayList<>();
+      assertThat(WarmImage.read(path, Arrays.asList(section("a", GRAMMAR, 2, a),
+          section("b", GRAMMAR, b)))).isEqualTo(1);
+      assertThat(a).isEmpty();
+      assertThat(b).hasSize(4);
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testFailingReader() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      WarmImage.write(path, Arrays.asList(section("a", GRAMMAR, new ArrayList<>()),
+          section("b", GRAMMAR, new ArrayList<>())));
+      List<String> b = new ArrayList<>();
+      WarmImage.Section failing = new WarmImage.Section("a", GRAMMAR, 1, out -> { }, buffer -> {
+        throw new IllegalArgumentException("Stale layout");
+      });
+      assertThat(WarmImage.read(path, Arrays.asList(failing, section("b", GRAMMAR, b))))
+          .isEqualTo(1);
+      assertThat(b).hasSize(4);
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testCorrupted() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      WarmImage.write(path, Collections.singletonList(section("a", GRAMMAR, new ArrayList<>())));
+      byte[] bytes = Files.readAllBytes(path);
+      bytes[bytes.length / 2] ^= 1;
+      Files.write(path, bytes);
+      WarmImage.read(path, Collections.singletonList(section("a", GRAMMAR, new ArrayList<>())));
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotAnImage() throws IOException {
+    Path path = Files.createTempFile("warm", ".img");
+    try {
+      Files.write(path, new byte[32]);
+      WarmImage.read(path, Collections.emptyList());
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+}
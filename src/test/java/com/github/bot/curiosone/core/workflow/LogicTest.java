@@ -4,7 +4,16 @@ import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.anyOf;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.github.bot.curiosone.core.extraction.BrainResponse;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.google.gson.Gson;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 
@@ -127,4 +136,73 @@ public class LogicTest {
     assertThat(msg.getMessage()).containsIgnoringCase("dog");
     assertThat(msg.getScope()).containsIgnoringCase("dog");
   }
+
+  @Test
+  public void testMultiplePhrases() {
+    Message msg = Logic.talk(new Message("Hi! What is a dog?", "", ""));
+    assertThat(msg.getMessage()).containsIgnoringCase("dog");
+    assertThat(msg.getScope()).containsIgnoringCase("dog");
+    assertThat(msg.getEmotion()).isNotEmpty();
+
+    msg = Logic.talk(new Message("What is a dog? What is apple?", "", ""));
+    assertThat(msg.getMessage()).containsIgnoringCase("dog").containsIgnoringCase("apple");
+    assertThat(msg.getScope()).containsIgnoringCase("apple");
+  }
+
+  @Test
+  public void testDeadline() {
+    Message msg = Logic.talk(new Message("What is a dog?", "", ""), Deadline.after(0));
+    assertThat(msg.getMessage()).isNotEmpty();
+    assertThat(msg.getSkipped()).isNotEmpty();
+
+    msg = Logic.talk(new Message("What is a dog?", "", ""), Deadline.after(60_000));
+    assertThat(msg.getMessage()).containsIgnoringCase("dog");
+    assertThat(msg.getSkipped()).isEmpty();
+  }
+
+  @Test
+  public void testConversationWithoutScope() {
+    Message msg = new Gson().fromJson("{\"message\":\"hi\",\"conversation\":\"logic-test\"}",
+        Message.class);
+    Message reply = Logic.talk(msg);
+    assertThat(reply.getMessage()).isNotEmpty();
+    assertThat(reply.getConversation()).isEqualTo("logic-test");
+  }
+
+  @Test(timeout = 60_000)
+  public void testMorePhrasesThanWorkers() {
+    Stages.register("test.slow", (inputs, deadline) -> {
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new BrainResponse("ok", "");
+    });
+    Properties config = new Properties();
+    config.setProperty("stages", "a, b");
+    config.setProperty("stage.a.type", "test.slow");
+    config.setProperty("stage.a.inputs", "phrase");
+    config.setProperty("stage.a.output", "x");
+    config.setProperty("stage.b.type", "test.slow");
+    config.setProperty("stage.b.inputs", "phrase");
+    config.setProperty("stage.b.output", "y");
+    config.setProperty("reply", "x");
+    config.setProperty("timeout.reply", "y");
+    Logic.setPipeline(Pipeline.fromProperties(config));
+    try {
+      int workers = Runtime.getRuntime().availableProcessors();
+      String text = String.join(" ", Collections.nCopies(2 * workers + 1, "Hi!"));
+      List<CompletableFuture<Message>> replies = new ArrayList<>();
+      for (int i = 0; i < 2 * workers; i++) {
+        replies.add(CompletableFuture.supplyAsync(() -> Logic.talk(new Message(text, "", ""),
+            Deadline.none())));
+      }
+      for (CompletableFuture<Message> reply : replies) {
+        assertThat(reply.join().getMessage()).startsWith("ok");
+      }
+    } finally {
+      Logic.setPipeline(Pipeline.getDefault());
+    }
+  }
 }
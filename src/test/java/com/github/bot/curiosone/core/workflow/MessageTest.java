@@ -3,6 +3,8 @@ package com.github.bot.curiosone.core.workflow;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import com.google.gson.Gson;
+
 import org.junit.Test;
 
 public class MessageTest {
@@ -173,4 +175,47 @@ public class MessageTest {
     assertThat(m.hashCode()).isNotEqualTo(mm.hashCode());
     assertThat(m).isNotEqualTo(mm);
   }
+
+  @Test
+  public void testGetSkipped() {
+    assertThat(new Message("Text", "Scope", "happy").getSkipped()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", null).getSkipped()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", "parse").getSkipped()).isEqualTo("parse");
+    assertThat(new Message("Text", "Scope", "happy", "parse"))
+        .isEqualTo(new Message("Text", "Scope", "happy"));
+  }
+
+  @Test
+  public void testGetConversation() {
+    assertThat(new Message("Text", "Scope", "happy").getConversation()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", "", null).getConversation()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", "", "42").getConversation()).isEqualTo("42");
+    assertThat(new Message("Text", "Scope", "happy", "", "42"))
+        .isEqualTo(new Message("Text", "Scope", "happy"));
+  }
+
+  @Test
+  public void testGetSource() {
+    assertThat(new Message("Text", "Scope", "happy").getSource()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", "", "", null).getSource()).isEmpty();
+    assertThat(new Message("Text", "Scope", "happy", "", "", "answer").getSource())
+        .isEqualTo("answer");
+    assertThat(new Message("Text", "Scope", "happy", "", "", "answer"))
+        .isEqualTo(new Message("Text", "Scope", "happy"));
+  }
+
+  @Test
+  public void testMissingJsonFields() {
+    Message m = new Gson().fromJson("{\"message\":\"hi\",\"conversation\":\"abc\"}",
+        Message.class);
+    assertThat(m.getMessage()).isEqualTo("hi");
+    assertThat(m.getScope()).isEmpty();
+    assertThat(m.getEmotion()).isEmpty();
+    assertThat(m.getConversation()).isEqualTo("abc");
+    assertThat(m).isEqualTo(new Message("hi", "", ""));
+
+    m = new Gson().fromJson("{}", Message.class);
+    assertThat(m.getMessage()).isEmpty();
+    assertThat(m.hashCode()).isEqualTo(new Message("", "", "").hashCode());
+  }
 }
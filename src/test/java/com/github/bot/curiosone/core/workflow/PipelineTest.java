@@ -0,0 +1,202 @@
+package com.github.bot.curiosone.core.workflow;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.bot.curiosone.core.extraction.BrainResponse;
+import com.github.bot.curiosone.core.util.Deadline;
+import com.github.bot.curiosone.core.util.DeadlineExceededException;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PipelineTest {
+
+  private static ExecutorService executor;
+
+  @BeforeClass
+  public static void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    Stages.register("test.echo", (inputs, deadline) ->
+        new BrainResponse(String.valueOf(inputs.get(0)), ""));
+    Stages.register("test.none", (inputs, deadline) -> Optional.empty());
+    Stages.register("test.list", (inputs, deadline) -> Collections.emptyList());
+    Stages.register("test.late", (inputs, deadline) -> {
+      throw new DeadlineExceededException("late");
+    });
+    Stages.register("test.slow", (inputs, deadline) -> {
+      try {
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      deadline.check("slow");
+      return new double[2];
+    });
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static Properties config(String... entries) {
+    Properties config = new Properties();
+    for (int i = 0; i < entries.length; i += 2) {
+      config.setProperty(entries[i], entries[i + 1]);
+    }
+    return config;
+  }
+
+  private static Context run(Pipeline pipeline) {
+    Context context = new Context(Collections.singletonMap("phrase", "hello"));
+    pipeline.run(context, Deadline.none(), executor);
+    return context;
+  }
+
+  @Test
+  public void testDefault() {
+    Pipeline pipeline = Pipeline.getDefault();
+    assertThat(pipeline.getLevels()).containsExactly(
+        asList("emotion", "conversate"), asList("parse"), asList("compute"));
+  }
+
+  @Test
+  public void testLevels() {
+    Pipeline pipeline = Pipeline.fromProperties(config(
+        "stages", "c, a, b",
+        "stage.a.type", "test.echo", "stage.a.inputs", "phrase", "stage.a.output", "x",
+        "stage.b.type", "test.echo", "stage.b.inputs", "phrase", "stage.b.output", "y",
+        "stage.c.type", "test.echo", "stage.c.inputs", "x", "stage.c.output", "z",
+        "stage.c.after", "b",
+        "reply", "z", "timeout.reply", "x"));
+    assertThat(pipeline.getLevels()).containsExactly(asList("a", "b"), asList("c"));
+
+    Context context = run(pipeline);
+    assertThat(context.isUnderstood()).isTrue();
+    assertThat(context.getSkipped()).isEmpty();
+    assertThat(context.getReply().get().getMessage()).contains("hello");
+  }
+
+  @Test
+  public void testRules() {
+    Properties config = config(
+        "stages", "none, list, filler, answer",
+        "stage.none.type", "test.none", "stage.none.output", "nothing",
+        "stage.list.type", "test.list", "stage.list.output", "sentences",
+        "stage.list.after", "none",
+        "stage.filler.type", "test.echo", "stage.filler.inputs", "phrase",
+        "stage.filler.output", "filler", "stage.filler.lazy", "true",
+        "stage.answer.type", "test.echo", "stage.answer.inputs", "sentences",
+        "stage.answer.output", "answer",
+        "rules", "found, unparsed",
+        "rule.found.when", "nothing", "rule.found.reply", "nothing",
+        "rule.unparsed.when", "!sentences", "rule.unparsed.reply", "filler",
+        "rule.unparsed.understood", "false",
+        "reply", "answer", "timeout.reply", "filler");
+    Pipeline pipeline = Pipeline.fromProperties(config);
+    assertThat(pipeline.getLevels())
+        .containsExactly(asList("none"), asList("list"), asList("answer"));
+
+    Context context = run(pipeline);
+    assertThat(context.isUnderstood()).isFalse();
+    assertThat(context.getReply().get().getMessage()).isEqualTo("hello");
+    assertThat(context.has("answer")).isFalse();
+    assertThat(context.getSource()).isEqualTo("filler");
+
+    config.setProperty("rules", "");
+    context = run(Pipeline.fromProperties(config));
+    assertThat(context.isUnderstood()).isTrue();
+    assertThat(context.getReply().get().getMessage()).isEqualTo("[]");
+    assertThat(context.has("filler")).isFalse();
+    assertThat(context.getSource()).isEqualTo("answer");
+  }
+
+  @Test
+  public void testTimeout() {
+    Context context = run(Pipeline.fromProperties(config(
+        "stages", "late, filler",
+        "stage.late.type", "test.late", "stage.late.output", "answer",
+        "stage.filler.type", "test.echo", "stage.filler.inputs", "phrase",
+        "stage.filler.output", "filler", "stage.filler.lazy", "true",
+        "reply", "answer", "timeout.reply", "filler")));
+    assertThat(context.isUnderstood()).isFalse();
+    assertThat(context.getSkipped()).isEqualTo("late");
+    assertThat(context.getSource()).isEqualTo("filler");
+    assertThat(context.getReply().get().getMessage()).isEqualTo("hello");
+  }
+
+  @Test
+  public void testTimeoutReplySoFar() {
+    Properties config = config(
+        "stages", "conversate, slow, filler",
+        "stage.conversate.type", "test.echo", "stage.conversate.inputs", "phrase",
+        "stage.conversate.output", "conversation",
+        "stage.slow.type", "test.slow", "stage.slow.output", "sentiment",
+        "stage.filler.type", "test.none", "stage.filler.output", "filler",
+        "stage.filler.lazy", "true",
+        "rules", "conversation",
+        "rule.conversation.when", "conversation", "rule.conversation.reply", "conversation",
+        "reply", "conversation", "timeout.reply", "filler");
+    Context context = new Context(Collections.singletonMap("phrase", "hello"));
+    Pipeline.fromProperties(config).run(context, Deadline.after(50), executor);
+    assertThat(context.isUnderstood()).isTrue();
+    assertThat(context.getSkipped()).isEqualTo("slow");
+    assertThat(context.getSource()).isEqualTo("conversation");
+    assertThat(context.getReply().get().getMessage()).isEqualTo("hello");
+
+    config.setProperty("stage.conversate.type", "test.none");
+    context = new Context(Collections.singletonMap("phrase", "hello"));
+    Pipeline.fromProperties(config).run(context, Deadline.after(50), executor);
+    assertThat(context.isUnderstood()).isFalse();
+    assertThat(context.getSkipped()).isEqualTo("slow");
+    assertThat(context.getSource()).isEqualTo("filler");
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThatThrownBy(() -> Pipeline.fromProperties(config(
+        "stages", "a", "stage.a.type", "test.missing", "stage.a.output", "x",
+        "reply", "x", "timeout.reply", "x")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Pipeline.fromProperties(config(
+        "stages", "a", "stage.a.type", "test.echo", "stage.a.inputs", "y",
+        "stage.a.output", "x", "reply", "x", "timeout.reply", "x")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Pipeline.fromProperties(config(
+        "stages", "a, b",
+        "stage.a.type", "test.echo", "stage.a.inputs", "y", "stage.a.output", "x",
+        "stage.b.type", "test.echo", "stage.b.inputs", "x", "stage.b.output", "y",
+        "reply", "x", "timeout.reply", "x")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Cycle");
+    assertThatThrownBy(() -> Pipeline.fromProperties(config(
+        "stages", "a, b",
+        "stage.a.type", "test.echo", "stage.a.output", "x",
+        "stage.b.type", "test.echo", "stage.b.output", "x",
+        "reply", "x", "timeout.reply", "x")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Pipeline.fromProperties(config(
+        "stages", "a", "stage.a.type", "test.echo", "stage.a.output", "x")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("reply");
+  }
+
+  @Test
+  public void testIsEmpty() {
+    assertThat(Pipeline.isEmpty(null)).isTrue();
+    assertThat(Pipeline.isEmpty(Optional.empty())).isTrue();
+    assertThat(Pipeline.isEmpty(Collections.emptyList())).isTrue();
+    assertThat(Pipeline.isEmpty("")).isTrue();
+    assertThat(Pipeline.isEmpty(Optional.of(1))).isFalse();
+    assertThat(Pipeline.isEmpty(new double[0])).isFalse();
+  }
+}
@@ -0,0 +1,80 @@
+package com.github.bot.curiosone.core.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class SessionStoreTest {
+
+  @Test
+  public void testGet() {
+    SessionStore store = new SessionStore(60_000, 10);
+    Session session = store.get("a");
+    assertThat(session.getId()).isEqualTo("a");
+    assertThat(session.getScope()).isEmpty();
+    assertThat(store.get("a")).isSameAs(session);
+    assertThat(store.get("b")).isNotSameAs(session);
+    assertThat(store.size()).isEqualTo(2);
+
+    store.clear();
+    assertThat(store.size()).isZero();
+    assertThatThrownBy(() -> store.configure(0, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testLastAccess() {
+    SessionStore store = new SessionStore(60_000, 10);
+    assertThat(store.getLastAccess("a")).isZero();
+    long access = store.get("a").getLastAccess();
+    assertThat(store.getLastAccess("a")).isEqualTo(access);
+    assertThat(store.size()).isEqualTo(1);
+
+    store.remove("a");
+    assertThat(store.getLastAccess("a")).isZero();
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  public void testRecord() {
+    Session session = new SessionStore(60_000, 10).get("a");
+    session.record(new Message("Mhh! What is a pear?", "pear?", ""));
+    assertThat(session.getScope()).isEqualTo("pear?");
+    session.record(
+        new Message("Wow really interesting! Now I know that a pear is a fruit.", "fruit", ""));
+    assertThat(session.getScope()).isEqualTo("fruit");
+  }
+
+  @Test
+  public void testEvict() {
+    SessionStore store = new SessionStore(60_000, 100);
+    for (int i = 0; i < 1000; i++) {
+      store.get("s" + i);
+      assertThat(store.size()).isLessThanOrEqualTo(100);
+    }
+    assertThat(store.evict(System.currentTimeMillis() + 120_000)).isGreaterThan(0);
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  public void testSnapshot() throws IOException {
+    SessionStore store = new SessionStore(60_000, 10);
+    store.get("a").record(new Message("Wow!", "fruit", ""));
+    store.get("b");
+    Path path = Files.createTempFile("sessions", ".jsonl");
+    try {
+      store.snapshot(path);
+      SessionStore restored = new SessionStore(60_000, 10);
+      assertThat(restored.restore(path)).isEqualTo(2);
+      Session session = restored.get("a");
+      assertThat(session.getScope()).isEqualTo("fruit");
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+}